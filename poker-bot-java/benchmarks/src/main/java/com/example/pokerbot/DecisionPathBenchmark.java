@@ -0,0 +1,96 @@
+package com.example.pokerbot;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pokerbot.blueprint.BlueprintAbstraction;
+import com.example.pokerbot.blueprint.BlueprintTable;
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.eval.MonteCarloEquity;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.stats.OpponentStats;
+import com.example.pokerbot.strategy.BlueprintStrategy;
+
+/**
+ * One whole decision in a session: frames go in through the socket listener, are queued,
+ * decoded and turn-checked, and an action comes out on the socket. Each operation replays one
+ * recorded turn (a state from before the deal, our hole cards, the prompt), so every operation
+ * decides exactly once. With {@code ai} the equity is computed with the application defaults and
+ * the stubbed Gemini answers at once, so the time is ours alone; {@code blueprint} plays the
+ * bundled table. Speculation is off and messages are handled on the calling thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecisionPathBenchmark {
+    @Param({"ai", "blueprint"})
+    public String strategy;
+
+    private Stubs.ServerClient server;
+    private GeminiAiService geminiAiService;
+    private PokerWebSocketClient session;
+    private List<Fixtures.Turn> turns;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        turns = new Fixtures().turns;
+        PreflopTable preflopTable = PreflopTable.mapResource();
+        // bot.equity.* defaults: 200000 samples, 20 ms, exact below 500000
+        EquityCalculator equity = new EquityCalculator(new MonteCarloEquity(), preflopTable, 500_000,
+            200_000, TimeUnit.MILLISECONDS.toNanos(20));
+        BlueprintStrategy blueprint = "blueprint".equals(strategy)
+            ? new BlueprintStrategy(new BlueprintAbstraction(preflopTable), BlueprintTable.mapResource())
+            : null;
+
+        DecisionMetrics metrics = Stubs.metrics();
+        geminiAiService = Stubs.geminiAiService(metrics);
+        server = new Stubs.ServerClient();
+        // bot.decision.deadline-ms default, no speculation, no ICM
+        PokerWebSocketClient.Settings settings = new PokerWebSocketClient.Settings(5000, 0, false, false, null);
+        session = new PokerWebSocketClient(Fixtures.HERO, "ws://benchmark.invalid", server, Runnable::run, settings,
+            geminiAiService, equity, null, new OpponentStats(), null, blueprint, metrics);
+        session.connect();
+
+        for (int i = 0; i < turns.size(); i++) {
+            long sent = server.socket.sent;
+            decide();
+            if (server.socket.sent != sent + 1) {
+                throw new IllegalStateException("Turn " + i + " sent " + (server.socket.sent - sent) + " actions");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public String decide() {
+        Fixtures.Turn turn = turns.get(next);
+        next = next + 1 == turns.size() ? 0 : next + 1;
+        server.receive(turn.before());
+        server.receive(turn.hand());
+        server.receive(turn.state());
+        return server.socket.last;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.pokerbot;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.example.pokerbot.codec.MessageDecoder;
+import com.example.pokerbot.model.GameState;
+
+/**
+ * Decoding one recorded state frame, three ways: the original {@code readTree} then
+ * {@code treeToValue}, a single data-binding pass into an envelope class, and the streaming
+ * {@link MessageDecoder} the sessions use. Frames are taken round-robin from the fixtures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+    public static class StateMessage {
+        public String type;
+        public GameState payload;
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader envelopeReader = objectMapper.readerFor(StateMessage.class);
+    private final MessageDecoder decoder = new MessageDecoder(objectMapper);
+    private List<String> frames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        frames = new Fixtures().stateFrames;
+    }
+
+    private String nextFrame() {
+        String frame = frames.get(next);
+        next = next + 1 == frames.size() ? 0 : next + 1;
+        return frame;
+    }
+
+    @Benchmark
+    public GameState treeThenTreeToValue() throws IOException {
+        JsonNode root = objectMapper.readTree(nextFrame());
+        return objectMapper.treeToValue(root.get("payload"), GameState.class);
+    }
+
+    @Benchmark
+    public GameState envelopeDataBinding() throws IOException {
+        StateMessage message = envelopeReader.readValue(nextFrame());
+        return message.payload;
+    }
+
+    @Benchmark
+    public GameState streamingDecoder() throws IOException {
+        decoder.decode(nextFrame());
+        return decoder.getState();
+    }
+}
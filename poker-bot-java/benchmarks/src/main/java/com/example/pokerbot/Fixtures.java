@@ -0,0 +1,170 @@
+package com.example.pokerbot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.pokerbot.eval.EquityResult;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiContext;
+
+/**
+ * Frames recorded from a six-handed table on {@link com.example.pokerbot.sim.SimulatorServer},
+ * as the session named {@value #HERO} received them (one frame per line, in order). Benchmarks
+ * replay them instead of made-up states so the sizes and the mix of message types are real.
+ */
+final class Fixtures {
+    static final String HERO = "Hero";
+    static final String RESOURCE = "/fixtures/frames.jsonl";
+
+    /**
+     * One of our turns: a state from before the hand was dealt, our hole cards, and the state
+     * prompting us. Replayed in that order they make a fresh session act exactly once.
+     */
+    record Turn(String before, String hand, String state) {
+    }
+
+    final List<String> frames;
+    final List<String> stateFrames;
+    /** Per state frame: our hole cards for a new hand arrived just before it */
+    final boolean[] dealtBefore;
+    final List<Turn> turns = new ArrayList<>();
+    final String heroId;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    Fixtures() {
+        frames = read();
+        stateFrames = frames.stream().filter(f -> type(f).equals("state")).collect(Collectors.toList());
+        heroId = findHeroId();
+        dealtBefore = new boolean[stateFrames.size()];
+        int states = 0;
+        for (String frame : frames) {
+            if (type(frame).equals("player_hand") && states < dealtBefore.length) dealtBefore[states] = true;
+            else if (type(frame).equals("state")) states++;
+        }
+
+        // Our turns are the states a live session acts on: replayed through its turn tracking
+        TurnTracker turnTracker = new TurnTracker();
+        String before = null;
+        String hand = null;
+        for (String frame : frames) {
+            switch (type(frame)) {
+                case "player_hand" -> {
+                    hand = frame;
+                    turnTracker.onNewHand();
+                }
+                case "state" -> {
+                    GameState state = state(frame);
+                    if (turnTracker.onState(state, heroId)) {
+                        if (hand != null) turns.add(new Turn(before, hand, frame));
+                        turnTracker.onActionSent(state, heroId);
+                    }
+                    if (hand == null || "hand-over".equals(state.gamePhase)) {
+                        before = frame;
+                        hand = null;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (turns.isEmpty()) throw new IllegalStateException("No turns for " + HERO + " in " + RESOURCE);
+    }
+
+    /** Decoded with plain data binding, one independent object per frame. */
+    List<GameState> states() {
+        return stateFrames.stream().map(this::state).collect(Collectors.toList());
+    }
+
+    GameState state(String frame) {
+        try {
+            return objectMapper.treeToValue(payload(frame), GameState.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Card[] hand(String frame) {
+        try {
+            return objectMapper.treeToValue(payload(frame), Card[].class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The AI context for each of our turns, as {@link PokerWebSocketClient} builds it, with a fixed equity. */
+    List<GeminiContext> contexts() {
+        List<GeminiContext> contexts = new ArrayList<>();
+        for (Turn turn : turns) {
+            GameState state = state(turn.state());
+            GeminiContext ctx = new GeminiContext();
+            ctx.playerName = HERO;
+            ctx.playerHand = Arrays.asList(hand(turn.hand()));
+            ctx.communityCards = state.communityCards;
+            ctx.activePlayers = state.players.stream()
+                .filter(p -> "active".equals(p.status) || "all-in".equals(p.status))
+                .map(p -> {
+                    GeminiContext.PlayerInfo pi = new GeminiContext.PlayerInfo();
+                    pi.name = p.name;
+                    pi.chips = p.chips;
+                    pi.currentBet = p.currentBet;
+                    return pi;
+                })
+                .collect(Collectors.toList());
+            ctx.pot = state.pot;
+            ctx.amountToCall = state.minimumBetForCall;
+            ctx.minimumRaiseAmount = state.minimumRaiseAmount;
+            ctx.bettingRound = state.currentBettingRound;
+            ctx.equity = new EquityResult(0.31, 0.02, 0.32, 20000, false);
+            contexts.add(ctx);
+        }
+        return contexts;
+    }
+
+    private String findHeroId() {
+        for (String frame : stateFrames) {
+            for (JsonNode player : payload(frame).path("players")) {
+                if (HERO.equals(player.path("name").asText())) return player.path("id").asText();
+            }
+        }
+        throw new IllegalStateException(HERO + " is not seated in " + RESOURCE);
+    }
+
+    private String type(String frame) {
+        return tree(frame).path("type").asText();
+    }
+
+    private JsonNode payload(String frame) {
+        return tree(frame).path("payload");
+    }
+
+    private JsonNode tree(String frame) {
+        try {
+            return objectMapper.readTree(frame);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> read() {
+        try (InputStream in = Fixtures.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) throw new IllegalStateException(RESOURCE + " is not on the classpath");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return reader.lines().filter(line -> !line.isBlank()).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.pokerbot;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.prompt.PromptCompiler;
+
+/** Rendering the AI request body for each of our recorded turns ({@code buildPrompt}). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptBenchmark {
+    private final PromptCompiler promptCompiler = new PromptCompiler(1500);
+    private List<GeminiContext> contexts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        contexts = new Fixtures().contexts();
+    }
+
+    @Benchmark
+    public PromptCompiler.Prompt render() {
+        GeminiContext ctx = contexts.get(next);
+        next = next + 1 == contexts.size() ? 0 : next + 1;
+        return promptCompiler.render(ctx);
+    }
+}
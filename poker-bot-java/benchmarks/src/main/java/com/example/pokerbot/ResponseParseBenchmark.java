@@ -0,0 +1,75 @@
+package com.example.pokerbot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.example.pokerbot.codec.ActionStreamParser;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+
+/**
+ * Reading the action out of a recorded Gemini answer: the whole {@code generateContent} body as
+ * {@link GeminiAiService} parses it, and the same answer as streamed events read by
+ * {@link ActionStreamParser} until the action is known.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParseBenchmark {
+    // Gemini streams a few words per event
+    private static final int STREAM_CHUNK_CHARS = 24;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GeminiAiService geminiAiService;
+    private GeminiContext ctx;
+    private String body;
+    private final List<String> events = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        geminiAiService = Stubs.geminiAiService(Stubs.metrics());
+        ctx = new Fixtures().contexts().get(0);
+        body = Stubs.geminiResponse();
+
+        String answer = GeminiAiService.chunkText(objectMapper.readTree(body));
+        for (int i = 0; i < answer.length(); i += STREAM_CHUNK_CHARS) {
+            ObjectNode event = objectMapper.createObjectNode();
+            event.putArray("candidates").addObject().putObject("content").putArray("parts").addObject()
+                .put("text", answer.substring(i, Math.min(answer.length(), i + STREAM_CHUNK_CHARS)));
+            events.add(objectMapper.writeValueAsString(event));
+        }
+    }
+
+    @Benchmark
+    public GeminiAction wholeResponse() throws IOException {
+        return geminiAiService.toAction(ctx, GeminiAiService.chunkText(objectMapper.readTree(body)));
+    }
+
+    @Benchmark
+    public GeminiAction streamedEvents() throws IOException {
+        ActionStreamParser parser = new ActionStreamParser(objectMapper.getFactory());
+        for (String event : events) {
+            if (parser.feed(GeminiAiService.chunkText(objectMapper.readTree(event)))) break;
+        }
+        return parser.getAction();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.pokerbot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.util.ReflectionUtils;
+
+import com.example.pokerbot.cache.DecisionCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+/**
+ * Stand-ins for the network and for Spring: a Gemini that answers every request at once with
+ * the recorded {@value #GEMINI_RESPONSE}, a game server socket that only counts what is sent,
+ * and the wiring Spring would otherwise inject.
+ */
+final class Stubs {
+    static final String GEMINI_RESPONSE = "/fixtures/gemini-response.json";
+
+    private Stubs() {
+    }
+
+    static String geminiResponse() {
+        try (InputStream in = Stubs.class.getResourceAsStream(GEMINI_RESPONSE)) {
+            if (in == null) throw new IllegalStateException(GEMINI_RESPONSE + " is not on the classpath");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static DecisionMetrics metrics() {
+        return new DecisionMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * The service as Spring would configure it with {@code gemini.streaming=false}, on a client
+     * whose calls never leave the JVM. The decision cache keeps nothing, so every decision
+     * renders a prompt and parses an answer.
+     */
+    static GeminiAiService geminiAiService(DecisionMetrics metrics) {
+        String body = geminiResponse();
+        OkHttpClient client = new OkHttpClient.Builder()
+            .addInterceptor(chain -> new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(body, MediaType.parse("application/json")))
+                .build())
+            .build();
+
+        DecisionCache cache = new DecisionCache();
+        inject(cache, "maxEntries", 0);
+        postConstruct(cache);
+
+        GeminiAiService service = new GeminiAiService();
+        inject(service, "apiKey", "benchmark");
+        inject(service, "client", client);
+        inject(service, "modelUrl", "http://gemini.invalid/v1beta/models/benchmark");
+        inject(service, "streaming", false);
+        inject(service, "promptMaxBytes", 1500);
+        inject(service, "decisionCache", cache);
+        inject(service, "metrics", metrics);
+        postConstruct(service);
+        return service;
+    }
+
+    private static void inject(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static void postConstruct(Object target) {
+        Method init = ReflectionUtils.findMethod(target.getClass(), "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, target);
+    }
+
+    /** Hands out one {@link ServerSocket} instead of connecting, so frames can be pushed at its listener. */
+    static class ServerClient extends OkHttpClient {
+        final ServerSocket socket = new ServerSocket();
+        WebSocketListener listener;
+
+        @Override
+        public WebSocket newWebSocket(Request request, WebSocketListener listener) {
+            this.listener = listener;
+            socket.request = request;
+            return socket;
+        }
+
+        /** Delivers a frame as if the server had sent it. */
+        void receive(String frame) {
+            listener.onMessage(socket, frame);
+        }
+    }
+
+    /** Accepts everything the bot sends and remembers only the count and the last message. */
+    static class ServerSocket implements WebSocket {
+        Request request;
+        long sent;
+        String last;
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public long queueSize() {
+            return 0;
+        }
+
+        @Override
+        public boolean send(String text) {
+            sent++;
+            last = text;
+            return true;
+        }
+
+        @Override
+        public boolean send(ByteString bytes) {
+            sent++;
+            return true;
+        }
+
+        @Override
+        public boolean close(int code, String reason) {
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.pokerbot;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pokerbot.model.GameState;
+
+/**
+ * Deciding whether a state is a new prompt for us. {@code createGameStateHash} formatted a key
+ * out of the state for every message; {@link TurnTracker} replaced it, and is measured here
+ * against a copy of the old hash over the same recorded states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TurnDetectionBenchmark {
+    private final TurnTracker turnTracker = new TurnTracker();
+    private List<GameState> states;
+    private boolean[] dealtBefore;
+    private String heroId;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        states = fixtures.states();
+        dealtBefore = fixtures.dealtBefore;
+        heroId = fixtures.heroId;
+    }
+
+    /** The hash the client used to build for every state, before {@link TurnTracker}. */
+    static String createGameStateHash(GameState gameState) {
+        return String.format("%s_%s_%s_%d_%d_%s",
+            gameState.gamePhase, gameState.currentBettingRound, gameState.currentPlayerId,
+            gameState.pot, gameState.minimumBetForCall, gameState.message);
+    }
+
+    @Benchmark
+    public String legacyStateHash() {
+        GameState state = states.get(next);
+        next = next + 1 == states.size() ? 0 : next + 1;
+        return createGameStateHash(state);
+    }
+
+    /** Acts on every prompt, so the acknowledgement and duplicate paths run as they do live. */
+    @Benchmark
+    public boolean turnTracker() {
+        GameState state = states.get(next);
+        if (dealtBefore[next]) turnTracker.onNewHand();
+        next = next + 1 == states.size() ? 0 : next + 1;
+        boolean ourTurn = turnTracker.onState(state, heroId);
+        if (ourTurn) turnTracker.onActionSent(state, heroId);
+        return ourTurn;
+    }
+}
@@ -0,0 +1,105 @@
+#!/usr/bin/env bash
+# Startup time and RSS of one bot, from launch until it has connected and sent its join.
+#
+# Usage: scripts/measure-startup.sh [runs]    (from poker-bot-java; default 5 runs per mode)
+#
+# Builds the fast-start profile, records an AppCDS archive in a training run, starts the bundled
+# simulator and launches the bot in each mode:
+#   jar             the executable Spring Boot jar, as shipped
+#   aot             the plain jar on target/lib with the AOT-generated bean definitions
+#   aot+lazy        the same with the fast-start Spring profile (lazy beans)
+#   aot+lazy+cds    the same on the AppCDS archive
+#   ...+c1          the same with the C1 compiler only: quickest to start where cores are scarce, but
+#                   slower equity sampling, so only for short-lived bots (e.g. one per test run)
+#   native          target/poker-bot, when built with mvn -Pnative native:compile on GraalVM
+# Time is wall clock until the "Bot ... connected to" log line; RSS is read at that moment.
+# Set SKIP_BUILD=1 to reuse target/, JAVA to pick the JVM (Java 17+), SIM_PORT/BOT_PORT for ports.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+JAVA=${JAVA:-java}
+SIM_PORT=${SIM_PORT:-9190}
+BOT_PORT=${BOT_PORT:-8190}
+EXEC_JAR=target/poker-bot-java-0.0.1-SNAPSHOT-exec.jar
+APP_JAR=target/poker-bot-java-0.0.1-SNAPSHOT.jar
+ARCHIVE=target/poker-bot.jsa
+NATIVE=target/poker-bot
+WORK=$(mktemp -d)
+SIM_PID=
+
+cleanup() {
+    [ -n "$SIM_PID" ] && kill "$SIM_PID" 2>/dev/null || true
+    rm -rf "$WORK"
+}
+trap cleanup EXIT
+
+if [ "${SKIP_BUILD:-0}" != 1 ]; then
+    mvn -B -q -Pfast-start package -DskipTests
+fi
+
+BOT_ARGS=(--server.port="$BOT_PORT" --bot.server-url="ws://localhost:$SIM_PORT" --bot.strategy=blueprint)
+
+"$JAVA" -cp "$APP_JAR" com.example.pokerbot.sim.SimulatorServer "$SIM_PORT" call call \
+    --delay-scale=0.01 --min-players=3 > "$WORK/simulator.log" 2>&1 &
+SIM_PID=$!
+for _ in $(seq 100); do
+    grep -q "listening" "$WORK/simulator.log" 2>/dev/null && break
+    sleep 0.1
+done
+
+# Training run: the context refreshes, the bot connects, and the classes loaded so far are archived
+echo "Recording $ARCHIVE"
+"$JAVA" -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$APP_JAR" --spring.profiles.active=fast-start "${BOT_ARGS[@]}" --bot.sessions=Training \
+    > "$WORK/training.log" 2>&1 || { cat "$WORK/training.log"; exit 1; }
+
+# Prints "millis rssKiB" for one launch of the command
+measure() {
+    local name=$1 log="$WORK/bot.log"
+    shift
+    : > "$log"
+    local start end pid
+    start=$(date +%s%N)
+    "$@" "${BOT_ARGS[@]}" --bot.sessions="$name" > "$log" 2>&1 &
+    pid=$!
+    until grep -q "Bot $name connected to" "$log"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            cat "$log" >&2
+            echo "$name exited before connecting" >&2
+            return 1
+        fi
+        sleep 0.005
+    done
+    end=$(date +%s%N)
+    echo "$(( (end - start) / 1000000 )) $(awk '/VmRSS/ {print $2}' "/proc/$pid/status")"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+median() {
+    sort -n | awk '{v[NR] = $1} END {print v[int((NR + 1) / 2)]}'
+}
+
+report() {
+    local mode=$1
+    shift
+    : > "$WORK/runs"
+    for i in $(seq "$RUNS"); do
+        measure "Bot$i" "$@" >> "$WORK/runs"
+    done
+    printf '%-16s %8s ms %8s MiB\n' "$mode" "$(cut -d' ' -f1 "$WORK/runs" | median)" \
+        "$(( $(cut -d' ' -f2 "$WORK/runs" | median) / 1024 ))"
+}
+
+printf '%-16s %11s %12s   (median of %d)\n' mode connected rss "$RUNS"
+report jar "$JAVA" -jar "$EXEC_JAR"
+report aot "$JAVA" -Dspring.aot.enabled=true -jar "$APP_JAR"
+report aot+lazy "$JAVA" -Dspring.aot.enabled=true -jar "$APP_JAR" --spring.profiles.active=fast-start
+report aot+lazy+cds "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -jar "$APP_JAR" \
+    --spring.profiles.active=fast-start
+report aot+lazy+cds+c1 "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" -XX:TieredStopAtLevel=1 -Dspring.aot.enabled=true \
+    -jar "$APP_JAR" --spring.profiles.active=fast-start
+if [ -x "$NATIVE" ]; then
+    report native "$NATIVE" --spring.profiles.active=fast-start
+fi
@@ -1,21 +1,21 @@
 package com.example.pokerbot;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 
+// Sessions start at launch even when the other beans are lazy (fast-start profile)
+@Lazy(false)
 @Service
 public class BotService {
-    private final PokerWebSocketClient pokerWebSocketClient;
-    private final GeminiAiService geminiAiService;
+    private final BotSessionManager botSessionManager;
 
-    public BotService(PokerWebSocketClient pokerWebSocketClient, GeminiAiService geminiAiService) {
-        this.pokerWebSocketClient = pokerWebSocketClient;
-        this.geminiAiService = geminiAiService;
+    public BotService(BotSessionManager botSessionManager) {
+        this.botSessionManager = botSessionManager;
     }
 
     @PostConstruct
     public void startBot() {
-        pokerWebSocketClient.connect();
+        botSessionManager.startConfigured();
     }
 }
-
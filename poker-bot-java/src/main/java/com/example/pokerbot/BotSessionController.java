@@ -0,0 +1,73 @@
+package com.example.pokerbot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.pokerbot.model.SessionStatus;
+
+/**
+ * Starts and stops bot sessions at runtime, e.g. {@code POST /sessions?name=load&count=200}
+ * to put 200 bots named {@code load-1 .. load-200} on the default server.
+ * <p>
+ * Requires the management user (see {@link SecurityConfig}). Bots only go to {@code bot.server-url}
+ * or a server in {@code bot.sessions.allowed-urls}, and at most {@code bot.sessions.max} run at once.
+ * A request starts all of its {@code count} bots or none of them.
+ */
+@RestController
+@RequestMapping("/sessions")
+public class BotSessionController {
+    @Autowired
+    private BotSessionManager botSessionManager;
+
+    @GetMapping
+    public List<SessionStatus> list() {
+        return botSessionManager.getSessions();
+    }
+
+    @PostMapping
+    public List<SessionStatus> start(@RequestParam String name,
+                                     @RequestParam(required = false) String url,
+                                     @RequestParam(defaultValue = "1") int count) {
+        if (count < 1 || count > botSessionManager.getMaxSessions()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "count must be between 1 and " + botSessionManager.getMaxSessions());
+        }
+        if (!botSessionManager.isAllowedServer(url)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Server not allowed: " + url);
+        }
+        List<String> names = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            names.add(count == 1 ? name : name + "-" + i);
+        }
+        // The whole batch starts or, with a 409 or 429, none of it does
+        List<SessionStatus> started = new ArrayList<>(count);
+        try {
+            for (PokerWebSocketClient session : botSessionManager.startAll(names, url)) {
+                started.add(session.getStatus());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+        return started;
+    }
+
+    @DeleteMapping("/{name}")
+    public void stop(@PathVariable String name) {
+        if (!botSessionManager.stop(name)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No bot named " + name);
+        }
+    }
+}
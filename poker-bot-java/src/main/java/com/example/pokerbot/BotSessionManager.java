@@ -0,0 +1,321 @@
+package com.example.pokerbot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.ConnectionSpec;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.pokerbot.blueprint.BlueprintAbstraction;
+import com.example.pokerbot.blueprint.BlueprintTable;
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.eval.MonteCarloEquity;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.eval.RangeEquity;
+import com.example.pokerbot.history.HandHistoryWriter;
+import com.example.pokerbot.icm.IcmCalculator;
+import com.example.pokerbot.model.SessionStatus;
+import com.example.pokerbot.stats.OpponentRanges;
+import com.example.pokerbot.stats.OpponentStats;
+import com.example.pokerbot.strategy.BlueprintStrategy;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs any number of independent bot sessions in this JVM. Each session has its own name,
+ * server and table state; all of them share one HTTP client (dispatcher and connection pool),
+ * one virtual-thread executor for decoding and deciding, the equity calculator, the opponent ranges
+ * and the blueprint.
+ */
+@Slf4j
+@Service
+public class BotSessionManager {
+    @Autowired
+    private Dispatcher httpDispatcher;
+
+    @Autowired
+    private ConnectionPool httpConnectionPool;
+
+    // Only resolved for a wss:// session; setting up TLS is the slow part of a cold start
+    @Autowired
+    private ObjectProvider<OkHttpClient> httpClientProvider;
+
+    // Only resolved when the strategy asks the AI, so lazy beans (fast-start) never build it otherwise
+    @Autowired
+    private ObjectProvider<GeminiAiService> geminiAiServiceProvider;
+
+    @Autowired
+    private OpponentStats opponentStats;
+
+    @Autowired
+    private DecisionMetrics decisionMetrics;
+
+    @Value("${bot.server-url:ws://192.168.1.92:8080}")
+    private String defaultServerUrl;
+
+    @Value("${bot.sessions:Team Redbull}")
+    private String[] configuredSessions;
+
+    // Servers /sessions may send bots to besides bot.server-url
+    @Value("${bot.sessions.allowed-urls:}")
+    private String[] allowedServerUrls;
+
+    @Value("${bot.sessions.max:500}")
+    private int maxSessions;
+
+    @Value("${bot.decision.deadline-ms:5000}")
+    private long decisionDeadlineMs;
+
+    @Value("${bot.speculation.distance:2}")
+    private int speculationDistance;
+
+    @Value("${bot.speculation.ai:false}")
+    private boolean speculateAi;
+
+    @Value("${bot.equity.samples:200000}")
+    private long equitySamples;
+
+    @Value("${bot.equity.budget-ms:20}")
+    private long equityBudgetMs;
+
+    @Value("${bot.equity.exact-max-work:500000}")
+    private double equityExactMaxWork;
+
+    @Value("${bot.equity.ranges:true}")
+    private boolean equityRanges;
+
+    @Value("${bot.equity.range-runouts:1500}")
+    private int equityRangeRunouts;
+
+    @Value("${bot.strategy:ai}")
+    private String strategy;
+
+    @Value("${bot.blueprint.table:}")
+    private String blueprintTable;
+
+    @Value("${bot.blueprint.ai-advisor:false}")
+    private boolean blueprintAdvisor;
+
+    @Value("${bot.icm.payouts:}")
+    private String icmPayouts;
+
+    @Value("${bot.history.enabled:false}")
+    private boolean historyEnabled;
+
+    @Value("${bot.history.dir:hand-history}")
+    private String historyDir;
+
+    @Value("${bot.history.segment-mb:64}")
+    private long historySegmentMb;
+
+    @Value("${bot.history.queue:4096}")
+    private int historyQueue;
+
+    private final Map<String, PokerWebSocketClient> sessions = new ConcurrentHashMap<>();
+    // Sessions running or being started; reserved before a session is added so bot.sessions.max holds under concurrent starts
+    private final AtomicInteger slots = new AtomicInteger();
+    // A session's messages are handled one at a time by its mailbox, on whichever thread is free
+    private final ExecutorService executor = VirtualThreads.newExecutor("bot-session");
+    private OkHttpClient webSocketClient;
+    private OkHttpClient secureWebSocketClient;
+    private GeminiAiService geminiAiService;
+    private EquityCalculator equityCalculator;
+    private OpponentRanges opponentRanges;
+    private BlueprintStrategy blueprint;
+    private PokerWebSocketClient.Settings sessionSettings;
+    private HandHistoryWriter handHistory;
+
+    @PostConstruct
+    void init() {
+        PreflopTable preflopTable = null;
+        try {
+            preflopTable = PreflopTable.mapResource();
+        } catch (Exception e) {
+            log.warn("Preflop equity table unavailable, falling back to sampling preflop", e);
+        }
+        equityCalculator = new EquityCalculator(new MonteCarloEquity(), preflopTable, equityExactMaxWork,
+            equitySamples, TimeUnit.MILLISECONDS.toNanos(equityBudgetMs));
+        if (equityRanges && preflopTable != null) {
+            // Ranges are cut from the starting hands ranked by the table
+            opponentRanges = new OpponentRanges(opponentStats,
+                new RangeEquity(equityRangeRunouts, TimeUnit.MILLISECONDS.toNanos(equityBudgetMs)), preflopTable.ranking());
+        }
+        if ("blueprint".equals(strategy)) {
+            blueprint = loadBlueprint(preflopTable);
+        } else if (!"ai".equals(strategy)) {
+            log.warn("Unknown bot.strategy {}, using ai", strategy);
+        }
+        if (blueprint == null || blueprintAdvisor) {
+            geminiAiService = geminiAiServiceProvider.getObject();
+        }
+        sessionSettings = new PokerWebSocketClient.Settings(decisionDeadlineMs, speculationDistance, speculateAi,
+            blueprintAdvisor, IcmCalculator.parsePayouts(icmPayouts));
+        // Same dispatcher and pool as the shared client, without a read timeout for idle tables;
+        // cleartext only, wss:// sessions get secureWebSocketClient()
+        webSocketClient = new OkHttpClient.Builder()
+            .dispatcher(httpDispatcher)
+            .connectionPool(httpConnectionPool)
+            .connectionSpecs(List.of(ConnectionSpec.CLEARTEXT))
+            .readTimeout(0, TimeUnit.MILLISECONDS)
+            .build();
+        if (historyEnabled) {
+            try {
+                // One log for all sessions; a full queue drops hands rather than holding up a decision
+                handHistory = new HandHistoryWriter(Path.of(historyDir), historySegmentMb * 1024 * 1024, historyQueue, false);
+            } catch (IOException e) {
+                log.warn("Cannot write hand history to {}, hands are not recorded", historyDir, e);
+            }
+        }
+    }
+
+    private BlueprintStrategy loadBlueprint(PreflopTable preflopTable) {
+        if (preflopTable == null) {
+            log.warn("The blueprint buckets starting hands by the preflop table; using ai instead");
+            return null;
+        }
+        try {
+            BlueprintTable table = blueprintTable.isBlank() ? BlueprintTable.mapResource() : BlueprintTable.map(Path.of(blueprintTable));
+            return new BlueprintStrategy(new BlueprintAbstraction(preflopTable), table);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Blueprint table unavailable, using ai instead", e);
+            return null;
+        }
+    }
+
+    /** Starts the sessions listed in {@code bot.sessions}: {@code name} or {@code name@ws://host:port}. */
+    public void startConfigured() {
+        for (String spec : configuredSessions) {
+            String trimmed = spec.trim();
+            if (trimmed.isEmpty()) continue;
+            int at = trimmed.indexOf('@');
+            if (at < 0) {
+                start(trimmed, defaultServerUrl);
+            } else {
+                start(trimmed.substring(0, at).trim(), trimmed.substring(at + 1).trim());
+            }
+        }
+    }
+
+    /**
+     * Connects a new bot to the given server, or the default one when {@code serverUrl} is null.
+     *
+     * @throws IllegalArgumentException when a session with this name is already running
+     * @throws IllegalStateException when {@code bot.sessions.max} sessions are running
+     */
+    public PokerWebSocketClient start(String name, String serverUrl) {
+        return startAll(List.of(name), serverUrl).get(0);
+    }
+
+    /**
+     * Connects one new bot per name to the given server, or the default one when {@code serverUrl}
+     * is null. Either all of them start or none does.
+     *
+     * @throws IllegalArgumentException when a session with one of these names is already running
+     * @throws IllegalStateException when the batch would take more than {@code bot.sessions.max} sessions
+     */
+    public List<PokerWebSocketClient> startAll(List<String> names, String serverUrl) {
+        String url = serverUrl != null && !serverUrl.isBlank() ? serverUrl : defaultServerUrl;
+        reserve(names.size());
+        List<PokerWebSocketClient> started = new ArrayList<>(names.size());
+        try {
+            boolean secure = url.regionMatches(true, 0, "wss:", 0, 4) || url.regionMatches(true, 0, "https:", 0, 6);
+            OkHttpClient client = secure ? secureWebSocketClient() : webSocketClient;
+            for (String name : names) {
+                PokerWebSocketClient session = new PokerWebSocketClient(name, url, client, executor, sessionSettings,
+                    geminiAiService, equityCalculator, handHistory, opponentStats, opponentRanges, blueprint, decisionMetrics);
+                if (sessions.putIfAbsent(name, session) != null) {
+                    throw new IllegalArgumentException("A bot named " + name + " is already running");
+                }
+                started.add(session);
+            }
+        } catch (RuntimeException e) {
+            for (PokerWebSocketClient session : started) {
+                sessions.remove(session.getName(), session);
+            }
+            slots.addAndGet(-names.size());
+            throw e;
+        }
+        started.forEach(PokerWebSocketClient::connect);
+        return started;
+    }
+
+    private void reserve(int count) {
+        int taken;
+        do {
+            taken = slots.get();
+            if (taken + count > maxSessions) {
+                throw new IllegalStateException("At most " + maxSessions + " bot sessions can run");
+            }
+        } while (!slots.compareAndSet(taken, taken + count));
+    }
+
+    /** Whether a session may be started at runtime on this server: the default one or one in {@code bot.sessions.allowed-urls}. */
+    public boolean isAllowedServer(String serverUrl) {
+        if (serverUrl == null || serverUrl.isBlank() || serverUrl.equals(defaultServerUrl)) return true;
+        for (String allowed : allowedServerUrls) {
+            if (serverUrl.equals(allowed.trim())) return true;
+        }
+        return false;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    private synchronized OkHttpClient secureWebSocketClient() {
+        if (secureWebSocketClient == null) {
+            secureWebSocketClient = httpClientProvider.getObject().newBuilder()
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .build();
+        }
+        return secureWebSocketClient;
+    }
+
+    /** @return false when no session has this name */
+    public boolean stop(String name) {
+        PokerWebSocketClient session = sessions.remove(name);
+        if (session == null) return false;
+        slots.decrementAndGet();
+        session.close();
+        return true;
+    }
+
+    public List<SessionStatus> getSessions() {
+        List<SessionStatus> statuses = new ArrayList<>(sessions.size());
+        for (PokerWebSocketClient session : sessions.values()) {
+            statuses.add(session.getStatus());
+        }
+        return statuses;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sessions.values().forEach(PokerWebSocketClient::close);
+        sessions.clear();
+        slots.set(0);
+        executor.shutdownNow();
+        if (handHistory != null) {
+            try {
+                handHistory.close();
+                log.info("Hand history: {} hands written, {} dropped", handHistory.getWritten(), handHistory.getDropped());
+            } catch (IOException e) {
+                log.warn("Closing the hand history failed", e);
+            }
+        }
+    }
+}
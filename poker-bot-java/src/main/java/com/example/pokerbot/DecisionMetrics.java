@@ -0,0 +1,135 @@
+package com.example.pokerbot;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Where the time goes between a state frame arriving and our action going out, shared by all
+ * sessions. Every {@link Stage} has a timer that keeps its percentiles in a decaying HdrHistogram
+ * (Micrometer's client-side percentiles), so p50 and p99 describe the last few minutes rather
+ * than the whole run. Counters track the decisions that leave the normal path. Everything is
+ * served on the actuator: {@link LatencyEndpoint} summarises it, and the metrics endpoint has
+ * the raw meters ({@code bot.decision.stage} with a {@code stage} tag). Thread-safe.
+ */
+@Component
+public class DecisionMetrics {
+    public enum Stage {
+        /** Waiting in the table mailbox, from the frame arriving until it is decoded */
+        QUEUE,
+        DECODE,
+        /** Turn detection, for every state */
+        TURN,
+        /** Building the AI context from the state */
+        CONTEXT,
+        EQUITY,
+        /** Prize equity of each action, in tournaments */
+        ICM,
+        /** A decision from the blueprint table */
+        BLUEPRINT,
+        /** Rendering the AI prompt */
+        PROMPT,
+        /** From sending the AI request until the action is known (speculative requests included) */
+        LLM,
+        /** Reading the action out of the AI's answer */
+        PARSE,
+        SEND,
+        /** From the frame arriving until our action was sent */
+        TOTAL;
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final String FALLBACK_TIMEOUT = "timeout";
+    public static final String FALLBACK_FAILURE = "failure";
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+    // Percentiles cover this long a window, rotated in steps of a fifth of it
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Counter timeoutFallbacks;
+    private final Counter failureFallbacks;
+    private final Counter parseFailures;
+    private final Counter duplicates;
+
+    public DecisionMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("bot.decision.stage")
+                .tag("stage", stage.key())
+                .publishPercentiles(PERCENTILES)
+                .percentilePrecision(2)
+                .distributionStatisticExpiry(WINDOW)
+                .distributionStatisticBufferLength(5)
+                .register(registry));
+        }
+        timeoutFallbacks = fallbackCounter(registry, FALLBACK_TIMEOUT);
+        failureFallbacks = fallbackCounter(registry, FALLBACK_FAILURE);
+        parseFailures = Counter.builder("bot.ai.parse.failures")
+            .description("AI answers that were not valid JSON; the action was guessed from the text")
+            .register(registry);
+        duplicates = Counter.builder("bot.turn.duplicates")
+            .description("States ignored because they repeat a prompt we already answered")
+            .register(registry);
+    }
+
+    private static Counter fallbackCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("bot.decision.fallbacks")
+            .description("Decisions the AI did not make in time or at all")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    public void record(Stage stage, long nanos) {
+        timers.get(stage).record(Duration.ofNanos(nanos));
+    }
+
+    /**
+     * Records the time since {@code startNanos} against {@code stage}.
+     *
+     * @return now, to start the next stage from
+     */
+    public long lap(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        record(stage, now - startNanos);
+        return now;
+    }
+
+    /** @param reason {@link #FALLBACK_TIMEOUT} or {@link #FALLBACK_FAILURE} */
+    public void fallback(String reason) {
+        (FALLBACK_TIMEOUT.equals(reason) ? timeoutFallbacks : failureFallbacks).increment();
+    }
+
+    public void parseFailure() {
+        parseFailures.increment();
+    }
+
+    public void duplicateSuppressed() {
+        duplicates.increment();
+    }
+
+    public Timer getTimer(Stage stage) {
+        return timers.get(stage);
+    }
+
+    public double getFallbacks(String reason) {
+        return (FALLBACK_TIMEOUT.equals(reason) ? timeoutFallbacks : failureFallbacks).count();
+    }
+
+    public double getParseFailures() {
+        return parseFailures.count();
+    }
+
+    public double getDuplicates() {
+        return duplicates.count();
+    }
+}
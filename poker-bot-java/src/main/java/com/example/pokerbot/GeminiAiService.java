@@ -1,18 +1,29 @@
 package com.example.pokerbot;
 
 import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okhttp3.sse.EventSource;
+import okhttp3.sse.EventSourceListener;
+import okhttp3.sse.EventSources;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.example.pokerbot.model.GeminiContext;
 import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.cache.DecisionCache;
+import com.example.pokerbot.codec.ActionStreamParser;
+import com.example.pokerbot.prompt.PromptCompiler;
+
+import jakarta.annotation.PostConstruct;
 
 @Slf4j
 @Service
@@ -20,139 +31,290 @@ public class GeminiAiService {
     @Value("${gemini.api.key}")
     private String apiKey;
     
-    private final OkHttpClient client = new OkHttpClient();
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent";
+    @Autowired
+    private OkHttpClient client;
+
+    // Model endpoint without the method, so a local stand-in can replace it
+    @Value("${gemini.api.model-url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash}")
+    private String modelUrl;
+
+    // Stream the answer and act as soon as the action is known, before the reasoning arrives
+    @Value("${gemini.streaming:true}")
+    private boolean streaming;
+
+    // Upper bound for the prompt text of one decision; roughly 4 bytes per token
+    @Value("${gemini.prompt.max-bytes:1500}")
+    private int promptMaxBytes;
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private EventSource.Factory eventSources;
+    private PromptCompiler promptCompiler;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private String playerName = "Team Redbull";
+
+    @Autowired
+    private DecisionCache decisionCache;
+
+    @Autowired
+    private DecisionMetrics metrics;
+
+    @PostConstruct
+    void init() {
+        eventSources = EventSources.createFactory(client);
+        promptCompiler = new PromptCompiler(promptMaxBytes);
+    }
+
+    public PromptCompiler getPromptCompiler() {
+        return promptCompiler;
+    }
     
     public GeminiAction getBotAction(GeminiContext ctx) throws IOException {
-        String prompt = buildPrompt(ctx);
-        GeminiRequestBody requestBodyObj = new GeminiRequestBody(prompt);
-        String requestBody = objectMapper.writeValueAsString(requestBodyObj);
-        
-        Request request = new Request.Builder()
-            .url(GEMINI_API_URL)
-            .header("X-goog-api-key", apiKey)
-            .header("Content-Type", "application/json")
-            .post(RequestBody.create(requestBody, MediaType.parse("application/json")))
-            .build();
-        
+        GeminiAction cached = lookupCache(ctx);
+        if (cached != null) return cached;
+
+        Request request = buildRequest(ctx, modelUrl + ":generateContent");
+        long start = System.nanoTime();
         try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Unexpected code " + response);
+            return parseResponse(ctx, response, start);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #getBotAction}. The HTTP call runs on OkHttp's dispatcher;
+     * cancelling the returned future (or completing it by a timeout) cancels the call.
+     * With streaming enabled the future completes as soon as the action has streamed in. Either
+     * way a blank answer fails the future, so the caller uses its fallback rather than folding.
+     */
+    public CompletableFuture<GeminiAction> getBotActionAsync(GeminiContext ctx) {
+        GeminiAction cached = lookupCache(ctx);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        if (streaming) return streamBotAction(ctx);
+
+        CompletableFuture<GeminiAction> future = new CompletableFuture<>();
+        Call call;
+        try {
+            call = client.newCall(buildRequest(ctx, modelUrl + ":generateContent"));
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        long start = System.nanoTime();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
             }
-            String responseBody = response.body().string();
-            String actionTypeForLog = null;
-            String reasoningForLog = "No reasoning provided";
-            
-            JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode candidates = root.path("candidates");
-            if (candidates.isArray() && candidates.size() > 0) {
-                String content = candidates.get(0).path("content").path("parts").get(0).path("text").asText();
-                // Remove markdown and parse JSON
-                String json = content.replaceAll("(?s)```json|```|`", "").trim();
-                GeminiAction actionObj = null;
-                try {
-                    actionObj = objectMapper.readValue(json, GeminiAction.class);
-                    actionTypeForLog = actionObj.actionType;
-                    reasoningForLog = actionObj.reasoning != null ? actionObj.reasoning : "No reasoning provided";
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    future.complete(parseResponse(ctx, response, start));
                 } catch (Exception e) {
-                    // fallback: try to parse actionType from string
-                    String action = json.trim().toLowerCase();
-                    if (action.contains("fold")) actionTypeForLog = "fold";
-                    else if (action.contains("call")) actionTypeForLog = "call";
-                    else if (action.contains("raise")) actionTypeForLog = "raise";
-                    else if (action.contains("check")) actionTypeForLog = "check";
-                    else actionTypeForLog = "fold";
-                    
-                    reasoningForLog = "Failed to parse JSON response, used fallback action";
+                    future.completeExceptionally(e);
                 }
-                
-                log.info("Betting Round: {}, Action taken based on hand: {} and table: {} - {} | Reasoning: {}",
-                        ctx.bettingRound, ctx.getPlayerHandString(), ctx.getCommunityCardsString(), actionTypeForLog, reasoningForLog);
-                
-                if (actionObj != null) return actionObj;
-                GeminiAction fallback = new GeminiAction();
-                fallback.actionType = actionTypeForLog;
-                fallback.reasoning = reasoningForLog;
-                return fallback;
             }
-            
-            GeminiAction def = new GeminiAction();
-            def.actionType = "fold";
-            def.reasoning = "No valid response from AI, defaulting to fold";
-            log.info("Betting Round: {}, Action taken based on hand: {} and table: {} - {} | Reasoning: {}",
-                    ctx.bettingRound, ctx.getPlayerHandString(), ctx.getCommunityCardsString(), "fold", def.reasoning);
-            return def;
-        }
+        });
+        future.whenComplete((action, error) -> {
+            if (error != null) {
+                call.cancel();
+            }
+        });
+        return future;
     }
-    
-    private String buildPrompt(GeminiContext ctx) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("""
-              Given the following Texas Hold'em situation, suggest the best action (fold, check, call, bet, raise, or all-in) and explain why:
-              Stage: """+ ctx.bettingRound+ """
-              My hole cards: """+ ctx.getPlayerHandString() + """
-              Community cards: """ + ctx.getCommunityCardsString() + """
-              Pot size: """ + ctx.pot + """
-              AmountToCall: """ + ctx.amountToCall + """
-              Bet to call: """+  (ctx.amountToCall - ctx.activePlayers.stream().filter(p -> p.name.equals(playerName)).findFirst().map(p -> p.currentBet).orElse(-1)) + """
-              Minimum raise amount: """ + ctx.minimumRaiseAmount  + """
-              My stack: """ + ctx.activePlayers.stream().filter(p -> p.name.equals(playerName)).findFirst().map(p -> p.chips).orElse(0) + """
-              Opponents remaining: """ + ctx.activePlayers.size() + """
-              Opponent stack sizes: """ + ctx.activePlayers.stream().filter(p -> !p.name.equals(playerName))
-                    .map(p -> p.name + " (" + p.chips + ")").reduce((a, b) -> a + ", " + b).orElse("None") + """
-              Opponent actions so far: """ + ctx.activePlayers.stream()
-                    .filter(p -> !p.name.equals(playerName))
-                    .map(p -> p.name + " (" + p.currentBet + ")").reduce((a, b) -> a + ", " + b).orElse("None") + """
-              My position: """ + ctx.activePlayers.stream()
-                    .filter(p -> p.name.equals(playerName))
-                    .map(p -> p.name + " (position: " + p.currentBet + ")").findFirst().orElse("Unknown") + """
-              
-              IMPORTANT RULES:
-              - DO NOT CALL DURING PRE-FLOP
-              - If you can call without increasing the bet,
-              - If "Bet to call" is 0, you MUST use "check" action, NEVER "call"
-              - If "Bet to call" is greater than 0, you can "call" to match the bet or "fold" or "raise"
-              - You are an expert poker player. Analyze the situation and provide a recommendation.
-              - If AmountToCall is 0, don't fold
-              - Don't be a pussy
-              
-              Please provide the recommended action (options: 'fold', 'check', 'call', 'raise'), the amount to raise if applicable and the reasoning why.
-              Reply ONLY with a single JSON object: { "actionType": string, "amount": number (required if actionType is 'raise', omit otherwise), "reasoning": "Explain why the decision was made" }.
-              Do not include any explanation or extra text.""");
+
+    /**
+     * Reads the answer as server-sent events and completes the future once {@code actionType}
+     * (and the amount of a raise) has been parsed. The rest of the stream is still read, off the
+     * caller's path, to log the reasoning and fill the cache; it is only cancelled when the
+     * future fails or is cancelled before the action was known.
+     */
+    private CompletableFuture<GeminiAction> streamBotAction(GeminiContext ctx) {
+        CompletableFuture<GeminiAction> future = new CompletableFuture<>();
+        Request request;
+        ActionStreamParser parser;
         try {
-            String contextJson = objectMapper.writeValueAsString(ctx);
-            sb.append("\nContext: ").append(contextJson).append("\n");
-        } catch (Exception e) {
-            sb.append("\nContext unavailable due to error.\n");
+            request = buildRequest(ctx, modelUrl + ":streamGenerateContent?alt=sse");
+            parser = new ActionStreamParser(objectMapper.getFactory());
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        long start = System.nanoTime();
+        StringBuilder answer = new StringBuilder();
+        EventSource source = eventSources.newEventSource(request, new EventSourceListener() {
+            // Time spent parsing events until the action was known
+            private long parseNanos;
+
+            @Override
+            public void onEvent(EventSource eventSource, String id, String type, String data) {
+                long eventStart = System.nanoTime();
+                String text;
+                try {
+                    text = chunkText(objectMapper.readTree(data));
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable stream event: {}", data);
+                    return;
+                }
+                answer.append(text);
+                if (future.isDone()) return;
+                boolean known = parser.feed(text);
+                long now = System.nanoTime();
+                parseNanos += now - eventStart;
+                if (known) {
+                    GeminiAction action = parser.getAction();
+                    metrics.record(DecisionMetrics.Stage.LLM, now - start);
+                    metrics.record(DecisionMetrics.Stage.PARSE, parseNanos);
+                    log.info("Streamed action {} after {} ms", action.actionType, TimeUnit.NANOSECONDS.toMillis(now - start));
+                    future.complete(action);
+                }
+            }
+
+            @Override
+            public void onClosed(EventSource eventSource) {
+                parser.finish();
+                long closed = System.nanoTime();
+                log.debug("Answer stream complete after {} ms", TimeUnit.NANOSECONDS.toMillis(closed - start));
+                if (future.isDone()) {
+                    // The action was already committed; the full answer is only logged and cached
+                    logAnswer(ctx, answer.toString());
+                    return;
+                }
+                try {
+                    GeminiAction action = toAction(ctx, answer.toString());
+                    metrics.record(DecisionMetrics.Stage.LLM, closed - start);
+                    metrics.record(DecisionMetrics.Stage.PARSE, parseNanos + System.nanoTime() - closed);
+                    future.complete(action);
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(EventSource eventSource, Throwable t, Response response) {
+                if (future.isDone()) {
+                    log.debug("Answer stream ended early after the action was known", t);
+                    return;
+                }
+                future.completeExceptionally(t != null ? t : new IOException("Unexpected code " + response));
+            }
+        });
+        future.whenComplete((action, error) -> {
+            if (error != null) {
+                source.cancel();
+            }
+        });
+        return future;
+    }
+
+    private GeminiAction lookupCache(GeminiContext ctx) {
+        GeminiAction cached = decisionCache.get(ctx, ctx.playerName);
+        if (cached != null) {
+            log.info("Betting Round: {}, Cache hit for hand: {} and table: {} - {} (hits={}, misses={})",
+                    ctx.bettingRound, ctx.getPlayerHandString(), ctx.getCommunityCardsString(), cached.actionType,
+                    decisionCache.getHits(), decisionCache.getMisses());
         }
-        sb.append("Recommended action:");
-        return sb.toString();
+        return cached;
+    }
+
+    private Request buildRequest(GeminiContext ctx, String url) throws IOException {
+        long renderStart = System.nanoTime();
+        PromptCompiler.Prompt prompt = promptCompiler.render(ctx);
+        metrics.lap(DecisionMetrics.Stage.PROMPT, renderStart);
+        log.debug("Prompt for {} is {} bytes{} (average {}, largest {})", ctx.playerName, prompt.bytes(),
+            prompt.truncated() ? ", players cut" : "", promptCompiler.getAverageBytes(), promptCompiler.getLargestBytes());
+
+        return new Request.Builder()
+            .url(url)
+            .header("X-goog-api-key", apiKey)
+            .header("Content-Type", "application/json")
+            .post(RequestBody.create(prompt.body(), JSON))
+            .build();
     }
 
-    // POJO for Gemini API request body
-    private static class GeminiRequestBody {
-        public Content[] contents;
+    /** @param start {@link System#nanoTime} when the request went out */
+    private GeminiAction parseResponse(GeminiContext ctx, Response response, long start) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new IOException("Unexpected code " + response);
+        }
+        String responseBody = response.body().string();
+        long parseStart = metrics.lap(DecisionMetrics.Stage.LLM, start);
+        GeminiAction action = toAction(ctx, chunkText(objectMapper.readTree(responseBody)));
+        metrics.lap(DecisionMetrics.Stage.PARSE, parseStart);
+        return action;
+    }
 
-        public GeminiRequestBody(String prompt) {
-            this.contents = new Content[] { new Content(prompt) };
+    /** Text of the first candidate, or "" when there is none (a whole answer or one streamed piece of it). */
+    static String chunkText(JsonNode root) {
+        JsonNode candidates = root.path("candidates");
+        if (!candidates.isArray() || candidates.size() == 0) return "";
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : candidates.get(0).path("content").path("parts")) {
+            text.append(part.path("text").asText());
         }
+        return text.toString();
+    }
 
-        private static class Content {
-            public Part[] parts;
+    /**
+     * The action in a whole answer: its JSON object, or when that does not parse, the first action
+     * word found in the text (fold when there is none). Package-private for the benchmarks.
+     *
+     * @throws IOException for a blank answer, streamed or not, so the caller falls back to its
+     *     local strategy the same way as for a failed call
+     */
+    GeminiAction toAction(GeminiContext ctx, String content) throws IOException {
+        if (content.isBlank()) {
+            throw new IOException("Empty answer from AI");
+        }
+        // Remove markdown and parse JSON
+        String json = stripMarkdown(content);
+        GeminiAction actionObj = readAction(json);
+        if (actionObj != null) {
+            logAction(ctx, actionObj);
+            decisionCache.put(ctx, ctx.playerName, actionObj);
+            return actionObj;
+        }
+        // fallback: try to parse actionType from string
+        GeminiAction fallback = new GeminiAction();
+        String action = json.toLowerCase();
+        if (action.contains("fold")) fallback.actionType = "fold";
+        else if (action.contains("call")) fallback.actionType = "call";
+        else if (action.contains("raise")) fallback.actionType = "raise";
+        else if (action.contains("check")) fallback.actionType = "check";
+        else fallback.actionType = "fold";
+        fallback.reasoning = "Failed to parse JSON response, used fallback action";
+        metrics.parseFailure();
+        logAction(ctx, fallback);
+        return fallback;
+    }
 
-            public Content(String prompt) {
-                this.parts = new Part[] { new Part(prompt) };
-            }
+    /** Logs and caches an answer whose action was already streamed; an unreadable one is not a fallback. */
+    private void logAnswer(GeminiContext ctx, String content) {
+        GeminiAction actionObj = content.isBlank() ? null : readAction(stripMarkdown(content));
+        if (actionObj == null) {
+            log.debug("Full answer after the streamed action is not an action object: {}", content);
+            return;
         }
+        logAction(ctx, actionObj);
+        decisionCache.put(ctx, ctx.playerName, actionObj);
+    }
 
-        private static class Part {
-            public String text;
+    private static String stripMarkdown(String content) {
+        return content.replaceAll("(?s)```json|```|`", "").trim();
+    }
 
-            public Part(String text) {
-                this.text = text;
-            }
+    /** @return the answer's action object, or null when it does not parse or names no action */
+    private GeminiAction readAction(String json) {
+        try {
+            GeminiAction actionObj = objectMapper.readValue(json, GeminiAction.class);
+            return actionObj.actionType != null ? actionObj : null;
+        } catch (IOException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    private void logAction(GeminiContext ctx, GeminiAction action) {
+        log.info("Betting Round: {}, Action taken based on hand: {} and table: {} - {} | Reasoning: {}",
+                ctx.bettingRound, ctx.getPlayerHandString(), ctx.getCommunityCardsString(), action.actionType,
+                action.reasoning != null ? action.reasoning : "No reasoning provided");
+    }
+}
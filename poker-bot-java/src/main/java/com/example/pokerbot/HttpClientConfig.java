@@ -0,0 +1,43 @@
+package com.example.pokerbot;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HttpClientConfig {
+    @Value("${bot.http.max-requests:1024}")
+    private int maxRequests;
+
+    /** Shared by every HTTP and WebSocket client of the process, see {@link #okHttpClient}. */
+    @Bean
+    public Dispatcher okHttpDispatcher() {
+        Dispatcher dispatcher = new Dispatcher(VirtualThreads.newExecutor("okhttp"));
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        return dispatcher;
+    }
+
+    @Bean
+    public ConnectionPool okHttpConnectionPool() {
+        return new ConnectionPool();
+    }
+
+    /**
+     * The one HTTP client of the process: every bot session and every AI call share its
+     * dispatcher and connection pool. An open WebSocket holds a dispatcher slot (and the thread
+     * reading it) for its whole life, so the limits are far above OkHttp's default of 5 per host
+     * and the dispatcher runs on virtual threads. Building it sets up TLS, which takes a few
+     * hundred milliseconds on a cold JVM, so plain {@code ws://} sessions connect without it.
+     */
+    @Bean
+    public OkHttpClient okHttpClient(Dispatcher okHttpDispatcher, ConnectionPool okHttpConnectionPool) {
+        return new OkHttpClient.Builder()
+            .dispatcher(okHttpDispatcher)
+            .connectionPool(okHttpConnectionPool)
+            .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pokerbot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * {@code GET /actuator/latency}: per decision stage the number of samples since start, and the
+ * mean, percentiles and maximum in milliseconds over the recent window; then the fallback,
+ * parse-failure and duplicate counters. See {@link DecisionMetrics}.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+    @Autowired
+    private DecisionMetrics metrics;
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (DecisionMetrics.Stage stage : DecisionMetrics.Stage.values()) {
+            HistogramSnapshot snapshot = metrics.getTimer(stage).takeSnapshot();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", metrics.getTimer(stage).count());
+            summary.put("meanMs", millis(snapshot.mean(TimeUnit.NANOSECONDS)));
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                summary.put("p" + Math.round(p.percentile() * 100) + "Ms", millis(p.value(TimeUnit.NANOSECONDS)));
+            }
+            summary.put("maxMs", millis(snapshot.max(TimeUnit.NANOSECONDS)));
+            stages.put(stage.key(), summary);
+        }
+
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("fallbackTimeout", (long) metrics.getFallbacks(DecisionMetrics.FALLBACK_TIMEOUT));
+        counters.put("fallbackFailure", (long) metrics.getFallbacks(DecisionMetrics.FALLBACK_FAILURE));
+        counters.put("parseFailures", (long) metrics.getParseFailures());
+        counters.put("duplicatesSuppressed", (long) metrics.getDuplicates());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stages", stages);
+        result.put("counters", counters);
+        return result;
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+}
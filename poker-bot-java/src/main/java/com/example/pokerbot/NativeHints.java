@@ -0,0 +1,36 @@
+package com.example.pokerbot;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import com.example.pokerbot.blueprint.BlueprintTable;
+import com.example.pokerbot.cache.DecisionCache;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.stats.OpponentStats;
+
+/**
+ * What a GraalVM native image cannot find out on its own: the types Jackson binds outside Spring
+ * (the AI's action and the cache and stats snapshots), the bundled tables, and the Java 21 thread
+ * API {@link VirtualThreads} looks up by name. Spring AOT covers the beans and the web endpoints.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            GeminiAction.class, DecisionCache.Entry.class, OpponentStats.Entry.class);
+        hints.resources()
+            .registerPattern(PreflopTable.RESOURCE)
+            .registerPattern(BlueprintTable.RESOURCE);
+        hints.reflection()
+            .registerType(Thread.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+            .registerType(TypeReference.of("java.lang.Thread$Builder"), MemberCategory.INVOKE_PUBLIC_METHODS)
+            .registerType(TypeReference.of("java.lang.Thread$Builder$OfVirtual"), MemberCategory.INVOKE_PUBLIC_METHODS)
+            .registerType(Executors.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
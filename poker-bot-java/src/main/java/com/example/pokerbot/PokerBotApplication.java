@@ -2,11 +2,12 @@ package com.example.pokerbot;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class PokerBotApplication {
     public static void main(String[] args) {
         SpringApplication.run(PokerBotApplication.class, args);
     }
 }
-
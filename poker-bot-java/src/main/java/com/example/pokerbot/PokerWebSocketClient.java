@@ -2,122 +2,252 @@ package com.example.pokerbot;
 
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
-import org.springframework.stereotype.Service;
+import org.slf4j.MDC;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
-import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import com.example.pokerbot.cache.DecisionCache;
+import com.example.pokerbot.codec.MessageDecoder;
 import com.example.pokerbot.model.Card;
 import com.example.pokerbot.model.GameState;
 import com.example.pokerbot.model.GeminiContext;
 import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.SessionStatus;
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.eval.EquityResult;
+import com.example.pokerbot.history.HandHistoryWriter;
+import com.example.pokerbot.history.HandRecorder;
+import com.example.pokerbot.icm.IcmAdvisor;
+import com.example.pokerbot.icm.IcmCalculator;
+import com.example.pokerbot.stats.OpponentRanges;
+import com.example.pokerbot.stats.OpponentStats;
+import com.example.pokerbot.strategy.BlueprintStrategy;
+import com.example.pokerbot.strategy.LocalStrategy;
 
 import java.util.stream.Collectors;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * One bot session: a WebSocket to a game server, joined under its own name, with its own turn
+ * tracking and strategy. Sessions are created by {@link BotSessionManager}, which shares the
+ * HTTP client, the executor and the equity calculator between them.
+ */
 @Slf4j
-@Service
 public class PokerWebSocketClient {
-    private final OkHttpClient client = new OkHttpClient.Builder()
-            .readTimeout(0, TimeUnit.MILLISECONDS)
-            .build();
-    private final String wsUrl = "ws://192.168.1.92:8080";
+    public enum State { CONNECTING, OPEN, CLOSED, FAILED }
+
+    private final String name;
+    private final String wsUrl;
+    private final OkHttpClient client;
+    private final Executor executor;
+    private final GeminiAiService geminiAiService;
+    private final long decisionDeadlineMs;
+    private final int speculationDistance;
+    private final boolean speculateAi;
+    private final Speculator speculator;
+    private final HandRecorder handRecorder;
+    private final OpponentStats opponentStats;
+    private final BlueprintStrategy blueprint;
+    // The blueprint decides alone; otherwise the AI decides and the blueprint is the fallback
+    private final boolean blueprintOnly;
+    // Tournament prize equities; null in cash games
+    private final IcmAdvisor icmAdvisor;
+    private final DecisionMetrics metrics;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
+    // Only used from the mailbox consumer; the decoded state is reused for every message
+    private final MessageDecoder decoder = new MessageDecoder(objectMapper);
     private final AtomicReference<String> playerId = new AtomicReference<>(null);
+    private final LocalStrategy localStrategy = new LocalStrategy();
+
+    private volatile State state = State.CONNECTING;
+    private volatile WebSocket webSocket;
+
+    /**
+     * How every session of a {@link BotSessionManager} decides, read once from the {@code bot.*}
+     * properties.
+     *
+     * @param decisionDeadlineMs how long a decision waits for the AI before a fallback decides
+     * @param speculationDistance how many players before our turn equity is warmed; 0 for never
+     * @param speculateAi whether AI decisions are requested for the likely spots when we are next
+     * @param blueprintAdvisor with a blueprint: the AI decides and the blueprint is only the fallback
+     * @param icmPayouts tournament payouts for prize equities; null in cash games
+     */
+    public record Settings(long decisionDeadlineMs, int speculationDistance, boolean speculateAi,
+                           boolean blueprintAdvisor, double[] icmPayouts) {
+    }
+
+    public PokerWebSocketClient(String name, String wsUrl, OkHttpClient client, Executor executor, Settings settings,
+                                GeminiAiService geminiAiService, EquityCalculator equityCalculator,
+                                HandHistoryWriter handHistory, OpponentStats opponentStats,
+                                OpponentRanges opponentRanges, BlueprintStrategy blueprint, DecisionMetrics metrics) {
+        this.name = name;
+        this.wsUrl = wsUrl;
+        this.client = client;
+        this.executor = executor;
+        this.geminiAiService = geminiAiService;
+        this.decisionDeadlineMs = settings.decisionDeadlineMs();
+        this.speculationDistance = settings.speculationDistance();
+        this.blueprintOnly = blueprint != null && !settings.blueprintAdvisor();
+        this.speculateAi = settings.speculateAi() && !blueprintOnly;
+        this.speculator = new Speculator(name, executor, equityCalculator, geminiAiService, opponentRanges);
+        this.opponentStats = opponentStats;
+        this.blueprint = blueprint;
+        this.icmAdvisor = settings.icmPayouts() != null ? new IcmAdvisor(new IcmCalculator(settings.icmPayouts())) : null;
+        this.metrics = metrics;
+        this.handRecorder = new HandRecorder(name, hand -> {
+            opponentStats.record(hand);
+            if (handHistory != null) handHistory.append(hand);
+        });
+    }
 
-    @Autowired
-    private GeminiAiService geminiAiService;
+    public String getName() {
+        return name;
+    }
 
-// Add this field to prevent duplicate actions
-private final AtomicReference<String> lastProcessedState = new AtomicReference<>();
+    public SessionStatus getStatus() {
+        SessionStatus status = new SessionStatus();
+        status.name = name;
+        status.serverUrl = wsUrl;
+        status.state = state.name();
+        TableMailbox mailbox = tableMailbox;
+        if (mailbox != null) {
+            status.messagesReceived = mailbox.getReceived();
+            status.messagesCoalesced = mailbox.getCoalesced();
+            status.messagesProcessed = mailbox.getProcessed();
+        }
+        status.speculativeEquityHits = speculator.getEquityHits();
+        status.speculativeEquityMisses = speculator.getEquityMisses();
+        status.speculativeActionHits = speculator.getActionHits();
+        status.speculativeActionMisses = speculator.getActionMisses();
+        return status;
+    }
 
     public void connect() {
         Request request = new Request.Builder().url(wsUrl).build();
-        client.newWebSocket(request, new WebSocketListener() {
+        // Messages are decoded and decisions made on the executor so the socket reader keeps draining
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> dispatch(webSocket, text, arrived));
+        tableMailbox = mailbox;
+        webSocket = client.newWebSocket(request, new WebSocketListener() {
             @Override
             public void onOpen(WebSocket webSocket, Response response) {
+                state = State.OPEN;
                 // Send join message
-                String joinMsg = "{\"type\":\"join\",\"payload\":{\"name\":\"Team Redbull\"}}";
+                // Quoted by jackson-core alone: data binding is first needed for the server's reply
+                String joinMsg = "{\"type\":\"join\",\"payload\":{\"name\":\""
+                    + new String(JsonStringEncoder.getInstance().quoteAsString(name)) + "\"}}";
                 webSocket.send(joinMsg);
+                log.info("Bot {} connected to {}", name, wsUrl);
             }
             @Override
             public void onMessage(WebSocket webSocket, String text) {
-                try {
-                    JsonNode root = objectMapper.readTree(text);
-                    String type = root.path("type").asText();
-                    JsonNode payload = root.path("payload");
-
-                    switch (type) {
-                        case "state":
-                            GameState gameState = objectMapper.treeToValue(payload, GameState.class);
-                            log.info("Game state is {}", gameState);
-                            handleGameState(webSocket, gameState);
-                            break;
-                        case "player_hand":
-                            Card[] hand = objectMapper.treeToValue(payload, Card[].class);
-                            log.info("Received player hand: {}", Arrays.toString(hand));
-                            handlePlayerHand(hand);
-                            break;
-                        case "info":
-                            // Optionally handle info
-                            log.info("Game info: {}", payload);
-                            break;
-                        case "error":
-                            // Optionally handle error
-                            log.info("Game error: {}", payload);
-                            break;
-                            // Unknown message type
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
+                // Decoding happens on the consumer, after stale states were dropped
+                mailbox.offer(text);
+            }
+            @Override
+            public void onClosing(WebSocket webSocket, int code, String reason) {
+                webSocket.close(1000, null);
+            }
+            @Override
+            public void onClosed(WebSocket webSocket, int code, String reason) {
+                state = State.CLOSED;
+                log.info("Bot {} disconnected from {} ({} {})", name, wsUrl, code, reason);
             }
             @Override
             public void onFailure(WebSocket webSocket, Throwable t, Response response) {
-                t.printStackTrace();
+                state = State.FAILED;
+                log.error("Bot {} lost its connection to {}", name, wsUrl, t);
             }
         });
     }
 
+    public void close() {
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            socket.close(1000, "Bot stopped");
+        }
+    }
+
+    private void dispatch(WebSocket webSocket, String text, long arrived) {
+        // Executor threads are shared by all sessions; tag the log lines with the bot
+        MDC.put("bot", name);
+        try {
+            long decodeStart = System.nanoTime();
+            switch (decoder.decode(text)) {
+                case STATE:
+                    metrics.record(DecisionMetrics.Stage.QUEUE, decodeStart - arrived);
+                    metrics.lap(DecisionMetrics.Stage.DECODE, decodeStart);
+                    GameState gameState = decoder.getState();
+                    log.debug("Game state is {}", gameState);
+                    handleGameState(webSocket, gameState, arrived);
+                    // Recorded after deciding, so history and stats never delay an action
+                    handRecorder.onState(gameState);
+                    break;
+                case PLAYER_HAND:
+                    Card[] hand = decoder.getHand();
+                    log.info("Received player hand: {}", Arrays.toString(hand));
+                    handRecorder.onHand(hand);
+                    handlePlayerHand(webSocket, hand);
+                    break;
+                case INFO:
+                    // Optionally handle info
+                    log.info("Game info: {}", decoder.getText());
+                    handRecorder.onInfo(decoder.getText());
+                    break;
+                case ERROR:
+                    log.info("Game error: {}", decoder.getText());
+                    handleError(webSocket, decoder.getText());
+                    break;
+                default:
+                    // Unknown message type
+            }
+        } catch (Exception e) {
+            log.error("Error handling message", e);
+        } finally {
+            MDC.remove("bot");
+        }
+    }
+
     private Card[] currentHand = null;
     private GameState latestGameState = null;
+    private long latestArrival;
+    private volatile TableMailbox tableMailbox;
 
-private final AtomicReference<String> lastActedRound = new AtomicReference<>();
-private final AtomicInteger lastActedAtBetLevel = new AtomicInteger(0);
-private final AtomicBoolean hasActedThisRound = new AtomicBoolean(false);
-private final AtomicLong lastActionTime = new AtomicLong(0);
-private final AtomicReference<String> lastGameStateHash = new AtomicReference<>();
+private final TurnTracker turnTracker = new TurnTracker();
 
-private void handlePlayerHand(Card[] hand) {
+private void handlePlayerHand(WebSocket webSocket, Card[] hand) {
     this.currentHand = hand;
-    // Reset action tracking for new hand
-    hasActedThisRound.set(false);
-    lastActedRound.set(null);
-    lastActedAtBetLevel.set(0);
-    lastActionTime.set(0);
-    lastGameStateHash.set(null);
-    log.info("New hand started - reset action tracking flags");
+    turnTracker.onNewHand();
+    speculator.onNewHand(Cards.encode(Arrays.asList(hand)));
+    TableMailbox mailbox = tableMailbox;
+    log.info("New hand started - reset turn tracking (messages received={}, coalesced={}, processed={}; "
+            + "speculation equity hits={}/{}, action hits={}/{})",
+        mailbox.getReceived(), mailbox.getCoalesced(), mailbox.getProcessed(),
+        speculator.getEquityHits(), speculator.getEquityHits() + speculator.getEquityMisses(),
+        speculator.getActionHits(), speculator.getActionHits() + speculator.getActionMisses());
+    // The prompt for our turn may have arrived before the cards
+    if (latestGameState != null) {
+        handleGameState(webSocket, latestGameState, latestArrival);
+    }
 }
 
-private void handleGameState(WebSocket webSocket, GameState gameState) {
+/** @param arrived {@link System#nanoTime} when the state frame arrived */
+private void handleGameState(WebSocket webSocket, GameState gameState, long arrived) {
     this.latestGameState = gameState;
-
-    // Create a hash of the current game state to detect duplicates
-    String gameStateHash = createGameStateHash(gameState);
-    if (gameStateHash.equals(lastGameStateHash.get())) {
-        log.debug("Duplicate game state received, ignoring");
-        return;
-    }
+    this.latestArrival = arrived;
 
     // Find our playerId if not set
     if (playerId.get() == null) {
         gameState.players.stream()
-            .filter(p -> "Team Redbull".equals(p.name))
+            .filter(p -> name.equals(p.name))
             .findFirst()
             .ifPresent(p -> playerId.set(p.id));
     }
@@ -127,131 +257,221 @@ private void handleGameState(WebSocket webSocket, GameState gameState) {
         return; // Can't act without knowing our ID
     }
 
-    // Check if it's our turn
-    if (!myId.equals(gameState.currentPlayerId)) {
-        // Update the hash even if it's not our turn to track state changes
-        lastGameStateHash.set(gameStateHash);
-        return; // Not our turn
+    long turnStart = System.nanoTime();
+    long duplicates = turnTracker.getDuplicates();
+    boolean ourTurn = turnTracker.onState(gameState, myId);
+    metrics.lap(DecisionMetrics.Stage.TURN, turnStart);
+    if (turnTracker.getDuplicates() != duplicates) metrics.duplicateSuppressed();
+    if (!ourTurn || currentHand == null) {
+        speculate(gameState, myId);
+        return; // Not our turn, or we already acted on it
     }
 
-    // Find ourselves in the game state
     GameState.Player me = gameState.players.stream()
         .filter(p -> myId.equals(p.id))
         .findFirst().orElse(null);
 
-    if (me == null || !"active".equals(me.status) || currentHand == null) {
-        lastGameStateHash.set(gameStateHash);
-        return; // Can't act if we're not active or don't have cards
+    log.info("Taking action for game state: phase={}, round={}, pot={}, myBet={}, betLevel={}",
+        gameState.gamePhase, gameState.currentBettingRound, gameState.pot, me.currentBet, gameState.minimumBetForCall);
+
+    long decisionStart = System.nanoTime();
+    try {
+        GeminiAction action;
+        if (blueprintOnly) {
+            // A table lookup, no equity or AI call needed
+            action = blueprint.decide(gameState, myId, Cards.mask(Arrays.asList(currentHand)));
+            metrics.lap(DecisionMetrics.Stage.BLUEPRINT, decisionStart);
+            log.info("{} in {} us", action.reasoning, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - decisionStart));
+        } else {
+            GeminiContext ctx = buildContext(gameState);
+            long equityStart = metrics.lap(DecisionMetrics.Stage.CONTEXT, decisionStart);
+            int[] hole = Cards.encode(ctx.playerHand);
+            int[] board = Cards.encode(ctx.communityCards);
+            // Against the opponents' ranges once we know some of them, against random hands until then
+            ctx.equity = speculator.equity(hole, board, gameState, myId, ctx.activePlayers.size() - 1);
+            long icmStart = metrics.lap(DecisionMetrics.Stage.EQUITY, equityStart);
+            log.info("Estimated equity: {}", ctx.getEquityString());
+            if (icmAdvisor != null) {
+                ctx.icm = icmAdvisor.estimate(gameState, myId, handRecorder, ctx, LocalStrategy.raiseTo(ctx, name));
+                metrics.lap(DecisionMetrics.Stage.ICM, icmStart);
+                log.info("Prize equity: {}", ctx.icm);
+            }
+
+            action = awaitAction(ctx, decisionStart, speculator.takeAction(ctx), gameState, myId);
+            if ("raise".equals(action.actionType)) {
+                // The AI's amount, speculative or not, may be below a minimum raise or above our stack
+                action.amount = DecisionCache.raiseTo(ctx, name, action.amount != null ? action.amount : 0);
+                if (action.amount <= ctx.amountToCall) {
+                    // Short of the bet level the server would read the amount as "raise by"; all we can do is call
+                    action.actionType = "call";
+                    action.amount = null;
+                }
+            }
+        }
+        sendAction(webSocket, gameState, myId, action);
+        metrics.record(DecisionMetrics.Stage.TOTAL, System.nanoTime() - arrived);
+    } catch (Exception e) {
+        log.error("Error processing bot action", e);
+        // Allow another attempt on the next state
+        turnTracker.onActionFailed();
     }
+}
 
-    // Prevent acting too quickly after our last action (avoid acting on immediate state updates)
-    long currentTime = System.currentTimeMillis();
-    if (currentTime - lastActionTime.get() < 2000) { // Increased to 2 seconds
-        log.debug("Too soon after last action ({} ms), skipping to avoid acting on stale state",
-                  currentTime - lastActionTime.get());
-        return;
+private GeminiContext buildContext(GameState gameState) {
+    GeminiContext ctx = new GeminiContext();
+    ctx.playerName = name;
+    ctx.playerHand = Arrays.asList(currentHand);
+    // Copied: the decoder reuses the list for the next state while the AI call may still read it
+    ctx.communityCards = new ArrayList<>(gameState.communityCards);
+    ctx.activePlayers = gameState.players.stream()
+        .filter(p -> "active".equals(p.status) || "all-in".equals(p.status))
+        .map(p -> {
+            GeminiContext.PlayerInfo pi = new GeminiContext.PlayerInfo();
+            pi.name = p.name;
+            pi.chips = p.chips;
+            pi.currentBet = p.currentBet;
+            pi.stats = opponentStats.get(p.name);
+            return pi;
+        })
+        .collect(Collectors.toList());
+    ctx.pot = gameState.pot;
+    ctx.amountToCall = gameState.minimumBetForCall;
+    ctx.minimumRaiseAmount = gameState.minimumRaiseAmount;
+    ctx.bettingRound = gameState.currentBettingRound;
+    return ctx;
+}
+
+/**
+ * Starts work for our coming turn while others act: equity once we are within
+ * {@code speculationDistance} players of acting, and, when enabled, AI decisions for the
+ * likely spots once we are next (the player to act checks or calls, or min-raises).
+ */
+private void speculate(GameState gameState, String myId) {
+    if (speculationDistance < 1 || blueprintOnly || currentHand == null || myId.equals(gameState.currentPlayerId)) return;
+    int distance = turnsUntil(gameState, myId);
+    if (distance < 1 || distance > speculationDistance) return;
+
+    GeminiContext ctx = buildContext(gameState);
+    int[] board = Cards.encode(ctx.communityCards);
+    int opponents = ctx.activePlayers.size() - 1;
+    CompletableFuture<EquityResult> equity = speculator.warmEquity(board, gameState, myId, opponents);
+
+    if (!speculateAi || distance != 1) return;
+    GameState.Player actor = gameState.players.stream()
+        .filter(p -> p.id != null && p.id.equals(gameState.currentPlayerId))
+        .findFirst().orElse(null);
+    if (actor == null) return;
+    int toCall = Math.min(actor.chips, gameState.minimumBetForCall - actor.currentBet);
+    speculator.speculateAction(predict(ctx, actor.name, Math.max(0, toCall), gameState.minimumBetForCall), equity);
+    int raiseTo = gameState.minimumBetForCall + gameState.minimumRaiseAmount;
+    if (actor.chips > toCall && raiseTo - actor.currentBet <= actor.chips) {
+        speculator.speculateAction(predict(ctx, actor.name, raiseTo - actor.currentBet, raiseTo), equity);
     }
+}
 
-    // Create identifier for this betting round
-    String currentRound = String.format("%s_%s_%d_%s",
-        gameState.gamePhase,
-        gameState.currentBettingRound != null ? gameState.currentBettingRound : "null",
-        gameState.pot,
-        gameState.message); // Include pot to detect when betting action has occurred
-
-    // Check if we're in a new betting round
-    boolean isNewRound = !currentRound.equals(lastActedRound.get());
-
-    // Check if the bet level has increased since our last action
-    boolean betLevelIncreased = gameState.minimumBetForCall > lastActedAtBetLevel.get();
-
-    if (isNewRound) {
-        // New betting round - reset everything
-        hasActedThisRound.set(false);
-        lastActedRound.set(currentRound);
-        lastActedAtBetLevel.set(0);
-        log.debug("New betting round detected: {}, resetting action flags", currentRound);
-    } else if (betLevelIncreased) {
-        // Same round but bet level increased (someone raised) - allow us to act again
-        hasActedThisRound.set(false);
-        log.debug("Bet level increased from {} to {} in round {}, allowing new action",
-                  lastActedAtBetLevel.get(), gameState.minimumBetForCall, currentRound);
+/** The context after {@code actorName} puts {@code chips} in, leaving the bet level at {@code betLevel}. */
+private static GeminiContext predict(GeminiContext ctx, String actorName, int chips, int betLevel) {
+    GeminiContext predicted = new GeminiContext();
+    predicted.playerName = ctx.playerName;
+    predicted.playerHand = ctx.playerHand;
+    predicted.communityCards = ctx.communityCards;
+    predicted.bettingRound = ctx.bettingRound;
+    predicted.minimumRaiseAmount = ctx.minimumRaiseAmount;
+    predicted.pot = ctx.pot + chips;
+    predicted.amountToCall = betLevel;
+    predicted.activePlayers = new ArrayList<>(ctx.activePlayers.size());
+    for (GeminiContext.PlayerInfo p : ctx.activePlayers) {
+        if (p.name.equals(actorName)) {
+            GeminiContext.PlayerInfo moved = new GeminiContext.PlayerInfo();
+            moved.name = p.name;
+            moved.chips = p.chips - chips;
+            moved.currentBet = p.currentBet + chips;
+            moved.stats = p.stats;
+            p = moved;
+        }
+        predicted.activePlayers.add(p);
     }
+    return predicted;
+}
 
-    // Check if we've already acted at this bet level in this round
-    if (hasActedThisRound.get()) {
-        log.debug("Already acted in round {} at bet level {}, skipping action",
-                  currentRound, gameState.minimumBetForCall);
-        lastGameStateHash.set(gameStateHash);
-        return;
+/** Number of players still to act up to and including us, or -1 when we are not waiting to act. */
+private static int turnsUntil(GameState gameState, String myId) {
+    int n = gameState.players.size();
+    int current = -1;
+    for (int i = 0; i < n; i++) {
+        if (myId.equals(gameState.players.get(i).id) && !"active".equals(gameState.players.get(i).status)) return -1;
+        if (gameState.players.get(i).id != null && gameState.players.get(i).id.equals(gameState.currentPlayerId)) current = i;
     }
+    if (current < 0) return -1;
+    int distance = 0;
+    for (int i = 1; i < n; i++) {
+        GameState.Player p = gameState.players.get((current + i) % n);
+        if (!"active".equals(p.status)) continue;
+        distance++;
+        if (myId.equals(p.id)) return distance;
+    }
+    return -1;
+}
 
-    // Mark that we're about to act to prevent race conditions
-    if (!hasActedThisRound.compareAndSet(false, true)) {
-        log.debug("Another thread is already processing action for this round");
+/**
+ * The server rejected our action and keeps waiting for us: retry with the safest legal
+ * action for the latest state, and fold if even that was rejected.
+ */
+private void handleError(WebSocket webSocket, String message) {
+    String myId = playerId.get();
+    if (myId == null || latestGameState == null || !turnTracker.onError(message)) {
         return;
     }
+    GameState.Player me = latestGameState.players.stream()
+        .filter(p -> myId.equals(p.id))
+        .findFirst().orElse(null);
+    int toCall = latestGameState.minimumBetForCall - (me != null ? me.currentBet : 0);
+    GeminiAction retry = new GeminiAction();
+    retry.actionType = turnTracker.getRetries() > 1 ? "fold" : toCall > 0 ? "call" : "check";
+    log.warn("Action rejected ({}), retrying with {}", message, retry.actionType);
+    sendAction(webSocket, latestGameState, myId, retry);
+}
 
-    // Update the game state hash to track this state
-    lastGameStateHash.set(gameStateHash);
+private void sendAction(WebSocket webSocket, GameState gameState, String myId, GeminiAction action) {
+    String actionMsg;
+    if ("raise".equals(action.actionType)) {
+        actionMsg = String.format("{\"type\":\"action\",\"payload\":{\"actionType\":\"raise\",\"amount\":%d}}", action.amount);
+    } else {
+        actionMsg = String.format("{\"type\":\"action\",\"payload\":{\"actionType\":\"%s\"}}", action.actionType);
+    }
 
-    log.info("Taking action for game state: phase={}, round={}, pot={}, myBet={}, betLevel={}",
-        gameState.gamePhase, gameState.currentBettingRound, gameState.pot, me.currentBet, gameState.minimumBetForCall);
+    log.info("Sending action: {}", actionMsg);
+    long sendStart = System.nanoTime();
+    webSocket.send(actionMsg);
+    metrics.lap(DecisionMetrics.Stage.SEND, sendStart);
+    turnTracker.onActionSent(gameState, myId);
+}
 
+/**
+ * Waits for the AI until the per-decision deadline, measured from when the decision started.
+ * A speculative request for this spot is used instead of a new one when there is one.
+ * On timeout the HTTP call is cancelled; on timeout or failure the blueprint decides when
+ * there is one, the local strategy otherwise.
+ */
+private GeminiAction awaitAction(GeminiContext ctx, long decisionStart, CompletableFuture<GeminiAction> speculative,
+                                 GameState gameState, String myId) throws InterruptedException {
+    CompletableFuture<GeminiAction> pending = speculative != null ? speculative : geminiAiService.getBotActionAsync(ctx);
+    long remainingNanos = TimeUnit.MILLISECONDS.toNanos(decisionDeadlineMs) - (System.nanoTime() - decisionStart);
     try {
-        // Add a small delay to ensure server has fully processed any recent actions
-        Thread.sleep(500);
-
-        // Build GeminiContext
-        GeminiContext ctx = new GeminiContext();
-        ctx.playerHand = Arrays.asList(currentHand);
-        ctx.communityCards = gameState.communityCards;
-        ctx.activePlayers = gameState.players.stream()
-            .filter(p -> "active".equals(p.status) || "all-in".equals(p.status))
-            .map(p -> {
-                GeminiContext.PlayerInfo pi = new GeminiContext.PlayerInfo();
-                pi.name = p.name;
-                pi.chips = p.chips;
-                pi.currentBet = p.currentBet;
-                return pi;
-            })
-            .collect(Collectors.toList());
-        ctx.pot = gameState.pot;
-        ctx.amountToCall = gameState.minimumBetForCall;
-        ctx.minimumRaiseAmount = gameState.minimumRaiseAmount;
-        ctx.bettingRound = gameState.currentBettingRound;
-
-        GeminiAction action = geminiAiService.getBotAction(ctx);
-        String actionMsg;
-        if ("raise".equals(action.actionType)) {
-            int amount = action.amount != null ? action.amount : ctx.minimumRaiseAmount;
-            actionMsg = String.format("{\"type\":\"action\",\"payload\":{\"actionType\":\"raise\",\"amount\":%d}}", amount);
-        } else {
-            actionMsg = String.format("{\"type\":\"action\",\"payload\":{\"actionType\":\"%s\"}}", action.actionType);
-        }
-
-        log.info("Sending action: {}", actionMsg);
-        webSocket.send(actionMsg);
-
-        // Record the bet level we acted at and the time
-        lastActedAtBetLevel.set(gameState.minimumBetForCall);
-        lastActionTime.set(currentTime);
-
-    } catch (Exception e) {
-        log.error("Error processing bot action", e);
-        // Reset the flag on error so we can try again
-        hasActedThisRound.set(false);
+        return pending.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+        pending.cancel(true);
+        metrics.fallback(DecisionMetrics.FALLBACK_TIMEOUT);
+        log.warn("AI did not answer within {} ms, using {}", decisionDeadlineMs, fallbackName());
+    } catch (ExecutionException e) {
+        metrics.fallback(DecisionMetrics.FALLBACK_FAILURE);
+        log.warn("AI call failed, using {}", fallbackName(), e.getCause());
     }
+    GeminiAction fallback = blueprint != null ? blueprint.decide(gameState, myId, Cards.mask(ctx.playerHand)) : null;
+    return fallback != null ? fallback : localStrategy.decide(ctx, name);
 }
 
-private String createGameStateHash(GameState gameState) {
-    // Create a hash based on key game state elements that indicate when action is needed
-    return String.format("%s_%s_%s_%d_%d_%s",
-        gameState.gamePhase,
-        gameState.currentBettingRound,
-        gameState.currentPlayerId,
-        gameState.pot,
-        gameState.minimumBetForCall,
-        gameState.message);
+private String fallbackName() {
+    return blueprint != null ? "blueprint" : "local strategy";
 }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.pokerbot;
+
+import static org.springframework.security.config.Customizer.withDefaults;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * {@code /sessions} opens connections and starts bots, so it needs the management user
+ * ({@code spring.security.user.name} / {@code .password}; without a password Spring logs a
+ * generated one at startup), over HTTP basic. The read-only actuator endpoints stay open.
+ */
+@Configuration
+public class SecurityConfig {
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        return http
+            .authorizeHttpRequests(requests -> requests
+                .requestMatchers("/sessions", "/sessions/**").authenticated()
+                .anyRequest().permitAll())
+            .httpBasic(withDefaults())
+            // No cookies: every call carries its credentials, so there is nothing to forge
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(sessions -> sessions.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .build();
+    }
+}
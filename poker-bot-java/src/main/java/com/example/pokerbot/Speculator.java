@@ -0,0 +1,194 @@
+package com.example.pokerbot;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.example.pokerbot.cache.SituationKey;
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.eval.EquityResult;
+import com.example.pokerbot.eval.Range;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.stats.OpponentRanges;
+
+/**
+ * Work started before our turn, while the players ahead of us are still acting.
+ * <p>
+ * Equity is warmed the way our decision will compute it: against the opponents' ranges as the
+ * table stands when {@link OpponentRanges} has some, so it matches unless somebody raises or
+ * folds first; otherwise against random hands, which only depend on the board and the number
+ * of opponents, with and without one more fold. AI decisions are requested for predicted spots
+ * (the player to act checks or calls, or min-raises) once that equity is known, and matched by
+ * {@link SituationKey} when our turn comes: the matching request is reused and every other one
+ * is cancelled.
+ * <p>
+ * One per session; not thread-safe, feed it from the session's message consumer.
+ */
+public class Speculator {
+    private final String heroName;
+    private final Executor executor;
+    private final EquityCalculator equityCalculator;
+    private final GeminiAiService geminiAiService;
+    private final OpponentRanges opponentRanges;
+
+    private int[] hole;
+    private final Map<EquityKey, CompletableFuture<EquityResult>> equities = new HashMap<>();
+    private final Map<SituationKey, CompletableFuture<GeminiAction>> actions = new HashMap<>();
+
+    private final LongAdder equityHits = new LongAdder();
+    private final LongAdder equityMisses = new LongAdder();
+    private final LongAdder actionHits = new LongAdder();
+    private final LongAdder actionMisses = new LongAdder();
+    private final LongAdder actionsCancelled = new LongAdder();
+
+    /** @param opponentRanges null to play against random hands only */
+    public Speculator(String heroName, Executor executor, EquityCalculator equityCalculator,
+                      GeminiAiService geminiAiService, OpponentRanges opponentRanges) {
+        this.heroName = heroName;
+        this.executor = executor;
+        this.equityCalculator = equityCalculator;
+        this.geminiAiService = geminiAiService;
+        this.opponentRanges = opponentRanges;
+    }
+
+    /** New hole cards: everything speculated for the previous hand is dropped. */
+    public void onNewHand(int[] hole) {
+        cancelActions();
+        equities.clear();
+        this.hole = hole;
+    }
+
+    /**
+     * Starts computing the equity our decision would use on this state unless it already runs.
+     *
+     * @param opponents players in the hand besides us
+     * @return the equity as it will be when nobody else folds, or null before the hand is known
+     */
+    public CompletableFuture<EquityResult> warmEquity(int[] board, GameState state, String myId, int opponents) {
+        if (hole == null || opponents < 1) return null;
+        int[] cards = hole;
+        Range[] ranges = opponentRanges != null ? opponentRanges.ranges(board, state, myId) : null;
+        if (ranges != null) {
+            return warm(EquityKey.of(board, ranges), () -> opponentRanges.equity(cards, board, ranges));
+        }
+        if (opponents > 1) {
+            // Somebody folds
+            warm(EquityKey.of(board, opponents - 1), () -> equityCalculator.calculate(cards, board, opponents - 1));
+        }
+        return warm(EquityKey.of(board, opponents), () -> equityCalculator.calculate(cards, board, opponents));
+    }
+
+    /**
+     * Equity for our turn, against the opponents' ranges when {@link OpponentRanges} has some and
+     * they hold anything clear of the known cards, against random hands otherwise; from
+     * speculation when it was warmed, computed now if not.
+     */
+    public EquityResult equity(int[] hole, int[] board, GameState state, String myId, int opponents) {
+        Range[] ranges = opponentRanges != null ? opponentRanges.ranges(board, state, myId) : null;
+        EquityResult vsRanges = ranges != null
+            ? lookup(EquityKey.of(board, ranges), () -> opponentRanges.equity(hole, board, ranges)) : null;
+        if (vsRanges != null) return vsRanges;
+        return lookup(EquityKey.of(board, opponents), () -> equityCalculator.calculate(hole, board, opponents));
+    }
+
+    /**
+     * Requests a decision for a predicted spot unless one is already pending for it. The request
+     * goes out once {@code equity} (from {@link #warmEquity}, or null for none) is known, so the
+     * prompt carries it; waiting for it never blocks the caller.
+     */
+    public void speculateAction(GeminiContext predicted, CompletableFuture<EquityResult> equity) {
+        SituationKey key = SituationKey.of(predicted, heroName);
+        if (actions.containsKey(key)) return;
+        if (equity == null) {
+            actions.put(key, geminiAiService.getBotActionAsync(predicted));
+            return;
+        }
+        AtomicReference<CompletableFuture<GeminiAction>> call = new AtomicReference<>();
+        CompletableFuture<GeminiAction> request = equity.exceptionally(e -> null).thenCompose(eq -> {
+            predicted.equity = eq;
+            call.set(geminiAiService.getBotActionAsync(predicted));
+            return call.get();
+        });
+        // Cancelling the chained future does not reach the HTTP call by itself
+        request.whenComplete((action, error) -> {
+            CompletableFuture<GeminiAction> pending = call.get();
+            if (error != null && pending != null) pending.cancel(true);
+        });
+        actions.put(key, request);
+    }
+
+    /**
+     * The speculative decision matching the actual spot, or null. Every other pending
+     * request is cancelled, since our turn has come and they can no longer match.
+     */
+    public CompletableFuture<GeminiAction> takeAction(GeminiContext ctx) {
+        if (actions.isEmpty()) return null;
+        CompletableFuture<GeminiAction> match = actions.remove(SituationKey.of(ctx, heroName));
+        cancelActions();
+        if (match == null || match.isCompletedExceptionally()) {
+            actionMisses.increment();
+            return null;
+        }
+        actionHits.increment();
+        return match;
+    }
+
+    public long getEquityHits() {
+        return equityHits.sum();
+    }
+
+    public long getEquityMisses() {
+        return equityMisses.sum();
+    }
+
+    public long getActionHits() {
+        return actionHits.sum();
+    }
+
+    public long getActionMisses() {
+        return actionMisses.sum();
+    }
+
+    public long getActionsCancelled() {
+        return actionsCancelled.sum();
+    }
+
+    private void cancelActions() {
+        for (CompletableFuture<GeminiAction> pending : actions.values()) {
+            if (pending.cancel(true)) actionsCancelled.increment();
+        }
+        actions.clear();
+    }
+
+    private CompletableFuture<EquityResult> warm(EquityKey key, Supplier<EquityResult> calculation) {
+        return equities.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(calculation, executor));
+    }
+
+    private EquityResult lookup(EquityKey key, Supplier<EquityResult> calculation) {
+        CompletableFuture<EquityResult> warmed = equities.get(key);
+        boolean hit = warmed != null && !warmed.isCompletedExceptionally();
+        EquityResult result = hit ? warmed.join() : calculation.get();
+        // No result against ranges: counted with the random-hand equity used instead
+        if (result != null) (hit ? equityHits : equityMisses).increment();
+        return result;
+    }
+
+    /** A board with either a number of random opponents or the opponents' ranges, compared by identity. */
+    private record EquityKey(long board, int opponents, List<Range> ranges) {
+        static EquityKey of(int[] board, int opponents) {
+            return new EquityKey(Cards.mask(board), opponents, null);
+        }
+
+        static EquityKey of(int[] board, Range[] ranges) {
+            return new EquityKey(Cards.mask(board), ranges.length, List.of(ranges));
+        }
+    }
+}
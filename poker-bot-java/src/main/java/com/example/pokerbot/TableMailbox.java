@@ -0,0 +1,91 @@
+package com.example.pokerbot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-consumer mailbox for the raw messages of one table.
+ * <p>
+ * Messages are handled one at a time, in arrival order, on the given executor. A {@code state}
+ * message that is still waiting when a newer one arrives is replaced, so a burst of broadcasts
+ * costs one decode and one decision. Other messages (hands, errors) are never dropped, and a
+ * state is only replaced by the state directly behind it, so ordering between a hand and the
+ * states around it is kept. State messages are recognised by prefix, without parsing them.
+ * The handler gets each message with its {@link System#nanoTime} of arrival.
+ */
+@Slf4j
+public class TableMailbox {
+    static final String STATE_PREFIX = "{\"type\":\"state\"";
+
+    private final Executor executor;
+    private final ObjLongConsumer<String> handler;
+    private final Deque<Message> queue = new ArrayDeque<>();
+    private boolean tailIsState;
+    private boolean scheduled;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+
+    public TableMailbox(Executor executor, ObjLongConsumer<String> handler) {
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    public void offer(String message) {
+        long arrived = System.nanoTime();
+        boolean isState = message.startsWith(STATE_PREFIX);
+        received.increment();
+        synchronized (this) {
+            if (isState && tailIsState) {
+                queue.pollLast();
+                coalesced.increment();
+            }
+            queue.addLast(new Message(message, arrived));
+            tailIsState = isState;
+            if (scheduled) return;
+            scheduled = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        while (true) {
+            Message next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    scheduled = false;
+                    return;
+                }
+                if (queue.isEmpty()) tailIsState = false;
+            }
+            try {
+                handler.accept(next.text(), next.arrived());
+            } catch (RuntimeException e) {
+                log.error("Error handling message", e);
+            }
+            processed.increment();
+        }
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    private record Message(String text, long arrived) {
+    }
+}
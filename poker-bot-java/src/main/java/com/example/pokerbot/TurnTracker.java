@@ -0,0 +1,186 @@
+package com.example.pokerbot;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.example.pokerbot.model.GameState;
+
+/**
+ * Per-hand state machine deciding when the bot may act, driven only by the messages the
+ * server sends (no timers).
+ * <p>
+ * The server broadcasts the state once more right after applying our action while
+ * {@code currentPlayerId} still points at us, so "our id is current" alone is not a prompt.
+ * After sending we wait for that acknowledgement; we may act again only once the turn has
+ * passed to someone else, the betting round has changed or a new hand was dealt.
+ * <p>
+ * States can be coalesced before they reach us, so the intermediate "someone else is current"
+ * state may never be seen. A state where it is our turn again is therefore also a new prompt
+ * when the pot moved by more than our own chips, i.e. somebody else acted since.
+ * <p>
+ * The server leaves the last player current through the showdown and still accepts actions
+ * there; chips put in then are lost when the hand ends. Only the betting phases are prompts.
+ * Likewise, dealing the next street is broadcast before the turn moves on, with the player who
+ * closed the round still current and their action as the message; that state is not a prompt
+ * either, the one naming the first player to act follows right behind it. When that player is
+ * us the street is announced and then prompted with the table unchanged; both are one prompt.
+ * <pre>
+ * WAITING --our turn--> OUR_TURN --sent--> AWAITING_ACK --applied--> ACTED
+ *    ^                     ^                   |                       |
+ *    |                     +----rejected-------+                       |
+ *    +------------- turn passed / new round / new hand ----------------+
+ * </pre>
+ * Not thread-safe: feed it from a single thread.
+ */
+public class TurnTracker {
+    public enum State { WAITING, OUR_TURN, AWAITING_ACK, ACTED }
+
+    private static final String NOT_YOUR_TURN_ERROR = "It is not your turn.";
+    private static final Set<String> BETTING_PHASES = Set.of("pre-flop", "flop", "turn", "river");
+    private static final List<String> ACTION_MESSAGES = List.of(" folded.", " checked.", " called ", " raised to ");
+
+    private State state = State.WAITING;
+    private String phase;
+    private boolean hasHand;
+    private int retries;
+    private long duplicates;
+
+    // Table as of the moment the action was sent, to recognise the acknowledgement
+    private int sentChips;
+    private int sentPot;
+    private int sentBetLevel;
+    private String sentStatus;
+
+    // Table as of the acknowledgement, to recognise a new prompt behind coalesced states
+    private int ackPot;
+    private int ackBetLevel;
+
+    public State getState() {
+        return state;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    /** States ignored so far because they repeated a prompt we had already answered. */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /** Hole cards for a new hand arrived. */
+    public void onNewHand() {
+        hasHand = true;
+        phase = null;
+        retries = 0;
+        state = State.WAITING;
+    }
+
+    /**
+     * Feeds a state broadcast.
+     *
+     * @return true when the bot should decide and act on this state now
+     */
+    public boolean onState(GameState gameState, String myId) {
+        GameState.Player me = findPlayer(gameState, myId);
+        boolean newRound = phase != null && !phase.equals(gameState.gamePhase);
+        phase = gameState.gamePhase;
+
+        boolean ourTurn = myId != null && myId.equals(gameState.currentPlayerId)
+            && BETTING_PHASES.contains(gameState.gamePhase)
+            && !(newRound && isOwnActionMessage(gameState, me));
+        if (!ourTurn || newRound || me == null) {
+            state = State.WAITING;
+            retries = 0;
+        } else if (state == State.AWAITING_ACK) {
+            if (isUnchanged(gameState, me) && !isOwnActionMessage(gameState, me)) {
+                duplicates++;
+                return false; // the prompt we already answered, or its repeat
+            }
+            if (isOwnActionOnly(gameState, me)) {
+                state = State.ACTED;
+                ackPot = gameState.pot;
+                ackBetLevel = gameState.minimumBetForCall;
+            } else {
+                state = State.WAITING;
+                retries = 0;
+            }
+        } else if (state == State.ACTED
+                && (gameState.pot != ackPot || gameState.minimumBetForCall != ackBetLevel)) {
+            state = State.WAITING;
+            retries = 0;
+        }
+        if (!ourTurn || me == null || !"active".equals(me.status) || !hasHand) {
+            return false;
+        }
+        if (state == State.WAITING) {
+            state = State.OUR_TURN;
+        }
+        return state == State.OUR_TURN;
+    }
+
+    /** The decision for the current turn was sent to the server. */
+    public void onActionSent(GameState gameState, String myId) {
+        GameState.Player me = findPlayer(gameState, myId);
+        sentChips = me != null ? me.chips : 0;
+        sentPot = gameState.pot;
+        sentBetLevel = gameState.minimumBetForCall;
+        sentStatus = me != null ? me.status : null;
+        state = State.AWAITING_ACK;
+    }
+
+    /** The decision could not be made or sent; allow another attempt on the next state. */
+    public void onActionFailed() {
+        if (state == State.OUR_TURN) {
+            state = State.WAITING;
+        }
+    }
+
+    /**
+     * Feeds an error message from the server.
+     *
+     * @return true when it rejected our pending action and the bot should act again
+     */
+    public boolean onError(String message) {
+        if (state != State.AWAITING_ACK) return false;
+        if (NOT_YOUR_TURN_ERROR.equals(message)) return false;
+        retries++;
+        state = State.OUR_TURN;
+        return true;
+    }
+
+    private boolean isUnchanged(GameState gameState, GameState.Player me) {
+        return me.chips == sentChips
+            && gameState.pot == sentPot
+            && gameState.minimumBetForCall == sentBetLevel
+            && Objects.equals(me.status, sentStatus);
+    }
+
+    /** Everything that moved since we sent is explained by our own chips going in. */
+    private boolean isOwnActionOnly(GameState gameState, GameState.Player me) {
+        int ourChips = sentChips - me.chips;
+        return gameState.pot - sentPot == ourChips
+            && gameState.minimumBetForCall == Math.max(sentBetLevel, me.currentBet);
+    }
+
+    /** The message reports an action of ours, e.g. "Hero checked.", not a prompt. */
+    private static boolean isOwnActionMessage(GameState gameState, GameState.Player me) {
+        if (me == null || me.name == null || gameState.message == null
+                || !gameState.message.startsWith(me.name)) {
+            return false;
+        }
+        for (String action : ACTION_MESSAGES) {
+            if (gameState.message.startsWith(action, me.name.length())) return true;
+        }
+        return false;
+    }
+
+    private static GameState.Player findPlayer(GameState gameState, String myId) {
+        if (myId == null || gameState.players == null) return null;
+        for (GameState.Player p : gameState.players) {
+            if (myId.equals(p.id)) return p;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.pokerbot;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Thread-per-task executors on virtual threads.
+ * <p>
+ * The API is looked up reflectively so the bot still builds and runs on Java 17, where it
+ * falls back to a cached pool of daemon platform threads; the {@code jdk21} Maven profile
+ * targets Java 21 whenever the build runs on it.
+ */
+@Slf4j
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    public static ExecutorService newExecutor(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads unavailable on Java {}, using platform threads for {}",
+                Runtime.version().feature(), name);
+            AtomicLong counter = new AtomicLong();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, name + "-" + counter.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.pokerbot.blueprint;
+
+import java.util.List;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.HandEvaluator;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.eval.StartingHand;
+import com.example.pokerbot.model.GameState;
+
+/**
+ * How the blueprint sees a spot: street, hand-strength bucket, betting sequence and stack depth,
+ * packed into one information-set index. The trainer and the bot share these functions, so a
+ * spot met at the table lands in the cell that was trained for it.
+ * <ul>
+ *   <li>hand: pre-flop, the percentile of the starting hand by heads-up equity; after the flop,
+ *       the share of random opponent hands it beats on the current board (immediate strength,
+ *       without draws); either way split into {@link #HAND_BUCKETS} equal buckets</li>
+ *   <li>sequence: the bets this street as far as the bet levels show them (none, a bet we have
+ *       not put anything towards, or one over a bet of ours), whether we face a bet, and whether
+ *       we act last on this street</li>
+ *   <li>depth: the smallest stack in play over the pot, cut at 1, 3, 8 and 25</li>
+ * </ul>
+ * The abstract actions are fold, check or call, raise half the pot, raise the pot and all-in;
+ * raise sizes are measured on the pot after calling.
+ */
+public final class BlueprintAbstraction {
+    public static final int STREETS = 4;
+    public static final int HAND_BUCKETS = 16;
+    public static final int BET_LEVELS = 3;
+    public static final int SEQUENCES = BET_LEVELS * 2 * 2;
+    public static final int DEPTHS = 5;
+    public static final int INFO_SETS = STREETS * HAND_BUCKETS * SEQUENCES * DEPTHS;
+
+    public static final int FOLD = 0;
+    public static final int CALL = 1;
+    public static final int RAISE_HALF = 2;
+    public static final int RAISE_POT = 3;
+    public static final int ALL_IN = 4;
+    public static final int ACTIONS = 5;
+    /** Pot fraction of each raise size, indexed by action. */
+    static final double[] RAISE_FRACTION = {0, 0, 0.5, 1.0, 0};
+
+    private static final double[] DEPTH_BOUNDS = {1, 3, 8, 25};
+
+    private final byte[] preflopBucket = new byte[StartingHand.CLASSES];
+
+    public BlueprintAbstraction(PreflopTable preflopTable) {
+        int[] ranking = preflopTable.ranking();
+        int[] combos = new int[StartingHand.CLASSES];
+        for (int a = 0; a < Cards.DECK_SIZE; a++) {
+            for (int b = a + 1; b < Cards.DECK_SIZE; b++) {
+                combos[StartingHand.index(a, b)]++;
+            }
+        }
+        // Walk from the worst hand up; a class sits at the middle of the combos it covers
+        int below = 0;
+        for (int i = ranking.length - 1; i >= 0; i--) {
+            int cls = ranking[i];
+            double percentile = (below + combos[cls] / 2.0) / (Cards.DECK_SIZE * (Cards.DECK_SIZE - 1) / 2);
+            preflopBucket[cls] = (byte) bucketOf(percentile);
+            below += combos[cls];
+        }
+    }
+
+    /** Pot fraction of a raise action, 0 for the others. */
+    public static double raiseFraction(int action) {
+        return RAISE_FRACTION[action];
+    }
+
+    public static int infoSet(int street, int handBucket, int sequence, int depth) {
+        return ((street * HAND_BUCKETS + handBucket) * SEQUENCES + sequence) * DEPTHS + depth;
+    }
+
+    /**
+     * @param level    the bet to match this street
+     * @param baseline the level before anyone bet: the big blind pre-flop, 0 later
+     * @param myBet    what we have put in this street
+     */
+    public static int sequence(double level, double baseline, double myBet, boolean actsLast) {
+        int bets = level > baseline ? (myBet > baseline ? 2 : 1) : 0;
+        return (bets * 2 + (level > myBet ? 1 : 0)) * 2 + (actsLast ? 1 : 0);
+    }
+
+    /** @param behind chips the smallest stack has left once the bet is called; {@code pot} includes the call */
+    public static int depth(double behind, double pot) {
+        double ratio = pot > 0 ? behind / pot : Double.MAX_VALUE;
+        int depth = 0;
+        while (depth < DEPTH_BOUNDS.length && ratio >= DEPTH_BOUNDS[depth]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    public static int street(int boardSize) {
+        return boardSize == 0 ? 0 : boardSize - 2;
+    }
+
+    /** Hand bucket of {@code hole} (two cards) on {@code board} (0, 3, 4 or 5 cards), both as masks. */
+    public int handBucket(long hole, long board) {
+        if (board == 0) {
+            int first = Long.numberOfTrailingZeros(hole);
+            int second = 63 - Long.numberOfLeadingZeros(hole);
+            return preflopBucket[StartingHand.index(first, second)];
+        }
+        return bucketOf(handStrength(hole, board));
+    }
+
+    /** Share of the opponent hands left that {@code hole} beats on {@code board}, ties counted half. */
+    public static double handStrength(long hole, long board) {
+        int hero = HandEvaluator.evaluate(hole | board);
+        long dead = hole | board;
+        int beaten = 0;
+        int tied = 0;
+        int total = 0;
+        for (int a = 0; a < Cards.DECK_SIZE; a++) {
+            if ((dead & Cards.bit(a)) != 0) continue;
+            long withA = board | Cards.bit(a);
+            for (int b = a + 1; b < Cards.DECK_SIZE; b++) {
+                if ((dead & Cards.bit(b)) != 0) continue;
+                int value = HandEvaluator.evaluate(withA | Cards.bit(b));
+                beaten += value < hero ? 1 : 0;
+                tied += value == hero ? 1 : 0;
+                total++;
+            }
+        }
+        return (beaten + tied / 2.0) / total;
+    }
+
+    private static int bucketOf(double strength) {
+        return Math.min(HAND_BUCKETS - 1, (int) (strength * HAND_BUCKETS));
+    }
+
+    /**
+     * The information set of player {@code myId} in a broadcast state, seen as the heads-up game
+     * the blueprint was trained on: the smallest stack is the smallest among us and the other
+     * players in the hand, and we act last when no active player comes after us in this street's order.
+     *
+     * @return the information-set index, or -1 when we are not in the hand
+     */
+    public int infoSet(GameState state, String myId, long hole) {
+        List<GameState.Player> players = state.players;
+        int n = players.size();
+        int me = -1;
+        int dealer = -1;
+        int bigBlind = -1;
+        for (int i = 0; i < n; i++) {
+            GameState.Player p = players.get(i);
+            if (myId.equals(p.id)) me = i;
+            if (p.isDealer) dealer = i;
+            if (p.isBigBlind) bigBlind = i;
+        }
+        if (me < 0) return -1;
+        GameState.Player mine = players.get(me);
+        int boardSize = state.communityCards == null ? 0 : state.communityCards.size();
+        boolean preflop = boardSize == 0;
+        int baseline = preflop && bigBlind >= 0 ? players.get(bigBlind).currentBet : 0;
+
+        int level = state.minimumBetForCall;
+
+        // The street's action starts after the big blind pre-flop and after the dealer later on
+        int start = ((preflop ? bigBlind : dealer) + 1 + n) % n;
+        int last = -1;
+        int smallestOther = Integer.MAX_VALUE;
+        for (int k = 0; k < n; k++) {
+            int i = (start + k) % n;
+            GameState.Player p = players.get(i);
+            if ("active".equals(p.status)) last = i;
+            if (i != me && ("active".equals(p.status) || "all-in".equals(p.status))) {
+                smallestOther = Math.min(smallestOther, p.chips + p.currentBet);
+            }
+        }
+        int smallest = Math.min(mine.chips + mine.currentBet, smallestOther);
+        int depth = depth(Math.max(0, smallest - level), state.pot + Math.max(0, level - mine.currentBet));
+
+        long board = Cards.mask(state.communityCards);
+        return infoSet(street(boardSize), handBucket(hole, board), sequence(level, baseline, mine.currentBet, last == me), depth);
+    }
+}
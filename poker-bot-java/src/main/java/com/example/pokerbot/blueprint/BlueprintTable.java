@@ -0,0 +1,86 @@
+package com.example.pokerbot.blueprint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of the blueprint strategy written by {@link BlueprintTrainer}.
+ * <p>
+ * Layout (big-endian): int magic, short version, then the dimensions as shorts: streets, hand
+ * buckets, sequences, depths and actions. Then, for every information set in
+ * {@link BlueprintAbstraction#infoSet} order, one unsigned 16-bit fixed-point frequency per
+ * action. The file is memory-mapped, so a lookup is a few absolute reads at a computed offset.
+ */
+public class BlueprintTable {
+    static final int MAGIC = 0x504B4250; // "PKBP"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final double SCALE = 65535.0;
+
+    public static final String RESOURCE = "blueprint.bin";
+
+    private final ByteBuffer buffer;
+
+    BlueprintTable(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IllegalArgumentException("Not a blueprint table");
+        }
+        if (buffer.getShort(6) != BlueprintAbstraction.STREETS || buffer.getShort(8) != BlueprintAbstraction.HAND_BUCKETS
+                || buffer.getShort(10) != BlueprintAbstraction.SEQUENCES || buffer.getShort(12) != BlueprintAbstraction.DEPTHS
+                || buffer.getShort(14) != BlueprintAbstraction.ACTIONS) {
+            throw new IllegalArgumentException("Blueprint table was built for another abstraction");
+        }
+        if (buffer.capacity() < HEADER_BYTES + BlueprintAbstraction.INFO_SETS * BlueprintAbstraction.ACTIONS * 2) {
+            throw new IllegalArgumentException("Truncated blueprint table");
+        }
+        this.buffer = buffer;
+    }
+
+    public static BlueprintTable map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BlueprintTable(buffer);
+        }
+    }
+
+    /**
+     * Maps the table bundled on the classpath. When it sits inside a jar it is first
+     * extracted to a temporary file, since only files can be mapped.
+     */
+    public static BlueprintTable mapResource() throws IOException {
+        URL url = BlueprintTable.class.getClassLoader().getResource(RESOURCE);
+        if (url == null) {
+            throw new IOException("Missing classpath resource " + RESOURCE);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return map(Path.of(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        Path copy = Files.createTempFile("blueprint", ".bin");
+        copy.toFile().deleteOnExit();
+        try (InputStream in = url.openStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return map(copy);
+    }
+
+    /** Fills {@code out} (one slot per action) with the information set's action frequencies. */
+    public void frequencies(int infoSet, double[] out) {
+        int offset = HEADER_BYTES + infoSet * BlueprintAbstraction.ACTIONS * 2;
+        for (int a = 0; a < BlueprintAbstraction.ACTIONS; a++) {
+            out[a] = (buffer.getShort(offset + 2 * a) & 0xFFFF) / SCALE;
+        }
+    }
+}
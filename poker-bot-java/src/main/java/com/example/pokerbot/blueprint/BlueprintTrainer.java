@@ -0,0 +1,313 @@
+package com.example.pokerbot.blueprint;
+
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.ACTIONS;
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.ALL_IN;
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.CALL;
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.FOLD;
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.INFO_SETS;
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.RAISE_FRACTION;
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.RAISE_HALF;
+import static com.example.pokerbot.blueprint.BlueprintAbstraction.STREETS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.HandEvaluator;
+import com.example.pokerbot.eval.PreflopTable;
+
+/**
+ * Offline generator for the {@link BlueprintTable} file.
+ * <p>
+ * Usage: {@code java -cp target/classes com.example.pokerbot.blueprint.BlueprintTrainer
+ * <output> [iterations] [deals] [seed]}. The bundled table was built with the defaults
+ * into {@code src/main/resources/blueprint.bin}.
+ * <p>
+ * The game is heads-up no-limit hold'em in big blinds, with stacks of 10 to 200 blinds, the
+ * actions of {@link BlueprintAbstraction} and at most three raises a street. Players only see
+ * their {@link BlueprintAbstraction} information set, so hands and spots in the same bucket
+ * share one strategy. A pool of deals is dealt and bucketed up front, in parallel; the
+ * strategy is then found by external-sampling Monte Carlo CFR with regret matching+ and
+ * linearly weighted averaging, one worker per core sharing the regret and strategy tables
+ * without locks (the occasional lost update is noise the iterations average out).
+ */
+public final class BlueprintTrainer {
+    private static final long DEFAULT_ITERATIONS = 10_000_000;
+    private static final int DEFAULT_DEALS = 200_000;
+    private static final long DEFAULT_SEED = 18;
+    private static final double[] STACKS = {10, 25, 50, 100, 200};
+    private static final int MAX_RAISES = 3;
+    private static final double MIN_RAISE = 1;
+
+    private final int deals;
+    private final byte[] buckets; // deal * 8 + player * 4 + street
+    private final byte[] winner; // 0 or 1, or 2 for a split
+    private final double[] regret = new double[INFO_SETS * ACTIONS];
+    private final double[] strategy = new double[INFO_SETS * ACTIONS];
+
+    private BlueprintTrainer(int deals) {
+        this.deals = deals;
+        this.buckets = new byte[deals * 2 * STREETS];
+        this.winner = new byte[deals];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: BlueprintTrainer <output> [iterations] [deals] [seed]");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        long iterations = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_ITERATIONS;
+        int deals = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEALS;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        BlueprintAbstraction abstraction = new BlueprintAbstraction(PreflopTable.mapResource());
+        train(abstraction, ForkJoinPool.commonPool(), new SplittableRandom(seed), output, iterations, deals);
+    }
+
+    public static void train(BlueprintAbstraction abstraction, ForkJoinPool pool, SplittableRandom random,
+                             Path output, long iterations, int deals) throws IOException {
+        BlueprintTrainer trainer = new BlueprintTrainer(deals);
+        int workers = Math.max(1, pool.getParallelism());
+
+        long start = System.nanoTime();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int from = (int) ((long) deals * w / workers);
+            int to = (int) ((long) deals * (w + 1) / workers);
+            SplittableRandom split = random.split();
+            tasks.add(pool.submit(() -> trainer.deal(abstraction, split, from, to)));
+        }
+        tasks.forEach(ForkJoinTask::join);
+        System.out.printf("Dealt and bucketed %d deals in %.1f s%n", deals, (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        tasks.clear();
+        for (int w = 0; w < workers; w++) {
+            long share = iterations / workers + (w < iterations % workers ? 1 : 0);
+            SplittableRandom split = random.split();
+            tasks.add(pool.submit(() -> new Traversal(trainer, split).run(share)));
+        }
+        tasks.forEach(ForkJoinTask::join);
+        System.out.printf("Ran %d iterations in %.1f s%n", iterations, (System.nanoTime() - start) / 1e9);
+
+        trainer.write(output);
+    }
+
+    private void deal(BlueprintAbstraction abstraction, SplittableRandom random, int from, int to) {
+        int[] deck = new int[Cards.DECK_SIZE];
+        for (int card = 0; card < deck.length; card++) {
+            deck[card] = card;
+        }
+        for (int d = from; d < to; d++) {
+            for (int k = 0; k < 9; k++) {
+                int j = k + random.nextInt(deck.length - k);
+                int tmp = deck[k];
+                deck[k] = deck[j];
+                deck[j] = tmp;
+            }
+            long[] hole = {Cards.bit(deck[0]) | Cards.bit(deck[1]), Cards.bit(deck[2]) | Cards.bit(deck[3])};
+            long flop = Cards.bit(deck[4]) | Cards.bit(deck[5]) | Cards.bit(deck[6]);
+            long[] boards = {0L, flop, flop | Cards.bit(deck[7]), flop | Cards.bit(deck[7]) | Cards.bit(deck[8])};
+            for (int p = 0; p < 2; p++) {
+                for (int street = 0; street < STREETS; street++) {
+                    buckets[d * 2 * STREETS + p * STREETS + street] = (byte) abstraction.handBucket(hole[p], boards[street]);
+                }
+            }
+            int first = HandEvaluator.evaluate(hole[0] | boards[3]);
+            int second = HandEvaluator.evaluate(hole[1] | boards[3]);
+            winner[d] = (byte) (first > second ? 0 : first < second ? 1 : 2);
+        }
+    }
+
+    private void write(Path output) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BlueprintTable.HEADER_BYTES + INFO_SETS * ACTIONS * 2);
+        buffer.putInt(BlueprintTable.MAGIC);
+        buffer.putShort(BlueprintTable.VERSION);
+        buffer.putShort((short) STREETS);
+        buffer.putShort((short) BlueprintAbstraction.HAND_BUCKETS);
+        buffer.putShort((short) BlueprintAbstraction.SEQUENCES);
+        buffer.putShort((short) BlueprintAbstraction.DEPTHS);
+        buffer.putShort((short) ACTIONS);
+
+        int visited = 0;
+        for (int info = 0; info < INFO_SETS; info++) {
+            double sum = 0;
+            for (int a = 0; a < ACTIONS; a++) {
+                sum += strategy[info * ACTIONS + a];
+            }
+            if (sum > 0) visited++;
+            for (int a = 0; a < ACTIONS; a++) {
+                // Spots the game never reached check or call
+                double frequency = sum > 0 ? strategy[info * ACTIONS + a] / sum : a == CALL ? 1 : 0;
+                buffer.putShort((short) Math.round(frequency * BlueprintTable.SCALE));
+            }
+        }
+        System.out.printf("%d of %d information sets reached%n", visited, INFO_SETS);
+
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(output,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * One worker's walk of the game tree. Player 0 is the button: small blind, first to act
+     * pre-flop and last after the flop. Amounts are in big blinds, both players start with
+     * {@code stack}.
+     */
+    private static final class Traversal {
+        private static final int MAX_DEPTH = 64;
+
+        private final BlueprintTrainer trainer;
+        private final SplittableRandom random;
+        private final double[][] utilities = new double[MAX_DEPTH][ACTIONS];
+        private final double[][] probabilities = new double[MAX_DEPTH][ACTIONS];
+        private final double[][] raiseSizes = new double[MAX_DEPTH][ACTIONS];
+        private int deal;
+        private int traverser;
+        private double stack;
+        private double weight;
+
+        Traversal(BlueprintTrainer trainer, SplittableRandom random) {
+            this.trainer = trainer;
+            this.random = random;
+        }
+
+        void run(long iterations) {
+            for (long i = 1; i <= iterations; i++) {
+                deal = random.nextInt(trainer.deals);
+                stack = STACKS[random.nextInt(STACKS.length)];
+                weight = i;
+                for (traverser = 0; traverser < 2; traverser++) {
+                    walk(0, 0, 0.5, 1.0, 0.5, 1.0, 0, 0, 0);
+                }
+            }
+        }
+
+        /**
+         * @param in0    chips player 0 has put in this hand, {@code in1} likewise
+         * @param bet0   chips player 0 has put in this street, {@code bet1} likewise
+         * @param acted  actions since the last bet this street
+         * @return the traverser's winnings
+         */
+        private double walk(int depth, int street, double in0, double in1, double bet0, double bet1,
+                            int toAct, int raises, int acted) {
+            double myBet = toAct == 0 ? bet0 : bet1;
+            double level = Math.max(bet0, bet1);
+            double toCall = level - myBet;
+            double pot = in0 + in1;
+            double behind = stack - Math.max(in0, in1); // for both, once the bet is called
+            double myBehind = stack - (toAct == 0 ? in0 : in1);
+
+            boolean actsLast = street == 0 ? toAct == 1 : toAct == 0;
+            int info = BlueprintAbstraction.infoSet(street,
+                trainer.buckets[deal * 2 * STREETS + toAct * STREETS + street],
+                BlueprintAbstraction.sequence(level, street == 0 ? 1.0 : 0.0, myBet, actsLast),
+                BlueprintAbstraction.depth(behind, pot + toCall));
+
+            double[] sigma = probabilities[depth];
+            double[] raiseBy = raiseSizes[depth];
+            double total = 0;
+            for (int a = 0; a < ACTIONS; a++) {
+                raiseBy[a] = -1;
+                if (a == FOLD && toCall == 0) continue;
+                if (a >= RAISE_HALF) {
+                    if (raises >= MAX_RAISES || behind <= 0) continue;
+                    double by = a == ALL_IN ? myBehind - toCall : Math.max(MIN_RAISE, RAISE_FRACTION[a] * (pot + toCall));
+                    if (a != ALL_IN && toCall + by >= myBehind) continue;
+                    raiseBy[a] = by;
+                }
+                sigma[a] = Math.max(0, trainer.regret[info * ACTIONS + a]);
+                total += sigma[a];
+            }
+            int legal = 0;
+            for (int a = 0; a < ACTIONS; a++) {
+                if (legal(a, toCall, raiseBy)) legal++;
+            }
+            for (int a = 0; a < ACTIONS; a++) {
+                if (!legal(a, toCall, raiseBy)) {
+                    sigma[a] = 0;
+                } else {
+                    sigma[a] = total > 0 ? sigma[a] / total : 1.0 / legal;
+                }
+            }
+
+            if (toAct != traverser) {
+                double roll = random.nextDouble();
+                int chosen = -1;
+                for (int a = 0; a < ACTIONS; a++) {
+                    if (sigma[a] == 0) continue;
+                    trainer.strategy[info * ACTIONS + a] += weight * sigma[a];
+                    chosen = a;
+                    roll -= sigma[a];
+                    if (roll < 0) break;
+                }
+                return act(depth, chosen, raiseBy[chosen], street, in0, in1, bet0, bet1, toAct, raises, acted, toCall);
+            }
+
+            // The traverser tries every action
+            double[] utility = utilities[depth];
+            double value = 0;
+            for (int a = 0; a < ACTIONS; a++) {
+                if (!legal(a, toCall, raiseBy)) continue;
+                utility[a] = act(depth, a, raiseBy[a], street, in0, in1, bet0, bet1, toAct, raises, acted, toCall);
+                value += sigma[a] * utility[a];
+            }
+            for (int a = 0; a < ACTIONS; a++) {
+                if (!legal(a, toCall, raiseBy)) continue;
+                int slot = info * ACTIONS + a;
+                trainer.regret[slot] = Math.max(0, trainer.regret[slot] + utility[a] - value);
+            }
+            return value;
+        }
+
+        private static boolean legal(int a, double toCall, double[] raiseBy) {
+            return a == CALL || a == FOLD && toCall > 0 || a >= RAISE_HALF && raiseBy[a] >= 0;
+        }
+
+        private double act(int depth, int a, double raiseBy, int street, double in0, double in1, double bet0, double bet1,
+                           int toAct, int raises, int acted, double toCall) {
+            if (a == FOLD) {
+                double lost = toAct == 0 ? in0 : in1;
+                return toAct == traverser ? -lost : lost;
+            }
+            double put = a == CALL ? toCall : toCall + raiseBy;
+            if (toAct == 0) {
+                in0 += put;
+                bet0 += put;
+            } else {
+                in1 += put;
+                bet1 += put;
+            }
+            if (a != CALL) {
+                return walk(depth + 1, street, in0, in1, bet0, bet1, 1 - toAct, raises + 1, 1);
+            }
+            if (acted == 0) {
+                // First to act checked, or the small blind completed: the other player still acts
+                return walk(depth + 1, street, in0, in1, bet0, bet1, 1 - toAct, raises, 1);
+            }
+            if (street == STREETS - 1 || Math.max(in0, in1) >= stack) {
+                return showdown(in0, in1);
+            }
+            return walk(depth + 1, street + 1, in0, in1, 0, 0, 1, 0, 0);
+        }
+
+        private double showdown(double in0, double in1) {
+            int won = trainer.winner[deal];
+            if (won == 2) return 0;
+            double[] in = {in0, in1};
+            return won == traverser ? in[1 - traverser] : -in[traverser];
+        }
+    }
+}
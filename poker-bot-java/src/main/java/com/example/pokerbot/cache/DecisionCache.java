@@ -0,0 +1,206 @@
+package com.example.pokerbot.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded LRU cache of AI decisions keyed by {@link SituationKey}, with a time-to-live per
+ * entry and an optional JSON snapshot that is restored on startup and written back every
+ * {@code bot.cache.snapshot-seconds} and on shutdown, so a crash loses at most that much.
+ * Raise sizes are stored as a fraction of the pot and scaled back to the current pot on a hit,
+ * within the legal raise totals of the spot.
+ */
+@Slf4j
+@Component
+public class DecisionCache {
+    @Value("${bot.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${bot.cache.ttl-minutes:720}")
+    private long ttlMinutes;
+
+    @Value("${bot.cache.snapshot-path:}")
+    private String snapshotPath;
+
+    @Value("${bot.cache.snapshot-seconds:60}")
+    private long snapshotSeconds;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private Map<SituationKey, Entry> entries;
+    // Guarded by this
+    private long changes;
+    private long changesSnapshotted;
+
+    private ScheduledExecutorService snapshots;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SituationKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        restore();
+        if (snapshotPath != null && !snapshotPath.isBlank() && snapshotSeconds > 0) {
+            snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "decision-cache");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshots.scheduleWithFixedDelay(this::snapshotIfChanged, snapshotSeconds, snapshotSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public GeminiAction get(GeminiContext ctx, String heroName) {
+        SituationKey key = SituationKey.of(ctx, heroName);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+                entries.remove(key);
+                changes++;
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        GeminiAction action = new GeminiAction();
+        action.actionType = entry.actionType;
+        if (entry.raisePotFraction != null) {
+            action.amount = raiseTo(ctx, heroName, (int) Math.round(entry.raisePotFraction * ctx.pot));
+        }
+        action.reasoning = "Cached: " + entry.reasoning;
+        return action;
+    }
+
+    /**
+     * The raise total for this spot nearest to {@code amount}: at least a minimum raise over the
+     * bet level, at most our whole stack (all-in when that is less than a minimum raise).
+     */
+    public static int raiseTo(GeminiContext ctx, String heroName, int amount) {
+        int max = Integer.MAX_VALUE;
+        if (ctx.activePlayers != null) {
+            for (GeminiContext.PlayerInfo p : ctx.activePlayers) {
+                if (p.name != null && p.name.equals(heroName)) max = p.currentBet + p.chips;
+            }
+        }
+        int min = ctx.amountToCall + ctx.minimumRaiseAmount;
+        return Math.min(Math.max(amount, min), max);
+    }
+
+    public void put(GeminiContext ctx, String heroName, GeminiAction action) {
+        Entry entry = new Entry();
+        entry.key = SituationKey.of(ctx, heroName);
+        entry.actionType = action.actionType;
+        if (action.amount != null) {
+            entry.raisePotFraction = (double) action.amount / Math.max(1, ctx.pot);
+        }
+        entry.reasoning = action.reasoning;
+        entry.createdAt = System.currentTimeMillis();
+        synchronized (this) {
+            entries.put(entry.key, entry);
+            changes++;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    public void snapshot() {
+        if (snapshots != null) snapshots.shutdownNow();
+        snapshotIfChanged();
+        log.info("Decision cache closed: {} entries, {} hits, {} misses", size(), getHits(), getMisses());
+    }
+
+    private void snapshotIfChanged() {
+        if (snapshotPath == null || snapshotPath.isBlank()) return;
+        List<Entry> copy;
+        long changed;
+        synchronized (this) {
+            if (changes == changesSnapshotted) return;
+            changed = changes;
+            copy = new ArrayList<>(entries.values());
+        }
+        Path target = Path.of(snapshotPath);
+        try {
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), copy);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                changesSnapshotted = changed;
+            }
+            log.debug("Decision cache snapshot written: {} entries", copy.size());
+        } catch (IOException e) {
+            log.warn("Failed to write decision cache snapshot to {}", target, e);
+        }
+    }
+
+    private void restore() {
+        if (snapshotPath == null || snapshotPath.isBlank()) return;
+        Path source = Path.of(snapshotPath);
+        if (!Files.exists(source)) return;
+        try {
+            List<Entry> restored = objectMapper.readValue(source.toFile(), new TypeReference<List<Entry>>() {});
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                for (Entry e : restored) {
+                    if (e.key != null && !isExpired(e, now)) entries.put(e.key, e);
+                }
+            }
+            log.info("Decision cache restored {} entries from {}", entries.size(), source);
+        } catch (IOException e) {
+            log.warn("Failed to read decision cache snapshot from {}", source, e);
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlMinutes > 0 && now - entry.createdAt > TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+
+    public static class Entry {
+        public SituationKey key;
+        public String actionType;
+        public Double raisePotFraction; // nullable, only for raise
+        public String reasoning;
+        public long createdAt;
+    }
+}
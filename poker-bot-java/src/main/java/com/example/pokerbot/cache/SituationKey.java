@@ -0,0 +1,64 @@
+package com.example.pokerbot.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GeminiContext;
+
+/**
+ * Canonical form of a decision spot, equal for situations that only differ by a suit
+ * permutation or by bet sizes falling in the same bucket.
+ * <p>
+ * Each suit is described by the ranks it has in the hole and on the board (a 26-bit
+ * signature). Sorting the four signatures removes the suit labels while keeping flush
+ * draws and suitedness intact. Chip amounts are reduced to pot-relative buckets.
+ */
+public record SituationKey(long suitsHigh, long suitsLow, int boardSize, int opponents,
+                           int callBucket, int stackBucket, int raiseBucket) {
+
+    /** Upper bounds of the ratio buckets; anything above the last bound shares the final bucket. */
+    private static final double[] RATIO_BOUNDS = { 0.0, 0.1, 0.25, 0.5, 0.75, 1.0, 1.5, 2.0, 3.0, 5.0, 10.0 };
+
+    public static SituationKey of(GeminiContext ctx, String heroName) {
+        int[] signatures = new int[Cards.SUITS];
+        addCards(signatures, ctx.playerHand, 13);
+        addCards(signatures, ctx.communityCards, 0);
+        Arrays.sort(signatures);
+        long high = (long) signatures[3] << 26 | signatures[2];
+        long low = (long) signatures[1] << 26 | signatures[0];
+
+        int myBet = 0;
+        int myChips = 0;
+        for (GeminiContext.PlayerInfo p : ctx.activePlayers) {
+            if (p.name.equals(heroName)) {
+                myBet = p.currentBet;
+                myChips = p.chips;
+            }
+        }
+        double pot = Math.max(1, ctx.pot);
+        int toCall = Math.max(0, ctx.amountToCall - myBet);
+        return new SituationKey(high, low,
+                ctx.communityCards == null ? 0 : ctx.communityCards.size(),
+                Math.max(0, ctx.activePlayers.size() - 1),
+                bucket(toCall / pot),
+                bucket(myChips / pot),
+                bucket(ctx.minimumRaiseAmount / pot));
+    }
+
+    static int bucket(double ratio) {
+        for (int i = 0; i < RATIO_BOUNDS.length; i++) {
+            if (ratio <= RATIO_BOUNDS[i]) return i;
+        }
+        return RATIO_BOUNDS.length;
+    }
+
+    private static void addCards(int[] signatures, List<Card> cards, int shift) {
+        if (cards == null) return;
+        for (Card c : cards) {
+            int card = Cards.encode(c);
+            signatures[Cards.suit(card)] |= 1 << (Cards.rank(card) + shift);
+        }
+    }
+}
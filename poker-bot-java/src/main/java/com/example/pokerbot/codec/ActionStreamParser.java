@@ -0,0 +1,134 @@
+package com.example.pokerbot.codec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import com.example.pokerbot.model.GeminiAction;
+
+/**
+ * Incremental reader for the JSON object the model answers with, fed the text as it streams in.
+ * <p>
+ * Anything before the first {@code '{'} (markdown fences) is skipped and the rest goes through
+ * Jackson's non-blocking parser, so the action is known as soon as {@code actionType} (and, for
+ * a raise, {@code amount}) has been read, without waiting for the reasoning that usually
+ * follows. Only top-level fields are read; once the object is closed further text is ignored.
+ * A malformed answer marks the parser failed and leaves the caller to parse the full text.
+ * <p>
+ * Not thread-safe: feed it from a single thread.
+ */
+public class ActionStreamParser {
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;
+    private boolean done;
+    private boolean failed;
+    private int depth;
+    private String field;
+
+    private String actionType;
+    private Integer amount;
+    private String reasoning;
+
+    public ActionStreamParser(JsonFactory factory) throws IOException {
+        this.parser = factory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Feeds the next piece of the answer.
+     *
+     * @return true once the action is known
+     */
+    public boolean feed(String chunk) {
+        if (done || failed || chunk.isEmpty()) return isActionKnown();
+        int from = 0;
+        if (!started) {
+            from = chunk.indexOf('{');
+            if (from < 0) return false;
+            started = true;
+        }
+        byte[] bytes = chunk.substring(from).getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException e) {
+            failed = true;
+        }
+        return isActionKnown();
+    }
+
+    /** The answer is complete; an object left open stops here. */
+    public void finish() {
+        if (done || failed) return;
+        feeder.endOfInput();
+        try {
+            drain();
+        } catch (IOException e) {
+            failed = true;
+        }
+        done = true;
+    }
+
+    public boolean isActionKnown() {
+        if (failed || actionType == null) return false;
+        return !"raise".equals(actionType) || amount != null || done;
+    }
+
+    /** Whether the whole object was read without error. */
+    public boolean isComplete() {
+        return done && !failed && actionType != null;
+    }
+
+    public GeminiAction getAction() {
+        GeminiAction action = new GeminiAction();
+        action.actionType = actionType;
+        action.amount = amount;
+        action.reasoning = reasoning;
+        return action;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> depth++;
+                case END_OBJECT, END_ARRAY -> {
+                    if (--depth == 0) {
+                        done = true;
+                        return;
+                    }
+                }
+                case FIELD_NAME -> field = depth == 1 ? parser.currentName() : null;
+                default -> {
+                    if (depth == 1 && field != null) readValue(token);
+                }
+            }
+        }
+    }
+
+    private void readValue(JsonToken token) throws IOException {
+        switch (field) {
+            case "actionType" -> actionType = parser.getText().trim().toLowerCase();
+            case "amount" -> {
+                if (token.isNumeric()) {
+                    amount = parser.getValueAsInt();
+                } else if (token == JsonToken.VALUE_STRING) {
+                    try {
+                        amount = Integer.valueOf(parser.getText().trim());
+                    } catch (NumberFormatException e) {
+                        // leave it unknown; a raise then waits for the end of the object
+                    }
+                }
+            }
+            case "reasoning" -> reasoning = parser.getText();
+            default -> {
+            }
+        }
+    }
+}
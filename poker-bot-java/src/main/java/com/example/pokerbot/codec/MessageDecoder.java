@@ -0,0 +1,318 @@
+package com.example.pokerbot.codec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GameState;
+
+/**
+ * Single-pass streaming decoder for server messages.
+ * <p>
+ * The {@code type} field is read first and the payload is decoded straight into objects owned
+ * by the decoder: one {@link GameState} with its players and card list. It is overwritten by
+ * the next state message, so callers must copy anything they keep beyond it.
+ * Cards are the 52 shared {@link Cards#canonical} instances, and string fields keep their
+ * previous instance when the text did not change (known statuses and phases map to constants),
+ * so a typical state message only allocates its {@code message} text. One parser reads all
+ * messages, each as its next root value; it is replaced after a message it could not read to
+ * the end.
+ * <p>
+ * Not thread-safe: use one decoder per message consumer.
+ */
+public class MessageDecoder {
+    public enum Type { STATE, PLAYER_HAND, INFO, ERROR, UNKNOWN }
+
+    private static final String[] KNOWN_VALUES = {
+        "active", "folded", "all-in", "sitting-out", "spectator",
+        "waiting", "pre-flop", "flop", "turn", "river", "showdown", "hand-over"
+    };
+
+    private static final Writer DISCARD = Writer.nullWriter();
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory factory;
+    // One parser reads each message as its next root value: buffers and symbol table are set up once
+    private final MessageReader reader = new MessageReader();
+    private JsonParser parser;
+
+    private final GameState state = new GameState();
+    private final List<GameState.Player> playerPool = new ArrayList<>();
+    private final List<Card> handCards = new ArrayList<>(2);
+    private Card[] hand = new Card[0];
+    private String text;
+
+    public MessageDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.factory = objectMapper.getFactory();
+        state.players = new ArrayList<>();
+        state.communityCards = new ArrayList<>();
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public Card[] getHand() {
+        return hand;
+    }
+
+    /** Payload of the last info or error message. */
+    public String getText() {
+        return text;
+    }
+
+    public Type decode(String json) throws IOException {
+        if (parser == null) {
+            parser = factory.createParser(reader);
+        }
+        reader.next(json);
+        try {
+            Type type = decode(parser);
+            // Input left after the message or its end reached: start clean on the next one
+            if (reader.ended || parser.releaseBuffered(DISCARD) > 0) parser = null;
+            return type;
+        } catch (IOException | RuntimeException e) {
+            parser = null;
+            throw e;
+        }
+    }
+
+    private Type decode(JsonParser p) throws IOException {
+        JsonToken root = p.nextToken();
+        if (root != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return Type.UNKNOWN;
+        }
+        Type type = Type.UNKNOWN;
+        JsonNode deferred = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            if ("type".equals(field)) {
+                type = typeOf(p);
+                if (deferred != null) {
+                    // payload came first: decode it from the buffered tree instead
+                    decodeTree(type, deferred);
+                }
+            } else if ("payload".equals(field)) {
+                if (type == Type.UNKNOWN) {
+                    deferred = p.readValueAsTree();
+                } else {
+                    decodePayload(type, p);
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        return type;
+    }
+
+    private void decodeTree(Type type, JsonNode payload) throws IOException {
+        try (JsonParser p = objectMapper.treeAsTokens(payload)) {
+            p.nextToken();
+            decodePayload(type, p);
+        }
+    }
+
+    private void decodePayload(Type type, JsonParser p) throws IOException {
+        switch (type) {
+            case STATE -> readState(p);
+            case PLAYER_HAND -> readHand(p);
+            case INFO, ERROR -> text = p.currentToken() == JsonToken.VALUE_STRING ? p.getText() : objectMapper.readTree(p).toString();
+            default -> p.skipChildren();
+        }
+    }
+
+    private static Type typeOf(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) return Type.UNKNOWN;
+        char[] chars = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+        if (matches("state", chars, offset, length)) return Type.STATE;
+        if (matches("player_hand", chars, offset, length)) return Type.PLAYER_HAND;
+        if (matches("info", chars, offset, length)) return Type.INFO;
+        if (matches("error", chars, offset, length)) return Type.ERROR;
+        return Type.UNKNOWN;
+    }
+
+    private void readState(JsonParser p) throws IOException {
+        GameState s = state;
+        s.players.clear();
+        s.communityCards.clear();
+        s.pot = 0;
+        s.minimumRaiseAmount = 0;
+        s.minimumBetForCall = 0;
+        // The previous strings stay until their field is read, so an unchanged one is kept
+        String bettingRound = null;
+        String currentPlayerId = null;
+        String gamePhase = null;
+        String message = null;
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+        } else {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                p.nextToken();
+                switch (field) {
+                    case "players" -> readPlayers(p);
+                    case "communityCards" -> readCards(p, s.communityCards);
+                    case "pot" -> s.pot = p.getValueAsInt();
+                    case "currentBettingRound" -> bettingRound = reuse(p, s.currentBettingRound);
+                    case "currentPlayerId" -> currentPlayerId = reuse(p, s.currentPlayerId);
+                    case "gamePhase" -> gamePhase = reuse(p, s.gamePhase);
+                    case "message" -> message = reuse(p, s.message);
+                    case "minimumRaiseAmount" -> s.minimumRaiseAmount = p.getValueAsInt();
+                    case "minimumBetForCall" -> s.minimumBetForCall = p.getValueAsInt();
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        s.currentBettingRound = bettingRound;
+        s.currentPlayerId = currentPlayerId;
+        s.gamePhase = gamePhase;
+        s.message = message;
+    }
+
+    private void readPlayers(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        int index = 0;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            if (index == playerPool.size()) playerPool.add(new GameState.Player());
+            GameState.Player player = playerPool.get(index++);
+            readPlayer(p, player);
+            state.players.add(player);
+        }
+    }
+
+    private void readPlayer(JsonParser p, GameState.Player player) throws IOException {
+        player.chips = 0;
+        player.currentBet = 0;
+        player.isDealer = false;
+        player.isSmallBlind = false;
+        player.isBigBlind = false;
+        player.isSpectator = false;
+        String id = null;
+        String name = null;
+        String status = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = reuse(p, player.id);
+                case "name" -> name = reuse(p, player.name);
+                case "chips" -> player.chips = p.getValueAsInt();
+                case "status" -> status = reuse(p, player.status);
+                case "currentBet" -> player.currentBet = p.getValueAsInt();
+                case "isDealer" -> player.isDealer = p.getValueAsBoolean();
+                case "isSmallBlind" -> player.isSmallBlind = p.getValueAsBoolean();
+                case "isBigBlind" -> player.isBigBlind = p.getValueAsBoolean();
+                case "isSpectator" -> player.isSpectator = p.getValueAsBoolean();
+                default -> p.skipChildren();
+            }
+        }
+        player.id = id;
+        player.name = name;
+        player.status = status;
+    }
+
+    private void readHand(JsonParser p) throws IOException {
+        handCards.clear();
+        readCards(p, handCards);
+        // A fresh array per hand (one message per hand), since the caller keeps it for the whole hand
+        hand = handCards.toArray(new Card[0]);
+    }
+
+    private static void readCards(JsonParser p, List<Card> out) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            int rank = -1;
+            int suit = -1;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                p.nextToken();
+                if ("rank".equals(field)) rank = Cards.rankIndex(firstChar(p));
+                else if ("suit".equals(field)) suit = Cards.suitIndex(firstChar(p));
+                else p.skipChildren();
+            }
+            if (rank < 0 || suit < 0) {
+                throw new IOException("Invalid card in message");
+            }
+            out.add(Cards.canonical(Cards.of(rank, suit)));
+        }
+    }
+
+    private static char firstChar(JsonParser p) throws IOException {
+        if (p.getTextLength() == 0) return 0;
+        return p.getTextCharacters()[p.getTextOffset()];
+    }
+
+    /** Returns {@code previous} (or a known constant) when the current text matches it, avoiding a new String. */
+    private static String reuse(JsonParser p, String previous) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) return null;
+        char[] chars = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+        if (matches(previous, chars, offset, length)) return previous;
+        for (String known : KNOWN_VALUES) {
+            if (matches(known, chars, offset, length)) return known;
+        }
+        return new String(chars, offset, length);
+    }
+
+    private static boolean matches(String s, char[] chars, int offset, int length) {
+        if (s == null || s.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[offset + i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hands the parser one message at a time. Reaching the end of a message only happens when it
+     * was empty or cut short; the parser then takes the input as finished and is replaced.
+     */
+    private static final class MessageReader extends Reader {
+        private String text;
+        private int position;
+        boolean ended;
+
+        void next(String json) {
+            text = json;
+            position = 0;
+            ended = false;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                ended = true;
+                return -1;
+            }
+            int n = Math.min(length, text.length() - position);
+            text.getChars(position, position + n, buffer, offset);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
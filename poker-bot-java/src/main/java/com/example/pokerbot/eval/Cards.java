@@ -0,0 +1,133 @@
+package com.example.pokerbot.eval;
+
+import java.util.List;
+
+import com.example.pokerbot.model.Card;
+
+/**
+ * Int encoding of cards used by the evaluators.
+ * A card is {@code suit * 13 + rank} (0..51), with rank 0 = deuce .. 12 = ace and
+ * suits in the server's deck order C, D, H, S. A set of cards is a long with one bit per card,
+ * so each suit occupies a contiguous 13-bit rank mask.
+ */
+public final class Cards {
+    public static final int RANKS = 13;
+    public static final int SUITS = 4;
+    public static final int DECK_SIZE = 52;
+    public static final long FULL_DECK = (1L << DECK_SIZE) - 1;
+
+    private static final String RANK_CHARS = "23456789TJQKA";
+    private static final String SUIT_CHARS = "CDHS";
+
+    // Shared, never-mutated Card instances so decoders do not allocate per card
+    private static final Card[] CANONICAL = new Card[DECK_SIZE];
+
+    static {
+        for (int card = 0; card < DECK_SIZE; card++) {
+            CANONICAL[card] = toCard(card);
+        }
+    }
+
+    private Cards() {
+    }
+
+    public static int of(int rank, int suit) {
+        return suit * RANKS + rank;
+    }
+
+    public static int rank(int card) {
+        return card % RANKS;
+    }
+
+    public static int suit(int card) {
+        return card / RANKS;
+    }
+
+    public static long bit(int card) {
+        return 1L << card;
+    }
+
+    public static int encode(Card card) {
+        return of(parseRank(card.rank), parseSuit(card.suit));
+    }
+
+    public static int encode(String text) {
+        if (text == null || text.length() < 2) {
+            throw new IllegalArgumentException("Invalid card: " + text);
+        }
+        return of(parseRank(text.substring(0, text.length() - 1)), parseSuit(text.substring(text.length() - 1)));
+    }
+
+    public static int[] encode(List<Card> cards) {
+        if (cards == null) return new int[0];
+        int[] encoded = new int[cards.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = encode(cards.get(i));
+        }
+        return encoded;
+    }
+
+    public static long mask(List<Card> cards) {
+        long mask = 0L;
+        if (cards == null) return mask;
+        for (Card c : cards) {
+            mask |= bit(encode(c));
+        }
+        return mask;
+    }
+
+    public static long mask(int... cards) {
+        long mask = 0L;
+        for (int c : cards) {
+            mask |= bit(c);
+        }
+        return mask;
+    }
+
+    public static Card toCard(int card) {
+        Card c = new Card();
+        c.rank = String.valueOf(RANK_CHARS.charAt(rank(card)));
+        c.suit = String.valueOf(SUIT_CHARS.charAt(suit(card)));
+        return c;
+    }
+
+    public static Card canonical(int card) {
+        return CANONICAL[card];
+    }
+
+    /** Rank index of a rank character, or -1. {@code '1'} is accepted as the start of "10". */
+    public static int rankIndex(char c) {
+        return c == '1' ? 8 : RANK_CHARS.indexOf(Character.toUpperCase(c));
+    }
+
+    public static int suitIndex(char c) {
+        return SUIT_CHARS.indexOf(Character.toUpperCase(c));
+    }
+
+    public static String toString(int card) {
+        return "" + RANK_CHARS.charAt(rank(card)) + SUIT_CHARS.charAt(suit(card));
+    }
+
+    public static char rankChar(int rank) {
+        return RANK_CHARS.charAt(rank);
+    }
+
+    public static int parseRank(String rank) {
+        if (rank != null) {
+            if ("10".equals(rank)) return 8;
+            if (rank.length() == 1) {
+                int r = RANK_CHARS.indexOf(Character.toUpperCase(rank.charAt(0)));
+                if (r >= 0) return r;
+            }
+        }
+        throw new IllegalArgumentException("Invalid rank: " + rank);
+    }
+
+    public static int parseSuit(String suit) {
+        if (suit != null && suit.length() == 1) {
+            int s = SUIT_CHARS.indexOf(Character.toUpperCase(suit.charAt(0)));
+            if (s >= 0) return s;
+        }
+        throw new IllegalArgumentException("Invalid suit: " + suit);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.pokerbot.eval;
+
+/**
+ * Answers preflop spots from the precomputed {@link PreflopTable} when one is loaded, picks
+ * exact enumeration when the remaining runouts fit the work budget (typically turn and river)
+ * and falls back to Monte Carlo sampling otherwise.
+ */
+public class EquityCalculator {
+    private final MonteCarloEquity monteCarlo;
+    private final PreflopTable preflopTable;
+    private final double maxExactWork;
+    private final long maxSamples;
+    private final long budgetNanos;
+
+    public EquityCalculator(MonteCarloEquity monteCarlo, PreflopTable preflopTable,
+                            double maxExactWork, long maxSamples, long budgetNanos) {
+        this.monteCarlo = monteCarlo;
+        this.preflopTable = preflopTable;
+        this.maxExactWork = maxExactWork;
+        this.maxSamples = maxSamples;
+        this.budgetNanos = budgetNanos;
+    }
+
+    public EquityResult calculate(int[] hole, int[] board, int opponents) {
+        if (board.length == 0 && hole.length == 2 && preflopTable != null && preflopTable.covers(opponents)) {
+            return preflopTable.lookup(hole[0], hole[1], opponents);
+        }
+        if (ExactEquity.work(hole, board, opponents) <= maxExactWork) {
+            return ExactEquity.enumerate(hole, board, opponents);
+        }
+        return monteCarlo.estimate(hole, board, opponents, maxSamples, budgetNanos);
+    }
+}
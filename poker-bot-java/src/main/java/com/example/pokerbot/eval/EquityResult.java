@@ -0,0 +1,25 @@
+package com.example.pokerbot.eval;
+
+import lombok.ToString;
+
+/**
+ * Hero's showdown odds: probability of winning outright, of splitting the pot,
+ * and equity (win probability plus the hero's share of split pots). {@code samples} counts
+ * simulated runouts, or every enumerated outcome when the result is exact.
+ */
+@ToString
+public class EquityResult {
+    public final double win;
+    public final double tie;
+    public final double equity;
+    public final long samples;
+    public final boolean exact;
+
+    public EquityResult(double win, double tie, double equity, long samples, boolean exact) {
+        this.win = win;
+        this.tie = tie;
+        this.equity = equity;
+        this.samples = samples;
+        this.exact = exact;
+    }
+}
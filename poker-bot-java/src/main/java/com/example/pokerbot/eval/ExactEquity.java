@@ -0,0 +1,194 @@
+package com.example.pokerbot.eval;
+
+import java.util.Arrays;
+
+/**
+ * Exact equity by enumerating every board runout and every assignment of opponent hands.
+ * <p>
+ * Dead cards are tracked in 64-bit masks. For each runout every possible opponent combo is
+ * evaluated once and classified as losing to, tying or beating the hero, with per-card
+ * class counts. The last opponent is then resolved by inclusion-exclusion over the cards
+ * already taken instead of being enumerated, and any opponent that already beats the hero
+ * closes its subtree with a closed-form count. Callers should check {@link #work} first:
+ * the cost still grows quickly with missing board cards and opponents.
+ */
+public final class ExactEquity {
+    private static final int LOSS = 0;
+    private static final int TIE = 1;
+    private static final int WIN = 2;
+
+    private ExactEquity() {
+    }
+
+    /**
+     * Rough number of evaluations plus opponent assignments visited by {@link #enumerate}.
+     */
+    public static double work(int[] hole, int[] board, int opponents) {
+        int live = Cards.DECK_SIZE - Long.bitCount(Cards.mask(hole) | Cards.mask(board));
+        int missing = 5 - board.length;
+        int remaining = live - missing;
+        double assignments = 1;
+        for (int o = 0; o < opponents - 1; o++) {
+            assignments *= choose(remaining - 2 * o, 2);
+        }
+        return choose(live, missing) * (choose(remaining, 2) + assignments);
+    }
+
+    public static EquityResult enumerate(int[] hole, int[] board, int opponents) {
+        if (opponents < 1) {
+            return new EquityResult(1.0, 0.0, 1.0, 0, true);
+        }
+        long dead = Cards.mask(hole) | Cards.mask(board);
+        int missing = 5 - board.length;
+        if (Cards.DECK_SIZE - Long.bitCount(dead) < missing + 2 * opponents) {
+            throw new IllegalArgumentException("Not enough cards left for " + opponents + " opponents");
+        }
+        Enumeration e = new Enumeration(Cards.mask(hole), opponents, dead, missing);
+        e.runouts(0, missing, Cards.mask(board));
+        if (e.total == 0) {
+            return new EquityResult(0.0, 0.0, 0.0, 0, true);
+        }
+        return new EquityResult(e.wins / e.total, e.ties / e.total, e.share / e.total, (long) e.total, true);
+    }
+
+    private static double choose(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        double r = 1;
+        for (int i = 0; i < k; i++) {
+            r = r * (n - i) / (i + 1);
+        }
+        return r;
+    }
+
+    private static final class Enumeration {
+        private final long hole;
+        private final int opponents;
+        private final int[] live;
+        private final int available;
+
+        // Per-runout tables: opponent combos, their outcome class and per-card class counts
+        private final int[] comboFirst;
+        private final int[] comboSecond;
+        private final byte[] comboClass;
+        private final byte[] pairClass = new byte[Cards.DECK_SIZE * Cards.DECK_SIZE];
+        private final int[][] cardCounts = new int[3][Cards.DECK_SIZE];
+        private final int[] classTotals = new int[3];
+        private final int[] taken;
+        private int combos;
+
+        double total;
+        double wins;
+        double ties;
+        double share;
+
+        Enumeration(long hole, int opponents, long dead, int missing) {
+            this.hole = hole;
+            this.opponents = opponents;
+            this.live = new int[Cards.DECK_SIZE - Long.bitCount(dead)];
+            int n = 0;
+            for (int card = 0; card < Cards.DECK_SIZE; card++) {
+                if ((dead & Cards.bit(card)) == 0) live[n++] = card;
+            }
+            this.available = n - missing;
+            this.comboFirst = new int[n * (n - 1) / 2];
+            this.comboSecond = new int[comboFirst.length];
+            this.comboClass = new byte[comboFirst.length];
+            this.taken = new int[2 * opponents];
+        }
+
+        void runouts(int start, int missing, long board) {
+            if (missing == 0) {
+                showdown(board);
+                return;
+            }
+            for (int i = start; i <= live.length - missing; i++) {
+                runouts(i + 1, missing - 1, board | Cards.bit(live[i]));
+            }
+        }
+
+        private void showdown(long board) {
+            int heroValue = HandEvaluator.evaluate(hole | board);
+            for (int[] counts : cardCounts) {
+                Arrays.fill(counts, 0);
+            }
+            Arrays.fill(classTotals, 0);
+            combos = 0;
+            for (int i = 0; i < live.length; i++) {
+                int a = live[i];
+                if ((board & Cards.bit(a)) != 0) continue;
+                for (int j = i + 1; j < live.length; j++) {
+                    int b = live[j];
+                    if ((board & Cards.bit(b)) != 0) continue;
+                    int value = HandEvaluator.evaluate(board | Cards.bit(a) | Cards.bit(b));
+                    int cls = value < heroValue ? LOSS : value == heroValue ? TIE : WIN;
+                    comboFirst[combos] = a;
+                    comboSecond[combos] = b;
+                    comboClass[combos] = (byte) cls;
+                    pairClass[a * Cards.DECK_SIZE + b] = (byte) cls;
+                    cardCounts[cls][a]++;
+                    cardCounts[cls][b]++;
+                    classTotals[cls]++;
+                    combos++;
+                }
+            }
+            assign(0, 0L, 0);
+        }
+
+        /**
+         * Walks ordered assignments of opponents 0..n-2; the last opponent is counted in closed form.
+         */
+        private void assign(int depth, long used, int tied) {
+            if (depth == opponents - 1) {
+                double losing = disjoint(LOSS, depth);
+                double tying = disjoint(TIE, depth);
+                double beating = disjoint(WIN, depth);
+                total += losing + tying + beating;
+                if (tied == 0) {
+                    wins += losing;
+                    ties += tying;
+                } else {
+                    ties += losing + tying;
+                }
+                share += losing / (tied + 1) + tying / (tied + 2);
+                return;
+            }
+            for (int j = 0; j < combos; j++) {
+                int a = comboFirst[j];
+                int b = comboSecond[j];
+                long mask = Cards.bit(a) | Cards.bit(b);
+                if ((used & mask) != 0) continue;
+                if (comboClass[j] == WIN) {
+                    total += completions(depth + 1);
+                    continue;
+                }
+                taken[2 * depth] = a;
+                taken[2 * depth + 1] = b;
+                assign(depth + 1, used | mask, comboClass[j] == TIE ? tied + 1 : tied);
+            }
+        }
+
+        /** Combos of the given class that share no card with the first {@code depth} opponents. */
+        private double disjoint(int cls, int depth) {
+            int count = classTotals[cls];
+            int n = 2 * depth;
+            for (int i = 0; i < n; i++) {
+                count -= cardCounts[cls][taken[i]];
+                for (int k = i + 1; k < n; k++) {
+                    int a = Math.min(taken[i], taken[k]);
+                    int b = Math.max(taken[i], taken[k]);
+                    if (pairClass[a * Cards.DECK_SIZE + b] == cls) count++;
+                }
+            }
+            return count;
+        }
+
+        /** Ordered ways to deal the opponents from {@code depth} on once {@code depth} hands are out. */
+        private double completions(int depth) {
+            double ways = 1;
+            for (int o = depth; o < opponents; o++) {
+                ways *= choose(available - 2 * o, 2);
+            }
+            return ways;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.pokerbot.eval;
+
+/**
+ * Hand categories in the same order as the server's {@code HandRankType}.
+ */
+public enum HandCategory {
+    HIGH_CARD("High Card"),
+    PAIR("Pair"),
+    TWO_PAIR("Two Pair"),
+    THREE_OF_A_KIND("Three of a Kind"),
+    STRAIGHT("Straight"),
+    FLUSH("Flush"),
+    FULL_HOUSE("Full House"),
+    FOUR_OF_A_KIND("Four of a Kind"),
+    STRAIGHT_FLUSH("Straight Flush"),
+    ROYAL_FLUSH("Royal Flush");
+
+    private static final HandCategory[] VALUES = values();
+
+    private final String displayName;
+
+    HandCategory(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    static HandCategory of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
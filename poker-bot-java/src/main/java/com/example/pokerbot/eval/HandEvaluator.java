@@ -0,0 +1,141 @@
+package com.example.pokerbot.eval;
+
+import java.util.List;
+
+import com.example.pokerbot.model.Card;
+
+/**
+ * Table-driven evaluator for 5 to 7 card hands encoded as a {@link Cards} bit mask.
+ * <p>
+ * The result is a single int where a higher value is a better hand: the {@link HandCategory}
+ * ordinal sits above bit 20 and the deciding ranks are packed below it as 4-bit nibbles,
+ * most significant first. Evaluation only reads the static tables, so it allocates nothing
+ * and is safe to call from many threads.
+ */
+public final class HandEvaluator {
+    private static final int CATEGORY_SHIFT = 20;
+    private static final int RANK_MASK = 0x1FFF;
+
+    /** Highest rank of a straight contained in a 13-bit rank mask, or -1. */
+    private static final byte[] STRAIGHT_HIGH = new byte[1 << Cards.RANKS];
+    /** Up to five highest ranks of a rank mask packed as nibbles, highest in bits 16..19. */
+    private static final int[] TOP_FIVE = new int[1 << Cards.RANKS];
+
+    static {
+        for (int mask = 0; mask < STRAIGHT_HIGH.length; mask++) {
+            STRAIGHT_HIGH[mask] = (byte) straightHigh(mask);
+            int packed = 0;
+            int remaining = mask;
+            for (int i = 0; i < 5; i++) {
+                packed <<= 4;
+                if (remaining != 0) {
+                    int top = highestRank(remaining);
+                    packed |= top;
+                    remaining &= ~(1 << top);
+                }
+            }
+            TOP_FIVE[mask] = packed;
+        }
+    }
+
+    private HandEvaluator() {
+    }
+
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5, int c6, int c7) {
+        return evaluate(1L << c1 | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5 | 1L << c6 | 1L << c7);
+    }
+
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5) {
+        return evaluate(1L << c1 | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5);
+    }
+
+    public static int evaluate(List<Card> holeCards, List<Card> communityCards) {
+        return evaluate(Cards.mask(holeCards) | Cards.mask(communityCards));
+    }
+
+    public static int evaluate(long cards) {
+        int c = (int) cards & RANK_MASK;
+        int d = (int) (cards >>> 13) & RANK_MASK;
+        int h = (int) (cards >>> 26) & RANK_MASK;
+        int s = (int) (cards >>> 39) & RANK_MASK;
+        int ranks = c | d | h | s;
+
+        int flush = 0;
+        if (Integer.bitCount(c) >= 5) flush = c;
+        else if (Integer.bitCount(d) >= 5) flush = d;
+        else if (Integer.bitCount(h) >= 5) flush = h;
+        else if (Integer.bitCount(s) >= 5) flush = s;
+
+        if (flush != 0) {
+            int high = STRAIGHT_HIGH[flush];
+            if (high >= 0) {
+                HandCategory category = high == 12 ? HandCategory.ROYAL_FLUSH : HandCategory.STRAIGHT_FLUSH;
+                return category.ordinal() << CATEGORY_SHIFT | high << 16;
+            }
+        }
+
+        int quads = c & d & h & s;
+        if (quads != 0) {
+            int quad = highestRank(quads);
+            int kicker = highestRank(ranks & ~(1 << quad));
+            return HandCategory.FOUR_OF_A_KIND.ordinal() << CATEGORY_SHIFT | quad << 16 | kicker << 12;
+        }
+
+        int trips = ((c & d) | (h & s)) & ((c & h) | (d & s));
+        int pairs = (ranks ^ (c ^ d ^ h ^ s)) & ~quads;
+        int trip = trips != 0 ? highestRank(trips) : -1;
+
+        if (trip >= 0) {
+            int filler = (trips & ~(1 << trip)) | pairs;
+            if (filler != 0) {
+                return HandCategory.FULL_HOUSE.ordinal() << CATEGORY_SHIFT | trip << 16 | highestRank(filler) << 12;
+            }
+        }
+
+        if (flush != 0) {
+            return HandCategory.FLUSH.ordinal() << CATEGORY_SHIFT | TOP_FIVE[flush];
+        }
+
+        int straight = STRAIGHT_HIGH[ranks];
+        if (straight >= 0) {
+            return HandCategory.STRAIGHT.ordinal() << CATEGORY_SHIFT | straight << 16;
+        }
+
+        if (trip >= 0) {
+            int kickers = TOP_FIVE[ranks & ~(1 << trip)] >>> 12;
+            return HandCategory.THREE_OF_A_KIND.ordinal() << CATEGORY_SHIFT | trip << 16 | kickers << 8;
+        }
+
+        if (pairs != 0) {
+            int top = highestRank(pairs);
+            int others = pairs & ~(1 << top);
+            if (others != 0) {
+                int second = highestRank(others);
+                int kicker = highestRank(ranks & ~(1 << top) & ~(1 << second));
+                return HandCategory.TWO_PAIR.ordinal() << CATEGORY_SHIFT | top << 16 | second << 12 | kicker << 8;
+            }
+            int kickers = TOP_FIVE[ranks & ~(1 << top)] >>> 8;
+            return HandCategory.PAIR.ordinal() << CATEGORY_SHIFT | top << 16 | kickers << 4;
+        }
+
+        return HandCategory.HIGH_CARD.ordinal() << CATEGORY_SHIFT | TOP_FIVE[ranks];
+    }
+
+    public static HandCategory category(int value) {
+        return HandCategory.of(value >>> CATEGORY_SHIFT);
+    }
+
+    private static int highestRank(int mask) {
+        return 31 - Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static int straightHigh(int mask) {
+        for (int high = 12; high >= 4; high--) {
+            int run = 0x1F << (high - 4);
+            if ((mask & run) == run) return high;
+        }
+        // Ace-low straight (A,2,3,4,5) plays as five high
+        int wheel = 1 << 12 | 0xF;
+        return (mask & wheel) == wheel ? 3 : -1;
+    }
+}
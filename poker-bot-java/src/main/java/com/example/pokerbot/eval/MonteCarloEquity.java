@@ -0,0 +1,160 @@
+package com.example.pokerbot.eval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Monte Carlo equity of a hero hand against a number of random opponent hands.
+ * <p>
+ * Work is split into one task per worker of the fork-join pool. Each task owns a
+ * {@link SplittableRandom} and a primitive deck of the live cards, deals with a partial
+ * Fisher-Yates shuffle and evaluates with {@link HandEvaluator}, so the sampling loop
+ * allocates nothing. Sampling stops at the sample limit or the time budget, whichever
+ * comes first.
+ */
+public class MonteCarloEquity {
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final ForkJoinPool pool;
+    private final SplittableRandom seed;
+
+    public MonteCarloEquity() {
+        this(ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    public MonteCarloEquity(ForkJoinPool pool, SplittableRandom seed) {
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /**
+     * @param hole        hero's hole cards
+     * @param board       community cards dealt so far (0 to 5)
+     * @param opponents   number of opponents holding random hands
+     * @param maxSamples  upper bound on the number of simulated runouts
+     * @param budgetNanos wall-clock budget, or 0 for no limit
+     */
+    public EquityResult estimate(int[] hole, int[] board, int opponents, long maxSamples, long budgetNanos) {
+        if (opponents < 1) {
+            return new EquityResult(1.0, 0.0, 1.0, 0, false);
+        }
+        long dead = Cards.mask(hole) | Cards.mask(board);
+        int missing = 5 - board.length;
+        if (Cards.DECK_SIZE - Long.bitCount(dead) < missing + 2 * opponents) {
+            throw new IllegalArgumentException("Not enough cards left for " + opponents + " opponents");
+        }
+
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        int workers = Math.max(1, pool.getParallelism());
+        long perWorker = Math.max(1, maxSamples / workers);
+
+        List<ForkJoinTask<Tally>> tasks = new ArrayList<>(workers);
+        synchronized (seed) {
+            for (int i = 0; i < workers; i++) {
+                Worker worker = new Worker(Cards.mask(hole), Cards.mask(board), missing, opponents,
+                        dead, perWorker, deadline, seed.split());
+                tasks.add(pool.submit(worker::run));
+            }
+        }
+
+        Tally total = new Tally();
+        for (ForkJoinTask<Tally> task : tasks) {
+            Tally t = task.join();
+            total.samples += t.samples;
+            total.wins += t.wins;
+            total.ties += t.ties;
+            total.share += t.share;
+        }
+        return total.toResult();
+    }
+
+    static final class Tally {
+        long samples;
+        long wins;
+        long ties;
+        double share;
+
+        EquityResult toResult() {
+            if (samples == 0) {
+                return new EquityResult(0.0, 0.0, 0.0, 0, false);
+            }
+            return new EquityResult((double) wins / samples, (double) ties / samples, share / samples, samples, false);
+        }
+    }
+
+    private static final class Worker {
+        private final long hole;
+        private final long board;
+        private final int missing;
+        private final int opponents;
+        private final long samples;
+        private final long deadline;
+        private final SplittableRandom random;
+        private final int[] deck;
+
+        Worker(long hole, long board, int missing, int opponents, long dead,
+               long samples, long deadline, SplittableRandom random) {
+            this.hole = hole;
+            this.board = board;
+            this.missing = missing;
+            this.opponents = opponents;
+            this.samples = samples;
+            this.deadline = deadline;
+            this.random = random;
+            this.deck = new int[Cards.DECK_SIZE - Long.bitCount(dead)];
+            int n = 0;
+            for (int card = 0; card < Cards.DECK_SIZE; card++) {
+                if ((dead & Cards.bit(card)) == 0) deck[n++] = card;
+            }
+        }
+
+        Tally run() {
+            Tally tally = new Tally();
+            int[] deck = this.deck;
+            int size = deck.length;
+            int drawn = missing + 2 * opponents;
+
+            for (long i = 0; i < samples; i++) {
+                if ((i & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && i > 0 && System.nanoTime() >= deadline) break;
+
+                for (int k = 0; k < drawn; k++) {
+                    int j = k + random.nextInt(size - k);
+                    int tmp = deck[k];
+                    deck[k] = deck[j];
+                    deck[j] = tmp;
+                }
+
+                long runout = board;
+                for (int k = 0; k < missing; k++) {
+                    runout |= Cards.bit(deck[k]);
+                }
+                int heroValue = HandEvaluator.evaluate(hole | runout);
+
+                int best = 0;
+                int tied = 0;
+                for (int o = 0, k = missing; o < opponents; o++, k += 2) {
+                    int value = HandEvaluator.evaluate(runout | Cards.bit(deck[k]) | Cards.bit(deck[k + 1]));
+                    if (value > best) {
+                        best = value;
+                        tied = value == heroValue ? 1 : 0;
+                    } else if (value == best && value == heroValue) {
+                        tied++;
+                    }
+                }
+
+                if (heroValue > best) {
+                    tally.wins++;
+                    tally.share += 1.0;
+                } else if (heroValue == best) {
+                    tally.ties++;
+                    tally.share += 1.0 / (tied + 1);
+                }
+                tally.samples++;
+            }
+            return tally;
+        }
+    }
+}
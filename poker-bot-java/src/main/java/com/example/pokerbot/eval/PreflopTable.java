@@ -0,0 +1,117 @@
+package com.example.pokerbot.eval;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only view of the preflop equity file written by {@link PreflopTableGenerator}.
+ * <p>
+ * Layout (big-endian): int magic, short version, short classes, short maxOpponents, short reserved,
+ * then for every starting-hand class and opponent count 1..maxOpponents three unsigned 16-bit
+ * fixed-point values: win, tie and equity. The file is memory-mapped, so a lookup is a couple
+ * of absolute reads with no heap copy.
+ */
+public class PreflopTable {
+    static final int MAGIC = 0x50464551; // "PFEQ"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int ENTRY_BYTES = 6;
+    static final double SCALE = 65535.0;
+
+    public static final String RESOURCE = "preflop-equity.bin";
+
+    private final ByteBuffer buffer;
+    private final int maxOpponents;
+
+    PreflopTable(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || buffer.getShort(6) != StartingHand.CLASSES) {
+            throw new IllegalArgumentException("Not a preflop equity table");
+        }
+        this.buffer = buffer;
+        this.maxOpponents = buffer.getShort(8);
+        if (buffer.capacity() < HEADER_BYTES + StartingHand.CLASSES * maxOpponents * ENTRY_BYTES) {
+            throw new IllegalArgumentException("Truncated preflop equity table");
+        }
+    }
+
+    public static PreflopTable map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PreflopTable(buffer);
+        }
+    }
+
+    /**
+     * Maps the table bundled on the classpath. When it sits inside a jar it is first
+     * extracted to a temporary file, since only files can be mapped.
+     */
+    public static PreflopTable mapResource() throws IOException {
+        return mapResource(PreflopTable.class.getClassLoader());
+    }
+
+    static PreflopTable mapResource(ClassLoader loader) throws IOException {
+        URL url = loader.getResource(RESOURCE);
+        if (url == null) {
+            throw new IOException("Missing classpath resource " + RESOURCE);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return map(Path.of(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        Path copy = Files.createTempFile("preflop-equity", ".bin");
+        copy.toFile().deleteOnExit();
+        try (InputStream in = url.openStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return map(copy);
+    }
+
+    public int getMaxOpponents() {
+        return maxOpponents;
+    }
+
+    public boolean covers(int opponents) {
+        return opponents >= 1 && opponents <= maxOpponents;
+    }
+
+    /** Starting-hand classes ordered by heads-up equity, best first. */
+    public int[] ranking() {
+        Integer[] classes = new Integer[StartingHand.CLASSES];
+        double[] equity = new double[StartingHand.CLASSES];
+        for (int cls = 0; cls < StartingHand.CLASSES; cls++) {
+            int[] hand = StartingHand.representative(cls);
+            classes[cls] = cls;
+            equity[cls] = lookup(hand[0], hand[1], 1).equity;
+        }
+        Arrays.sort(classes, (a, b) -> Double.compare(equity[b], equity[a]));
+        int[] ranking = new int[StartingHand.CLASSES];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = classes[i];
+        }
+        return ranking;
+    }
+
+    public EquityResult lookup(int card1, int card2, int opponents) {
+        if (!covers(opponents)) {
+            throw new IllegalArgumentException("No preflop entry for " + opponents + " opponents");
+        }
+        int offset = HEADER_BYTES + (StartingHand.index(card1, card2) * maxOpponents + opponents - 1) * ENTRY_BYTES;
+        double win = (buffer.getShort(offset) & 0xFFFF) / SCALE;
+        double tie = (buffer.getShort(offset + 2) & 0xFFFF) / SCALE;
+        double equity = (buffer.getShort(offset + 4) & 0xFFFF) / SCALE;
+        return new EquityResult(win, tie, equity, 0, false);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.pokerbot.eval;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Offline generator for the {@link PreflopTable} file.
+ * <p>
+ * Usage: {@code java -cp target/classes com.example.pokerbot.eval.PreflopTableGenerator
+ * <output> [samples] [maxOpponents]}. The bundled table was built with the defaults
+ * (200000 samples, 9 opponents) into {@code src/main/resources/preflop-equity.bin}.
+ */
+public final class PreflopTableGenerator {
+    private static final long DEFAULT_SAMPLES = 200_000;
+    private static final int DEFAULT_MAX_OPPONENTS = 9;
+
+    private PreflopTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PreflopTableGenerator <output> [samples] [maxOpponents]");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        long samples = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SAMPLES;
+        int maxOpponents = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_OPPONENTS;
+        MonteCarloEquity monteCarlo = new MonteCarloEquity(ForkJoinPool.commonPool(), new SplittableRandom(169));
+        generate(monteCarlo, output, samples, maxOpponents);
+    }
+
+    public static void generate(MonteCarloEquity monteCarlo, Path output, long samples, int maxOpponents) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(
+                PreflopTable.HEADER_BYTES + StartingHand.CLASSES * maxOpponents * PreflopTable.ENTRY_BYTES);
+        buffer.putInt(PreflopTable.MAGIC);
+        buffer.putShort(PreflopTable.VERSION);
+        buffer.putShort((short) StartingHand.CLASSES);
+        buffer.putShort((short) maxOpponents);
+        buffer.putShort((short) 0);
+
+        int[] board = new int[0];
+        for (int index = 0; index < StartingHand.CLASSES; index++) {
+            int[] hole = StartingHand.representative(index);
+            double headsUp = 0;
+            for (int opponents = 1; opponents <= maxOpponents; opponents++) {
+                EquityResult r = monteCarlo.estimate(hole, board, opponents, samples, 0);
+                buffer.putShort(fixedPoint(r.win));
+                buffer.putShort(fixedPoint(r.tie));
+                buffer.putShort(fixedPoint(r.equity));
+                if (opponents == 1) headsUp = r.equity;
+            }
+            System.out.printf("%-4s %.4f%n", StartingHand.name(index), headsUp);
+        }
+
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(output,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static short fixedPoint(double p) {
+        return (short) Math.round(Math.max(0.0, Math.min(1.0, p)) * PreflopTable.SCALE);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.pokerbot.eval;
+
+import java.util.Arrays;
+
+/**
+ * A weighted range of hole cards: one weight per each of the 1326 two-card combos.
+ * <p>
+ * Combos are numbered by their cards in ascending order (0+1, 0+2, .., 50+51), and the static
+ * tables give each combo's cards, its {@link Cards} mask and its rank pair, so card removal is
+ * a mask test and the loops over a range run over flat primitive arrays. A weight is the relative
+ * likelihood of the combo, not a probability; ranges need not be normalised.
+ * <p>
+ * Immutable once a factory has built it, so one instance can be shared between sessions and
+ * serve as a cache key by identity.
+ */
+public final class Range {
+    public static final int COMBOS = Cards.DECK_SIZE * (Cards.DECK_SIZE - 1) / 2;
+
+    static final int[] FIRST = new int[COMBOS];
+    static final int[] SECOND = new int[COMBOS];
+    static final long[] MASK = new long[COMBOS];
+    /** Index of the combo's two ranks on the 13x13 grid, higher rank first, suits ignored. */
+    static final int[] RANK_PAIR = new int[COMBOS];
+    private static final short[] INDEX = new short[Cards.DECK_SIZE * Cards.DECK_SIZE];
+    private static final int[][] CLASS_MEMBERS = new int[StartingHand.CLASSES][];
+
+    static {
+        int[] classCombos = new int[StartingHand.CLASSES];
+        int c = 0;
+        for (int a = 0; a < Cards.DECK_SIZE; a++) {
+            for (int b = a + 1; b < Cards.DECK_SIZE; b++) {
+                FIRST[c] = a;
+                SECOND[c] = b;
+                MASK[c] = Cards.bit(a) | Cards.bit(b);
+                RANK_PAIR[c] = Math.max(Cards.rank(a), Cards.rank(b)) * Cards.RANKS + Math.min(Cards.rank(a), Cards.rank(b));
+                INDEX[a * Cards.DECK_SIZE + b] = (short) c;
+                INDEX[b * Cards.DECK_SIZE + a] = (short) c;
+                classCombos[StartingHand.index(a, b)]++;
+                c++;
+            }
+        }
+        for (int cls = 0; cls < StartingHand.CLASSES; cls++) {
+            CLASS_MEMBERS[cls] = new int[classCombos[cls]];
+            classCombos[cls] = 0;
+        }
+        for (c = 0; c < COMBOS; c++) {
+            int cls = StartingHand.index(FIRST[c], SECOND[c]);
+            CLASS_MEMBERS[cls][classCombos[cls]++] = c;
+        }
+    }
+
+    private final float[] weights = new float[COMBOS];
+
+    /** Every combo with weight 1: a random hand. */
+    public static Range uniform() {
+        Range range = new Range();
+        Arrays.fill(range.weights, 1f);
+        return range;
+    }
+
+    /** A single known hand. */
+    public static Range of(int card1, int card2) {
+        Range range = new Range();
+        range.weights[index(card1, card2)] = 1f;
+        return range;
+    }
+
+    /**
+     * The best {@code fraction} of all combos by {@code ranking} (starting-hand classes, best
+     * first). The class on the boundary gets a partial weight, so the range grows smoothly with
+     * the fraction.
+     */
+    public static Range top(int[] ranking, double fraction) {
+        Range range = new Range();
+        double remaining = Math.max(0, Math.min(1, fraction)) * COMBOS;
+        for (int i = 0; i < ranking.length && remaining > 0; i++) {
+            int cls = ranking[i];
+            int combos = CLASS_MEMBERS[cls].length;
+            range.setClass(cls, (float) Math.min(1, remaining / combos));
+            remaining -= combos;
+        }
+        return range;
+    }
+
+    public static int index(int card1, int card2) {
+        if (card1 == card2) {
+            throw new IllegalArgumentException("Not two distinct cards: " + Cards.toString(card1));
+        }
+        return INDEX[card1 * Cards.DECK_SIZE + card2];
+    }
+
+    public static int first(int combo) {
+        return FIRST[combo];
+    }
+
+    public static int second(int combo) {
+        return SECOND[combo];
+    }
+
+    public float weight(int combo) {
+        return weights[combo];
+    }
+
+    /** Sets every combo of a {@link StartingHand} class; only while building. */
+    private void setClass(int startingHand, float weight) {
+        for (int c : CLASS_MEMBERS[startingHand]) {
+            weights[c] = weight;
+        }
+    }
+
+    /** The weights, indexed by combo; shared with the evaluation loops, never modify. */
+    float[] weights() {
+        return weights;
+    }
+}
@@ -0,0 +1,555 @@
+package com.example.pokerbot.eval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Equity of a hand or a {@link Range} against weighted opponent ranges, on any board.
+ * <p>
+ * Runouts are enumerated when there are at most {@code maxRunouts} of them (from the flop on)
+ * and sampled otherwise, and split into one chunk per worker of the fork-join pool. Combos that
+ * cannot make a flush on a runout are worth the same for every suit combination of their two
+ * ranks, and with at most two cards to come that value only depends on the ranks of those cards,
+ * so a flop needs a few thousand evaluations in all instead of one per combo and runout. Against
+ * a hand, each runout works on per-rank-pair weight totals: the combos the runout's cards block
+ * and the flush combos are subtracted, the flush combos are valued one by one, and every rank
+ * pair is compared once. Against a range, every live combo is valued and the two ranges are
+ * swept in value order. Everything runs over flat primitive arrays.
+ * <p>
+ * Card removal is exact for the hero and the board. Several opponent ranges are treated as
+ * independent of each other: on each runout the hero's chance to beat all of them is the
+ * product of the chances to beat each one, which ignores the cards opponents take from each
+ * other. Split pots are shared as if between two players. Hand against range takes about a
+ * millisecond on the flop and a few pre-flop (sampled); range against range is meant for the
+ * turn and river, it takes tens of milliseconds on the flop.
+ */
+public class RangeEquity {
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+    // Below this many runouts per worker a chunk is not worth a task
+    private static final int MIN_CHUNK = 64;
+    private static final long[] SUIT_MASK = new long[Cards.SUITS];
+
+    static {
+        for (int s = 0; s < Cards.SUITS; s++) {
+            SUIT_MASK[s] = 0x1FFFL << (s * Cards.RANKS);
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final SplittableRandom seed;
+    private final int maxRunouts;
+    private final long budgetNanos;
+
+    /**
+     * @param maxRunouts  runouts enumerated at most, and sampled when there are more
+     * @param budgetNanos wall-clock budget per calculation, or 0 for no limit
+     */
+    public RangeEquity(int maxRunouts, long budgetNanos) {
+        this(ForkJoinPool.commonPool(), new SplittableRandom(), maxRunouts, budgetNanos);
+    }
+
+    public RangeEquity(ForkJoinPool pool, SplittableRandom seed, int maxRunouts, long budgetNanos) {
+        this.pool = pool;
+        this.seed = seed;
+        this.maxRunouts = maxRunouts;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Equity of {@code hole} against one range per opponent still in the hand, or null when some
+     * range holds no combo clear of the known cards (or none on any runout within the budget).
+     */
+    public EquityResult heroVsRanges(int[] hole, int[] board, Range... opponents) {
+        if (opponents.length == 0) {
+            return new EquityResult(1.0, 0.0, 1.0, 0, true);
+        }
+        long hero = Cards.mask(hole);
+        float[][] weights = new float[opponents.length][];
+        for (int i = 0; i < opponents.length; i++) {
+            weights[i] = opponents[i].weights();
+        }
+        return run(hero, Cards.mask(board), board.length, weights, null);
+    }
+
+    /** Equity of {@code range} against {@code opponent}, averaged over both ranges' combos, or null as above. */
+    public EquityResult rangeVsRange(Range range, Range opponent, int[] board) {
+        return run(0L, Cards.mask(board), board.length, new float[][] {opponent.weights()}, range.weights());
+    }
+
+    private EquityResult run(long hero, long board, int boardSize, float[][] opponents, float[] heroRange) {
+        long[] runouts;
+        boolean exact;
+        long dead = hero | board;
+        int[] deck = new int[Cards.DECK_SIZE - Long.bitCount(dead)];
+        int n = 0;
+        for (int card = 0; card < Cards.DECK_SIZE; card++) {
+            if ((dead & Cards.bit(card)) == 0) deck[n++] = card;
+        }
+        int missing = 5 - boardSize;
+        if (choose(deck.length, missing) <= maxRunouts) {
+            runouts = new long[(int) choose(deck.length, missing)];
+            enumerate(deck, 0, missing, board, runouts, 0);
+            exact = true;
+        } else {
+            SplittableRandom random;
+            synchronized (seed) {
+                random = seed.split();
+            }
+            runouts = sample(deck, missing, board, random);
+            exact = false;
+        }
+
+        Combos combos = new Combos(dead, opponents, heroRange);
+
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        int chunks = Math.max(1, Math.min(pool.getParallelism(), runouts.length / MIN_CHUNK));
+        Tally total = new Tally();
+        if (chunks == 1) {
+            total = new Worker(hero, board, missing, opponents, heroRange, combos, runouts, 0, runouts.length, deadline).run();
+        } else {
+            List<ForkJoinTask<Tally>> tasks = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                Worker worker = new Worker(hero, board, missing, opponents, heroRange, combos, runouts,
+                    (int) ((long) runouts.length * i / chunks), (int) ((long) runouts.length * (i + 1) / chunks), deadline);
+                tasks.add(pool.submit(worker::run));
+            }
+            for (ForkJoinTask<Tally> task : tasks) {
+                total.add(task.join());
+            }
+        }
+        return total.toResult(exact && total.runouts == runouts.length);
+    }
+
+    private static int enumerate(int[] deck, int start, int missing, long board, long[] out, int n) {
+        if (missing == 0) {
+            out[n] = board;
+            return n + 1;
+        }
+        for (int i = start; i <= deck.length - missing; i++) {
+            n = enumerate(deck, i + 1, missing - 1, board | Cards.bit(deck[i]), out, n);
+        }
+        return n;
+    }
+
+    private long[] sample(int[] deck, int missing, long board, SplittableRandom random) {
+        long[] runouts = new long[maxRunouts];
+        int[] cards = deck.clone();
+        for (int r = 0; r < runouts.length; r++) {
+            long runout = board;
+            for (int k = 0; k < missing; k++) {
+                int j = k + random.nextInt(cards.length - k);
+                int tmp = cards[k];
+                cards[k] = cards[j];
+                cards[j] = tmp;
+                runout |= Cards.bit(cards[k]);
+            }
+            runouts[r] = runout;
+        }
+        return runouts;
+    }
+
+    private static double choose(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        double r = 1;
+        for (int i = 0; i < k; i++) {
+            r = r * (n - i) / (i + 1);
+        }
+        return r;
+    }
+
+    static final class Tally {
+        long runouts;
+        double weight;
+        double wins;
+        double ties;
+        double share;
+
+        void add(Tally t) {
+            runouts += t.runouts;
+            weight += t.weight;
+            wins += t.wins;
+            ties += t.ties;
+            share += t.share;
+        }
+
+        /** Null without any weight: there was nothing to play against, which is not a sure loss. */
+        EquityResult toResult(boolean exact) {
+            if (weight == 0) {
+                return null;
+            }
+            return new EquityResult(wins / weight, ties / weight, share / weight, runouts, exact);
+        }
+    }
+
+    /**
+     * The combos clear of the known cards that some range holds, bucketed for the runout loops:
+     * by card (to take out the combos a runout card blocks), by suit (flush candidates) and by
+     * rank pair, with each opponent's weight per rank pair. Read-only once built.
+     */
+    private static final class Combos {
+        private static final int RANK_PAIRS = Cards.RANKS * Cards.RANKS;
+
+        final int[] all;
+        final int[][] byCard = new int[Cards.DECK_SIZE][];
+        final int[][] bySuit = new int[Cards.SUITS][];
+        final int[][] byRankPair = new int[RANK_PAIRS][];
+        final int[] rankPairCount = new int[RANK_PAIRS];
+        final double[][] rankPairWeight;
+
+        Combos(long dead, float[][] opponents, float[] heroRange) {
+            int[] selected = new int[Range.COMBOS];
+            int n = 0;
+            int[] cardCount = new int[Cards.DECK_SIZE];
+            int[] suitCount = new int[Cards.SUITS];
+            for (int c = 0; c < Range.COMBOS; c++) {
+                if ((Range.MASK[c] & dead) != 0) continue;
+                boolean held = heroRange != null && heroRange[c] != 0;
+                for (float[] weights : opponents) {
+                    held |= weights[c] != 0;
+                }
+                if (!held) continue;
+                selected[n++] = c;
+                cardCount[Range.FIRST[c]]++;
+                cardCount[Range.SECOND[c]]++;
+                suitCount[Cards.suit(Range.FIRST[c])]++;
+                if (Cards.suit(Range.SECOND[c]) != Cards.suit(Range.FIRST[c])) suitCount[Cards.suit(Range.SECOND[c])]++;
+                rankPairCount[Range.RANK_PAIR[c]]++;
+            }
+            all = Arrays.copyOf(selected, n);
+
+            for (int card = 0; card < Cards.DECK_SIZE; card++) {
+                byCard[card] = new int[cardCount[card]];
+            }
+            for (int s = 0; s < Cards.SUITS; s++) {
+                bySuit[s] = new int[suitCount[s]];
+            }
+            for (int p = 0; p < RANK_PAIRS; p++) {
+                byRankPair[p] = new int[rankPairCount[p]];
+            }
+            rankPairWeight = new double[opponents.length][RANK_PAIRS];
+            int[] cardFill = new int[Cards.DECK_SIZE];
+            int[] suitFill = new int[Cards.SUITS];
+            int[] pairFill = new int[RANK_PAIRS];
+            for (int c : all) {
+                int a = Range.FIRST[c];
+                int b = Range.SECOND[c];
+                byCard[a][cardFill[a]++] = c;
+                byCard[b][cardFill[b]++] = c;
+                bySuit[Cards.suit(a)][suitFill[Cards.suit(a)]++] = c;
+                if (Cards.suit(b) != Cards.suit(a)) bySuit[Cards.suit(b)][suitFill[Cards.suit(b)]++] = c;
+                int pair = Range.RANK_PAIR[c];
+                byRankPair[pair][pairFill[pair]++] = c;
+                for (int r = 0; r < opponents.length; r++) {
+                    rankPairWeight[r][pair] += opponents[r][c];
+                }
+            }
+        }
+    }
+
+    private static final class Worker {
+        private static final int RANK_PAIRS = Combos.RANK_PAIRS;
+
+        private final long hero;
+        private final long board;
+        private final int missing;
+        private final float[][] opponents;
+        private final float[] heroRange;
+        private final Combos combos;
+        private final long[] runouts;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        /**
+         * Values of combos without a flush, by rank pair. With at most two cards to come they
+         * only depend on the ranks of those cards, so the values are kept across runouts, one
+         * row per rank pair of the cards to come; otherwise only row 0 is used, for one runout.
+         */
+        private final int[] rankPairValues;
+        // Per-runout scratch
+        private long flushSuit;
+        private int flushNeeded;
+        private final double[][] weights;
+        private final int[] counts = new int[RANK_PAIRS];
+        private final double[] total;
+        private final double[] lose;
+        private final double[] tie;
+        private final int[] live = new int[Range.COMBOS];
+        private final int[] values = new int[Range.COMBOS];
+        private final long[] sorted = new long[Range.COMBOS];
+        private final double[] cardTotal = new double[Cards.DECK_SIZE];
+        private final double[] cardBelow = new double[Cards.DECK_SIZE];
+        private final double[] cardEqual = new double[Cards.DECK_SIZE];
+
+        Worker(long hero, long board, int missing, float[][] opponents, float[] heroRange, Combos combos,
+               long[] runouts, int from, int to, long deadline) {
+            this.hero = hero;
+            this.board = board;
+            this.missing = missing;
+            this.opponents = opponents;
+            this.heroRange = heroRange;
+            this.combos = combos;
+            this.runouts = runouts;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+            this.rankPairValues = new int[missing <= 2 ? RANK_PAIRS * RANK_PAIRS : RANK_PAIRS];
+            this.weights = new double[opponents.length][RANK_PAIRS];
+            this.total = new double[opponents.length];
+            this.lose = new double[opponents.length];
+            this.tie = new double[opponents.length];
+            Arrays.fill(rankPairValues, -1);
+        }
+
+        Tally run() {
+            Tally tally = new Tally();
+            for (int r = from; r < to; r++) {
+                if (((r - from) & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && r > from && System.nanoTime() >= deadline) break;
+                long runout = runouts[r];
+                if (missing > 2) Arrays.fill(rankPairValues, -1);
+                findFlush(runout);
+                if (heroRange != null) {
+                    rangeVsRange(runout, tally);
+                } else if (flushSuit != 0 && flushNeeded == 0) {
+                    // Five of a suit on the board: no combo is valued by its ranks alone
+                    heroVsRangesByCombo(runout, tally);
+                } else {
+                    heroVsRanges(runout, tally);
+                }
+                tally.runouts++;
+            }
+            return tally;
+        }
+
+        /**
+         * Works on rank-pair totals: the weights of the combos blocked by the runout's new cards
+         * and of the combos that make a flush are taken out, the flush combos are valued one by
+         * one, and every remaining rank pair is valued once for all of its combos.
+         */
+        private void heroVsRanges(long runout, Tally tally) {
+            int heroValue = HandEvaluator.evaluate(hero | runout);
+            int row = row(runout);
+            for (int r = 0; r < opponents.length; r++) {
+                System.arraycopy(combos.rankPairWeight[r], 0, weights[r], 0, RANK_PAIRS);
+                total[r] = 0;
+                lose[r] = 0;
+                tie[r] = 0;
+            }
+            System.arraycopy(combos.rankPairCount, 0, counts, 0, RANK_PAIRS);
+
+            long removed = 0;
+            for (long fresh = runout & ~board; fresh != 0; fresh &= fresh - 1) {
+                int card = Long.numberOfTrailingZeros(fresh);
+                for (int c : combos.byCard[card]) {
+                    if ((Range.MASK[c] & removed) == 0) remove(c);
+                }
+                removed |= Cards.bit(card);
+            }
+            if (flushSuit != 0) {
+                for (int c : combos.bySuit[Long.numberOfTrailingZeros(flushSuit) / Cards.RANKS]) {
+                    long mask = Range.MASK[c];
+                    if ((mask & runout) != 0 || Long.bitCount(mask & flushSuit) < flushNeeded) continue;
+                    remove(c);
+                    int value = HandEvaluator.evaluate(runout | mask);
+                    for (int r = 0; r < opponents.length; r++) {
+                        float w = opponents[r][c];
+                        total[r] += w;
+                        lose[r] += value < heroValue ? w : 0;
+                        tie[r] += value == heroValue ? w : 0;
+                    }
+                }
+            }
+            for (int pair = 0; pair < RANK_PAIRS; pair++) {
+                if (counts[pair] == 0) continue;
+                int value = rankPairValue(row, pair, runout);
+                for (int r = 0; r < opponents.length; r++) {
+                    double w = weights[r][pair];
+                    total[r] += w;
+                    lose[r] += value < heroValue ? w : 0;
+                    tie[r] += value == heroValue ? w : 0;
+                }
+            }
+            add(tally);
+        }
+
+        private void heroVsRangesByCombo(long runout, Tally tally) {
+            int heroValue = HandEvaluator.evaluate(hero | runout);
+            int n = value(runout, runout | hero);
+            for (int r = 0; r < opponents.length; r++) {
+                float[] range = opponents[r];
+                double t = 0;
+                double l = 0;
+                double e = 0;
+                for (int k = 0; k < n; k++) {
+                    float w = range[live[k]];
+                    int v = values[k];
+                    t += w;
+                    l += v < heroValue ? w : 0;
+                    e += v == heroValue ? w : 0;
+                }
+                total[r] = t;
+                lose[r] = l;
+                tie[r] = e;
+            }
+            add(tally);
+        }
+
+        /** Combines the opponents' totals for one runout, weighted by how likely their ranges make it. */
+        private void add(Tally tally) {
+            double weight = 1;
+            double win = 1;
+            double noLoss = 1;
+            for (int r = 0; r < opponents.length; r++) {
+                if (total[r] <= 0) return; // this range cannot hold a hand on this runout
+                weight *= total[r];
+                win *= lose[r] / total[r];
+                noLoss *= (lose[r] + tie[r]) / total[r];
+            }
+            tally.weight += weight;
+            tally.wins += weight * win;
+            tally.ties += weight * (noLoss - win);
+            tally.share += weight * (win + (noLoss - win) / 2);
+        }
+
+        private void remove(int c) {
+            int pair = Range.RANK_PAIR[c];
+            counts[pair]--;
+            for (int r = 0; r < opponents.length; r++) {
+                weights[r][pair] -= opponents[r][c];
+            }
+        }
+
+        /**
+         * Sorts the live combos by value and sweeps them from the weakest up, keeping the
+         * opponent's weight below and at the current value, in total and per card; a combo's
+         * blocked part is then taken out by inclusion-exclusion over its two cards.
+         */
+        private void rangeVsRange(long runout, Tally tally) {
+            float[] opponent = opponents[0];
+            int n = value(runout, runout);
+            double opponentTotal = 0;
+            Arrays.fill(cardTotal, 0);
+            Arrays.fill(cardBelow, 0);
+            for (int k = 0; k < n; k++) {
+                int c = live[k];
+                float w = opponent[c];
+                opponentTotal += w;
+                cardTotal[Range.FIRST[c]] += w;
+                cardTotal[Range.SECOND[c]] += w;
+                sorted[k] = (long) values[k] << 11 | c;
+            }
+            Arrays.sort(sorted, 0, n);
+
+            double below = 0;
+            for (int i = 0, j; i < n; i = j) {
+                int value = (int) (sorted[i] >>> 11);
+                double equal = 0;
+                for (j = i; j < n && (int) (sorted[j] >>> 11) == value; j++) {
+                    int c = (int) sorted[j] & 0x7FF;
+                    float w = opponent[c];
+                    equal += w;
+                    cardEqual[Range.FIRST[c]] += w;
+                    cardEqual[Range.SECOND[c]] += w;
+                }
+                for (int k = i; k < j; k++) {
+                    int c = (int) sorted[k] & 0x7FF;
+                    float w = heroRange[c];
+                    if (w == 0) continue;
+                    int a = Range.FIRST[c];
+                    int b = Range.SECOND[c];
+                    float same = opponent[c]; // the opponent's copy of this very combo
+                    double against = opponentTotal - cardTotal[a] - cardTotal[b] + same;
+                    double beaten = below - cardBelow[a] - cardBelow[b];
+                    double tied = equal - cardEqual[a] - cardEqual[b] + same;
+                    tally.weight += w * against;
+                    tally.wins += w * beaten;
+                    tally.ties += w * tied;
+                    tally.share += w * (beaten + tied / 2);
+                }
+                for (int k = i; k < j; k++) {
+                    int c = (int) sorted[k] & 0x7FF;
+                    float w = opponent[c];
+                    below += w;
+                    cardBelow[Range.FIRST[c]] += w;
+                    cardBelow[Range.SECOND[c]] += w;
+                    cardEqual[Range.FIRST[c]] = 0;
+                    cardEqual[Range.SECOND[c]] = 0;
+                }
+            }
+        }
+
+        /**
+         * Values every combo that shares no card with {@code dead} (the runout, and the hero's
+         * cards if any) into {@link #live} and {@link #values}.
+         *
+         * @return the number of combos valued
+         */
+        private int value(long runout, long dead) {
+            int row = row(runout);
+            int n = 0;
+            for (int c : combos.all) {
+                long mask = Range.MASK[c];
+                if ((mask & dead) != 0) continue;
+                int value;
+                if (flushSuit != 0 && Long.bitCount(mask & flushSuit) >= flushNeeded) {
+                    value = HandEvaluator.evaluate(runout | mask);
+                } else {
+                    int slot = row * RANK_PAIRS + Range.RANK_PAIR[c];
+                    value = rankPairValues[slot];
+                    if (value < 0) {
+                        value = HandEvaluator.evaluate(runout | mask);
+                        rankPairValues[slot] = value;
+                    }
+                }
+                live[n] = c;
+                values[n] = value;
+                n++;
+            }
+            return n;
+        }
+
+        /** Value of the rank pair's combos that make no flush, from any live one of them. */
+        private int rankPairValue(int row, int pair, long runout) {
+            int slot = row * RANK_PAIRS + pair;
+            int value = rankPairValues[slot];
+            if (value >= 0) return value;
+            for (int c : combos.byRankPair[pair]) {
+                long mask = Range.MASK[c];
+                if ((mask & runout) != 0 || flushSuit != 0 && Long.bitCount(mask & flushSuit) >= flushNeeded) continue;
+                value = HandEvaluator.evaluate(runout | mask);
+                rankPairValues[slot] = value;
+                return value;
+            }
+            throw new IllegalStateException("No live combo for rank pair " + pair);
+        }
+
+        /** The {@link #rankPairValues} row for a runout: the rank pair of its cards to come. */
+        private int row(long runout) {
+            if (missing > 2) return 0;
+            long fresh = runout & ~board;
+            int row = 0;
+            for (; fresh != 0; fresh &= fresh - 1) {
+                row = row * Cards.RANKS + Cards.rank(Long.numberOfTrailingZeros(fresh));
+            }
+            return row;
+        }
+
+        /** At most one suit can have three or more of five board cards; {@code flushNeeded} more make a flush. */
+        private void findFlush(long runout) {
+            long cards = runout & ~hero;
+            flushSuit = 0;
+            flushNeeded = 0;
+            for (int s = 0; s < Cards.SUITS; s++) {
+                int count = Long.bitCount(cards & SUIT_MASK[s]);
+                if (count >= 3) {
+                    flushSuit = SUIT_MASK[s];
+                    flushNeeded = 5 - count;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.pokerbot.eval;
+
+/**
+ * The 169 strategically distinct starting hands, indexed on a 13x13 grid: pairs on the
+ * diagonal, suited hands at (high, low) and offsuit hands at (low, high).
+ */
+public final class StartingHand {
+    public static final int CLASSES = Cards.RANKS * Cards.RANKS;
+
+    private StartingHand() {
+    }
+
+    public static int index(int card1, int card2) {
+        int r1 = Cards.rank(card1);
+        int r2 = Cards.rank(card2);
+        int high = Math.max(r1, r2);
+        int low = Math.min(r1, r2);
+        boolean suited = Cards.suit(card1) == Cards.suit(card2);
+        return suited || high == low ? high * Cards.RANKS + low : low * Cards.RANKS + high;
+    }
+
+    /** Two concrete cards belonging to the class, used when simulating it. */
+    public static int[] representative(int index) {
+        int row = index / Cards.RANKS;
+        int col = index % Cards.RANKS;
+        if (row == col) return new int[] { Cards.of(row, 0), Cards.of(col, 1) };
+        if (row > col) return new int[] { Cards.of(row, 0), Cards.of(col, 0) };
+        return new int[] { Cards.of(col, 0), Cards.of(row, 1) };
+    }
+
+    public static String name(int index) {
+        int row = index / Cards.RANKS;
+        int col = index % Cards.RANKS;
+        if (row == col) return "" + Cards.rankChar(row) + Cards.rankChar(col);
+        if (row > col) return "" + Cards.rankChar(row) + Cards.rankChar(col) + "s";
+        return "" + Cards.rankChar(col) + Cards.rankChar(row) + "o";
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.pokerbot.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary layout of the hand-history log.
+ * <p>
+ * A segment file starts with {@link #MAGIC} and a {@link #VERSION} byte, followed by records,
+ * each a varint byte length and the hand:
+ * <pre>
+ * varint   startedAt (epoch millis)
+ * byte     seats | boardSize &lt;&lt; 4
+ * seats x  byte flags, varint name length, UTF-8 name, varint startChips, zigzag varint net
+ * cards    (2 * seats + boardSize) cards, 6 bits each, packed little-endian into bytes
+ * varint   actions
+ * actions x byte seat &lt;&lt; 4 | type, then a varint amount for CALL, RAISE and POST
+ * </pre>
+ * A 6-handed hand takes 100 to 150 bytes. Records are only ever appended, and a record
+ * cut short by a crash is recognised by its length and ignored.
+ */
+public final class HandHistoryFormat {
+    public static final int MAGIC = 0x504B4848; // "PKHH"
+    public static final byte VERSION = 1;
+    public static final int HEADER_BYTES = 5;
+    /** Room left in front of an encoded body for its length prefix. */
+    static final int LENGTH_PREFIX_BYTES = 5;
+
+    private HandHistoryFormat() {
+    }
+
+    /**
+     * Encodes {@code record} with its length prefix.
+     *
+     * @return the framed record, ready to append to a segment
+     */
+    public static ByteBuffer encode(HandRecord record) {
+        int size = LENGTH_PREFIX_BYTES + 10 + 1 + 5 + (2 * record.seats + record.boardSize) + record.actions * 6;
+        for (int i = 0; i < record.seats; i++) {
+            size += 1 + 5 + record.encodedName(i).length + 5 + 5;
+        }
+        byte[] out = new byte[size];
+        int pos = LENGTH_PREFIX_BYTES;
+        pos = putVarLong(out, pos, record.startedAt);
+        out[pos++] = (byte) (record.seats | record.boardSize << 4);
+        for (int i = 0; i < record.seats; i++) {
+            byte[] name = record.encodedName(i);
+            out[pos++] = (byte) record.flags[i];
+            pos = putVarInt(out, pos, name.length);
+            System.arraycopy(name, 0, out, pos, name.length);
+            pos += name.length;
+            pos = putVarInt(out, pos, record.startChips[i]);
+            pos = putVarInt(out, pos, zigzag(record.net[i]));
+        }
+
+        long bits = 0;
+        int pending = 0;
+        int cards = 2 * record.seats + record.boardSize;
+        for (int c = 0; c < cards; c++) {
+            int card = c < 2 * record.seats ? record.holeCards[c] : record.board[c - 2 * record.seats];
+            bits |= (long) (card & 0x3F) << pending;
+            pending += 6;
+            while (pending >= 8) {
+                out[pos++] = (byte) bits;
+                bits >>>= 8;
+                pending -= 8;
+            }
+        }
+        if (pending > 0) out[pos++] = (byte) bits;
+
+        pos = putVarInt(out, pos, record.actions);
+        for (int a = 0; a < record.actions; a++) {
+            int type = record.actionType[a];
+            out[pos++] = (byte) (record.actionSeat[a] << 4 | type);
+            if (hasAmount(type)) pos = putVarInt(out, pos, record.actionAmount[a]);
+        }
+
+        int length = pos - LENGTH_PREFIX_BYTES;
+        int start = LENGTH_PREFIX_BYTES - varIntSize(length);
+        putVarInt(out, start, length);
+        return ByteBuffer.wrap(out, start, pos - start);
+    }
+
+    static boolean hasAmount(int type) {
+        return type == HandRecord.CALL || type == HandRecord.RAISE || type == HandRecord.POST;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static int putVarInt(byte[] out, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    static int putVarLong(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+}
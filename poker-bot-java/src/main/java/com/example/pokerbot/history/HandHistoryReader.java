@@ -0,0 +1,216 @@
+package com.example.pokerbot.history;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Memory-mapped reader for hand-history segments written by {@link HandHistoryWriter}.
+ * <p>
+ * {@link #next} decodes the following hand into a caller-owned {@link HandRecord}, so a scan
+ * allocates nothing per hand: player names are kept from the previous hand when their bytes
+ * match, which they almost always do at one table. A segment still being written can be read;
+ * the scan stops at the last complete record.
+ * <p>
+ * Usage: {@code java -cp target/classes:<deps> com.example.pokerbot.history.HandHistoryReader
+ * <dir> [hands to print]} prints per-player results and the scan rate.
+ */
+public class HandHistoryReader implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "hands-";
+    private static final String SEGMENT_SUFFIX = ".hh";
+
+    private final MappedByteBuffer data;
+    private final byte[][] nameBytes = new byte[HandRecord.MAX_SEATS][];
+    private final String[] nameCache = new String[HandRecord.MAX_SEATS];
+    private byte[] in = new byte[512];
+    private int pos;
+
+    private HandHistoryReader(MappedByteBuffer data) {
+        this.data = data;
+    }
+
+    public static HandHistoryReader open(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.remaining() < HandHistoryFormat.HEADER_BYTES
+                    || data.getInt() != HandHistoryFormat.MAGIC || data.get() != HandHistoryFormat.VERSION) {
+                throw new IOException("Not a hand history segment: " + segment);
+            }
+            return new HandHistoryReader(data);
+        }
+    }
+
+    /** Segment files in {@code dir}, oldest first. */
+    public static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .toList();
+        }
+    }
+
+    static String segmentName(int index) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    static int segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads every hand in {@code dir}, oldest first, into one reused record.
+     *
+     * @return the number of hands read
+     */
+    public static long scan(Path dir, Consumer<HandRecord> consumer) throws IOException {
+        HandRecord record = new HandRecord();
+        long hands = 0;
+        for (Path segment : segments(dir)) {
+            try (HandHistoryReader reader = open(segment)) {
+                while (reader.next(record)) {
+                    consumer.accept(record);
+                    hands++;
+                }
+            }
+        }
+        return hands;
+    }
+
+    /** @return false at the end of the segment, including a partly written last record */
+    public boolean next(HandRecord record) {
+        int start = data.position();
+        try {
+            int length = HandHistoryFormat.getVarInt(data);
+            if (length > data.remaining()) {
+                data.position(start);
+                return false;
+            }
+            // One bulk copy out of the mapping, then decode from the array
+            if (length > in.length) in = new byte[Math.max(length, in.length * 2)];
+            data.get(in, 0, length);
+            pos = 0;
+            decode(record);
+            return true;
+        } catch (BufferUnderflowException e) {
+            data.position(start);
+            return false;
+        }
+    }
+
+    private void decode(HandRecord record) {
+        record.clear();
+        record.startedAt = readVarLong();
+        int counts = in[pos++] & 0xFF;
+        int seats = counts & 0x0F;
+        record.boardSize = counts >>> 4;
+        for (int i = 0; i < seats; i++) {
+            int flags = in[pos++] & 0xFF;
+            String name = readName(i, readVarInt());
+            record.addSeat(name, readVarInt(), flags);
+            record.net[i] = HandHistoryFormat.unzigzag(readVarInt());
+        }
+
+        long bits = 0;
+        int available = 0;
+        int cards = 2 * seats + record.boardSize;
+        for (int c = 0; c < cards; c++) {
+            if (available < 6) {
+                bits |= (long) (in[pos++] & 0xFF) << available;
+                available += 8;
+            }
+            int card = (int) (bits & 0x3F);
+            bits >>>= 6;
+            available -= 6;
+            if (c < 2 * seats) record.holeCards[c] = card;
+            else record.board[c - 2 * seats] = card;
+        }
+
+        int actions = readVarInt();
+        for (int a = 0; a < actions; a++) {
+            int packed = in[pos++] & 0xFF;
+            int type = packed & 0x0F;
+            record.addAction(packed >>> 4, type, HandHistoryFormat.hasAmount(type) ? readVarInt() : 0);
+        }
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in[pos++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    private String readName(int seat, int length) {
+        byte[] previous = nameBytes[seat];
+        if (previous != null && previous.length == length && Arrays.equals(previous, 0, length, in, pos, pos + length)) {
+            pos += length;
+            return nameCache[seat];
+        }
+        nameBytes[seat] = Arrays.copyOfRange(in, pos, pos + length);
+        nameCache[seat] = new String(in, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return nameCache[seat];
+    }
+
+    @Override
+    public void close() {
+        // The mapping is released with the buffer; nothing else is held open
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: HandHistoryReader <dir> [hands to print]");
+            System.exit(1);
+        }
+        Path dir = Path.of(args[0]);
+        long print = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        Map<String, long[]> players = new HashMap<>(); // name -> {hands, net}
+        long[] printed = {0};
+        long start = System.nanoTime();
+        long hands = scan(dir, record -> {
+            for (int i = 0; i < record.seats; i++) {
+                long[] totals = players.computeIfAbsent(record.names[i], n -> new long[2]);
+                totals[0]++;
+                totals[1] += record.net[i];
+            }
+            if (printed[0] < print) {
+                printed[0]++;
+                System.out.print(record.describe());
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d hands in %d segment(s), %.2f s: %.0f hands/s%n",
+            hands, segments(dir).size(), seconds, hands / Math.max(seconds, 1e-9));
+        players.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> System.out.printf("  %-20s hands %9d  net %+10d%n", e.getKey(), e.getValue()[0], e.getValue()[1]));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.pokerbot.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends hands to the log in {@code dir}, off the caller's thread.
+ * <p>
+ * {@link #append} encodes the hand on the calling thread (a few hundred nanoseconds) and
+ * queues the bytes; one writer thread batches them into a direct buffer and writes it to the
+ * current segment's {@link FileChannel} when it fills up or the queue goes quiet. Segments are
+ * {@code hands-NNNNNN.hh} files rolled over at {@code segmentBytes} on a record boundary; a new
+ * writer always starts a new segment after the highest existing one, so files are never
+ * rewritten. When the queue is full the hand is dropped (bot sessions must never wait on disk)
+ * unless the writer was created with {@code blockWhenFull}, as self-play runs are.
+ */
+@Slf4j
+public class HandHistoryWriter implements Closeable {
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final boolean blockWhenFull;
+    private final BlockingQueue<ByteBuffer> queue;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final Thread thread;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean closed;
+    private FileChannel segment;
+    private long segmentSize;
+    private int segmentIndex;
+
+    public HandHistoryWriter(Path dir, long segmentBytes, int queueCapacity, boolean blockWhenFull) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.blockWhenFull = blockWhenFull;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Files.createDirectories(dir);
+        List<Path> existing = HandHistoryReader.segments(dir);
+        segmentIndex = existing.isEmpty() ? 0 : HandHistoryReader.segmentIndex(existing.get(existing.size() - 1));
+        openNextSegment();
+        thread = new Thread(this::run, "hand-history");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** @return false when the hand was dropped because the writer is behind or closed */
+    public boolean append(HandRecord record) {
+        if (closed) return false;
+        ByteBuffer framed = HandHistoryFormat.encode(record);
+        if (blockWhenFull) {
+            try {
+                queue.put(framed);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+                return false;
+            }
+        }
+        if (!queue.offer(framed)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /** Writes out everything queued so far and closes the current segment. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (segment.isOpen()) {
+            segment.force(false);
+            segment.close();
+        }
+    }
+
+    private void run() {
+        List<ByteBuffer> batch = new ArrayList<>();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                ByteBuffer record = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    flush();
+                    continue;
+                }
+                write(record);
+                // Take whatever else is already waiting in one go before paying for a write call
+                queue.drainTo(batch);
+                for (ByteBuffer next : batch) {
+                    write(next);
+                }
+                batch.clear();
+            }
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Hand history writer stopped, hands are no longer recorded", e);
+            closed = true;
+            // Release producers blocked on a full queue
+            dropped.add(queue.size());
+            queue.clear();
+        }
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+        int length = record.remaining();
+        if (segmentSize + length > segmentBytes && segmentSize > HandHistoryFormat.HEADER_BYTES) {
+            flush();
+            segment.close();
+            openNextSegment();
+        }
+        if (buffer.remaining() < length) {
+            flush();
+        }
+        if (length > buffer.capacity()) {
+            writeFully(record);
+        } else {
+            buffer.put(record);
+        }
+        segmentSize += length;
+        written.increment();
+    }
+
+    private void flush() throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            segment.write(bytes);
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        Path file = dir.resolve(HandHistoryReader.segmentName(segmentIndex));
+        segment = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HandHistoryFormat.HEADER_BYTES);
+        header.putInt(HandHistoryFormat.MAGIC).put(HandHistoryFormat.VERSION).flip();
+        writeFully(header);
+        segmentSize = HandHistoryFormat.HEADER_BYTES;
+        log.info("Writing hand history to {}", file);
+    }
+}
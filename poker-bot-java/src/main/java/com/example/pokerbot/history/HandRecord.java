@@ -0,0 +1,160 @@
+package com.example.pokerbot.history;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import com.example.pokerbot.eval.Cards;
+
+/**
+ * One hand of the hand-history log: seats with their starting stacks and results, the known
+ * hole cards, the board and the action sequence.
+ * <p>
+ * Instances are reused: producers {@link #clear()} and refill one per hand, and the reader
+ * decodes every hand into the same instance, so copy anything kept beyond the next hand.
+ * Seats are numbered in table order from 0; {@link #STREET} actions separate the betting rounds.
+ */
+public class HandRecord {
+    /** Seats are stored in 4 bits. */
+    public static final int MAX_SEATS = 15;
+    /** Card value for hole cards that were never shown. */
+    public static final int UNKNOWN_CARD = 63;
+
+    // Seat flags
+    public static final int DEALER = 1;
+    public static final int SMALL_BLIND = 2;
+    public static final int BIG_BLIND = 4;
+    /** The seat the log was written from (the bot itself). */
+    public static final int HERO = 8;
+
+    // Action types; CALL carries the chips added, RAISE the total bet, POST the blind
+    public static final int FOLD = 0;
+    public static final int CHECK = 1;
+    public static final int CALL = 2;
+    public static final int RAISE = 3;
+    public static final int POST = 4;
+    public static final int STREET = 5;
+
+    private static final String[] ACTION_NAMES = {"folds", "checks", "calls", "raises to", "posts", "--"};
+
+    public long startedAt; // epoch millis
+    public int seats;
+    public final String[] names = new String[MAX_SEATS];
+    public final int[] flags = new int[MAX_SEATS];
+    public final int[] startChips = new int[MAX_SEATS];
+    public final int[] net = new int[MAX_SEATS];
+    public final int[] holeCards = new int[MAX_SEATS * 2];
+    public int boardSize;
+    public final int[] board = new int[5];
+
+    public int actions;
+    public byte[] actionSeat = new byte[32];
+    public byte[] actionType = new byte[32];
+    public int[] actionAmount = new int[32];
+
+    // UTF-8 of names[i], kept while the same String instance is used for the seat
+    private final String[] encodedNameOf = new String[MAX_SEATS];
+    private final byte[][] encodedName = new byte[MAX_SEATS][];
+
+    public HandRecord() {
+        clear();
+    }
+
+    public void clear() {
+        startedAt = 0;
+        seats = 0;
+        boardSize = 0;
+        actions = 0;
+        Arrays.fill(holeCards, UNKNOWN_CARD);
+    }
+
+    /** @return the new seat's index, or -1 when the record is full */
+    public int addSeat(String name, int chips, int seatFlags) {
+        if (seats == MAX_SEATS) return -1;
+        names[seats] = name;
+        startChips[seats] = chips;
+        flags[seats] = seatFlags;
+        net[seats] = 0;
+        return seats++;
+    }
+
+    public int seatOf(String name) {
+        for (int i = 0; i < seats; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    public void setHoleCards(int seat, int card1, int card2) {
+        holeCards[seat * 2] = card1;
+        holeCards[seat * 2 + 1] = card2;
+    }
+
+    public void addBoardCard(int card) {
+        if (boardSize < board.length) board[boardSize++] = card;
+    }
+
+    public void addAction(int seat, int type, int amount) {
+        if (actions == actionType.length) {
+            int capacity = actions * 2;
+            actionSeat = Arrays.copyOf(actionSeat, capacity);
+            actionType = Arrays.copyOf(actionType, capacity);
+            actionAmount = Arrays.copyOf(actionAmount, capacity);
+        }
+        actionSeat[actions] = (byte) seat;
+        actionType[actions] = (byte) type;
+        actionAmount[actions] = amount;
+        actions++;
+    }
+
+    byte[] encodedName(int seat) {
+        if (encodedNameOf[seat] != names[seat]) {
+            encodedName[seat] = names[seat].getBytes(StandardCharsets.UTF_8);
+            encodedNameOf[seat] = names[seat];
+        }
+        return encodedName[seat];
+    }
+
+    public int heroSeat() {
+        for (int i = 0; i < seats; i++) {
+            if ((flags[i] & HERO) != 0) return i;
+        }
+        return -1;
+    }
+
+    /** Multi-line text form for replaying a hand by eye. */
+    public String describe() {
+        StringBuilder sb = new StringBuilder("Hand at ").append(Instant.ofEpochMilli(startedAt)).append('\n');
+        for (int i = 0; i < seats; i++) {
+            sb.append("  ").append(names[i]).append(" (").append(startChips[i]).append(')');
+            if ((flags[i] & DEALER) != 0) sb.append(" D");
+            if ((flags[i] & SMALL_BLIND) != 0) sb.append(" SB");
+            if ((flags[i] & BIG_BLIND) != 0) sb.append(" BB");
+            if ((flags[i] & HERO) != 0) sb.append(" *");
+            if (holeCards[i * 2] != UNKNOWN_CARD) {
+                sb.append(" [").append(Cards.toString(holeCards[i * 2])).append(' ')
+                    .append(Cards.toString(holeCards[i * 2 + 1])).append(']');
+            }
+            sb.append(" net ").append(net[i]).append('\n');
+        }
+        int street = 0;
+        for (int a = 0; a < actions; a++) {
+            if (actionType[a] == STREET) {
+                street++;
+                int shown = street == 1 ? 3 : Math.min(boardSize, street + 2);
+                sb.append("  -- board");
+                for (int c = 0; c < shown && c < boardSize; c++) {
+                    sb.append(' ').append(Cards.toString(board[c]));
+                }
+                sb.append('\n');
+                continue;
+            }
+            sb.append("  ").append(names[actionSeat[a]]).append(' ').append(ACTION_NAMES[actionType[a]]);
+            if (actionType[a] == CALL || actionType[a] == RAISE || actionType[a] == POST) {
+                sb.append(' ').append(actionAmount[a]);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.pokerbot.history;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GameState;
+
+/**
+ * Rebuilds {@link HandRecord}s from what one bot session sees: the broadcast states, its own
+ * hole cards and the showdown reveals sent as info messages.
+ * <p>
+ * The server does not send actions, so they are derived from the change between consecutive
+ * states: a seat that went to {@code folded} folded, chips put in up to the bet level called
+ * and beyond it raised, and a player whose turn passed without chips going in checked. Starting
+ * stacks and results are exact; the action sequence is as fine-grained as the states the session
+ * processed, so coalesced states can merge raises, and the action that ends the hand is lost
+ * when only the showdown state behind it was seen.
+ * <p>
+ * Not thread-safe: feed it from the session's mailbox consumer, after the decision was made.
+ */
+public class HandRecorder {
+    private static final Pattern SHOWDOWN = Pattern.compile("^(.+)'s hand: \\[([^,\\]]+), ([^\\]]+)\\]");
+    private static final int[] STREET_CARDS = {3, 4, 5};
+
+    private final String heroName;
+    private final Consumer<HandRecord> sink;
+    private final HandRecord record = new HandRecord();
+    private final String[] seatIds = new String[HandRecord.MAX_SEATS];
+    private final int[] lastChips = new int[HandRecord.MAX_SEATS];
+    private final int[] lastBet = new int[HandRecord.MAX_SEATS];
+    private final boolean[] folded = new boolean[HandRecord.MAX_SEATS];
+    private final boolean[] actedThisTurn = new boolean[HandRecord.MAX_SEATS];
+
+    private boolean inHand;
+    private int betLevel;
+    private int currentSeat;
+    private String lastMessage;
+    private String lastPhase;
+    private int heroCard1 = HandRecord.UNKNOWN_CARD;
+    private int heroCard2 = HandRecord.UNKNOWN_CARD;
+
+    public HandRecorder(String heroName, Consumer<HandRecord> sink) {
+        this.heroName = heroName;
+        this.sink = sink;
+    }
+
+    /** Our hole cards for the hand about to start. */
+    public void onHand(Card[] hand) {
+        if (hand == null || hand.length < 2) return;
+        heroCard1 = Cards.encode(hand[0]);
+        heroCard2 = Cards.encode(hand[1]);
+    }
+
+    /** Picks up hands shown at showdown ("Name's hand: [AS, KD] Best 5-card: ..."). */
+    public void onInfo(String text) {
+        if (!inHand || text == null) return;
+        Matcher m = SHOWDOWN.matcher(text);
+        if (!m.find()) return;
+        int seat = record.seatOf(m.group(1));
+        if (seat < 0) return;
+        try {
+            record.setHoleCards(seat, Cards.encode(m.group(2).trim()), Cards.encode(m.group(3).trim()));
+        } catch (IllegalArgumentException e) {
+            // Not a card list we understand; keep the cards unknown
+        }
+    }
+
+    public void onState(GameState state) {
+        String phase = state.gamePhase;
+        // The server sends the opening state again when someone joins before the first action
+        boolean newHand = "pre-flop".equals(phase) && (!"pre-flop".equals(lastPhase)
+            || state.message != null && state.message.startsWith("New hand started") && !state.message.equals(lastMessage));
+        if (inHand && newHand) {
+            // The end of the previous hand was coalesced away; its results are in the new stacks
+            finish(state.players, true);
+        }
+        if (newHand) {
+            start(state);
+        } else if (inHand) {
+            if ("hand-over".equals(phase) || "waiting".equals(phase)) {
+                finish(state.players, false);
+            } else if (!"showdown".equals(phase)) {
+                // At showdown the chips already include the winnings, so there is nothing to derive
+                track(state);
+            }
+        }
+        lastPhase = phase;
+        lastMessage = state.message;
+    }
+
+    /**
+     * Chips a player has put into the hand in progress: the stack they started it with less
+     * {@code chips}. -1 when this recorder did not see the hand start or the player in it.
+     */
+    public int committed(String playerId, int chips) {
+        if (!inHand || playerId == null) return -1;
+        for (int seat = 0; seat < record.seats; seat++) {
+            if (playerId.equals(seatIds[seat])) {
+                int put = record.startChips[seat] - chips;
+                return put >= 0 ? put : -1;
+            }
+        }
+        return -1;
+    }
+
+    private void start(GameState state) {
+        record.clear();
+        record.startedAt = System.currentTimeMillis();
+        betLevel = 0;
+        currentSeat = -1;
+        int smallBlind = -1;
+        int bigBlind = -1;
+        for (GameState.Player p : state.players) {
+            if (p.isSpectator || !isDealt(p.status)) continue;
+            int flags = (p.isDealer ? HandRecord.DEALER : 0) | (p.isSmallBlind ? HandRecord.SMALL_BLIND : 0)
+                | (p.isBigBlind ? HandRecord.BIG_BLIND : 0) | (heroName.equals(p.name) ? HandRecord.HERO : 0);
+            int seat = record.addSeat(p.name, p.chips + p.currentBet, flags);
+            if (seat < 0) break;
+            seatIds[seat] = p.id;
+            lastChips[seat] = p.chips + p.currentBet;
+            lastBet[seat] = 0;
+            folded[seat] = false;
+            actedThisTurn[seat] = false;
+            if (p.isSmallBlind) smallBlind = seat;
+            if (p.isBigBlind) bigBlind = seat;
+            if ((flags & HandRecord.HERO) != 0) record.setHoleCards(seat, heroCard1, heroCard2);
+        }
+        heroCard1 = HandRecord.UNKNOWN_CARD;
+        heroCard2 = HandRecord.UNKNOWN_CARD;
+        inHand = record.seats > 0;
+        if (!inHand) return;
+
+        // Blinds first, so that whatever else this state already shows is seen against them
+        for (int seat : new int[] {smallBlind, bigBlind}) {
+            if (seat < 0) continue;
+            GameState.Player p = playerOf(state.players, seat);
+            if (p == null || p.currentBet == 0) continue;
+            record.addAction(seat, HandRecord.POST, p.currentBet);
+            lastChips[seat] -= p.currentBet;
+            lastBet[seat] = p.currentBet;
+            betLevel = Math.max(betLevel, p.currentBet);
+        }
+        if (state.message != null && state.message.startsWith("New hand started")) {
+            // Nothing has happened after the blinds yet; the level is the full big blind even
+            // when the player in it was short
+            betLevel = Math.max(betLevel, state.minimumBetForCall);
+        }
+        track(state);
+    }
+
+    private void track(GameState state) {
+        int boardSize = state.communityCards == null ? 0 : state.communityCards.size();
+        boolean streetChanged = boardSize > record.boardSize;
+
+        // Everything since the last state was done by the players before the one to act now, so
+        // walk the table from just after that player to keep the actions in order
+        int n = record.seats;
+        int current = -1;
+        for (int i = 0; i < n; i++) {
+            if (seatIds[i] != null && seatIds[i].equals(state.currentPlayerId)) current = i;
+        }
+        // A player who had the turn and put nothing in when it moved on checked; the message
+        // names the checks whose states were not seen
+        int turnPassed = current != currentSeat || streetChanged ? currentSeat : -1;
+        String checked = state.message != null && !state.message.equals(lastMessage) && state.message.endsWith(" checked.")
+            ? state.message.substring(0, state.message.length() - " checked.".length()) : null;
+        for (int k = 0; k < n; k++) {
+            int seat = (current + 1 + k) % n;
+            GameState.Player p = playerOf(state.players, seat);
+            if (p == null) continue;
+            int put = lastChips[seat] - p.chips;
+            boolean folds = "folded".equals(p.status) && !folded[seat];
+            if (put > 0) {
+                int bet = streetChanged ? lastBet[seat] + put : p.currentBet;
+                if (bet > betLevel) {
+                    record.addAction(seat, HandRecord.RAISE, bet);
+                    betLevel = bet;
+                } else {
+                    record.addAction(seat, HandRecord.CALL, put);
+                }
+            } else if (!folds && (seat == turnPassed && !actedThisTurn[seat] || record.names[seat].equals(checked))) {
+                record.addAction(seat, HandRecord.CHECK, 0);
+            }
+            if (folds) {
+                record.addAction(seat, HandRecord.FOLD, 0);
+                folded[seat] = true;
+            }
+            if (put > 0 || folds || record.names[seat].equals(checked)) actedThisTurn[seat] = true;
+            lastChips[seat] = p.chips;
+            lastBet[seat] = p.currentBet;
+        }
+        if (streetChanged) {
+            // The state that deals the cards still names the last player of the street before
+            Arrays.fill(actedThisTurn, false);
+            currentSeat = current != currentSeat ? current : -1;
+        } else {
+            if (current >= 0 && current != currentSeat) actedThisTurn[current] = false;
+            currentSeat = current;
+        }
+
+        if (streetChanged) {
+            List<Card> board = state.communityCards;
+            for (int street : STREET_CARDS) {
+                if (record.boardSize >= street || boardSize < street) continue;
+                record.addAction(0, HandRecord.STREET, 0);
+                while (record.boardSize < street) {
+                    record.addBoardCard(Cards.encode(board.get(record.boardSize)));
+                }
+            }
+            betLevel = 0;
+            Arrays.fill(lastBet, 0);
+        }
+    }
+
+    private void finish(List<GameState.Player> players, boolean includeBets) {
+        for (int seat = 0; seat < record.seats; seat++) {
+            GameState.Player p = playerOf(players, seat);
+            // A player who left keeps what the last state showed
+            int chips = p == null ? lastChips[seat] : includeBets ? p.chips + p.currentBet : p.chips;
+            record.net[seat] = chips - record.startChips[seat];
+        }
+        inHand = false;
+        sink.accept(record);
+        record.clear();
+    }
+
+    private GameState.Player playerOf(List<GameState.Player> players, int seat) {
+        String id = seatIds[seat];
+        for (GameState.Player p : players) {
+            if (id != null && id.equals(p.id)) return p;
+        }
+        return null;
+    }
+
+    private static boolean isDealt(String status) {
+        return "active".equals(status) || "all-in".equals(status);
+    }
+}
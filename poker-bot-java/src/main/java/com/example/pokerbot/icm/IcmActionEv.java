@@ -0,0 +1,143 @@
+package com.example.pokerbot.icm;
+
+/**
+ * Prize equity after each action we can take, with the pot split into side pots.
+ * <p>
+ * Betting is assumed to end with our action. A fold leaves the pots to the players still in.
+ * A call goes to showdown. A raise is either folded to, with the given probability, by everybody
+ * who still has chips, or called by every opponent as far as their stacks go; either way the
+ * hand then goes to showdown. There we win every pot we are eligible for with our equity, and
+ * otherwise one of the opponents still in wins, each equally likely. Pots the winner cannot win
+ * go to the eligible player who put the most into the hand, which is also how an uncalled bet
+ * comes back. Every outcome is valued with the {@link IcmCalculator}: a decision on a
+ * nine-handed table values at most about thirty outcomes, well under a millisecond.
+ * <p>
+ * Not thread-safe: keep one per session, like its calculator.
+ */
+public class IcmActionEv {
+    public static final int MAX_SEATS = IcmCalculator.MAX_PLAYERS;
+
+    /** A hand in progress as seen from one seat. Seats are the players still in the tournament. */
+    public static class Spot {
+        public int seats;
+        public int hero;
+        public int betLevel; // highest bet this round
+        public final int[] chips = new int[MAX_SEATS]; // behind, not yet bet
+        public final int[] bets = new int[MAX_SEATS]; // this round
+        public final int[] committed = new int[MAX_SEATS]; // this hand, bets included
+        public final boolean[] contesting = new boolean[MAX_SEATS]; // not folded
+    }
+
+    private final IcmCalculator icm;
+    private final int[] chips = new int[MAX_SEATS];
+    private final int[] committed = new int[MAX_SEATS];
+    private final boolean[] contesting = new boolean[MAX_SEATS];
+    private final int[] stacks = new int[MAX_SEATS];
+    private final int[] potAmounts = new int[MAX_SEATS];
+    private final int[] potEligible = new int[MAX_SEATS];
+    private final double[] equities = new double[MAX_SEATS];
+
+    public IcmActionEv(IcmCalculator icm) {
+        this.icm = icm;
+    }
+
+    public IcmCalculator getCalculator() {
+        return icm;
+    }
+
+    /** Our prize equity if we fold now. */
+    public double fold(Spot spot) {
+        load(spot);
+        contesting[spot.hero] = false;
+        return showdown(spot, 0);
+    }
+
+    /** Our prize equity if we check or call now and the hand is shown down. */
+    public double call(Spot spot, double equity) {
+        load(spot);
+        putIn(spot, spot.hero, spot.betLevel);
+        return showdown(spot, equity);
+    }
+
+    /**
+     * Our prize equity if we raise to {@code raiseTo} (a bet level, like the amount of a raise action).
+     *
+     * @param foldProbability chance that every opponent folds to the raise
+     */
+    public double raise(Spot spot, int raiseTo, double equity, double foldProbability) {
+        if (raiseTo <= spot.betLevel) return call(spot, equity);
+        // Everybody who can still act folds; players already all-in stay in
+        load(spot);
+        putIn(spot, spot.hero, raiseTo);
+        for (int i = 0; i < spot.seats; i++) {
+            if (i != spot.hero && chips[i] > 0) contesting[i] = false;
+        }
+        double folded = showdown(spot, equity);
+
+        load(spot);
+        int level = putIn(spot, spot.hero, raiseTo);
+        for (int i = 0; i < spot.seats; i++) {
+            if (i != spot.hero && contesting[i]) putIn(spot, i, level);
+        }
+        double called = showdown(spot, equity);
+        return foldProbability * folded + (1 - foldProbability) * called;
+    }
+
+    private void load(Spot spot) {
+        for (int i = 0; i < spot.seats; i++) {
+            chips[i] = spot.chips[i];
+            committed[i] = spot.committed[i];
+            contesting[i] = spot.contesting[i];
+        }
+    }
+
+    /** Moves the seat's bet up to {@code level}, as far as its chips go; returns the bet it reached. */
+    private int putIn(Spot spot, int seat, int level) {
+        int put = Math.max(0, Math.min(chips[seat], level - spot.bets[seat]));
+        chips[seat] -= put;
+        committed[seat] += put;
+        return spot.bets[seat] + put;
+    }
+
+    /** Expected prize equity over who wins, for the chips and contestants loaded now. */
+    private double showdown(Spot spot, double equity) {
+        int pots = SidePots.split(committed, contesting, spot.seats, potAmounts, potEligible);
+        boolean heroIn = contesting[spot.hero];
+        int opponents = 0;
+        for (int i = 0; i < spot.seats; i++) {
+            if (i != spot.hero && contesting[i]) opponents++;
+        }
+        if (opponents == 0) return heroIn ? award(spot, spot.hero, pots) : award(spot, -1, pots);
+
+        double ev = heroIn ? equity * award(spot, spot.hero, pots) : 0;
+        double each = (heroIn ? 1 - equity : 1) / opponents;
+        for (int i = 0; i < spot.seats; i++) {
+            if (i != spot.hero && contesting[i]) ev += each * award(spot, i, pots);
+        }
+        return ev;
+    }
+
+    /** Our prize equity when {@code winner} takes every pot they are eligible for. */
+    private double award(Spot spot, int winner, int pots) {
+        for (int i = 0; i < spot.seats; i++) {
+            stacks[i] = chips[i];
+        }
+        for (int p = 0; p < pots; p++) {
+            int eligible = potEligible[p];
+            int to = winner >= 0 && (eligible & (1 << winner)) != 0 ? winner : largestIn(eligible, spot.hero);
+            stacks[to] += potAmounts[p];
+        }
+        icm.equities(stacks, spot.seats, equities);
+        return equities[spot.hero];
+    }
+
+    /** The eligible seat that put the most in, preferring opponents over {@code hero}. */
+    private int largestIn(int eligible, int hero) {
+        int best = -1;
+        for (int i = 0; eligible >> i != 0; i++) {
+            if ((eligible & (1 << i)) == 0 || i == hero) continue;
+            if (best < 0 || committed[i] > committed[best]) best = i;
+        }
+        return best >= 0 ? best : hero;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.pokerbot.icm;
+
+import com.example.pokerbot.history.HandRecorder;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.model.IcmEstimate;
+
+/**
+ * Prices our options in tournament terms for one session: builds the {@link IcmActionEv.Spot}
+ * from the broadcast state and values folding, calling and a given raise.
+ * <p>
+ * The state only carries this round's bets. What everyone put in on earlier streets comes from
+ * the session's {@link HandRecorder}, which knows the stacks the hand started with. Until it has
+ * seen the hand start (the first state of a hand arrives before it is recorded), the earlier
+ * money is split evenly between the players still in. The chance that everybody folds to a
+ * raise is the product of the fold-to-bet rates of the opponents who can still act, with a
+ * default for players not seen often enough; players already all-in cannot fold.
+ * <p>
+ * Not thread-safe: one per session.
+ */
+public class IcmAdvisor {
+    private static final double DEFAULT_FOLD_TO_RAISE = 0.35;
+    private static final long MIN_FOLD_TO_BET_CHANCES = 10;
+
+    private final IcmActionEv actionEv;
+    private final IcmActionEv.Spot spot = new IcmActionEv.Spot();
+    private final double[] equities = new double[IcmActionEv.MAX_SEATS];
+
+    public IcmAdvisor(IcmCalculator icm) {
+        this.actionEv = new IcmActionEv(icm);
+    }
+
+    /**
+     * @param ctx the decision context, for our showdown equity and the opponents' stats
+     * @param raiseTo the raise to value, or null for none
+     * @return the prize equities, or null when we are not seated in the hand or more than
+     *         {@link IcmActionEv#MAX_SEATS} players are left in the tournament
+     */
+    public IcmEstimate estimate(GameState state, String myId, HandRecorder recorder, GeminiContext ctx, Integer raiseTo) {
+        if (!load(state, myId, recorder)) return null;
+        IcmCalculator icm = actionEv.getCalculator();
+        double prizePool = icm.getPrizePool();
+        if (prizePool <= 0) return null;
+
+        int opponents = 0;
+        for (int i = 0; i < spot.seats; i++) {
+            if (i != spot.hero && spot.contesting[i]) opponents++;
+        }
+        double equity = ctx.equity != null ? ctx.equity.equity : 1.0 / (opponents + 1);
+
+        IcmEstimate estimate = new IcmEstimate();
+        for (int i = 0; i < spot.seats; i++) {
+            spot.chips[i] += spot.committed[i];
+        }
+        icm.equities(spot.chips, spot.seats, equities);
+        for (int i = 0; i < spot.seats; i++) {
+            spot.chips[i] -= spot.committed[i];
+        }
+        estimate.now = equities[spot.hero] / prizePool;
+        estimate.fold = actionEv.fold(spot) / prizePool;
+        estimate.call = actionEv.call(spot, equity) / prizePool;
+        if (raiseTo != null && spot.chips[spot.hero] > spot.betLevel - spot.bets[spot.hero]) {
+            estimate.raise = actionEv.raise(spot, raiseTo, equity, foldProbability(ctx)) / prizePool;
+            estimate.raiseTo = raiseTo;
+        }
+        return estimate;
+    }
+
+    private static double foldProbability(GeminiContext ctx) {
+        double all = 1;
+        for (GeminiContext.PlayerInfo p : ctx.activePlayers) {
+            if (p.name == null || p.name.equals(ctx.playerName) || p.chips <= 0) continue;
+            boolean known = p.stats != null && p.stats.foldToBetChances >= MIN_FOLD_TO_BET_CHANCES;
+            all *= known ? p.stats.foldToBet : DEFAULT_FOLD_TO_RAISE;
+        }
+        return all;
+    }
+
+    /** @return false when we are not in the hand or the players left do not fit the spot */
+    private boolean load(GameState state, String myId, HandRecorder recorder) {
+        spot.seats = 0;
+        spot.hero = -1;
+        spot.betLevel = state.minimumBetForCall;
+        boolean recorded = true;
+        int committed = 0;
+        int bets = 0;
+        int contesting = 0;
+        for (GameState.Player p : state.players) {
+            boolean in = "active".equals(p.status) || "all-in".equals(p.status);
+            // Players out of the tournament have their prize already
+            if (p.isSpectator || !in && p.chips <= 0) continue;
+            if (spot.seats == IcmActionEv.MAX_SEATS) return false;
+            int seat = spot.seats++;
+            if (myId.equals(p.id)) spot.hero = seat;
+            spot.chips[seat] = p.chips;
+            spot.bets[seat] = p.currentBet;
+            spot.contesting[seat] = in;
+            int put = recorder != null ? recorder.committed(p.id, p.chips) : -1;
+            recorded &= put >= p.currentBet;
+            spot.committed[seat] = put;
+            committed += Math.max(0, put);
+            bets += p.currentBet;
+            if (in) contesting++;
+        }
+        if (spot.hero < 0 || !spot.contesting[spot.hero]) return false;
+        if (!recorded || committed != state.pot) {
+            // Earlier streets unknown: shared evenly by the players still in
+            int dead = Math.max(0, state.pot - bets);
+            int share = contesting > 0 ? dead / contesting : 0;
+            int odd = contesting > 0 ? dead % contesting : 0;
+            for (int i = 0; i < spot.seats; i++) {
+                spot.committed[i] = spot.bets[i];
+                if (!spot.contesting[i]) continue;
+                spot.committed[i] += share + (odd > 0 ? 1 : 0);
+                odd--;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.pokerbot.icm;
+
+import java.util.Arrays;
+
+/**
+ * Independent Chip Model: what each stack is worth in prize money, for any payout structure.
+ * <p>
+ * A player finishes first with probability stack / total chips, and each following place is
+ * drawn the same way among the players still unplaced. The recursion over finishing orders is
+ * factorial; here it is a dynamic program over subsets instead. {@code reach[mask]} is the
+ * probability that exactly the players in {@code mask} took the top places, and every subset
+ * is expanded once, in increasing mask order (all its subsets come first), adding each next
+ * finisher's share of the prize for that place. That is O(2^n * n), about 5000 steps for nine
+ * players, on flat arrays indexed by mask. Subsets that already fill the paid places are not
+ * expanded, so a full table of {@link #MAX_PLAYERS} still takes well under a millisecond; the
+ * arrays grow with the largest table seen. With more players than that the stacks are valued
+ * by chip share instead.
+ * <p>
+ * Players without chips are out: they share the places below everyone who still has chips,
+ * which is how a stack that is busted in a hand is valued.
+ * <p>
+ * Not thread-safe: the tables are reused between calls, keep one calculator per thread.
+ */
+public class IcmCalculator {
+    public static final int MAX_PLAYERS = 16;
+
+    private final double[] payouts;
+    private final double prizePool;
+    // Indexed by subset of the players with chips
+    private double[] reach = new double[0];
+    private double[] chipsIn = new double[0];
+    // Players with chips, in seat order
+    private final int[] seatOf = new int[MAX_PLAYERS];
+    private final double[] stackOf = new double[MAX_PLAYERS];
+
+    /** @param payouts prize for first place, second place and so on; places beyond it pay nothing */
+    public IcmCalculator(double[] payouts) {
+        this.payouts = payouts.clone();
+        this.prizePool = Arrays.stream(payouts).sum();
+    }
+
+    /** Parses a comma-separated payout list such as {@code 50,30,20}; null when it is blank. */
+    public static double[] parsePayouts(String payouts) {
+        if (payouts == null || payouts.isBlank()) return null;
+        String[] parts = payouts.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+            if (values[i] < 0) throw new IllegalArgumentException("Negative payout in " + payouts);
+        }
+        return values;
+    }
+
+    public double getPrizePool() {
+        return prizePool;
+    }
+
+    public int getPaidPlaces() {
+        return payouts.length;
+    }
+
+    /**
+     * Prize equity of every seat.
+     *
+     * @param stacks chips per seat, 0 for a player who is out
+     * @param seats number of seats used in {@code stacks}
+     * @param out receives the equity per seat, in the units of the payouts
+     */
+    public void equities(int[] stacks, int seats, double[] out) {
+        int n = 0;
+        double total = 0;
+        for (int i = 0; i < seats; i++) {
+            out[i] = 0;
+            if (stacks[i] <= 0) continue;
+            if (n < MAX_PLAYERS) {
+                seatOf[n] = i;
+                stackOf[n] = stacks[i];
+            }
+            total += stacks[i];
+            n++;
+        }
+        if (n < seats) {
+            // Players out of chips split the places right below the survivors
+            double share = 0;
+            for (int place = n; place < Math.min(seats, payouts.length); place++) {
+                share += payouts[place];
+            }
+            share /= seats - n;
+            for (int i = 0; i < seats; i++) {
+                if (stacks[i] <= 0) out[i] = share;
+            }
+        }
+        if (n == 0) return;
+
+        int places = Math.min(n, payouts.length);
+        if (n > MAX_PLAYERS) {
+            // Chip EV: the places the survivors take, shared by chips
+            double prizes = 0;
+            for (int place = 0; place < places; place++) {
+                prizes += payouts[place];
+            }
+            for (int i = 0; i < seats; i++) {
+                if (stacks[i] > 0) out[i] = prizes * stacks[i] / total;
+            }
+            return;
+        }
+        int subsets = 1 << n;
+        if (reach.length < subsets) {
+            reach = new double[subsets];
+            chipsIn = new double[subsets];
+        }
+        Arrays.fill(reach, 0, subsets, 0.0);
+        reach[0] = 1;
+        chipsIn[0] = 0;
+        for (int mask = 0; mask < subsets; mask++) {
+            if (mask != 0) {
+                int lowest = Integer.numberOfTrailingZeros(mask);
+                chipsIn[mask] = chipsIn[mask & (mask - 1)] + stackOf[lowest];
+            }
+            int placed = Integer.bitCount(mask);
+            double p = reach[mask];
+            if (placed >= places || p == 0) continue;
+            double prize = payouts[placed];
+            double perChip = p / (total - chipsIn[mask]);
+            for (int j = 0; j < n; j++) {
+                if ((mask & (1 << j)) != 0) continue;
+                double q = perChip * stackOf[j];
+                reach[mask | (1 << j)] += q;
+                out[seatOf[j]] += q * prize;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.pokerbot.icm;
+
+/**
+ * Splits the chips put into a hand into the main pot and side pots. Every distinct amount put in
+ * by a player still in the hand closes a pot; each pot takes from every player (folded ones
+ * too) what they put in between the previous level and this one, and can be won by the players
+ * still in the hand who reached its level. Chips folded players put in above the highest level
+ * go to the last pot. A pot with a single eligible player is an uncalled bet going back.
+ */
+public final class SidePots {
+    private SidePots() {
+    }
+
+    /**
+     * @param committed chips each seat put into the hand so far
+     * @param contesting seats still in the hand (not folded)
+     * @param amounts receives the size of each pot, main pot first
+     * @param eligible receives the seats that can win each pot, as a bit mask
+     * @return the number of pots, 0 when nobody is contesting
+     */
+    public static int split(int[] committed, boolean[] contesting, int seats, int[] amounts, int[] eligible) {
+        int pots = 0;
+        int previous = 0;
+        while (true) {
+            // Next level: the smallest amount above the previous one among the contesting seats
+            int level = Integer.MAX_VALUE;
+            for (int i = 0; i < seats; i++) {
+                if (contesting[i] && committed[i] > previous && committed[i] < level) level = committed[i];
+            }
+            if (level == Integer.MAX_VALUE) break;
+            int amount = 0;
+            int mask = 0;
+            for (int i = 0; i < seats; i++) {
+                amount += Math.max(0, Math.min(committed[i], level) - previous);
+                if (contesting[i] && committed[i] >= level) mask |= 1 << i;
+            }
+            amounts[pots] = amount;
+            eligible[pots] = mask;
+            pots++;
+            previous = level;
+        }
+        if (pots > 0) {
+            for (int i = 0; i < seats; i++) {
+                if (!contesting[i] && committed[i] > previous) amounts[pots - 1] += committed[i] - previous;
+            }
+        }
+        return pots;
+    }
+}
@@ -4,8 +4,11 @@ import java.util.List;
 import java.util.Objects;
 import lombok.ToString;
 
+import com.example.pokerbot.eval.EquityResult;
+
 @ToString
 public class GeminiContext {
+    public String playerName; // the name this bot joined the table with
     public List<Card> playerHand;
     public List<Card> communityCards;
     public List<PlayerInfo> activePlayers;
@@ -13,12 +16,15 @@ public class GeminiContext {
     public int amountToCall;
     public int minimumRaiseAmount;
     public String bettingRound;
+    public EquityResult equity; // nullable, local estimate against the opponents' ranges or random hands
+    public IcmEstimate icm; // nullable, only in tournaments (bot.icm.payouts)
 
     @ToString
     public static class PlayerInfo {
         public String name;
         public int chips;
         public int currentBet;
+        public PlayerStats stats; // nullable, until enough hands were seen
 
         @Override
         public boolean equals(Object o) {
@@ -43,6 +49,11 @@ public class GeminiContext {
         return sb.toString().trim();
     }
 
+    public String getEquityString() {
+        if (equity == null) return "Unknown";
+        return String.format("%.1f%% (win %.1f%%, tie %.1f%%)", equity.equity * 100, equity.win * 100, equity.tie * 100);
+    }
+
     public String getCommunityCardsString() {
         if (communityCards == null) return "";
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,13 @@
+package com.example.pokerbot.model;
+
+import lombok.ToString;
+
+/** Our tournament prize equity after each action, as a fraction of the prize pool. */
+@ToString
+public class IcmEstimate {
+    public double now; // with the stacks as they are, before this hand is settled
+    public double fold;
+    public double call; // or check
+    public Double raise; // nullable, when we cannot raise
+    public Integer raiseTo; // the raise amount valued
+}
@@ -0,0 +1,21 @@
+package com.example.pokerbot.model;
+
+import lombok.ToString;
+
+/**
+ * What we have seen of one player, as of their last completed hand. Fractions are 0 to 1 and 0
+ * when there was no chance to observe them. Instances are never changed after publishing.
+ */
+@ToString
+public class PlayerStats {
+    public String name;
+    public long hands;
+    public double vpip; // voluntarily put chips in pre-flop
+    public double pfr; // raised pre-flop
+    public double aggression; // post-flop bets and raises per call
+    public long foldToBetChances; // post-flop streets on which they faced a bet
+    public double foldToBet;
+    public double wentToShowdown; // of the hands they saw the flop in
+    public double wonAtShowdown;
+    public String summary; // compact prompt form, e.g. "n120 v35 p20 af2.1 f60"
+}
@@ -0,0 +1,17 @@
+package com.example.pokerbot.model;
+
+import lombok.ToString;
+
+@ToString
+public class SessionStatus {
+    public String name;
+    public String serverUrl;
+    public String state;
+    public long messagesReceived;
+    public long messagesCoalesced;
+    public long messagesProcessed;
+    public long speculativeEquityHits;
+    public long speculativeEquityMisses;
+    public long speculativeActionHits;
+    public long speculativeActionMisses;
+}
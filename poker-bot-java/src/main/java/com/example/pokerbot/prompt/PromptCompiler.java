@@ -0,0 +1,248 @@
+package com.example.pokerbot.prompt;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.model.IcmEstimate;
+
+/**
+ * Renders Gemini {@code generateContent} request bodies.
+ * <p>
+ * The fixed instructions are JSON-escaped once, in the constructor. Each decision then appends
+ * one compact line per fact to a pooled buffer, in a single pass over the context: the round,
+ * hand, board, pot, amount to call, minimum raise, our stack, equity, prize equities in a
+ * tournament and every player as {@code name:chips/bet}, with {@code [summary]} of their {@link com.example.pokerbot.model.PlayerStats}
+ * for opponents we have seen enough of. Nothing is sent twice. The body is pure ASCII (anything else is
+ * escaped), so its length is its size in bytes.
+ * <p>
+ * The prompt text, measured as sent, is kept under {@code maxBytes}: player names are shortened and opponents that
+ * do not fit are summarised as a count. Thread-safe.
+ */
+public class PromptCompiler {
+    static final String INSTRUCTIONS = """
+        You are an expert Texas Hold'em player. Choose the best action for me in the spot below.
+        Fields: round; hand = my hole cards; board; pot; toCall = chips I must add to call; \
+        minRaise; stack = my chips; equity = my showdown odds vs the hands the opponents likely play \
+        (random hands for those without stats); players = name:chips/bet this round, me marked *, \
+        in seat order; opponents we know are followed by [n hands, v VPIP%, p PFR%, af aggression factor, f fold-to-bet%]; \
+        icm (tournaments only) = my share of the prize pool now and after fold/call/raise.
+        Rules:
+        - Do not call pre-flop.
+        - If toCall is 0, check (never call) and do not fold.
+        - If toCall is above 0, call, fold or raise.
+        - Play aggressively.
+        Reply ONLY with one JSON object, keys in this order, no other text:
+        {"actionType": "fold"|"check"|"call"|"raise", "amount": number (only for raise), "reasoning": string}
+        """;
+
+    private static final String BODY_PREFIX = "{\"contents\":[{\"parts\":[{\"text\":\"";
+    private static final String BODY_SUFFIX = "\"}]}]}";
+    private static final int MAX_NAME_LENGTH = 20;
+    // Room kept for the "+N more" summary and the closing line when players are cut
+    private static final int RESERVE = 24;
+    private static final int POOL_SIZE = 16;
+
+    private final String prefix;
+    private final int prefixLength;
+    private final int maxBytes;
+    private final BlockingQueue<StringBuilder> buffers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAccumulator largest = new LongAccumulator(Math::max, 0);
+    private final LongAdder truncated = new LongAdder();
+
+    public PromptCompiler(int maxBytes) {
+        StringBuilder sb = new StringBuilder(BODY_PREFIX);
+        int start = sb.length();
+        appendEscaped(sb, INSTRUCTIONS);
+        this.prefix = sb.toString();
+        this.prefixLength = sb.length() - start;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Renders the request body for this decision and returns it with the prompt size. */
+    public Prompt render(GeminiContext ctx) {
+        StringBuilder sb = buffers.poll();
+        if (sb == null) sb = new StringBuilder(prefix.length() + 512);
+        try {
+            sb.setLength(0);
+            sb.append(prefix);
+            int start = sb.length() - prefixLength;
+            int limit = start + maxBytes;
+
+            GeminiContext.PlayerInfo me = null;
+            if (ctx.activePlayers != null) {
+                for (GeminiContext.PlayerInfo p : ctx.activePlayers) {
+                    if (p.name != null && p.name.equals(ctx.playerName)) me = p;
+                }
+            }
+            sb.append("round=").append(ctx.bettingRound);
+            sb.append("\\nhand=");
+            appendCards(sb, ctx.playerHand);
+            sb.append("\\nboard=");
+            appendCards(sb, ctx.communityCards);
+            sb.append("\\npot=").append(ctx.pot);
+            sb.append("\\ntoCall=").append(Math.max(0, ctx.amountToCall - (me != null ? me.currentBet : 0)));
+            sb.append("\\nminRaise=").append(ctx.minimumRaiseAmount);
+            sb.append("\\nstack=").append(me != null ? me.chips : 0);
+            if (ctx.equity != null) {
+                sb.append("\\nequity=");
+                appendPercent(sb, ctx.equity.equity);
+            }
+            if (ctx.icm != null) {
+                appendIcm(sb, ctx.icm);
+            }
+            sb.append("\\nplayers=");
+            boolean cut = appendPlayers(sb, ctx, limit);
+            sb.append("\\nAction:");
+
+            int bytes = sb.length() - start;
+            sb.append(BODY_SUFFIX);
+            record(bytes, cut);
+            return new Prompt(sb.toString(), bytes, cut);
+        } finally {
+            // Oversized buffers are left to the GC instead of being pooled
+            if (sb.capacity() <= 4 * (prefix.length() + maxBytes)) buffers.offer(sb);
+        }
+    }
+
+    public long getRendered() {
+        return rendered.sum();
+    }
+
+    public long getAverageBytes() {
+        long n = rendered.sum();
+        return n == 0 ? 0 : totalBytes.sum() / n;
+    }
+
+    public long getLargestBytes() {
+        return largest.get();
+    }
+
+    public long getTruncated() {
+        return truncated.sum();
+    }
+
+    /** @return true when players had to be left out to stay within the budget */
+    private static boolean appendPlayers(StringBuilder sb, GeminiContext ctx, int limit) {
+        List<GeminiContext.PlayerInfo> players = ctx.activePlayers;
+        if (players == null) return false;
+        int start = sb.length();
+        int left = 0;
+        for (GeminiContext.PlayerInfo p : players) {
+            boolean hero = p.name != null && p.name.equals(ctx.playerName);
+            int mark = sb.length();
+            if (mark > start) sb.append(' ');
+            if (hero) sb.append('*');
+            appendName(sb, p.name);
+            sb.append(':').append(p.chips).append('/').append(p.currentBet);
+            if (!hero && p.stats != null) {
+                // Formatted when the stats were last updated, so this is a plain copy
+                sb.append('[').append(p.stats.summary).append(']');
+            }
+            // Our own entry always stays; opponents that do not fit the budget are left out
+            if (!hero && sb.length() + RESERVE > limit) {
+                sb.setLength(mark);
+                left++;
+            }
+        }
+        if (left == 0) return false;
+        if (sb.length() > start) sb.append(' ');
+        sb.append('+').append(left).append(" more");
+        return true;
+    }
+
+    private void record(int bytes, boolean cut) {
+        rendered.increment();
+        totalBytes.add(bytes);
+        largest.accumulate(bytes);
+        if (cut) truncated.increment();
+    }
+
+    private static void appendCards(StringBuilder sb, List<Card> cards) {
+        if (cards == null || cards.isEmpty()) {
+            sb.append('-');
+            return;
+        }
+        for (int i = 0; i < cards.size(); i++) {
+            if (i > 0) sb.append(' ');
+            Card c = cards.get(i);
+            appendEscaped(sb, c.rank);
+            appendEscaped(sb, c.suit);
+        }
+    }
+
+    /** {@code icm=now N fold F call C raise R@T}, in percent of the prize pool to two places. */
+    private static void appendIcm(StringBuilder sb, IcmEstimate icm) {
+        sb.append("\\nicm=now ");
+        appendPercent2(sb, icm.now);
+        sb.append(" fold ");
+        appendPercent2(sb, icm.fold);
+        sb.append(" call ");
+        appendPercent2(sb, icm.call);
+        if (icm.raise != null) {
+            sb.append(" raise ");
+            appendPercent2(sb, icm.raise);
+            sb.append('@').append(icm.raiseTo);
+        }
+    }
+
+    private static void appendPercent2(StringBuilder sb, double fraction) {
+        long hundredths = Math.round(fraction * 10000);
+        long fractionDigits = hundredths % 100;
+        sb.append(hundredths / 100).append('.').append(fractionDigits < 10 ? "0" : "").append(fractionDigits).append('%');
+    }
+
+    private static void appendPercent(StringBuilder sb, double fraction) {
+        long tenths = Math.round(fraction * 1000);
+        sb.append(tenths / 10).append('.').append(tenths % 10).append('%');
+    }
+
+    private static void appendName(StringBuilder sb, String name) {
+        if (name == null) {
+            sb.append('?');
+            return;
+        }
+        // Spaces and separators would make the player list ambiguous
+        int length = Math.min(name.length(), MAX_NAME_LENGTH);
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            appendEscaped(sb, c == ' ' || c == ':' || c == '/' ? '_' : c);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder sb, String s) {
+        if (s == null) return;
+        for (int i = 0; i < s.length(); i++) {
+            appendEscaped(sb, s.charAt(i));
+        }
+    }
+
+    private static void appendEscaped(StringBuilder sb, char c) {
+        switch (c) {
+            case '"' -> sb.append("\\\"");
+            case '\\' -> sb.append("\\\\");
+            case '\n' -> sb.append("\\n");
+            default -> {
+                if (c < 0x20 || c > 0x7e) {
+                    sb.append("\\u");
+                    String hex = Integer.toHexString(c);
+                    for (int i = hex.length(); i < 4; i++) sb.append('0');
+                    sb.append(hex);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+    }
+
+    /** A rendered request body and the size of the prompt text inside it. */
+    public record Prompt(String body, int bytes, boolean truncated) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.pokerbot.sim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.example.pokerbot.blueprint.BlueprintAbstraction;
+import com.example.pokerbot.blueprint.BlueprintTable;
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.eval.MonteCarloEquity;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.history.HandHistoryWriter;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.strategy.BlueprintStrategy;
+
+/**
+ * In-memory self-play: one {@link TableEngine} driven on the calling thread, with every seat
+ * played by a {@link SimStrategy}. The server's delays between hands are skipped, busted seats
+ * rebuy for {@link TableEngine#STARTING_CHIPS} so the table never breaks up, and an action the
+ * engine rejects is replaced by a fold (what the server's auto-fold timer would do).
+ * <p>
+ * Usage: {@code java -cp target/classes:<deps> com.example.pokerbot.sim.SelfPlay <hands> <seed>
+ * <strategy> <strategy> [...] [--history=<dir>]}, with up to {@link TableEngine#MAX_PLAYERS}
+ * strategies named as in {@link SimStrategies}. With {@code --history} every hand is appended to
+ * a hand-history log in that directory.
+ */
+public class SelfPlay implements TableEngine.Listener {
+    // Cheaper than the bot's equity settings: self-play decides millions of times
+    private static final long LOCAL_EQUITY_SAMPLES = 5_000;
+    private static final long LOCAL_EQUITY_BUDGET_MS = 2;
+    private static final double LOCAL_EQUITY_EXACT_MAX_WORK = 50_000;
+    // Offline runs: large segments, and the table waits for the writer rather than dropping hands
+    static final long HISTORY_SEGMENT_BYTES = 256L * 1024 * 1024;
+    static final int HISTORY_QUEUE = 65536;
+    private static EquityCalculator localEquity;
+    private static BlueprintStrategy blueprint;
+
+    private final TableEngine table;
+    private final SimStrategy[] strategies;
+    private final int[] rebuys;
+    private final Deque<Runnable> pending = new ArrayDeque<>();
+    private boolean rejected;
+    private long rejectedActions;
+
+    public SelfPlay(List<String> names, List<SimStrategy> strategies, SplittableRandom random) {
+        if (names.size() != strategies.size() || names.size() < 2 || names.size() > TableEngine.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Need 2 to " + TableEngine.MAX_PLAYERS + " named strategies");
+        }
+        this.table = new TableEngine(this, random);
+        this.strategies = strategies.toArray(new SimStrategy[0]);
+        this.rebuys = new int[strategies.size()];
+        for (int i = 0; i < names.size(); i++) {
+            table.addPlayer(names.get(i), false, i);
+        }
+    }
+
+    public TableEngine getTable() {
+        return table;
+    }
+
+    /** Plays until {@code hands} more hands have finished. */
+    public void play(long hands) {
+        long target = table.getHandsCompleted() + hands;
+        if (table.getPhase() == TableEngine.Phase.WAITING) {
+            table.checkAndStartGame();
+        }
+        while (table.getHandsCompleted() < target) {
+            Runnable task = pending.pollFirst();
+            if (task != null) {
+                task.run();
+                continue;
+            }
+            TableEngine.Seat seat = table.getCurrentPlayer();
+            if (seat == null) {
+                throw new IllegalStateException("Table stalled: " + table.getMessage());
+            }
+            GeminiAction action = strategies[(int) seat.getAttachment()].decide(table, seat);
+            rejected = false;
+            table.handlePlayerAction(seat, action.actionType, action.amount);
+            if (rejected) {
+                rejectedActions++;
+                table.handlePlayerAction(seat, "fold", null);
+            }
+        }
+    }
+
+    /** Chips won or lost by a seat since it sat down, counting rebuys. */
+    public long getNet(int seat) {
+        return table.getPlayers().get(seat).getChips() - (long) TableEngine.STARTING_CHIPS * (1 + rebuys[seat]);
+    }
+
+    public int getRebuys(int seat) {
+        return rebuys[seat];
+    }
+
+    public long getRejectedActions() {
+        return rejectedActions;
+    }
+
+    @Override
+    public void onError(TableEngine.Seat seat, String text) {
+        rejected = true;
+    }
+
+    @Override
+    public void schedule(Runnable task, long delayMs) {
+        pending.addLast(() -> {
+            rebuyBusted();
+            task.run();
+        });
+    }
+
+    private void rebuyBusted() {
+        for (TableEngine.Seat seat : table.getPlayers()) {
+            if (seat.getChips() == 0) {
+                table.addChips(seat, TableEngine.STARTING_CHIPS);
+                rebuys[(int) seat.getAttachment()]++;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path historyDir = null;
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--history=")) historyDir = Path.of(arg.substring(10));
+            else positional.add(arg);
+        }
+        if (positional.size() < 4) {
+            System.err.println("Usage: SelfPlay <hands> <seed> <strategy> <strategy> [...] [--history=<dir>]"
+                + "  (strategies: call, random, local, blueprint)");
+            System.exit(1);
+        }
+        long hands = Long.parseLong(positional.get(0));
+        SplittableRandom random = new SplittableRandom(Long.parseLong(positional.get(1)));
+        Supplier<EquityCalculator> calculator = SelfPlay::localEquityCalculator;
+        List<String> names = new ArrayList<>();
+        List<SimStrategy> strategies = new ArrayList<>();
+        for (int i = 2; i < positional.size(); i++) {
+            names.add("P" + (i - 1) + "-" + positional.get(i));
+            strategies.add(SimStrategies.byName(positional.get(i), random.split(), calculator,
+                SelfPlay::blueprintStrategy));
+        }
+        // Short warm-up so the JIT has compiled the engine before timing, on a table of its own so
+        // its hands stay out of the results and the history
+        new SelfPlay(names, strategies, random.split()).play(Math.min(hands, 20_000));
+
+        SelfPlay selfPlay = new SelfPlay(names, strategies, random.split());
+        HandHistoryWriter history = null;
+        if (historyDir != null) {
+            history = new HandHistoryWriter(historyDir, HISTORY_SEGMENT_BYTES, HISTORY_QUEUE, true);
+            selfPlay.getTable().setRecorder(history::append);
+        }
+        long start = System.nanoTime();
+        selfPlay.play(hands);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d hands in %.2f s: %.0f hands/min, %d rejected actions%n",
+            hands, seconds, hands / seconds * 60, selfPlay.getRejectedActions());
+        long played = selfPlay.getTable().getHandsCompleted();
+        for (int i = 0; i < names.size(); i++) {
+            long net = selfPlay.getNet(i);
+            System.out.printf("  %-12s net %+9d chips  %+8.2f bb/100  rebuys %d%n", names.get(i), net,
+                net * 100.0 / TableEngine.BIG_BLIND / played, selfPlay.getRebuys(i));
+        }
+        if (history != null) {
+            history.close();
+            System.out.printf("Wrote %d hands to %s%n", history.getWritten(), historyDir);
+        }
+    }
+
+    /** The calculator behind {@code local} players, created on first use and shared. */
+    static synchronized EquityCalculator localEquityCalculator() {
+        if (localEquity != null) return localEquity;
+        try {
+            localEquity = new EquityCalculator(new MonteCarloEquity(), PreflopTable.mapResource(), LOCAL_EQUITY_EXACT_MAX_WORK,
+                LOCAL_EQUITY_SAMPLES, TimeUnit.MILLISECONDS.toNanos(LOCAL_EQUITY_BUDGET_MS));
+            return localEquity;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The strategy behind {@code blueprint} players, on the bundled table, created on first use and shared. */
+    static synchronized BlueprintStrategy blueprintStrategy() {
+        if (blueprint != null) return blueprint;
+        try {
+            blueprint = new BlueprintStrategy(new BlueprintAbstraction(PreflopTable.mapResource()), BlueprintTable.mapResource());
+            return blueprint;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
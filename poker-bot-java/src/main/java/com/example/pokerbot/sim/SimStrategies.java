@@ -0,0 +1,121 @@
+package com.example.pokerbot.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.strategy.BlueprintStrategy;
+import com.example.pokerbot.strategy.LocalStrategy;
+
+/**
+ * Built-in players for the simulator.
+ * <ul>
+ *   <li>{@code call}: checks or calls everything</li>
+ *   <li>{@code random}: folds to a bet 15% of the time, min-raises 15%, otherwise checks or calls</li>
+ *   <li>{@code local}: the bot's {@link LocalStrategy} on the bot's equity estimate</li>
+ *   <li>{@code blueprint}: the bot's {@link BlueprintStrategy} on the bundled table</li>
+ * </ul>
+ */
+public final class SimStrategies {
+    private static final double FOLD_CHANCE = 0.15;
+    private static final double RAISE_CHANCE = 0.15;
+
+    private SimStrategies() {
+    }
+
+    /**
+     * Resolves a strategy by name.
+     *
+     * @param calculator only read for {@code local}
+     * @param blueprint  only read for {@code blueprint}
+     */
+    public static SimStrategy byName(String name, SplittableRandom random, Supplier<EquityCalculator> calculator,
+                                     Supplier<BlueprintStrategy> blueprint) {
+        return switch (name) {
+            case "call" -> callingStation();
+            case "random" -> random(random);
+            case "local" -> local(calculator.get());
+            case "blueprint" -> blueprint(blueprint.get(), random);
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name + " (call, random, local, blueprint)");
+        };
+    }
+
+    public static SimStrategy callingStation() {
+        return (table, seat) -> checkOrCall(table, seat);
+    }
+
+    public static SimStrategy random(SplittableRandom random) {
+        return (table, seat) -> {
+            double roll = random.nextDouble();
+            int toCall = table.getMinimumBetForCall() - seat.getCurrentBet();
+            if (toCall > 0 && roll < FOLD_CHANCE) {
+                return action("fold", null);
+            }
+            if (roll > 1 - RAISE_CHANCE && seat.getChips() > toCall) {
+                int raiseTo = table.getMinimumBetForCall() + table.getMinimumRaiseAmount();
+                return action("raise", Math.min(raiseTo, seat.getCurrentBet() + seat.getChips()));
+            }
+            return checkOrCall(table, seat);
+        };
+    }
+
+    public static SimStrategy local(EquityCalculator calculator) {
+        LocalStrategy strategy = new LocalStrategy();
+        return (table, seat) -> {
+            GeminiContext ctx = context(table, seat);
+            ctx.equity = calculator.calculate(Cards.encode(ctx.playerHand), table.getBoard(),
+                ctx.activePlayers.size() - 1);
+            return strategy.decide(ctx, seat.getName());
+        };
+    }
+
+    public static SimStrategy blueprint(BlueprintStrategy strategy, SplittableRandom random) {
+        return (table, seat) -> strategy.decide(table.toGameState(), seat.getId(), Cards.mask(TableEngine.holeCards(seat)),
+            random.nextDouble());
+    }
+
+    /** The context the bot would build for {@code seat} from a state broadcast. */
+    public static GeminiContext context(TableEngine table, TableEngine.Seat seat) {
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = seat.getName();
+        ctx.playerHand = TableEngine.holeCards(seat);
+        int[] board = table.getBoard();
+        List<Card> communityCards = new ArrayList<>(board.length);
+        for (int card : board) {
+            communityCards.add(Cards.canonical(card));
+        }
+        ctx.communityCards = communityCards;
+        ctx.activePlayers = new ArrayList<>();
+        for (TableEngine.Seat p : table.getPlayers()) {
+            if (p.getStatus() == TableEngine.Status.ACTIVE || p.getStatus() == TableEngine.Status.ALL_IN) {
+                GeminiContext.PlayerInfo info = new GeminiContext.PlayerInfo();
+                info.name = p.getName();
+                info.chips = p.getChips();
+                info.currentBet = p.getCurrentBet();
+                ctx.activePlayers.add(info);
+            }
+        }
+        ctx.pot = table.getPot();
+        ctx.amountToCall = table.getMinimumBetForCall();
+        ctx.minimumRaiseAmount = table.getMinimumRaiseAmount();
+        ctx.bettingRound = table.getBettingRound() != null ? table.getBettingRound().getWireName() : null;
+        return ctx;
+    }
+
+    private static GeminiAction checkOrCall(TableEngine table, TableEngine.Seat seat) {
+        return action(table.getMinimumBetForCall() > seat.getCurrentBet() ? "call" : "check", null);
+    }
+
+    private static GeminiAction action(String type, Integer amount) {
+        GeminiAction action = new GeminiAction();
+        action.actionType = type;
+        action.amount = amount;
+        return action;
+    }
+}
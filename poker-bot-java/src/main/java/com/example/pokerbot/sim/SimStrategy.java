@@ -0,0 +1,12 @@
+package com.example.pokerbot.sim;
+
+import com.example.pokerbot.model.GeminiAction;
+
+/**
+ * Decides for one seat of a {@link TableEngine}, in the same action shape the bot sends to the
+ * server. Called on the table's thread, so implementations may keep per-seat state.
+ */
+@FunctionalInterface
+public interface SimStrategy {
+    GeminiAction decide(TableEngine table, TableEngine.Seat seat);
+}
@@ -0,0 +1,354 @@
+package com.example.pokerbot.sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+
+import com.example.pokerbot.history.HandHistoryWriter;
+import com.example.pokerbot.model.GeminiAction;
+
+/**
+ * Local stand-in for the TypeScript server: a {@link TableEngine} behind a WebSocket on
+ * {@code ws://localhost:<port>/} speaking the same {@code join} / {@code spectate} /
+ * {@code ready} / {@code action} and {@code state} / {@code player_hand} / {@code info} /
+ * {@code error} messages, so the unchanged bot can play against it with
+ * {@code --bot.server-url=ws://localhost:<port>}.
+ * <p>
+ * Usage: {@code java -cp target/classes:<deps> com.example.pokerbot.sim.SimulatorServer <port>
+ * [house strategy...] [--delay-scale=1.0] [--min-players=2] [--seed=N] [--history=<dir>]}.
+ * <ul>
+ *   <li>house strategies ({@link SimStrategies} names) are seated first and played in-process</li>
+ *   <li>{@code --delay-scale} multiplies the server's delays: 1 s per action, 30 s auto-fold
+ *       and the pauses between hands</li>
+ *   <li>{@code --min-players} starts the game once that many players are seated, standing in
+ *       for the {@code ready} message the bot never sends</li>
+ *   <li>{@code --history} appends every hand, with all hole cards, to a hand-history log</li>
+ * </ul>
+ * All table work runs on one thread, like the server's event loop.
+ */
+@Slf4j
+public class SimulatorServer extends Endpoint implements TableEngine.Listener {
+    private static final long ACTION_DELAY_MS = 1000;
+    private static final long TURN_TIMEOUT_MS = 30000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService table = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sim-table");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TableEngine engine;
+    private final double delayScale;
+    private final int minPlayers;
+    private ScheduledFuture<?> turnTimer;
+    private ScheduledFuture<?> houseAction;
+    private boolean houseRejected;
+
+    private record HouseBot(SimStrategy strategy) {
+    }
+
+    private record ServerMessage(String type, Object payload) {
+    }
+
+    public SimulatorServer(List<SimStrategy> houseStrategies, SplittableRandom random, double delayScale, int minPlayers) {
+        this.engine = new TableEngine(this, random);
+        this.delayScale = delayScale;
+        this.minPlayers = minPlayers;
+        table.execute(() -> {
+            for (int i = 0; i < houseStrategies.size(); i++) {
+                engine.addPlayer("House " + (i + 1), false, new HouseBot(houseStrategies.get(i)));
+            }
+        });
+    }
+
+    // --- WebSocket side: everything is handed to the table thread ---
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        session.addMessageHandler(new MessageHandler.Whole<String>() {
+            @Override
+            public void onMessage(String text) {
+                table.execute(() -> handleMessage(session, text));
+            }
+        });
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        table.execute(() -> {
+            TableEngine.Seat seat = seatOf(session);
+            if (seat != null) {
+                log.info("{} left", seat.getName());
+                engine.removePlayer(seat);
+            }
+        });
+    }
+
+    private void handleMessage(Session session, String text) {
+        try {
+            JsonNode message = objectMapper.readTree(text);
+            JsonNode payload = message.get("payload");
+            switch (message.path("type").asText()) {
+                case "join", "spectate" -> {
+                    boolean spectator = "spectate".equals(message.path("type").asText());
+                    String name = payload.path("name").asText("");
+                    if (name.isEmpty()) {
+                        send(session, "error", spectator ? "Please provide a name to spectate." : "Please provide a name to join.");
+                    } else if (engine.addPlayer(name, spectator, session) == null) {
+                        send(session, "error", TableEngine.TABLE_FULL);
+                    } else {
+                        log.info("{} joined as {}", name, spectator ? "spectator" : "player");
+                        autoStart();
+                    }
+                }
+                case "ready" -> engine.checkAndStartGame();
+                case "action" -> {
+                    TableEngine.Seat seat = seatOf(session);
+                    String actionType = payload.path("actionType").asText("");
+                    if (seat == null || actionType.isEmpty()) {
+                        send(session, "error", "Invalid action or player not found for action.");
+                        return;
+                    }
+                    Integer amount = payload.path("amount").isNumber() ? payload.get("amount").asInt() : null;
+                    table.schedule(() -> engine.handlePlayerAction(seat.getId(), actionType, amount),
+                        scaled(ACTION_DELAY_MS), TimeUnit.MILLISECONDS);
+                }
+                default -> send(session, "error", "Unknown message type.");
+            }
+        } catch (IOException | RuntimeException e) {
+            // Includes a missing payload, which the server also reports as invalid JSON
+            send(session, "error", "Invalid JSON message.");
+        }
+    }
+
+    private void autoStart() {
+        int seated = 0;
+        for (TableEngine.Seat seat : engine.getPlayers()) {
+            if (seat.getStatus() == TableEngine.Status.ACTIVE) seated++;
+        }
+        if (minPlayers > 0 && seated >= minPlayers && engine.getPhase() == TableEngine.Phase.WAITING) {
+            engine.checkAndStartGame();
+        }
+    }
+
+    private TableEngine.Seat seatOf(Session session) {
+        for (TableEngine.Seat seat : engine.getPlayers()) {
+            if (seat.getAttachment() == session) return seat;
+        }
+        return null;
+    }
+
+    // --- TableEngine.Listener, always called on the table thread ---
+
+    @Override
+    public void onState() {
+        String publicState = null;
+        String spectatorState = null;
+        for (TableEngine.Seat seat : engine.getPlayers()) {
+            if (!(seat.getAttachment() instanceof Session session)) continue;
+            if (seat.isSpectator()) {
+                if (spectatorState == null) {
+                    ObjectNode state = objectMapper.valueToTree(engine.toGameState());
+                    state.set("hands", objectMapper.valueToTree(engine.hands()));
+                    spectatorState = write(new ServerMessage("state", state));
+                }
+                sendText(session, spectatorState);
+            } else {
+                if (publicState == null) {
+                    publicState = write(new ServerMessage("state", engine.toGameState()));
+                }
+                sendText(session, publicState);
+            }
+        }
+        scheduleHouseAction();
+    }
+
+    @Override
+    public void onHand(TableEngine.Seat seat) {
+        if (seat.getAttachment() instanceof Session session) {
+            sendText(session, write(new ServerMessage("player_hand", TableEngine.holeCards(seat))));
+        }
+    }
+
+    @Override
+    public void onInfo(TableEngine.Seat seat, String text) {
+        if (seat.getAttachment() instanceof Session session) {
+            send(session, "info", text);
+        }
+    }
+
+    @Override
+    public void onError(TableEngine.Seat seat, String text) {
+        if (seat.getAttachment() instanceof Session session) {
+            send(session, "error", text);
+        } else if (seat.getAttachment() instanceof HouseBot) {
+            log.warn("{} was rejected: {}", seat.getName(), text);
+            houseRejected = true;
+        }
+    }
+
+    @Override
+    public void onTurn(TableEngine.Seat seat) {
+        String id = seat.getId();
+        turnTimer = table.schedule(() -> {
+            log.info("Auto-folding {} due to timeout", seat.getName());
+            engine.handlePlayerAction(id, "fold", null);
+        }, scaled(TURN_TIMEOUT_MS), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onTurnCleared() {
+        if (turnTimer != null) {
+            turnTimer.cancel(false);
+            turnTimer = null;
+        }
+    }
+
+    @Override
+    public void schedule(Runnable task, long delayMs) {
+        table.schedule(task, scaled(delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * House bots answer after the same delay the server puts on every client action. Like the
+     * server, the engine keeps the last player current through the showdown and accepts actions
+     * there, so house bots only act while a betting round is open.
+     */
+    private void scheduleHouseAction() {
+        TableEngine.Seat current = engine.getCurrentPlayer();
+        if (houseAction != null || current == null || engine.getBettingRound() == null
+                || !(current.getAttachment() instanceof HouseBot bot)) return;
+        houseAction = table.schedule(() -> {
+            houseAction = null;
+            if (engine.getCurrentPlayer() != current || engine.getBettingRound() == null) {
+                scheduleHouseAction();
+                return;
+            }
+            GeminiAction action = bot.strategy().decide(engine, current);
+            houseRejected = false;
+            engine.handlePlayerAction(current, action.actionType, action.amount);
+            if (houseRejected) {
+                // Fold rather than retry the same decision
+                engine.handlePlayerAction(current, "fold", null);
+            }
+        }, scaled(ACTION_DELAY_MS), TimeUnit.MILLISECONDS);
+    }
+
+    private long scaled(long delayMs) {
+        return Math.round(delayMs * delayScale);
+    }
+
+    private void send(Session session, String type, String text) {
+        sendText(session, write(new ServerMessage(type, text)));
+    }
+
+    private String write(ServerMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize " + message.type(), e);
+        }
+    }
+
+    private static void sendText(Session session, String text) {
+        if (!session.isOpen()) return;
+        try {
+            session.getBasicRemote().sendText(text);
+        } catch (IOException e) {
+            log.warn("Send to {} failed: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: SimulatorServer <port> [house strategy...] [--delay-scale=1.0] [--min-players=2] [--seed=N]"
+                + " [--history=<dir>]");
+            System.exit(1);
+        }
+        int port = Integer.parseInt(args[0]);
+        double delayScale = 1.0;
+        int minPlayers = 2;
+        long seed = System.nanoTime();
+        Path historyDir = null;
+        List<String> house = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--delay-scale=")) delayScale = Double.parseDouble(arg.substring(14));
+            else if (arg.startsWith("--min-players=")) minPlayers = Integer.parseInt(arg.substring(14));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--history=")) historyDir = Path.of(arg.substring(10));
+            else house.add(arg);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        List<SimStrategy> strategies = new ArrayList<>();
+        for (String name : house) {
+            strategies.add(SimStrategies.byName(name, random.split(), SelfPlay::localEquityCalculator,
+                SelfPlay::blueprintStrategy));
+        }
+        SimulatorServer server = new SimulatorServer(strategies, random.split(), delayScale, minPlayers);
+        if (historyDir != null) {
+            HandHistoryWriter history = new HandHistoryWriter(historyDir, SelfPlay.HISTORY_SEGMENT_BYTES, SelfPlay.HISTORY_QUEUE, true);
+            server.engine.setRecorder(history::append);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    history.close();
+                } catch (IOException e) {
+                    log.warn("Closing the hand history failed", e);
+                }
+            }));
+        }
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("sim-tomcat").toString());
+        tomcat.setPort(port);
+        tomcat.getConnector();
+        Context context = tomcat.addContext("", null);
+        context.addServletContainerInitializer(new WsSci(), null);
+        context.addServletContainerInitializer((classes, servletContext) -> {
+            ServerContainer container = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+            try {
+                container.addEndpoint(ServerEndpointConfig.Builder.create(SimulatorServer.class, "/")
+                    .configurator(new ServerEndpointConfig.Configurator() {
+                        @Override
+                        public <T> T getEndpointInstance(Class<T> endpointClass) {
+                            return endpointClass.cast(server);
+                        }
+                    })
+                    .build());
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot register the table endpoint", e);
+            }
+        }, null);
+        // WebSocket upgrades are only intercepted for requests that map to a servlet
+        Tomcat.addServlet(context, "default", new HttpServlet() {
+        });
+        context.addServletMappingDecoded("/", "default");
+        tomcat.start();
+        log.info("Simulator listening on ws://localhost:{}/ with {} house player(s), delay scale {}",
+            port, strategies.size(), delayScale);
+        tomcat.getServer().await();
+    }
+}
@@ -0,0 +1,929 @@
+package com.example.pokerbot.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.HandEvaluator;
+import com.example.pokerbot.history.HandRecord;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GameState;
+
+/**
+ * In-process port of the server's {@code TexasHoldemGame}: same seating, blinds, turn order,
+ * raise semantics ("raise by" up to the current bet, "total bet" above it), error texts, state
+ * messages and showdown payout (even split, odd chips to the lowest seat, no side pots).
+ * <p>
+ * The engine never sleeps or starts threads. Where the server sends a message or calls
+ * {@code setTimeout}, it calls the {@link Listener}: a driver either runs the delayed hand
+ * transitions at once (self-play) or schedules them like the server does (WebSocket mode).
+ * Cards are {@link Cards} ints dealt from a Fisher-Yates shuffled deck in the server's order.
+ * <p>
+ * Deliberate differences from the server:
+ * <ul>
+ *   <li>hands are compared with {@link HandEvaluator}, so kickers follow the standard rules</li>
+ *   <li>a player put all-in by posting a blind is dealt in; the server deals only to active
+ *       players, so the blind is lost</li>
+ *   <li>when nobody can act any more (everyone left is all-in) the board is run out to a
+ *       showdown, where the server ends the hand without paying the pot</li>
+ * </ul>
+ * Not thread-safe: drive it from a single thread.
+ */
+public class TableEngine {
+    public static final int MAX_PLAYERS = 6;
+    public static final int STARTING_CHIPS = 1000;
+    public static final int SMALL_BLIND = 10;
+    public static final int BIG_BLIND = 20;
+
+    /** Delays the server uses between the end of a hand and the next one, in milliseconds. */
+    public static final long SHOWDOWN_DELAY_MS = 5000;
+    public static final long EARLY_END_DELAY_MS = 3000;
+    public static final long NEXT_HAND_DELAY_MS = 5000;
+
+    public static final String TABLE_FULL = "Table is full. Cannot join as player.";
+
+    public enum Status {
+        ACTIVE("active"), FOLDED("folded"), ALL_IN("all-in"), SITTING_OUT("sitting-out"), SPECTATOR("spectator");
+
+        private final String wireName;
+
+        Status(String wireName) {
+            this.wireName = wireName;
+        }
+
+        public String getWireName() {
+            return wireName;
+        }
+    }
+
+    public enum Phase {
+        WAITING("waiting"), PRE_FLOP("pre-flop"), FLOP("flop"), TURN("turn"), RIVER("river"),
+        SHOWDOWN("showdown"), HAND_OVER("hand-over");
+
+        private final String wireName;
+
+        Phase(String wireName) {
+            this.wireName = wireName;
+        }
+
+        public String getWireName() {
+            return wireName;
+        }
+    }
+
+    /** Receives what the server would send or schedule. */
+    public interface Listener {
+        /** The public state changed and the server would broadcast it. */
+        default void onState() {
+        }
+
+        /** Hole cards were dealt to {@code seat}. */
+        default void onHand(Seat seat) {
+        }
+
+        default void onInfo(Seat seat, String text) {
+        }
+
+        default void onError(Seat seat, String text) {
+        }
+
+        /** {@code seat} was prompted; the server starts its 30 s auto-fold timer here. */
+        default void onTurn(Seat seat) {
+        }
+
+        /** The auto-fold timer is cancelled (an action from the current player arrived). */
+        default void onTurnCleared() {
+        }
+
+        /** Runs {@code task} after {@code delayMs}, as the server's {@code setTimeout} does. */
+        void schedule(Runnable task, long delayMs);
+    }
+
+    public static final class Seat {
+        private final String id;
+        private final String name;
+        private final Object attachment;
+        private final int[] hand = new int[2];
+        private boolean dealt;
+        private int chips;
+        private Status status;
+        private int currentBet;
+        private boolean hasActed;
+        private boolean dealer;
+        private boolean smallBlind;
+        private boolean bigBlind;
+        private final boolean spectator;
+        private int recordSeat = -1;
+
+        Seat(String id, String name, Object attachment, boolean spectator, Status status) {
+            this.id = id;
+            this.name = name;
+            this.attachment = attachment;
+            this.spectator = spectator;
+            this.status = status;
+            this.chips = spectator ? 0 : STARTING_CHIPS;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Driver data, e.g. the connection this seat belongs to. */
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        public int getChips() {
+            return chips;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getCurrentBet() {
+            return currentBet;
+        }
+
+        public boolean isDealt() {
+            return dealt;
+        }
+
+        public int getHoleCard(int index) {
+            return hand[index];
+        }
+
+        public boolean isDealer() {
+            return dealer;
+        }
+
+        public boolean isSpectator() {
+            return spectator;
+        }
+
+        private void clearHand() {
+            dealt = false;
+            currentBet = 0;
+            hasActed = false;
+        }
+
+        private boolean inHand() {
+            return status != Status.FOLDED && status != Status.SITTING_OUT && status != Status.SPECTATOR && dealt;
+        }
+    }
+
+    private final Listener listener;
+    private final SplittableRandom random;
+
+    private final List<Seat> players = new ArrayList<>();
+    private final int[] deck = new int[Cards.DECK_SIZE];
+    private int dealt;
+    private int[] stackedDeck;
+    private final int[] board = new int[5];
+    private int boardSize;
+    private int pot;
+    private int dealerIndex = -1;
+    private int currentPlayerIndex = -1;
+    private Phase phase = Phase.WAITING;
+    private Phase bettingRound;
+    private int minimumBetForCall;
+    private int lastRaiseAmount = BIG_BLIND;
+    private String message = "Waiting for players to join...";
+    private long handsStarted;
+    private long handsCompleted;
+    private Consumer<HandRecord> recorder;
+    private final HandRecord record = new HandRecord();
+
+    public TableEngine(Listener listener, SplittableRandom random) {
+        this.listener = listener;
+        this.random = random;
+    }
+
+    public List<Seat> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /** The player the table waits for, or null. */
+    public Seat getCurrentPlayer() {
+        return currentPlayerIndex >= 0 && currentPlayerIndex < players.size() ? players.get(currentPlayerIndex) : null;
+    }
+
+    public int getPot() {
+        return pot;
+    }
+
+    public int getMinimumBetForCall() {
+        return minimumBetForCall;
+    }
+
+    public int getMinimumRaiseAmount() {
+        return lastRaiseAmount > 0 ? lastRaiseAmount : BIG_BLIND;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /** The current betting round, or null outside of one. */
+    public Phase getBettingRound() {
+        return bettingRound;
+    }
+
+    /** The community cards dealt so far. */
+    public int[] getBoard() {
+        return Arrays.copyOf(board, boardSize);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getHandsStarted() {
+        return handsStarted;
+    }
+
+    public long getHandsCompleted() {
+        return handsCompleted;
+    }
+
+    /** The public state in the shape the server broadcasts. */
+    public GameState toGameState() {
+        GameState state = new GameState();
+        state.players = new ArrayList<>(players.size());
+        for (Seat seat : players) {
+            GameState.Player p = new GameState.Player();
+            p.id = seat.id;
+            p.name = seat.name;
+            p.chips = seat.chips;
+            p.status = seat.status.getWireName();
+            p.currentBet = seat.currentBet;
+            p.isDealer = seat.dealer;
+            p.isSmallBlind = seat.smallBlind;
+            p.isBigBlind = seat.bigBlind;
+            p.isSpectator = seat.spectator;
+            state.players.add(p);
+        }
+        state.communityCards = new ArrayList<>(boardSize);
+        for (int i = 0; i < boardSize; i++) {
+            state.communityCards.add(Cards.canonical(board[i]));
+        }
+        state.pot = pot;
+        state.currentBettingRound = bettingRound != null ? bettingRound.getWireName() : null;
+        Seat current = getCurrentPlayer();
+        state.currentPlayerId = current != null ? current.id : null;
+        state.gamePhase = phase.getWireName();
+        state.message = message;
+        state.minimumRaiseAmount = getMinimumRaiseAmount();
+        state.minimumBetForCall = minimumBetForCall;
+        return state;
+    }
+
+    /** Hole cards by player id, as attached to the state sent to spectators. */
+    public Map<String, List<Card>> hands() {
+        Map<String, List<Card>> hands = new LinkedHashMap<>();
+        for (Seat seat : players) {
+            hands.put(seat.id, holeCards(seat));
+        }
+        return hands;
+    }
+
+    public static List<Card> holeCards(Seat seat) {
+        if (!seat.dealt) return List.of();
+        return List.of(Cards.canonical(seat.hand[0]), Cards.canonical(seat.hand[1]));
+    }
+
+    /**
+     * Seats a player or spectator.
+     *
+     * @return the new seat, or null when the table is full ({@link #TABLE_FULL})
+     */
+    public Seat addPlayer(String name, boolean spectator, Object attachment) {
+        if (!spectator) {
+            int seated = 0;
+            for (Seat p : players) {
+                if (!p.spectator) seated++;
+            }
+            if (seated >= MAX_PLAYERS) return null;
+        }
+        Status status = spectator ? Status.SPECTATOR
+            : phase != Phase.WAITING ? Status.SITTING_OUT : Status.ACTIVE;
+        Seat seat = new Seat(UUID.randomUUID().toString(), name, attachment, spectator, status);
+        players.add(seat);
+        if (status == Status.SITTING_OUT) {
+            listener.onInfo(seat, "Your ID: " + seat.id + ". You are sitting out until the next hand.");
+        } else {
+            listener.onInfo(seat, "Your ID: " + seat.id + ". You are a " + (spectator ? "spectator" : "player") + ".");
+        }
+        if (count(Status.ACTIVE) >= 2 && phase == Phase.WAITING) {
+            message = "Minimum active players reached. Ready to start new hand.";
+        }
+        broadcast();
+        return seat;
+    }
+
+    public void removePlayer(Seat seat) {
+        if (!players.remove(seat)) return;
+        int remaining = 0;
+        for (Seat p : players) {
+            if (!p.spectator && p.status != Status.SITTING_OUT && p.status != Status.FOLDED) remaining++;
+        }
+        if (remaining < 2 && phase != Phase.WAITING) {
+            resetGame();
+        } else {
+            message = "Player '" + seat.name + "' left. Waiting for more players.";
+            broadcast();
+        }
+    }
+
+    /** The server's response to a client's {@code ready} message. */
+    public void checkAndStartGame() {
+        if (phase == Phase.WAITING && count(Status.ACTIVE) >= 2) {
+            startNewHand();
+        } else {
+            broadcast();
+        }
+    }
+
+    /**
+     * Passes every finished hand, with all hole cards and exact actions, to {@code recorder}
+     * once the pot has been paid. The record is reused for the next hand.
+     */
+    public void setRecorder(Consumer<HandRecord> recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Puts {@code cards} on top of the next hand's deck, in dealing order: two per seat dealt in,
+     * in seat order, then the board. The rest of the deck is shuffled as usual. For tests.
+     */
+    void stackDeck(int... cards) {
+        stackedDeck = cards.clone();
+    }
+
+    /** Adds chips to a seat between hands, e.g. a self-play rebuy. */
+    public void addChips(Seat seat, int chips) {
+        seat.chips += chips;
+    }
+
+    public void handlePlayerAction(String playerId, String actionType, Integer amount) {
+        for (Seat seat : players) {
+            if (seat.id.equals(playerId)) {
+                handlePlayerAction(seat, actionType, amount);
+                return;
+            }
+        }
+    }
+
+    public void handlePlayerAction(Seat player, String actionType, Integer amount) {
+        if (player != getCurrentPlayer()) {
+            listener.onError(player, "It is not your turn.");
+            return;
+        }
+        if (player.status != Status.ACTIVE) {
+            listener.onError(player, "You cannot act. Your status is " + player.status.getWireName() + ".");
+            return;
+        }
+        if (!player.dealt) {
+            listener.onError(player, "You are not currently in the hand.");
+            return;
+        }
+        int chipsToCall = minimumBetForCall - player.currentBet;
+        boolean actionSuccessful = false;
+        listener.onTurnCleared();
+
+        switch (actionType == null ? "" : actionType) {
+            case "fold" -> {
+                player.status = Status.FOLDED;
+                message = player.name + " folded.";
+                recordAction(player, HandRecord.FOLD, 0);
+                actionSuccessful = true;
+            }
+            case "check" -> {
+                if (chipsToCall > 0) {
+                    listener.onError(player, "You cannot check. You must call " + chipsToCall + " or raise.");
+                } else {
+                    message = player.name + " checked.";
+                    recordAction(player, HandRecord.CHECK, 0);
+                    actionSuccessful = true;
+                }
+            }
+            case "call" -> {
+                if (chipsToCall <= 0) {
+                    listener.onError(player, "No valid amount to call. Please use \"check\" if no bet is required.");
+                } else {
+                    int chips = Math.min(chipsToCall, player.chips);
+                    player.chips -= chips;
+                    player.currentBet += chips;
+                    pot += chips;
+                    if (player.chips == 0) {
+                        player.status = Status.ALL_IN;
+                        message = player.name + " called " + chips + " and is all-in. Pot: " + pot;
+                    } else {
+                        message = player.name + " called " + chips + ". Pot: " + pot;
+                    }
+                    recordAction(player, HandRecord.CALL, chips);
+                    actionSuccessful = true;
+                }
+            }
+            case "raise" -> {
+                if (amount == null) {
+                    listener.onError(player, "Raise amount required.");
+                    return;
+                }
+                int totalBet = amount <= player.currentBet ? player.currentBet + amount : amount;
+                int raise = totalBet - player.currentBet;
+                int minimumRaise = minimumBetForCall + lastRaiseAmount;
+                boolean allIn = player.chips <= raise;
+                if (totalBet < minimumRaise && !allIn) {
+                    listener.onError(player, "Minimum raise to " + minimumRaise + ".");
+                } else if (raise > player.chips) {
+                    listener.onError(player, "You do not have enough chips for that raise. Consider going all-in.");
+                } else {
+                    player.chips -= raise;
+                    player.currentBet += raise;
+                    pot += raise;
+                    lastRaiseAmount = raise;
+                    minimumBetForCall = totalBet;
+                    for (Seat p : players) {
+                        if (p.status == Status.ACTIVE && p != player) p.hasActed = false;
+                    }
+                    if (player.chips == 0) {
+                        player.status = Status.ALL_IN;
+                        message = player.name + " raised to " + totalBet + " and is all-in. Pot: " + pot;
+                    } else {
+                        message = player.name + " raised to " + totalBet + ". Pot: " + pot;
+                    }
+                    recordAction(player, HandRecord.RAISE, totalBet);
+                    actionSuccessful = true;
+                }
+            }
+            default -> listener.onError(player, "Unknown action type.");
+        }
+
+        if (actionSuccessful) {
+            player.hasActed = true;
+            broadcast();
+            checkBettingRoundEnd();
+        }
+    }
+
+    private void startNewHand() {
+        for (Seat p : players) {
+            if ((p.status == Status.SITTING_OUT || p.status == Status.FOLDED || p.status == Status.ALL_IN) && p.chips > 0) {
+                p.status = Status.ACTIVE;
+            }
+            p.clearHand();
+            p.dealer = false;
+            p.smallBlind = false;
+            p.bigBlind = false;
+        }
+        if (count(Status.ACTIVE) + count(Status.FOLDED) + count(Status.ALL_IN) < 2) {
+            message = "Need at least 2 active players to start a hand.";
+            broadcast();
+            return;
+        }
+
+        shuffle();
+        boardSize = 0;
+        pot = 0;
+        minimumBetForCall = 0;
+        lastRaiseAmount = BIG_BLIND;
+        handsStarted++;
+
+        // Rotate the button among active players
+        Seat previousDealer = dealerIndex >= 0 && dealerIndex < players.size() ? players.get(dealerIndex) : null;
+        if (previousDealer == null || previousDealer.status != Status.ACTIVE) {
+            dealerIndex = nextWithStatus(-1, Status.ACTIVE);
+        } else {
+            int next = nextWithStatus(dealerIndex, Status.ACTIVE);
+            dealerIndex = next > dealerIndex ? next : nextWithStatus(-1, Status.ACTIVE);
+        }
+        players.get(dealerIndex).dealer = true;
+
+        int sbIndex = nextActiveAfter(dealerIndex);
+        if (sbIndex < 0) {
+            endHand();
+            return;
+        }
+        players.get(sbIndex).smallBlind = true;
+        int bbIndex = nextActiveAfter(sbIndex);
+        if (bbIndex < 0) {
+            endHand();
+            return;
+        }
+        players.get(bbIndex).bigBlind = true;
+
+        postBlind(players.get(sbIndex), SMALL_BLIND);
+        postBlind(players.get(bbIndex), BIG_BLIND);
+        minimumBetForCall = BIG_BLIND;
+
+        for (Seat p : players) {
+            if (p.status == Status.ACTIVE || p.status == Status.ALL_IN) {
+                p.hand[0] = deck[dealt++];
+                p.hand[1] = deck[dealt++];
+                p.dealt = true;
+                listener.onHand(p);
+            }
+        }
+        if (recorder != null) {
+            startRecord(players.get(sbIndex), players.get(bbIndex));
+        }
+
+        phase = Phase.PRE_FLOP;
+        bettingRound = Phase.PRE_FLOP;
+        int n = players.size();
+        currentPlayerIndex = (bbIndex + 1) % n;
+        for (int checked = 0; players.get(currentPlayerIndex).status != Status.ACTIVE && checked < n; checked++) {
+            currentPlayerIndex = (currentPlayerIndex + 1) % n;
+        }
+        boolean allIn = players.get(currentPlayerIndex).status != Status.ACTIVE;
+        if (allIn) {
+            currentPlayerIndex = -1;
+        }
+        message = "New hand started. Dealer: " + players.get(dealerIndex).name + ", SB: "
+            + players.get(sbIndex).name + ", BB: " + players.get(bbIndex).name + ".";
+        broadcast();
+        if (allIn) {
+            // Everyone is all-in from the blinds: run the board out instead of the server's endHand()
+            endBettingRound();
+        }
+    }
+
+    private void postBlind(Seat player, int amount) {
+        int bet = Math.min(player.chips, amount);
+        player.chips -= bet;
+        player.currentBet += bet;
+        pot += bet;
+        if (player.chips == 0 && bet > 0) {
+            player.status = Status.ALL_IN;
+        }
+    }
+
+    private void shuffle() {
+        for (int card = 0; card < deck.length; card++) {
+            deck[card] = card;
+        }
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = deck[i];
+            deck[i] = deck[j];
+            deck[j] = swap;
+        }
+        if (stackedDeck != null) {
+            for (int top = 0; top < stackedDeck.length; top++) {
+                for (int i = top; i < deck.length; i++) {
+                    if (deck[i] != stackedDeck[top]) continue;
+                    deck[i] = deck[top];
+                    deck[top] = stackedDeck[top];
+                    break;
+                }
+            }
+            stackedDeck = null;
+        }
+        dealt = 0;
+    }
+
+    private void promptCurrentPlayerAction() {
+        Seat current = getCurrentPlayer();
+        if (current == null || current.status != Status.ACTIVE || !current.dealt) {
+            moveToNextPlayer();
+            return;
+        }
+        listener.onTurnCleared();
+        listener.onTurn(current);
+        int chipsToCall = minimumBetForCall - current.currentBet;
+        message = "It's " + current.name + "'s turn. Bet to call: " + chipsToCall + ". You can check if "
+            + (chipsToCall == 0) + ". Minimum raise is " + (minimumBetForCall + lastRaiseAmount) + ".";
+        broadcast();
+    }
+
+    private void moveToNextPlayer() {
+        int n = players.size();
+        for (int checked = 0; checked < n; checked++) {
+            currentPlayerIndex = (currentPlayerIndex + 1) % n;
+            Seat next = players.get(currentPlayerIndex);
+            if (next.status == Status.ACTIVE && next.dealt && next.chips > 0
+                    && (next.currentBet < minimumBetForCall || !next.hasActed)) {
+                promptCurrentPlayerAction();
+                return;
+            }
+        }
+        endBettingRound();
+    }
+
+    private void checkBettingRoundEnd() {
+        if (countInHand() == 1) {
+            endHandEarly();
+            return;
+        }
+        for (Seat p : players) {
+            if (p.status == Status.ACTIVE && p.dealt && (p.currentBet < minimumBetForCall || !p.hasActed)) {
+                moveToNextPlayer();
+                return;
+            }
+        }
+        endBettingRound();
+    }
+
+    private void endBettingRound() {
+        for (Seat p : players) {
+            p.currentBet = 0;
+            if (p.status == Status.ACTIVE) p.hasActed = false;
+        }
+        minimumBetForCall = 0;
+        lastRaiseAmount = BIG_BLIND;
+
+        switch (phase) {
+            case PRE_FLOP -> {
+                phase = Phase.FLOP;
+                bettingRound = Phase.FLOP;
+                dealCommunityCards(3);
+                message = "Flop dealt. Starting flop betting round.";
+            }
+            case FLOP -> {
+                phase = Phase.TURN;
+                bettingRound = Phase.TURN;
+                dealCommunityCards(1);
+                message = "Turn dealt. Starting turn betting round.";
+            }
+            case TURN -> {
+                phase = Phase.RIVER;
+                bettingRound = Phase.RIVER;
+                dealCommunityCards(1);
+                message = "River dealt. Starting river betting round.";
+            }
+            case RIVER -> {
+                phase = Phase.SHOWDOWN;
+                bettingRound = null;
+                message = "Showdown! Determining winner...";
+            }
+            default -> {
+                return;
+            }
+        }
+
+        if (countInHand() == 1 && phase != Phase.SHOWDOWN) {
+            endHandEarly();
+            return;
+        }
+        if (phase == Phase.SHOWDOWN) {
+            determineWinner();
+            return;
+        }
+        int n = players.size();
+        int first = (dealerIndex + 1) % n;
+        for (int checked = 0; !canAct(players.get(first)) && checked < n; checked++) {
+            first = (first + 1) % n;
+        }
+        if (!canAct(players.get(first))) {
+            // Nobody left to bet: run the board out instead of the server's endHand()
+            currentPlayerIndex = -1;
+            endBettingRound();
+            return;
+        }
+        currentPlayerIndex = first;
+        broadcast();
+        promptCurrentPlayerAction();
+    }
+
+    private static boolean canAct(Seat seat) {
+        return seat.status == Status.ACTIVE && seat.dealt;
+    }
+
+    private void dealCommunityCards(int count) {
+        if (recorder != null) record.addAction(0, HandRecord.STREET, 0);
+        for (int i = 0; i < count; i++) {
+            board[boardSize++] = deck[dealt++];
+            if (recorder != null) record.addBoardCard(board[boardSize - 1]);
+        }
+        broadcast();
+    }
+
+    private void determineWinner() {
+        phase = Phase.SHOWDOWN;
+        message = "All cards revealed! Determining winner...";
+        broadcast();
+
+        long boardMask = 0L;
+        for (int i = 0; i < boardSize; i++) {
+            boardMask |= Cards.bit(board[i]);
+        }
+        int best = -1;
+        int winners = 0;
+        int[] values = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            Seat p = players.get(i);
+            if (!p.inHand()) {
+                values[i] = -1;
+                continue;
+            }
+            values[i] = HandEvaluator.evaluate(boardMask | Cards.bit(p.hand[0]) | Cards.bit(p.hand[1]));
+            String reveal = showdownText(p, boardMask, values[i]);
+            for (Seat to : players) {
+                listener.onInfo(to, reveal);
+            }
+            if (values[i] > best) {
+                best = values[i];
+                winners = 1;
+            } else if (values[i] == best) {
+                winners++;
+            }
+        }
+        if (winners == 0) {
+            message = "No active players for showdown. Pot returned.";
+            finishRecord();
+            endHand();
+            return;
+        }
+
+        int share = pot / winners;
+        int remainder = pot % winners;
+        StringBuilder names = new StringBuilder();
+        boolean first = true;
+        for (int i = 0; i < players.size(); i++) {
+            if (values[i] != best) continue;
+            Seat winner = players.get(i);
+            // Winners are visited in seat order, so the first one has the lowest seat
+            winner.chips += share + (first ? remainder : 0);
+            if (!first) names.append(" and ");
+            names.append(winner.name);
+            first = false;
+        }
+        message = names + " win the pot of " + pot + " chips with a " + HandEvaluator.category(best).getDisplayName()
+            + "! Each gets " + share + (remainder != 0 ? " (dealer gets +" + remainder + ")" : "") + ".";
+        finishRecord();
+        listener.schedule(this::endHand, SHOWDOWN_DELAY_MS);
+    }
+
+    /** The server's "name's hand: [..] Best 5-card: type with [..]" reveal. */
+    private static String showdownText(Seat p, long boardMask, int value) {
+        long cards = boardMask | Cards.bit(p.hand[0]) | Cards.bit(p.hand[1]);
+        long bestFive = cards;
+        // Drop two cards so that the remaining five still make the hand
+        search:
+        for (long a = cards; a != 0; a &= a - 1) {
+            for (long b = a & (a - 1); b != 0; b &= b - 1) {
+                long five = cards & ~Long.lowestOneBit(a) & ~Long.lowestOneBit(b);
+                if (Long.bitCount(five) == 5 && HandEvaluator.evaluate(five) == value) {
+                    bestFive = five;
+                    break search;
+                }
+            }
+        }
+        StringBuilder sb = new StringBuilder(p.name).append("'s hand: [")
+            .append(Cards.toString(p.hand[0])).append(", ").append(Cards.toString(p.hand[1]))
+            .append("] Best 5-card: ").append(HandEvaluator.category(value).getDisplayName()).append(" with [");
+        boolean first = true;
+        for (int rank = Cards.RANKS - 1; rank >= 0; rank--) {
+            for (int suit = 0; suit < Cards.SUITS; suit++) {
+                int card = Cards.of(rank, suit);
+                if ((bestFive & Cards.bit(card)) == 0) continue;
+                if (!first) sb.append(", ");
+                sb.append(Cards.toString(card));
+                first = false;
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private void endHandEarly() {
+        Seat winner = null;
+        int remaining = 0;
+        for (Seat p : players) {
+            if (p.inHand()) {
+                winner = p;
+                remaining++;
+            }
+        }
+        if (remaining == 1) {
+            winner.chips += pot;
+            message = winner.name + " wins the pot of " + pot + " chips by default! All others folded.";
+        } else {
+            message = "No clear winner in hand. Pot returned (error state).";
+        }
+        finishRecord();
+        listener.schedule(this::endHand, EARLY_END_DELAY_MS);
+    }
+
+    private void endHand() {
+        phase = Phase.HAND_OVER;
+        bettingRound = null;
+        currentPlayerIndex = -1;
+        boardSize = 0;
+        pot = 0;
+        minimumBetForCall = 0;
+        lastRaiseAmount = BIG_BLIND;
+        handsCompleted++;
+
+        for (Seat p : players) {
+            if (!p.spectator && p.chips <= 0) {
+                p.status = Status.SITTING_OUT;
+                listener.onInfo(p, "You are out of chips and are sitting out.");
+            }
+            p.clearHand();
+        }
+        message = "Hand over. Preparing for next hand...";
+        broadcast();
+
+        if (count(Status.ACTIVE) + count(Status.FOLDED) + count(Status.ALL_IN) >= 2) {
+            listener.schedule(this::startNewHand, NEXT_HAND_DELAY_MS);
+        } else {
+            message = "Waiting for more active players to start a new hand.";
+            broadcast();
+        }
+    }
+
+    private void resetGame() {
+        players.clear();
+        boardSize = 0;
+        pot = 0;
+        dealerIndex = -1;
+        currentPlayerIndex = -1;
+        phase = Phase.WAITING;
+        bettingRound = null;
+        minimumBetForCall = 0;
+        lastRaiseAmount = BIG_BLIND;
+        message = "Game reset. Waiting for players to join...";
+        broadcast();
+    }
+
+    private void startRecord(Seat smallBlind, Seat bigBlind) {
+        record.clear();
+        record.startedAt = System.currentTimeMillis();
+        for (Seat p : players) {
+            p.recordSeat = -1;
+            if (!p.dealt) continue;
+            int flags = (p.dealer ? HandRecord.DEALER : 0) | (p.smallBlind ? HandRecord.SMALL_BLIND : 0)
+                | (p.bigBlind ? HandRecord.BIG_BLIND : 0);
+            p.recordSeat = record.addSeat(p.name, p.chips + p.currentBet, flags);
+            if (p.recordSeat >= 0) record.setHoleCards(p.recordSeat, p.hand[0], p.hand[1]);
+        }
+        recordAction(smallBlind, HandRecord.POST, smallBlind.currentBet);
+        recordAction(bigBlind, HandRecord.POST, bigBlind.currentBet);
+    }
+
+    private void recordAction(Seat player, int type, int amount) {
+        if (recorder != null && player.recordSeat >= 0) {
+            record.addAction(player.recordSeat, type, amount);
+        }
+    }
+
+    private void finishRecord() {
+        if (recorder == null || record.seats == 0) return;
+        for (Seat p : players) {
+            if (p.recordSeat >= 0) record.net[p.recordSeat] = p.chips - record.startChips[p.recordSeat];
+        }
+        recorder.accept(record);
+        record.clear();
+    }
+
+    private void broadcast() {
+        listener.onState();
+    }
+
+    private int count(Status status) {
+        int count = 0;
+        for (Seat p : players) {
+            if (p.status == status) count++;
+        }
+        return count;
+    }
+
+    private int countInHand() {
+        int count = 0;
+        for (Seat p : players) {
+            if (p.inHand()) count++;
+        }
+        return count;
+    }
+
+    /** Index of the first seat after {@code index} with the given status, or -1. */
+    private int nextWithStatus(int index, Status status) {
+        for (int i = index + 1; i < players.size(); i++) {
+            if (players.get(i).status == status) return i;
+        }
+        return -1;
+    }
+
+    /** Index of the next active seat after {@code index}, wrapping around, or -1. */
+    private int nextActiveAfter(int index) {
+        int n = players.size();
+        int i = (index + 1) % n;
+        for (int checked = 0; checked < n; checked++) {
+            if (players.get(i).status == Status.ACTIVE) return i;
+            i = (i + 1) % n;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.pokerbot.stats;
+
+import com.example.pokerbot.eval.EquityResult;
+import com.example.pokerbot.eval.Range;
+import com.example.pokerbot.eval.RangeEquity;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.PlayerStats;
+
+/**
+ * Our equity against what the opponents in a hand are likely to hold, from their
+ * {@link OpponentStats}.
+ * <p>
+ * A player's range is the top VPIP share of starting hands by heads-up equity, or the top PFR
+ * share when they made the last raise (pre-flop: put in more than the big blind; after the flop:
+ * hold the bet everyone else has to match). Ranges are not narrowed further by what happens after
+ * the flop. Players we have no statistics for hold random hands. Ranges are built once per whole
+ * percent and shared; the equity itself is computed by {@link RangeEquity}. Thread-safe.
+ */
+public class OpponentRanges {
+    // Nobody plays fewer hands than this, however tight their numbers look so far
+    private static final int MIN_PERCENT = 3;
+
+    private final OpponentStats opponentStats;
+    private final RangeEquity rangeEquity;
+    private final Range[] byPercent = new Range[101];
+    private final Range random = Range.uniform();
+
+    /** @param ranking starting-hand classes, best first, as from {@link com.example.pokerbot.eval.PreflopTable#ranking} */
+    public OpponentRanges(OpponentStats opponentStats, RangeEquity rangeEquity, int[] ranking) {
+        this.opponentStats = opponentStats;
+        this.rangeEquity = rangeEquity;
+        for (int percent = 0; percent <= 100; percent++) {
+            byPercent[percent] = Range.top(ranking, percent / 100.0);
+        }
+    }
+
+    /**
+     * Equity of {@code hole} against every other player still in the hand, or null when we
+     * have statistics for none of them and random hands are the better-calibrated estimate,
+     * or when the known cards block all of somebody's range.
+     */
+    public EquityResult equity(int[] hole, int[] board, GameState state, String myId) {
+        Range[] ranges = ranges(board, state, myId);
+        return ranges != null ? equity(hole, board, ranges) : null;
+    }
+
+    /** Equity of {@code hole} against ranges from {@link #ranges}, or null when a range is entirely blocked. */
+    public EquityResult equity(int[] hole, int[] board, Range[] ranges) {
+        return rangeEquity.heroVsRanges(hole, board, ranges);
+    }
+
+    /**
+     * The range of every other player still in the hand, or null when we have statistics for
+     * none of them. Ranges are shared, so the same array contents mean the same calculation.
+     */
+    public Range[] ranges(int[] board, GameState state, String myId) {
+        int bigBlindBet = 0;
+        int opponents = 0;
+        boolean known = false;
+        for (GameState.Player p : state.players) {
+            if (p.isBigBlind) bigBlindBet = p.currentBet;
+            if (!inHand(p) || myId.equals(p.id)) continue;
+            opponents++;
+            known |= opponentStats.get(p.name) != null;
+        }
+        if (!known || opponents == 0) return null;
+
+        boolean preflop = board.length == 0;
+        Range[] ranges = new Range[opponents];
+        int i = 0;
+        for (GameState.Player p : state.players) {
+            if (!inHand(p) || myId.equals(p.id)) continue;
+            boolean raised = p.currentBet > 0 && p.currentBet == state.minimumBetForCall
+                && (!preflop || p.currentBet > bigBlindBet);
+            ranges[i++] = rangeOf(opponentStats.get(p.name), raised);
+        }
+        return ranges;
+    }
+
+    Range rangeOf(PlayerStats stats, boolean raised) {
+        if (stats == null) return random;
+        double share = raised ? stats.pfr : stats.vpip;
+        int percent = (int) Math.round(share * 100);
+        return byPercent[Math.max(MIN_PERCENT, Math.min(100, percent))];
+    }
+
+    private static boolean inHand(GameState.Player p) {
+        return !p.isSpectator && ("active".equals(p.status) || "all-in".equals(p.status));
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.pokerbot.stats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.pokerbot.history.HandRecord;
+import com.example.pokerbot.model.PlayerStats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Running statistics for every player the sessions have seen, built from the completed hands
+ * that {@link com.example.pokerbot.history.HandRecorder} derives from the state broadcasts.
+ * <p>
+ * Counters live in one {@code long[]} with a fixed stride per player, so a hand costs a pass
+ * over its actions and no allocation beyond the snapshots it publishes. After each hand the
+ * players in it get a fresh immutable {@link PlayerStats}, with the prompt summary already
+ * formatted; {@link #get} is a map lookup, so using the stats adds nothing to a decision. Players
+ * are published once they have {@code bot.stats.min-hands} hands.
+ * <p>
+ * Counters are updated once per completed hand rather than on every state message. Each state
+ * only costs {@link com.example.pokerbot.history.HandRecorder} a pass over the seats to turn the
+ * diff into actions, and the counting here runs once at the end of the hand. Counting by hand
+ * is needed because the counters are per hand or per street (VPIP and PFR count a player at
+ * most once per hand, a post-flop bet faced at most once per street however often it is
+ * raised), because the server re-broadcasts states (acknowledgements, street deals) that a
+ * per-message count would count twice, and because the de-duplication below needs the whole
+ * hand to recognise it.
+ * <p>
+ * Sessions at the same table all see the same hand: a short ring of recent hand fingerprints
+ * (seats, stacks and board) makes sure it is counted once. Counters are restored from a JSON
+ * snapshot on startup and written back every {@code bot.stats.snapshot-seconds} and on shutdown.
+ */
+@Slf4j
+@Component
+public class OpponentStats {
+    // Counter layout, per player
+    static final int HANDS = 0;
+    static final int VPIP = 1;
+    static final int PFR = 2;
+    static final int BETS = 3; // post-flop bets and raises
+    static final int CALLS = 4; // post-flop calls
+    static final int FOLD_TO_BET_CHANCES = 5;
+    static final int FOLDS_TO_BET = 6;
+    static final int SAW_FLOP = 7;
+    static final int SHOWDOWNS = 8;
+    static final int SHOWDOWN_WINS = 9;
+    static final int COUNTERS = 10;
+
+    private static final int RECENT_HANDS = 64;
+
+    @Value("${bot.stats.min-hands:20}")
+    private int minHands;
+
+    @Value("${bot.stats.snapshot-path:}")
+    private String snapshotPath;
+
+    @Value("${bot.stats.snapshot-seconds:60}")
+    private long snapshotSeconds;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, PlayerStats> published = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<String, Integer> index = new HashMap<>();
+    private String[] names = new String[64];
+    private long[] counts = new long[64 * COUNTERS];
+    private int players;
+    private final long[] recent = new long[RECENT_HANDS];
+    private int recentNext;
+    private long handsRecorded;
+    private long handsSnapshotted;
+
+    // Per-hand scratch, guarded by this
+    private final int[] playerOf = new int[HandRecord.MAX_SEATS];
+    private final int[] bet = new int[HandRecord.MAX_SEATS];
+    private final boolean[] folded = new boolean[HandRecord.MAX_SEATS];
+    private final boolean[] vpip = new boolean[HandRecord.MAX_SEATS];
+    private final boolean[] pfr = new boolean[HandRecord.MAX_SEATS];
+    private final boolean[] facedBet = new boolean[HandRecord.MAX_SEATS];
+
+    private ScheduledExecutorService snapshots;
+
+    @PostConstruct
+    void init() {
+        restore();
+        if (snapshotPath != null && !snapshotPath.isBlank() && snapshotSeconds > 0) {
+            snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "opponent-stats");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshots.scheduleWithFixedDelay(this::snapshotIfChanged, snapshotSeconds, snapshotSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /** @return the player's statistics, or null while fewer than the minimum hands were seen */
+    public PlayerStats get(String name) {
+        return name == null ? null : published.get(name);
+    }
+
+    public synchronized int size() {
+        return players;
+    }
+
+    /** Counts one completed hand; the same hand seen by another session is ignored. */
+    public synchronized void record(HandRecord hand) {
+        if (hand.seats < 2 || !firstSighting(hand)) return;
+        handsRecorded++;
+        for (int s = 0; s < hand.seats; s++) {
+            playerOf[s] = playerIndex(hand.names[s]);
+            bet[s] = 0;
+            folded[s] = false;
+            vpip[s] = false;
+            pfr[s] = false;
+            facedBet[s] = false;
+        }
+
+        int street = 0;
+        int betLevel = 0;
+        for (int a = 0; a < hand.actions; a++) {
+            int s = hand.actionSeat[a];
+            int type = hand.actionType[a];
+            if (type == HandRecord.STREET) {
+                street++;
+                betLevel = 0;
+                Arrays.fill(bet, 0, hand.seats, 0);
+                Arrays.fill(facedBet, 0, hand.seats, false);
+                if (street == 1) {
+                    for (int p = 0; p < hand.seats; p++) {
+                        if (!folded[p]) counts[playerOf[p] * COUNTERS + SAW_FLOP]++;
+                    }
+                }
+                continue;
+            }
+            if (s >= hand.seats) continue;
+            int base = playerOf[s] * COUNTERS;
+            boolean facingBet = street > 0 && betLevel > bet[s];
+            if (facingBet && !facedBet[s]) {
+                facedBet[s] = true;
+                counts[base + FOLD_TO_BET_CHANCES]++;
+            }
+            switch (type) {
+                case HandRecord.POST -> {
+                    bet[s] = hand.actionAmount[a];
+                    betLevel = Math.max(betLevel, bet[s]);
+                }
+                case HandRecord.CALL -> {
+                    bet[s] += hand.actionAmount[a];
+                    if (street == 0) vpip[s] = true;
+                    else counts[base + CALLS]++;
+                }
+                case HandRecord.RAISE -> {
+                    bet[s] = hand.actionAmount[a];
+                    betLevel = Math.max(betLevel, bet[s]);
+                    if (street == 0) {
+                        vpip[s] = true;
+                        pfr[s] = true;
+                    } else {
+                        counts[base + BETS]++;
+                    }
+                }
+                case HandRecord.FOLD -> {
+                    folded[s] = true;
+                    if (facingBet) counts[base + FOLDS_TO_BET]++;
+                }
+                default -> {
+                    // CHECK changes no counter
+                }
+            }
+        }
+
+        int remaining = 0;
+        for (int s = 0; s < hand.seats; s++) {
+            if (!folded[s]) remaining++;
+        }
+        boolean showdown = remaining > 1 && hand.boardSize == 5;
+        for (int s = 0; s < hand.seats; s++) {
+            int base = playerOf[s] * COUNTERS;
+            counts[base + HANDS]++;
+            if (vpip[s]) counts[base + VPIP]++;
+            if (pfr[s]) counts[base + PFR]++;
+            if (showdown && !folded[s]) {
+                counts[base + SHOWDOWNS]++;
+                if (hand.net[s] > 0) counts[base + SHOWDOWN_WINS]++;
+            }
+            publish(playerOf[s]);
+        }
+    }
+
+    private boolean firstSighting(HandRecord hand) {
+        long h = hand.boardSize;
+        for (int s = 0; s < hand.seats; s++) {
+            h = h * 31 + hand.names[s].hashCode();
+            h = h * 31 + hand.startChips[s];
+            h = h * 31 + (hand.flags[s] & ~HandRecord.HERO);
+        }
+        for (int c = 0; c < hand.boardSize; c++) {
+            h = h * 31 + hand.board[c];
+        }
+        for (long seen : recent) {
+            if (seen == h) return false;
+        }
+        recent[recentNext] = h;
+        recentNext = (recentNext + 1) % RECENT_HANDS;
+        return true;
+    }
+
+    private int playerIndex(String name) {
+        Integer known = index.get(name);
+        if (known != null) return known;
+        if (players == names.length) {
+            names = Arrays.copyOf(names, players * 2);
+            counts = Arrays.copyOf(counts, players * 2 * COUNTERS);
+        }
+        names[players] = name;
+        index.put(name, players);
+        return players++;
+    }
+
+    private void publish(int player) {
+        int base = player * COUNTERS;
+        long hands = counts[base + HANDS];
+        if (hands < minHands) return;
+        PlayerStats stats = new PlayerStats();
+        stats.name = names[player];
+        stats.hands = hands;
+        stats.vpip = ratio(counts[base + VPIP], hands);
+        stats.pfr = ratio(counts[base + PFR], hands);
+        long calls = counts[base + CALLS];
+        stats.aggression = calls == 0 ? counts[base + BETS] : (double) counts[base + BETS] / calls;
+        stats.foldToBetChances = counts[base + FOLD_TO_BET_CHANCES];
+        stats.foldToBet = ratio(counts[base + FOLDS_TO_BET], stats.foldToBetChances);
+        stats.wentToShowdown = ratio(counts[base + SHOWDOWNS], counts[base + SAW_FLOP]);
+        stats.wonAtShowdown = ratio(counts[base + SHOWDOWN_WINS], counts[base + SHOWDOWNS]);
+        long af = Math.round(stats.aggression * 10);
+        stats.summary = new StringBuilder(32)
+            .append('n').append(hands)
+            .append(" v").append(Math.round(stats.vpip * 100))
+            .append(" p").append(Math.round(stats.pfr * 100))
+            .append(" af").append(af / 10).append('.').append(af % 10)
+            .append(" f").append(Math.round(stats.foldToBet * 100))
+            .toString();
+        published.put(stats.name, stats);
+    }
+
+    private static double ratio(long count, long of) {
+        return of == 0 ? 0 : (double) count / of;
+    }
+
+    @PreDestroy
+    public void snapshot() {
+        if (snapshots != null) snapshots.shutdownNow();
+        snapshotIfChanged();
+    }
+
+    private void snapshotIfChanged() {
+        if (snapshotPath == null || snapshotPath.isBlank()) return;
+        List<Entry> copy = new ArrayList<>();
+        long recorded;
+        synchronized (this) {
+            if (handsRecorded == handsSnapshotted) return;
+            recorded = handsRecorded;
+            for (int p = 0; p < players; p++) {
+                Entry entry = new Entry();
+                entry.name = names[p];
+                entry.counts = Arrays.copyOfRange(counts, p * COUNTERS, (p + 1) * COUNTERS);
+                copy.add(entry);
+            }
+        }
+        Path target = Path.of(snapshotPath);
+        try {
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), copy);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                handsSnapshotted = recorded;
+            }
+            log.debug("Opponent stats snapshot written: {} players", copy.size());
+        } catch (IOException e) {
+            log.warn("Failed to write opponent stats snapshot to {}", target, e);
+        }
+    }
+
+    private void restore() {
+        if (snapshotPath == null || snapshotPath.isBlank()) return;
+        Path source = Path.of(snapshotPath);
+        if (!Files.exists(source)) return;
+        try {
+            List<Entry> restored = objectMapper.readValue(source.toFile(), new TypeReference<List<Entry>>() {});
+            synchronized (this) {
+                for (Entry e : restored) {
+                    if (e.name == null || e.counts == null) continue;
+                    int player = playerIndex(e.name);
+                    // Snapshots from a build with fewer counters leave the new ones at zero
+                    System.arraycopy(e.counts, 0, counts, player * COUNTERS, Math.min(COUNTERS, e.counts.length));
+                    publish(player);
+                }
+            }
+            log.info("Opponent stats restored for {} players from {}", restored.size(), source);
+        } catch (IOException e) {
+            log.warn("Failed to read opponent stats snapshot from {}", source, e);
+        }
+    }
+
+    public static class Entry {
+        public String name;
+        public long[] counts;
+    }
+}
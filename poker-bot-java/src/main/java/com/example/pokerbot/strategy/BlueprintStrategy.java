@@ -0,0 +1,95 @@
+package com.example.pokerbot.strategy;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.example.pokerbot.blueprint.BlueprintAbstraction;
+import com.example.pokerbot.blueprint.BlueprintTable;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiAction;
+
+/**
+ * Plays the precomputed {@link BlueprintTable}: the spot is mapped to its information set, the
+ * trained frequencies are read from the mapped table, and an action is drawn from them. Actions
+ * that are not legal in the real spot are dropped and the rest renormalised; abstract raise
+ * sizes become chip amounts on the real pot, at least the minimum raise and at most all-in.
+ * A decision costs a hand-strength bucket and a handful of reads, microseconds in all. Thread-safe.
+ */
+public class BlueprintStrategy {
+    private static final String[] NAMES = {"fold", "call", "raise half pot", "raise pot", "all-in"};
+
+    private final BlueprintAbstraction abstraction;
+    private final BlueprintTable table;
+
+    public BlueprintStrategy(BlueprintAbstraction abstraction, BlueprintTable table) {
+        this.abstraction = abstraction;
+        this.table = table;
+    }
+
+    /** @see #decide(GameState, String, long, double) */
+    public GeminiAction decide(GameState state, String myId, long hole) {
+        return decide(state, myId, hole, ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param hole our hole cards as a {@link com.example.pokerbot.eval.Cards} mask
+     * @param roll uniform in [0, 1), picks the action
+     * @return the action, or null when we are not in the hand
+     */
+    public GeminiAction decide(GameState state, String myId, long hole, double roll) {
+        int infoSet = abstraction.infoSet(state, myId, hole);
+        if (infoSet < 0) return null;
+        GameState.Player me = null;
+        for (GameState.Player p : state.players) {
+            if (myId.equals(p.id)) me = p;
+        }
+        int level = state.minimumBetForCall;
+        int toCall = Math.max(0, level - me.currentBet);
+
+        double[] frequencies = new double[BlueprintAbstraction.ACTIONS];
+        table.frequencies(infoSet, frequencies);
+        if (toCall == 0) frequencies[BlueprintAbstraction.FOLD] = 0;
+        if (me.chips <= toCall) {
+            for (int a = BlueprintAbstraction.RAISE_HALF; a < BlueprintAbstraction.ACTIONS; a++) {
+                frequencies[a] = 0;
+            }
+        }
+        double total = 0;
+        for (double f : frequencies) {
+            total += f;
+        }
+        if (total == 0) {
+            // Only actions the real spot does not allow were trained: check or call
+            frequencies[BlueprintAbstraction.CALL] = 1;
+            total = 1;
+        }
+        int chosen = BlueprintAbstraction.CALL;
+        double target = roll * total;
+        for (int a = 0; a < BlueprintAbstraction.ACTIONS; a++) {
+            if (frequencies[a] == 0) continue;
+            chosen = a;
+            target -= frequencies[a];
+            if (target < 0) break;
+        }
+
+        GeminiAction action = new GeminiAction();
+        int allIn = me.currentBet + me.chips;
+        switch (chosen) {
+            case BlueprintAbstraction.FOLD -> action.actionType = "fold";
+            case BlueprintAbstraction.CALL -> action.actionType = toCall == 0 ? "check" : "call";
+            case BlueprintAbstraction.ALL_IN -> {
+                action.actionType = "raise";
+                action.amount = allIn;
+            }
+            default -> {
+                int raiseBy = (int) Math.round(BlueprintAbstraction.raiseFraction(chosen) * (state.pot + toCall));
+                action.actionType = "raise";
+                action.amount = Math.min(level + Math.max(state.minimumRaiseAmount, raiseBy), allIn);
+            }
+        }
+        action.reasoning = String.format("Blueprint: %s at %.0f%% (fold %.0f%%, call %.0f%%, half %.0f%%, pot %.0f%%, all-in %.0f%%)",
+            NAMES[chosen], frequencies[chosen] / total * 100,
+            frequencies[0] / total * 100, frequencies[1] / total * 100, frequencies[2] / total * 100,
+            frequencies[3] / total * 100, frequencies[4] / total * 100);
+        return action;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.pokerbot.strategy;
+
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.model.IcmEstimate;
+
+/**
+ * Rule-based decision from the locally computed equity and the pot odds, used whenever
+ * the AI cannot answer within the decision deadline.
+ * <ul>
+ *   <li>equity well above a fair share of the pot: raise about half the pot</li>
+ *   <li>equity at least the pot odds: call (or check when there is nothing to call)</li>
+ *   <li>otherwise: check if free, else fold</li>
+ * </ul>
+ * With {@link com.example.pokerbot.model.PlayerStats} for the opponents it also exploits two
+ * common leaks: after the flop it bets a weaker hand into opponents who all fold to most bets,
+ * and it calls a little lighter against a bettor who bets and raises far more than they call.
+ * <p>
+ * In a tournament the {@link com.example.pokerbot.model.IcmEstimate} has the last word on risk:
+ * a raise that is worth less prize equity than calling becomes a call, and a call that is worth
+ * less than folding becomes a fold, however good the chip odds are.
+ */
+public class LocalStrategy {
+    private static final double RAISE_SHARE_MULTIPLIER = 1.6;
+    private static final double MAX_RAISE_THRESHOLD = 0.8;
+    // Exploits need this many observed spots behind them
+    private static final long MIN_FOLD_TO_BET_CHANCES = 10;
+    private static final double FOLDER_FOLD_TO_BET = 0.6;
+    private static final double FOLDER_EQUITY_SHARE = 0.75; // bet with this much of a fair share
+    private static final double AGGRESSOR_AF = 3.0;
+    private static final double AGGRESSOR_POT_ODDS_DISCOUNT = 0.85;
+
+    public GeminiAction decide(GeminiContext ctx, String heroName) {
+        int myBet = 0;
+        int myChips = 0;
+        boolean allFoldToBets = true;
+        GeminiContext.PlayerInfo bettor = null;
+        for (GeminiContext.PlayerInfo p : ctx.activePlayers) {
+            if (p.name.equals(heroName)) {
+                myBet = p.currentBet;
+                myChips = p.chips;
+                continue;
+            }
+            allFoldToBets &= p.stats != null && p.stats.foldToBetChances >= MIN_FOLD_TO_BET_CHANCES
+                && p.stats.foldToBet >= FOLDER_FOLD_TO_BET;
+            if (bettor == null || p.currentBet > bettor.currentBet) bettor = p;
+        }
+        int toCall = Math.max(0, ctx.amountToCall - myBet);
+        int opponents = Math.max(1, ctx.activePlayers.size() - 1);
+        double equity = ctx.equity != null ? ctx.equity.equity : 1.0 / (opponents + 1);
+        double raiseThreshold = Math.min(MAX_RAISE_THRESHOLD, RAISE_SHARE_MULTIPLIER / (opponents + 1));
+        double potOdds = toCall == 0 ? 0.0 : (double) toCall / (ctx.pot + toCall);
+        boolean postFlop = ctx.communityCards != null && !ctx.communityCards.isEmpty();
+        if (postFlop && toCall == 0 && allFoldToBets && bettor != null) {
+            raiseThreshold = Math.min(raiseThreshold, FOLDER_EQUITY_SHARE / (opponents + 1));
+        }
+        double callOdds = potOdds;
+        if (bettor != null && bettor.stats != null && bettor.stats.aggression >= AGGRESSOR_AF) {
+            callOdds *= AGGRESSOR_POT_ODDS_DISCOUNT;
+        }
+
+        GeminiAction action = new GeminiAction();
+        if (equity >= raiseThreshold && myChips > toCall) {
+            action.actionType = "raise";
+            action.amount = raiseTo(ctx, myBet, myChips);
+        } else if (toCall == 0) {
+            action.actionType = "check";
+        } else if (equity >= callOdds) {
+            action.actionType = "call";
+        } else {
+            action.actionType = "fold";
+        }
+        action.reasoning = String.format("Local strategy: equity %.1f%%, pot odds %.1f%%", equity * 100, potOdds * 100);
+        IcmEstimate icm = ctx.icm;
+        if (icm != null) {
+            if ("raise".equals(action.actionType) && icm.raise != null && icm.raise < icm.call) {
+                action.actionType = toCall == 0 ? "check" : "call";
+                action.amount = null;
+            }
+            if ("call".equals(action.actionType) && icm.call < icm.fold) {
+                action.actionType = "fold";
+            }
+            action.reasoning += String.format(", prize equity fold %.2f%% call %.2f%% raise %s",
+                icm.fold * 100, icm.call * 100, icm.raise != null ? String.format("%.2f%%", icm.raise * 100) : "-");
+        }
+        return action;
+    }
+
+    /** The raise this strategy makes: half the pot, at least the minimum raise, at most all-in. */
+    public static int raiseTo(GeminiContext ctx, String heroName) {
+        for (GeminiContext.PlayerInfo p : ctx.activePlayers) {
+            if (p.name.equals(heroName)) return raiseTo(ctx, p.currentBet, p.chips);
+        }
+        return raiseTo(ctx, 0, Integer.MAX_VALUE);
+    }
+
+    private static int raiseTo(GeminiContext ctx, int myBet, int myChips) {
+        int raiseBy = Math.max(ctx.minimumRaiseAmount, ctx.pot / 2);
+        return Math.min(ctx.amountToCall + raiseBy, myBet + myChips);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.pokerbot;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.pokerbot.model.SessionStatus;
+
+@WebMvcTest(value = BotSessionController.class,
+    properties = {"spring.security.user.name=admin", "spring.security.user.password=secret"})
+@Import(SecurityConfig.class)
+class BotSessionControllerTest {
+    private static final String ADMIN = "Basic "
+        + Base64.getEncoder().encodeToString("admin:secret".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private BotSessionManager botSessionManager;
+
+    @BeforeEach
+    void setUp() {
+        when(botSessionManager.getMaxSessions()).thenReturn(10);
+        when(botSessionManager.isAllowedServer(any())).thenReturn(false);
+        when(botSessionManager.isAllowedServer(null)).thenReturn(true);
+    }
+
+    @Test
+    void requiresTheManagementUser() throws Exception {
+        mvc.perform(post("/sessions").param("name", "bot")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/sessions")).andExpect(status().isUnauthorized());
+        mvc.perform(post("/sessions").param("name", "bot")
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString("admin:wrong".getBytes())))
+            .andExpect(status().isUnauthorized());
+        verify(botSessionManager, never()).startAll(any(), any());
+    }
+
+    @Test
+    void refusesServersOutsideTheAllowlist() throws Exception {
+        mvc.perform(post("/sessions").param("name", "bot").param("url", "ws://169.254.169.254/")
+                .header(HttpHeaders.AUTHORIZATION, ADMIN))
+            .andExpect(status().isForbidden());
+        verify(botSessionManager, never()).startAll(any(), any());
+    }
+
+    @Test
+    void capsTheNumberOfSessions() throws Exception {
+        mvc.perform(post("/sessions").param("name", "bot").param("count", "11")
+                .header(HttpHeaders.AUTHORIZATION, ADMIN))
+            .andExpect(status().isBadRequest());
+        mvc.perform(post("/sessions").param("name", "bot").param("count", "0")
+                .header(HttpHeaders.AUTHORIZATION, ADMIN))
+            .andExpect(status().isBadRequest());
+
+        when(botSessionManager.startAll(any(), any())).thenThrow(new IllegalStateException("At most 10 bot sessions can run"));
+        mvc.perform(post("/sessions").param("name", "bot").header(HttpHeaders.AUTHORIZATION, ADMIN))
+            .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void startsABatchInOneCall() throws Exception {
+        when(botSessionManager.startAll(any(), any())).thenAnswer(call -> {
+            List<PokerWebSocketClient> started = new ArrayList<>();
+            for (String name : call.<List<String>>getArgument(0)) {
+                PokerWebSocketClient session = mock(PokerWebSocketClient.class);
+                SessionStatus status = new SessionStatus();
+                status.name = name;
+                when(session.getStatus()).thenReturn(status);
+                started.add(session);
+            }
+            return started;
+        });
+
+        mvc.perform(post("/sessions").param("name", "load").param("count", "3").header(HttpHeaders.AUTHORIZATION, ADMIN))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].name").value(contains("load-1", "load-2", "load-3")));
+        verify(botSessionManager).startAll(List.of("load-1", "load-2", "load-3"), null);
+    }
+
+    @Test
+    void refusesAConflictingBatch() throws Exception {
+        when(botSessionManager.startAll(any(), any())).thenThrow(new IllegalArgumentException("A bot named load-2 is already running"));
+
+        mvc.perform(post("/sessions").param("name", "load").param("count", "3").header(HttpHeaders.AUTHORIZATION, ADMIN))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void listsSessionsForTheManagementUser() throws Exception {
+        mvc.perform(get("/sessions").header(HttpHeaders.AUTHORIZATION, ADMIN)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.pokerbot.stats.OpponentStats;
+
+import okhttp3.OkHttpClient;
+
+/** Session limits of {@link BotSessionManager}. */
+class BotSessionManagerTest {
+    private static final int MAX_SESSIONS = 5;
+
+    private BotSessionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new BotSessionManager();
+        ReflectionTestUtils.setField(manager, "maxSessions", MAX_SESSIONS);
+        ReflectionTestUtils.setField(manager, "defaultServerUrl", "ws://localhost:8080");
+        // Sockets are never opened; only the bookkeeping is under test
+        ReflectionTestUtils.setField(manager, "webSocketClient", mock(OkHttpClient.class));
+        ReflectionTestUtils.setField(manager, "opponentStats", new OpponentStats());
+        ReflectionTestUtils.setField(manager, "sessionSettings", new PokerWebSocketClient.Settings(5000, 2, false, false, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void neverRunsMoreThanTheMaximumUnderConcurrentStarts() throws Exception {
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int c = 0; c < callers; c++) {
+            String prefix = "bot" + c;
+            results.add(pool.submit(() -> {
+                go.await();
+                try {
+                    return manager.startAll(List.of(prefix + "-1", prefix + "-2"), null).size();
+                } catch (IllegalStateException e) {
+                    return 0;
+                }
+            }));
+        }
+        go.countDown();
+        int started = 0;
+        for (Future<Integer> result : results) {
+            started += result.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Batches of two into five slots: two batches fit
+        assertThat(started).isEqualTo(4);
+        assertThat(manager.getSessions()).hasSize(4);
+    }
+
+    @Test
+    void startsNoneOfABatchThatDoesNotFit() {
+        manager.startAll(List.of("a", "b", "c"), null);
+
+        assertThatThrownBy(() -> manager.startAll(List.of("d", "e", "f"), null))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("At most 5 bot sessions can run");
+        assertThat(names()).containsExactlyInAnyOrder("a", "b", "c");
+
+        // The refused batch took no slots
+        manager.startAll(List.of("d", "e"), null);
+        assertThat(names()).hasSize(MAX_SESSIONS);
+    }
+
+    @Test
+    void startsNoneOfABatchWithANameInUse() {
+        manager.start("b", null);
+
+        assertThatThrownBy(() -> manager.startAll(List.of("a", "b", "c"), null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("A bot named b is already running");
+        assertThat(names()).containsExactly("b");
+
+        manager.startAll(List.of("a", "c", "d", "e"), null);
+        assertThat(names()).hasSize(MAX_SESSIONS);
+    }
+
+    @Test
+    void freesTheSlotOfAStoppedSession() {
+        manager.startAll(List.of("a", "b", "c", "d", "e"), null);
+        assertThatThrownBy(() -> manager.start("f", null)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(manager.stop("c")).isTrue();
+        assertThat(manager.stop("c")).isFalse();
+
+        manager.start("f", null);
+        assertThat(names()).containsExactlyInAnyOrder("a", "b", "d", "e", "f");
+    }
+
+    private List<String> names() {
+        return manager.getSessions().stream().map(status -> status.name).toList();
+    }
+}
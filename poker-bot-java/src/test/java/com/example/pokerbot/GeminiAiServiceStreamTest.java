@@ -0,0 +1,238 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.pokerbot.cache.DecisionCache;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Streamed answers from a local stand-in for the model endpoint: the answer text is split into
+ * server-sent events, and the events after the action are held back to show that the decision
+ * does not wait for them.
+ */
+class GeminiAiServiceStreamTest {
+    // Events after the action are sent this much later
+    private static final long HELD_BACK_SECONDS = 3;
+    private static final int PERIOD_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockWebServer server;
+    private GeminiAiService service;
+    private DecisionMetrics metrics;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        DecisionCache cache = new DecisionCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 720L);
+        ReflectionTestUtils.setField(cache, "snapshotPath", "");
+        ReflectionTestUtils.invokeMethod(cache, "init");
+
+        service = new GeminiAiService();
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "client", new OkHttpClient());
+        ReflectionTestUtils.setField(service, "modelUrl", server.url("/v1beta/models/test").toString());
+        ReflectionTestUtils.setField(service, "streaming", true);
+        ReflectionTestUtils.setField(service, "promptMaxBytes", 1500);
+        ReflectionTestUtils.setField(service, "decisionCache", cache);
+        metrics = new DecisionMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "metrics", metrics);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void completesOnceActionTypeAndAmountHaveArrived() throws Exception {
+        serve(List.of("```json\n{\"actionType\": \"ra", "ise\", \"amo", "unt\": 120,"),
+            List.of(" \"reasoning\": \"Strong draw, ", "build the pot.\"}\n```"));
+
+        long start = System.nanoTime();
+        GeminiAction action = service.getBotActionAsync(context()).get(HELD_BACK_SECONDS - 1, TimeUnit.SECONDS);
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(HELD_BACK_SECONDS - 1);
+        assertThat(action.actionType).isEqualTo("raise");
+        assertThat(action.amount).isEqualTo(120);
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getPath()).isEqualTo("/v1beta/models/test:streamGenerateContent?alt=sse");
+        assertThat(request.getHeader("X-goog-api-key")).isEqualTo("test-key");
+    }
+
+    @Test
+    void completesWithoutWaitingForTheReasoning() throws Exception {
+        serve(List.of("{\"actionType\": \"call\","), List.of(" \"reasoning\": \"Priced in.\"}"));
+
+        GeminiAction action = service.getBotActionAsync(context()).get(HELD_BACK_SECONDS - 1, TimeUnit.SECONDS);
+
+        assertThat(action.actionType).isEqualTo("call");
+        assertThat(action.amount).isNull();
+    }
+
+    @Test
+    void readsFieldsInAnyOrder() throws Exception {
+        serve(List.of("{\"reasoning\": \"Fold equity is high.\", \"amo", "unt\": \"90\", \"actionType\": \"RAISE\""),
+            List.of("}"));
+
+        GeminiAction action = service.getBotActionAsync(context()).get(HELD_BACK_SECONDS - 1, TimeUnit.SECONDS);
+
+        assertThat(action.actionType).isEqualTo("raise");
+        assertThat(action.amount).isEqualTo(90);
+        assertThat(action.reasoning).isEqualTo("Fold equity is high.");
+    }
+
+    @Test
+    void waitsForTheAmountOfARaise() throws Exception {
+        serve(List.of("{\"actionType\": \"raise\", "), List.of("\"amount\": 60}"));
+
+        CompletableFuture<GeminiAction> future = service.getBotActionAsync(context());
+
+        Thread.sleep(500);
+        assertThat(future).isNotDone();
+        assertThat(future.get(HELD_BACK_SECONDS + 2, TimeUnit.SECONDS).amount).isEqualTo(60);
+    }
+
+    @Test
+    void fallsBackToTheFullTextForAMalformedAnswer() throws Exception {
+        serve(List.of("I would just ", "call here, the pot odds are fine."), List.of());
+
+        GeminiAction action = service.getBotActionAsync(context()).get(5, TimeUnit.SECONDS);
+
+        assertThat(action.actionType).isEqualTo("call");
+        assertThat(metrics.getParseFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotCountAnUnreadableTailAsAParseFailure() throws Exception {
+        // The action streams in; the answer as a whole is not valid JSON
+        serve(List.of("{\"actionType\": \"call\", ", "\"reasoning\": Priced in}"), List.of());
+
+        GeminiAction action = service.getBotActionAsync(context()).get(5, TimeUnit.SECONDS);
+        Thread.sleep(1000);
+
+        assertThat(action.actionType).isEqualTo("call");
+        assertThat(metrics.getParseFailures()).isZero();
+    }
+
+    @Test
+    void fallsBackToTheFullTextForAnObjectWithoutAnAction() throws Exception {
+        serve(List.of("{\"reasoning\": \"Too weak, fold.\"}"), List.of());
+
+        GeminiAction action = service.getBotActionAsync(context()).get(5, TimeUnit.SECONDS);
+
+        assertThat(action.actionType).isEqualTo("fold");
+    }
+
+    @Test
+    void failsWhenTheStreamEndsWithoutAnAction() {
+        server.enqueue(new MockResponse()
+            .setHeader("Content-Type", "text/event-stream")
+            .setBody("data: {\"candidates\": []}\n\n"
+                + "data: {\"usageMetadata\": {\"promptTokenCount\": 300}}\n\n"));
+
+        CompletableFuture<GeminiAction> future = service.getBotActionAsync(context());
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void failsOnABlankAnswerWithoutStreamingToo() throws Exception {
+        ReflectionTestUtils.setField(service, "streaming", false);
+        var root = objectMapper.createObjectNode();
+        root.putArray("candidates").addObject().putObject("content").putArray("parts").addObject().put("text", " ");
+        server.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(objectMapper.writeValueAsString(root)));
+
+        CompletableFuture<GeminiAction> future = service.getBotActionAsync(context());
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IOException.class);
+        assertThat(server.takeRequest().getPath()).isEqualTo("/v1beta/models/test:generateContent");
+    }
+
+    @Test
+    void failsOnAnErrorStatus() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        CompletableFuture<GeminiAction> future = service.getBotActionAsync(context());
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    }
+
+    /** Serves {@code first} as events right away and {@code later} ones {@link #HELD_BACK_SECONDS} after. */
+    private void serve(List<String> first, List<String> later) throws IOException {
+        StringBuilder head = new StringBuilder();
+        for (String text : first) head.append(event(text));
+        // The throttle also applies to reading the request, so the first period has to hold the
+        // prompt as well; the head is padded to a full period with an SSE comment
+        int padding = PERIOD_BYTES - head.toString().getBytes(StandardCharsets.UTF_8).length - 2;
+        head.append(':').append(" ".repeat(padding)).append('\n');
+        for (String text : later) head.append(event(text));
+        server.enqueue(new MockResponse()
+            .setHeader("Content-Type", "text/event-stream")
+            .setBody(head.toString())
+            .throttleBody(PERIOD_BYTES, HELD_BACK_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private String event(String text) throws IOException {
+        var root = objectMapper.createObjectNode();
+        root.putArray("candidates").addObject().putObject("content").putArray("parts").addObject().put("text", text);
+        return "data: " + objectMapper.writeValueAsString(root) + "\n\n";
+    }
+
+    private static GeminiContext context() {
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = "Hero";
+        ctx.playerHand = List.of(card("Q", "H"), card("J", "H"));
+        ctx.communityCards = List.of(card("T", "H"), card("2", "H"), card("9", "C"));
+        ctx.bettingRound = "flop";
+        ctx.pot = 80;
+        ctx.amountToCall = 20;
+        ctx.minimumRaiseAmount = 20;
+        ctx.activePlayers = new ArrayList<>();
+        GeminiContext.PlayerInfo hero = new GeminiContext.PlayerInfo();
+        hero.name = "Hero";
+        hero.chips = 900;
+        ctx.activePlayers.add(hero);
+        return ctx;
+    }
+
+    private static Card card(String rank, String suit) {
+        Card card = new Card();
+        card.rank = rank;
+        card.suit = suit;
+        return card;
+    }
+}
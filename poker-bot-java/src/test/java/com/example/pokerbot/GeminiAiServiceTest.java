@@ -0,0 +1,116 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.pokerbot.cache.DecisionCache;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Reading a whole (not streamed) answer, the path the response-parsing benchmark measures. */
+class GeminiAiServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DecisionMetrics metrics = new DecisionMetrics(new SimpleMeterRegistry());
+    private DecisionCache cache;
+    private GeminiAiService service;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DecisionCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 720L);
+        ReflectionTestUtils.setField(cache, "snapshotPath", "");
+        ReflectionTestUtils.invokeMethod(cache, "init");
+
+        service = new GeminiAiService();
+        ReflectionTestUtils.setField(service, "decisionCache", cache);
+        ReflectionTestUtils.setField(service, "metrics", metrics);
+    }
+
+    @Test
+    void joinsThePartsOfTheFirstCandidate() throws IOException {
+        String body = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"{\\\"actionType\\\": \"},"
+            + "{\"text\":\"\\\"call\\\"}\"}]}},{\"content\":{\"parts\":[{\"text\":\"ignored\"}]}}]}";
+
+        assertThat(GeminiAiService.chunkText(objectMapper.readTree(body))).isEqualTo("{\"actionType\": \"call\"}");
+        assertThat(GeminiAiService.chunkText(objectMapper.readTree("{\"candidates\":[]}"))).isEmpty();
+        assertThat(GeminiAiService.chunkText(objectMapper.readTree("{\"promptFeedback\":{\"blockReason\":\"OTHER\"}}"))).isEmpty();
+    }
+
+    @Test
+    void readsTheActionObjectOutOfMarkdownAndCachesIt() throws IOException {
+        GeminiContext ctx = context();
+
+        GeminiAction action = service.toAction(ctx,
+            "```json\n{\"actionType\": \"raise\", \"amount\": 150, \"reasoning\": \"Top pair\"}\n```");
+
+        assertThat(action.actionType).isEqualTo("raise");
+        assertThat(action.amount).isEqualTo(150);
+        assertThat(action.reasoning).isEqualTo("Top pair");
+        assertThat(cache.get(ctx, ctx.playerName).amount).isEqualTo(150);
+        assertThat(metrics.getParseFailures()).isZero();
+    }
+
+    @Test
+    void guessesTheActionFromTextThatIsNotAnActionObject() throws IOException {
+        GeminiAction called = service.toAction(context(), "I would call here, the price is right.");
+        GeminiAction nothing = service.toAction(context(), "{\"thoughts\": \"unsure\"}");
+
+        assertThat(called.actionType).isEqualTo("call");
+        assertThat(called.reasoning).isEqualTo("Failed to parse JSON response, used fallback action");
+        assertThat(nothing.actionType).isEqualTo("fold");
+        assertThat(metrics.getParseFailures()).isEqualTo(2);
+        // A guess is not cached
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsABlankAnswer() {
+        assertThatThrownBy(() -> service.toAction(context(), " \n"))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Empty answer from AI");
+        assertThat(metrics.getParseFailures()).isZero();
+    }
+
+    private static GeminiContext context() {
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = "Hero";
+        ctx.playerHand = List.of(card("A", "S"), card("K", "S"));
+        ctx.communityCards = List.of(card("2", "H"), card("7", "D"), card("J", "C"));
+        ctx.bettingRound = "flop";
+        ctx.pot = 100;
+        ctx.amountToCall = 0;
+        ctx.minimumRaiseAmount = 20;
+        ctx.activePlayers = new ArrayList<>();
+        ctx.activePlayers.add(player("Hero", 1000));
+        ctx.activePlayers.add(player("Villain", 1000));
+        return ctx;
+    }
+
+    private static GeminiContext.PlayerInfo player(String name, int chips) {
+        GeminiContext.PlayerInfo p = new GeminiContext.PlayerInfo();
+        p.name = name;
+        p.chips = chips;
+        return p;
+    }
+
+    private static Card card(String rank, String suit) {
+        Card card = new Card();
+        card.rank = rank;
+        card.suit = suit;
+        return card;
+    }
+}
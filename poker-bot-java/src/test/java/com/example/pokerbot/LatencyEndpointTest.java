@@ -0,0 +1,103 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** What {@link DecisionMetrics} registers and how {@link LatencyEndpoint} summarises it. */
+class LatencyEndpointTest {
+    private static final long MS = 1_000_000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DecisionMetrics metrics = new DecisionMetrics(registry);
+    private final LatencyEndpoint endpoint = new LatencyEndpoint();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(endpoint, "metrics", metrics);
+    }
+
+    @Test
+    void summarisesEveryStageInPipelineOrder() {
+        Map<String, Object> latency = endpoint.latency();
+
+        assertThat(latency).containsOnlyKeys("stages", "counters");
+        Map<String, Object> stages = map(latency.get("stages"));
+        assertThat(stages.keySet()).containsExactly(
+            Arrays.stream(DecisionMetrics.Stage.values()).map(DecisionMetrics.Stage::key).toArray(String[]::new));
+        for (Object summary : stages.values()) {
+            assertThat(map(summary).keySet()).containsExactly("count", "meanMs", "p50Ms", "p90Ms", "p99Ms", "maxMs");
+            assertThat(map(summary)).containsEntry("count", 0L).containsEntry("maxMs", 0.0);
+        }
+    }
+
+    @Test
+    void reportsTheSamplesOfAStageInMilliseconds() {
+        for (int n = 1; n <= 100; n++) {
+            metrics.record(DecisionMetrics.Stage.LLM, n * MS);
+        }
+        metrics.record(DecisionMetrics.Stage.SEND, 1_500_000);
+
+        Map<String, Object> stages = map(endpoint.latency().get("stages"));
+        Map<String, Object> llm = map(stages.get("llm"));
+        assertThat(llm).containsEntry("count", 100L).containsEntry("maxMs", 100.0);
+        assertThat((double) llm.get("meanMs")).isEqualTo(50.5);
+        // Client-side percentiles are approximate: two significant digits
+        assertThat((double) llm.get("p50Ms")).isCloseTo(50, within(2.0));
+        assertThat((double) llm.get("p90Ms")).isCloseTo(90, within(3.0));
+        assertThat((double) llm.get("p99Ms")).isCloseTo(99, within(3.0));
+        assertThat(map(stages.get("send"))).containsEntry("count", 1L).containsEntry("maxMs", 1.5);
+        assertThat(map(stages.get("parse"))).containsEntry("count", 0L);
+
+        assertThat(registry.get("bot.decision.stage").tag("stage", "llm").timer().count()).isEqualTo(100);
+    }
+
+    @Test
+    void countsTheDecisionsThatLeaveTheNormalPath() {
+        metrics.fallback(DecisionMetrics.FALLBACK_TIMEOUT);
+        metrics.fallback(DecisionMetrics.FALLBACK_TIMEOUT);
+        metrics.fallback(DecisionMetrics.FALLBACK_FAILURE);
+        metrics.parseFailure();
+        metrics.duplicateSuppressed();
+        metrics.duplicateSuppressed();
+        metrics.duplicateSuppressed();
+
+        Map<String, Object> counters = map(endpoint.latency().get("counters"));
+        assertThat(counters.keySet()).containsExactly("fallbackTimeout", "fallbackFailure", "parseFailures", "duplicatesSuppressed");
+        assertThat(counters).containsEntry("fallbackTimeout", 2L)
+            .containsEntry("fallbackFailure", 1L)
+            .containsEntry("parseFailures", 1L)
+            .containsEntry("duplicatesSuppressed", 3L);
+
+        // The same meters on the metrics endpoint
+        assertThat(registry.get("bot.decision.fallbacks").tag("reason", "timeout").counter().count()).isEqualTo(2);
+        assertThat(registry.get("bot.decision.fallbacks").tag("reason", "failure").counter().count()).isEqualTo(1);
+        assertThat(registry.get("bot.ai.parse.failures").counter().count()).isEqualTo(1);
+        assertThat(registry.get("bot.turn.duplicates").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void lapsFromOneStageToTheNext() throws InterruptedException {
+        long start = System.nanoTime();
+        Thread.sleep(5);
+        long next = metrics.lap(DecisionMetrics.Stage.DECODE, start);
+
+        assertThat(next).isGreaterThanOrEqualTo(start + 5 * MS);
+        Map<String, Object> decode = map(map(endpoint.latency().get("stages")).get("decode"));
+        assertThat(decode).containsEntry("count", 1L);
+        assertThat((double) decode.get("maxMs")).isGreaterThanOrEqualTo(5.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
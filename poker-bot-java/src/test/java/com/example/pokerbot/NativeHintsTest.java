@@ -0,0 +1,49 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.example.pokerbot.blueprint.BlueprintTable;
+import com.example.pokerbot.cache.DecisionCache;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.stats.OpponentStats;
+
+/** The hints a native image needs beyond what Spring AOT derives from the beans. */
+class NativeHintsTest {
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersTheTypesJacksonBindsOutsideSpring() {
+        for (Class<?> type : new Class<?>[] {GeminiAction.class, DecisionCache.Entry.class, OpponentStats.Entry.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)).as(type.getName()).accepts(hints);
+        }
+    }
+
+    @Test
+    void bundlesTheTables() {
+        assertThat(RuntimeHintsPredicates.resource().forResource(PreflopTable.RESOURCE)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource(BlueprintTable.RESOURCE)).accepts(hints);
+    }
+
+    @Test
+    void coversEveryMethodVirtualThreadsLooksUp() {
+        // By name: the methods and the builder types only exist from Java 21
+        for (String type : new String[] {Thread.class.getName(), Executors.class.getName(),
+                "java.lang.Thread$Builder", "java.lang.Thread$Builder$OfVirtual"}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).as(type).accepts(hints);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.eval.MonteCarloEquity;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.stats.OpponentStats;
+import com.example.pokerbot.strategy.BlueprintStrategy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+/**
+ * The decision deadline of a {@link PokerWebSocketClient}: what it sends on our turn when the AI
+ * answers late, fails or answers, with and without a blueprint to fall back on. Our turn is on
+ * the river with the royal flush and nothing to call, so the local strategy raises half the pot.
+ */
+class PokerWebSocketClientTest {
+    private static final long DEADLINE_MS = 300;
+    private static final String HAND = "{\"type\":\"player_hand\",\"payload\":[{\"rank\":\"A\",\"suit\":\"S\"},"
+        + "{\"rank\":\"K\",\"suit\":\"S\"}]}";
+    private static final String LOCAL_RAISE = "{\"type\":\"action\",\"payload\":{\"actionType\":\"raise\",\"amount\":100}}";
+    private static final String CHECK = "{\"type\":\"action\",\"payload\":{\"actionType\":\"check\"}}";
+
+    private final DecisionMetrics metrics = new DecisionMetrics(new SimpleMeterRegistry());
+    private final StubAi ai = new StubAi();
+
+    @Test
+    void fallsBackAtTheDeadlineAndCancelsTheLateAnswer() {
+        Session session = new Session(null);
+
+        long start = System.nanoTime();
+        session.play(HAND, ourTurn(0));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(session.sent).containsExactly(LOCAL_RAISE);
+        assertThat(elapsedMs).isBetween(DEADLINE_MS, DEADLINE_MS + 1000);
+        assertThat(ai.requests).singleElement().satisfies(request -> assertThat(request).isCancelled());
+        assertThat(metrics.getFallbacks(DecisionMetrics.FALLBACK_TIMEOUT)).isEqualTo(1);
+        assertThat(metrics.getFallbacks(DecisionMetrics.FALLBACK_FAILURE)).isZero();
+    }
+
+    @Test
+    void fallsBackAtOnceWhenTheAiFails() {
+        ai.failing = true;
+        Session session = new Session(null);
+
+        long start = System.nanoTime();
+        session.play(HAND, ourTurn(0));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(session.sent).containsExactly(LOCAL_RAISE);
+        assertThat(elapsedMs).isLessThan(DEADLINE_MS);
+        assertThat(metrics.getFallbacks(DecisionMetrics.FALLBACK_FAILURE)).isEqualTo(1);
+        assertThat(metrics.getFallbacks(DecisionMetrics.FALLBACK_TIMEOUT)).isZero();
+    }
+
+    @Test
+    void asksTheBlueprintBeforeTheLocalStrategy() {
+        ai.failing = true;
+        Session checks = new Session(blueprint("check"));
+        checks.play(HAND, ourTurn(0));
+        assertThat(checks.sent).containsExactly(CHECK);
+
+        // A spot the blueprint has nothing for
+        Session unknown = new Session(blueprint(null));
+        unknown.play(HAND, ourTurn(0));
+        assertThat(unknown.sent).containsExactly(LOCAL_RAISE);
+    }
+
+    @Test
+    void sendsTheAnswerThatArrivesInTime() {
+        ai.answer = action("check", null);
+        Session session = new Session(null);
+
+        session.play(HAND, ourTurn(0));
+
+        assertThat(session.sent).containsExactly(CHECK);
+        assertThat(metrics.getFallbacks(DecisionMetrics.FALLBACK_TIMEOUT)).isZero();
+        assertThat(metrics.getFallbacks(DecisionMetrics.FALLBACK_FAILURE)).isZero();
+    }
+
+    @Test
+    void sendsTheAiRaiseAsATotalBetweenAMinimumRaiseAndAllIn() {
+        assertThat(raiseSent(0, 5)).isEqualTo(raise(20));
+        assertThat(raiseSent(0, null)).isEqualTo(raise(20));
+        assertThat(raiseSent(0, 150)).isEqualTo(raise(150));
+        assertThat(raiseSent(0, 5000)).isEqualTo(raise(980));
+        // Facing 100 the smallest raise is to 120
+        assertThat(raiseSent(100, 110)).isEqualTo(raise(120));
+    }
+
+    @Test
+    void callsWhenTheAiRaisesWithoutTheChipsToRaise() {
+        assertThat(raiseSent(990, 2000)).isEqualTo("{\"type\":\"action\",\"payload\":{\"actionType\":\"call\"}}");
+    }
+
+    private String raiseSent(int level, Integer amount) {
+        ai.answer = action("raise", amount);
+        Session session = new Session(null);
+        session.play(HAND, ourTurn(level));
+        assertThat(session.sent).hasSize(1);
+        return session.sent.get(0);
+    }
+
+    private static String raise(int amount) {
+        return "{\"type\":\"action\",\"payload\":{\"actionType\":\"raise\",\"amount\":" + amount + "}}";
+    }
+
+    /**
+     * The river, with us to act in a pot of 200 and {@code level} bet. We have 980 behind after
+     * posting 20 pre-flop; the villain has 1000 behind.
+     */
+    static String ourTurn(int level) {
+        return "{\"type\":\"state\",\"payload\":{\"players\":["
+            + "{\"id\":\"villain\",\"name\":\"Villain\",\"chips\":" + (1000 - level) + ",\"status\":\"active\",\"currentBet\":" + level
+            + ",\"isDealer\":true,\"isSmallBlind\":false,\"isBigBlind\":false,\"isSpectator\":false},"
+            + "{\"id\":\"me\",\"name\":\"Hero\",\"chips\":980,\"status\":\"active\",\"currentBet\":0"
+            + ",\"isDealer\":false,\"isSmallBlind\":false,\"isBigBlind\":true,\"isSpectator\":false}],"
+            + "\"communityCards\":[{\"rank\":\"Q\",\"suit\":\"S\"},{\"rank\":\"J\",\"suit\":\"S\"},{\"rank\":\"T\",\"suit\":\"S\"},"
+            + "{\"rank\":\"2\",\"suit\":\"D\"},{\"rank\":\"3\",\"suit\":\"C\"}],"
+            + "\"pot\":" + (200 + level) + ",\"currentBettingRound\":\"river\",\"currentPlayerId\":\"me\",\"gamePhase\":\"river\","
+            + "\"message\":\"It's Hero's turn.\",\"minimumRaiseAmount\":20,\"minimumBetForCall\":" + level + "}}";
+    }
+
+    static GeminiAction action(String type, Integer amount) {
+        GeminiAction action = new GeminiAction();
+        action.actionType = type;
+        action.amount = amount;
+        action.reasoning = "Test";
+        return action;
+    }
+
+    private static BlueprintStrategy blueprint(String actionType) {
+        return new BlueprintStrategy(null, null) {
+            @Override
+            public GeminiAction decide(GameState state, String myId, long hole) {
+                return actionType != null ? action(actionType, null) : null;
+            }
+        };
+    }
+
+    /** Answers every request with {@link #answer}, fails it, or never answers when there is no answer. */
+    static final class StubAi extends GeminiAiService {
+        final List<CompletableFuture<GeminiAction>> requests = new ArrayList<>();
+        GeminiAction answer;
+        boolean failing;
+
+        @Override
+        public CompletableFuture<GeminiAction> getBotActionAsync(GeminiContext ctx) {
+            CompletableFuture<GeminiAction> request = new CompletableFuture<>();
+            if (failing) {
+                request.completeExceptionally(new IllegalStateException("HTTP 503"));
+            } else if (answer != null) {
+                request.complete(answer);
+            }
+            requests.add(request);
+            return request;
+        }
+    }
+
+    /**
+     * A client on a fake socket, handling frames on the calling thread; {@code blueprint} is the
+     * AI's fallback when not null.
+     */
+    final class Session {
+        final List<String> sent = new ArrayList<>();
+        final PokerWebSocketClient client;
+        private final WebSocket socket = new FakeWebSocket();
+        private WebSocketListener listener;
+
+        Session(BlueprintStrategy blueprint) {
+            this(new PokerWebSocketClient.Settings(DEADLINE_MS, 0, false, true, null), blueprint);
+        }
+
+        Session(PokerWebSocketClient.Settings settings, BlueprintStrategy blueprint) {
+            OkHttpClient http = new OkHttpClient() {
+                @Override
+                public WebSocket newWebSocket(Request request, WebSocketListener webSocketListener) {
+                    listener = webSocketListener;
+                    return socket;
+                }
+            };
+            EquityCalculator equity = new EquityCalculator(new MonteCarloEquity(), null, Double.MAX_VALUE, 0, 0);
+            client = new PokerWebSocketClient("Hero", "ws://test", http, Runnable::run, settings, ai, equity,
+                null, new OpponentStats(), null, blueprint, metrics);
+            client.connect();
+        }
+
+        void play(String... frames) {
+            for (String frame : frames) {
+                listener.onMessage(socket, frame);
+            }
+        }
+
+        private class FakeWebSocket implements WebSocket {
+            @Override
+            public Request request() {
+                return new Request.Builder().url("http://test/").build();
+            }
+
+            @Override
+            public long queueSize() {
+                return 0;
+            }
+
+            @Override
+            public boolean send(String text) {
+                sent.add(text);
+                return true;
+            }
+
+            @Override
+            public boolean send(ByteString bytes) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean close(int code, String reason) {
+                return true;
+            }
+
+            @Override
+            public void cancel() {
+            }
+        }
+    }
+}
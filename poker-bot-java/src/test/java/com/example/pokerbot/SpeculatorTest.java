@@ -0,0 +1,211 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.EquityCalculator;
+import com.example.pokerbot.eval.EquityResult;
+import com.example.pokerbot.eval.ExactEquity;
+import com.example.pokerbot.eval.MonteCarloEquity;
+import com.example.pokerbot.eval.Range;
+import com.example.pokerbot.eval.RangeEquity;
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.stats.OpponentRanges;
+
+class SpeculatorTest {
+    private static final int[] HOLE = {Cards.encode("AS"), Cards.encode("AH")};
+    private static final int[] BOARD = {Cards.encode("KD"), Cards.encode("7C"), Cards.encode("2S"), Cards.encode("9H")};
+
+    private final EquityCalculator equityCalculator =
+        new EquityCalculator(new MonteCarloEquity(), null, Double.MAX_VALUE, 0, 0);
+    private final RangeEquity rangeEquity =
+        new RangeEquity(ForkJoinPool.commonPool(), new SplittableRandom(5), 2_000, 0);
+    private final StubAi ai = new StubAi();
+
+    @Test
+    void usesRandomHandsWhenTheKnownCardsBlockARange() {
+        Speculator speculator = speculator(Range.of(HOLE[0], HOLE[1]));
+        speculator.onNewHand(HOLE);
+
+        EquityResult equity = speculator.equity(HOLE, BOARD, new GameState(), "hero", 1);
+
+        assertThat(equity).isNotNull();
+        assertThat(equity.equity).isEqualTo(ExactEquity.enumerate(HOLE, BOARD, 1).equity);
+    }
+
+    @Test
+    void usesTheRangesWhenTheyHoldSomething() {
+        Range kings = Range.of(Cards.encode("KS"), Cards.encode("KH"));
+        Speculator speculator = speculator(kings);
+        speculator.onNewHand(HOLE);
+
+        EquityResult equity = speculator.equity(HOLE, BOARD, new GameState(), "hero", 1);
+
+        // Set of kings against our aces: two aces left among 44 river cards
+        assertThat(equity.equity).isEqualTo(2.0 / 44);
+    }
+
+    @Test
+    void warmsTheSameFallback() {
+        Speculator speculator = speculator(Range.of(HOLE[0], HOLE[1]));
+        speculator.onNewHand(HOLE);
+
+        EquityResult warmed = speculator.warmEquity(BOARD, new GameState(), "hero", 1).join();
+        EquityResult equity = speculator.equity(HOLE, BOARD, new GameState(), "hero", 1);
+
+        assertThat(warmed).isNull();
+        assertThat(equity.equity).isEqualTo(ExactEquity.enumerate(HOLE, BOARD, 1).equity);
+        assertThat(speculator.getEquityMisses()).isEqualTo(1);
+    }
+
+    /** A speculator whose one opponent always holds {@code range}. */
+    private Speculator speculator(Range range) {
+        OpponentRanges opponentRanges = new OpponentRanges(null, rangeEquity, new int[0]) {
+            @Override
+            public Range[] ranges(int[] board, GameState state, String myId) {
+                return new Range[] {range};
+            }
+        };
+        return new Speculator("Hero", Runnable::run, equityCalculator, null, opponentRanges);
+    }
+
+    @Test
+    void reusesTheRequestForTheMatchingSpotAndCancelsTheOthers() {
+        Speculator speculator = new Speculator("Hero", Runnable::run, equityCalculator, ai, null);
+        speculator.onNewHand(HOLE);
+        speculator.speculateAction(spot(0), null);
+        speculator.speculateAction(spot(40), null);
+        // Already pending for this spot
+        speculator.speculateAction(spot(0), null);
+        assertThat(ai.requests).hasSize(2);
+
+        // The same spot with the suits swapped and a call in the same bucket
+        GeminiContext actual = spot(0);
+        actual.playerHand = List.of(card("A", "C"), card("A", "D"));
+        actual.communityCards = List.of(card("K", "H"), card("7", "S"), card("2", "C"));
+        CompletableFuture<GeminiAction> taken = speculator.takeAction(actual);
+
+        assertThat(taken).isSameAs(ai.requests.get(0));
+        assertThat(ai.requests.get(1)).isCancelled();
+        assertThat(speculator.getActionHits()).isEqualTo(1);
+        assertThat(speculator.getActionMisses()).isZero();
+        assertThat(speculator.getActionsCancelled()).isEqualTo(1);
+        // Nothing left to take
+        assertThat(speculator.takeAction(actual)).isNull();
+        assertThat(speculator.getActionMisses()).isZero();
+    }
+
+    @Test
+    void missesWhenNothingMatchesOrTheMatchFailed() {
+        Speculator speculator = new Speculator("Hero", Runnable::run, equityCalculator, ai, null);
+        speculator.onNewHand(HOLE);
+        speculator.speculateAction(spot(0), null);
+
+        assertThat(speculator.takeAction(spot(400))).isNull();
+        assertThat(ai.requests.get(0)).isCancelled();
+
+        speculator.speculateAction(spot(0), null);
+        ai.requests.get(1).completeExceptionally(new IllegalStateException("HTTP 503"));
+        assertThat(speculator.takeAction(spot(0))).isNull();
+
+        assertThat(speculator.getActionHits()).isZero();
+        assertThat(speculator.getActionMisses()).isEqualTo(2);
+        assertThat(speculator.getActionsCancelled()).isEqualTo(1);
+    }
+
+    @Test
+    void asksWithTheWarmedEquityAndCancelsTheCallBehindIt() {
+        Speculator speculator = new Speculator("Hero", Runnable::run, equityCalculator, ai, null);
+        speculator.onNewHand(HOLE);
+        CompletableFuture<EquityResult> equity = new CompletableFuture<>();
+        GeminiContext predicted = spot(0);
+        speculator.speculateAction(predicted, equity);
+        assertThat(ai.requests).isEmpty();
+
+        EquityResult result = new EquityResult(0.75, 0.05, 0.775, 1000, false);
+        equity.complete(result);
+        assertThat(ai.requests).hasSize(1);
+        assertThat(predicted.equity).isSameAs(result);
+
+        // Our turn comes with another spot: the request and the HTTP call it made are cancelled
+        assertThat(speculator.takeAction(spot(400))).isNull();
+        assertThat(ai.requests.get(0)).isCancelled();
+        assertThat(speculator.getActionsCancelled()).isEqualTo(1);
+    }
+
+    @Test
+    void neverAsksForARequestCancelledBeforeItsEquity() {
+        Speculator speculator = new Speculator("Hero", Runnable::run, equityCalculator, ai, null);
+        speculator.onNewHand(HOLE);
+        CompletableFuture<EquityResult> equity = new CompletableFuture<>();
+        speculator.speculateAction(spot(0), equity);
+        CompletableFuture<EquityResult> failing = new CompletableFuture<>();
+        speculator.speculateAction(spot(40), failing);
+
+        // A failed equity still asks, without one
+        failing.completeExceptionally(new IllegalStateException("no samples"));
+        assertThat(ai.requests).hasSize(1);
+        assertThat(ai.contexts.get(0).equity).isNull();
+
+        speculator.onNewHand(HOLE);
+        equity.complete(new EquityResult(0.75, 0.05, 0.775, 1000, false));
+
+        assertThat(ai.requests).hasSize(1);
+        assertThat(ai.requests.get(0)).isCancelled();
+        assertThat(speculator.getActionsCancelled()).isEqualTo(2);
+    }
+
+    /** Our aces on a K-7-2 flop against one player, facing {@code toCall} into a pot of 100. */
+    private static GeminiContext spot(int toCall) {
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = "Hero";
+        ctx.playerHand = List.of(card("A", "S"), card("A", "H"));
+        ctx.communityCards = List.of(card("K", "D"), card("7", "C"), card("2", "S"));
+        ctx.pot = 100 + toCall;
+        ctx.amountToCall = toCall;
+        ctx.minimumRaiseAmount = 20;
+        ctx.activePlayers = new ArrayList<>();
+        ctx.activePlayers.add(player("Hero", 900));
+        ctx.activePlayers.add(player("Villain", 900 - toCall));
+        return ctx;
+    }
+
+    private static GeminiContext.PlayerInfo player(String name, int chips) {
+        GeminiContext.PlayerInfo p = new GeminiContext.PlayerInfo();
+        p.name = name;
+        p.chips = chips;
+        return p;
+    }
+
+    private static Card card(String rank, String suit) {
+        Card card = new Card();
+        card.rank = rank;
+        card.suit = suit;
+        return card;
+    }
+
+    /** Hands out a future per request that only the test completes. */
+    private static final class StubAi extends GeminiAiService {
+        final List<GeminiContext> contexts = new ArrayList<>();
+        final List<CompletableFuture<GeminiAction>> requests = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<GeminiAction> getBotActionAsync(GeminiContext ctx) {
+            CompletableFuture<GeminiAction> request = new CompletableFuture<>();
+            contexts.add(ctx);
+            requests.add(request);
+            return request;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+
+/** {@link TableMailbox} on an executor that runs its tasks only when the test says so. */
+class TableMailboxTest {
+    private static final String HAND = "{\"type\":\"player_hand\",\"payload\":[]}";
+    private static final String ERROR = "{\"type\":\"error\",\"message\":\"Not your turn\"}";
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final List<String> handled = new ArrayList<>();
+
+    @Test
+    void keepsOnlyTheLatestOfABurstOfStates() {
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> handled.add(text));
+
+        mailbox.offer(state(1));
+        mailbox.offer(state(2));
+        mailbox.offer(state(3));
+
+        assertThat(executor.pending()).isEqualTo(1);
+        executor.runAll();
+        assertThat(handled).containsExactly(state(3));
+        assertThat(mailbox.getReceived()).isEqualTo(3);
+        assertThat(mailbox.getCoalesced()).isEqualTo(2);
+        assertThat(mailbox.getProcessed()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyReplacesAStateDirectlyBehindAState() {
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> handled.add(text));
+
+        mailbox.offer(state(1));
+        mailbox.offer(HAND);
+        mailbox.offer(state(2));
+        mailbox.offer(ERROR);
+        mailbox.offer(state(3));
+        mailbox.offer(state(4));
+
+        executor.runAll();
+        // The hand and the error are never dropped, and nothing moves across them
+        assertThat(handled).containsExactly(state(1), HAND, state(2), ERROR, state(4));
+        assertThat(mailbox.getCoalesced()).isEqualTo(1);
+    }
+
+    @Test
+    void neverCoalescesOtherMessages() {
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> handled.add(text));
+
+        mailbox.offer(HAND);
+        mailbox.offer(HAND);
+        mailbox.offer(ERROR);
+        mailbox.offer(ERROR);
+
+        executor.runAll();
+        assertThat(handled).containsExactly(HAND, HAND, ERROR, ERROR);
+        assertThat(mailbox.getCoalesced()).isZero();
+    }
+
+    @Test
+    void doesNotReplaceAStateAlreadyTakenFromTheQueue() {
+        List<TableMailbox> self = new ArrayList<>();
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> {
+            handled.add(text);
+            if (text.equals(state(1))) {
+                // Arrive while state 1 is being handled: the queue is empty again
+                self.get(0).offer(state(2));
+                self.get(0).offer(state(3));
+            }
+        });
+        self.add(mailbox);
+
+        mailbox.offer(state(1));
+        executor.runAll();
+
+        assertThat(handled).containsExactly(state(1), state(3));
+        assertThat(mailbox.getCoalesced()).isEqualTo(1);
+        assertThat(executor.pending()).isZero();
+    }
+
+    @Test
+    void schedulesAgainOnceDrained() {
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> handled.add(text));
+
+        mailbox.offer(state(1));
+        executor.runAll();
+        mailbox.offer(HAND);
+        mailbox.offer(state(2));
+
+        assertThat(executor.pending()).isEqualTo(1);
+        executor.runAll();
+        assertThat(handled).containsExactly(state(1), HAND, state(2));
+    }
+
+    @Test
+    void keepsDrainingWhenTheHandlerThrows() {
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> {
+            handled.add(text);
+            if (text.equals(HAND)) throw new IllegalStateException("test");
+        });
+
+        mailbox.offer(HAND);
+        mailbox.offer(state(1));
+
+        executor.runAll();
+        assertThat(handled).containsExactly(HAND, state(1));
+        assertThat(mailbox.getProcessed()).isEqualTo(2);
+    }
+
+    @Test
+    void passesTheArrivalTimeOfTheMessageHandled() {
+        List<Long> arrivals = new ArrayList<>();
+        TableMailbox mailbox = new TableMailbox(executor, (text, arrived) -> arrivals.add(arrived));
+
+        mailbox.offer(state(1));
+        long between = System.nanoTime();
+        mailbox.offer(state(2));
+        long after = System.nanoTime();
+
+        executor.runAll();
+        // The time of the state that replaced the first, not of the first
+        assertThat(arrivals).singleElement().satisfies(t -> assertThat(t).isBetween(between, after));
+    }
+
+    private static String state(int n) {
+        return TableMailbox.STATE_PREFIX + ",\"n\":" + n + "}";
+    }
+
+    private static final class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        int pending() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
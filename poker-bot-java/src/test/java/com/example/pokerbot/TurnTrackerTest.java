@@ -0,0 +1,242 @@
+package com.example.pokerbot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.stats.OpponentStats;
+import com.example.pokerbot.strategy.BlueprintStrategy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+/**
+ * Replays message sequences recorded from the server (one frame per line, as received by a
+ * player named "Hero") through a {@link PokerWebSocketClient}, from its socket listener through
+ * the mailbox and the tracker to the socket it sends on.
+ * <p>
+ * turns/three-hands.jsonl: hand 1 checks through to a showdown; in hand 2 our check is rejected
+ * (frame 42) and we are first to act on every street after the flop; hand 3 ends in a showdown
+ * with us still current (frame 105). turns/raised-back.jsonl: we call pre-flop and are raised
+ * back (frame 6) in the same round.
+ */
+class TurnTrackerTest {
+    private static final String ME = "Hero";
+
+    @Test
+    void actsOncePerPromptThroughARecordedSession() throws IOException {
+        Replay replay = new Replay().play(frames("turns/three-hands.jsonl"));
+
+        assertThat(replay.actions).containsExactly(
+            7, 13, 21, 29,
+            41, 42, 47, 54, 59, 65,
+            75, 87, 95, 103);
+    }
+
+    @Test
+    void ignoresTheAcknowledgementOfOurAction() throws IOException {
+        List<String> frames = frames("turns/three-hands.jsonl");
+        Replay replay = new Replay().play(frames.subList(0, 8));
+        assertThat(replay.actions).containsExactly(7);
+
+        // "Hero checked.", broadcast with us still current
+        replay.play(frames.subList(8, 9));
+        assertThat(replay.actions).containsExactly(7);
+        assertThat(replay.tracker.getState()).isEqualTo(TurnTracker.State.ACTED);
+
+        // The same acknowledgement once more
+        replay.play(frames.subList(8, 9));
+        assertThat(replay.actions).containsExactly(7);
+    }
+
+    @Test
+    void ignoresARepeatedPrompt() throws IOException {
+        List<String> frames = frames("turns/three-hands.jsonl");
+        List<String> repeated = new ArrayList<>(frames.subList(0, 8));
+        repeated.add(7, frames.get(7));
+
+        Replay replay = new Replay().play(repeated);
+
+        assertThat(replay.actions).containsExactly(7);
+        assertThat(replay.tracker.getDuplicates()).isEqualTo(1);
+    }
+
+    @Test
+    void actsAgainWhenRaisedBackWithTheStatesBetweenCoalesced() throws IOException {
+        List<String> frames = frames("turns/raised-back.jsonl");
+        assertThat(new Replay().play(frames).actions).startsWith(1, 7);
+
+        // Only the prompt survives from the acknowledgement of our call to the raise
+        List<String> coalesced = new ArrayList<>(frames);
+        coalesced.subList(3, 7).clear();
+        Replay replay = new Replay().play(coalesced);
+
+        assertThat(replay.actions).startsWith(1, 3);
+        assertThat(replay.actions).doesNotContain(2, 4);
+    }
+
+    @Test
+    void retriesARejectedActionOnce() throws IOException {
+        List<String> frames = frames("turns/three-hands.jsonl");
+        Replay replay = new Replay().play(frames.subList(38, 44));
+
+        // Prompt at 41, "You cannot check..." at 42, "Hero called 10." at 43
+        assertThat(replay.actions).containsExactly(3, 4);
+        assertThat(replay.sent).containsExactly(
+            "{\"type\":\"action\",\"payload\":{\"actionType\":\"check\"}}",
+            "{\"type\":\"action\",\"payload\":{\"actionType\":\"call\"}}");
+        assertThat(replay.tracker.getRetries()).isEqualTo(1);
+        assertThat(replay.tracker.getState()).isEqualTo(TurnTracker.State.ACTED);
+    }
+
+    @Test
+    void ignoresNotYourTurnErrors() throws IOException {
+        List<String> frames = frames("turns/three-hands.jsonl");
+        List<String> withError = new ArrayList<>(frames.subList(0, 8));
+        withError.add("{\"type\":\"error\",\"payload\":\"It is not your turn.\"}");
+
+        Replay replay = new Replay().play(withError);
+
+        assertThat(replay.actions).containsExactly(7);
+    }
+
+    @Test
+    void waitsForThePromptAfterTheNextStreetIsDealt() throws IOException {
+        List<String> frames = frames("turns/three-hands.jsonl");
+
+        // Frame 9 deals the flop with us current and "Hero checked." from the pre-flop round
+        Replay replay = new Replay().play(frames.subList(0, 10));
+        assertThat(replay.actions).containsExactly(7);
+        assertThat(replay.tracker.getState()).isEqualTo(TurnTracker.State.WAITING);
+
+        // Frames 47 and 48 announce the flop and prompt us with the table unchanged
+        replay = new Replay().play(frames.subList(38, 50));
+        assertThat(replay.actions).containsExactly(3, 4, 9);
+        assertThat(replay.tracker.getState()).isEqualTo(TurnTracker.State.ACTED);
+    }
+
+    @Test
+    void startsOverOnANewHand() throws IOException {
+        List<String> frames = frames("turns/three-hands.jsonl");
+        Replay replay = new Replay().play(frames.subList(0, 38));
+        assertThat(replay.tracker.getState()).isEqualTo(TurnTracker.State.WAITING);
+
+        replay.play(frames.subList(38, 42));
+
+        assertThat(replay.actions).endsWith(29, 41);
+    }
+
+    @Test
+    void doesNotActAtTheShowdown() throws IOException {
+        List<String> frames = frames("turns/three-hands.jsonl");
+        Replay replay = new Replay().play(frames.subList(0, 105));
+        assertThat(replay.actions).endsWith(103);
+
+        // "All cards revealed!" with us still current after checking the river
+        replay.play(frames.subList(105, 110));
+
+        assertThat(replay.actions).endsWith(103);
+        assertThat(replay.tracker.getState()).isEqualTo(TurnTracker.State.WAITING);
+    }
+
+    private static List<String> frames(String resource) throws IOException {
+        try (InputStream in = TurnTrackerTest.class.getClassLoader().getResourceAsStream(resource)) {
+            assertThat(in).as(resource).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+
+    /**
+     * A {@link PokerWebSocketClient} connected to a fake socket, with a blueprint that always checks:
+     * which frames it acted on and what it sent, counted across play calls. Frames are handled
+     * on the calling thread, so an action is attributed to the frame that caused it.
+     */
+    private static class Replay {
+        final List<Integer> actions = new ArrayList<>();
+        final List<String> sent = new ArrayList<>();
+        final PokerWebSocketClient client;
+        final TurnTracker tracker;
+        WebSocketListener listener;
+        final WebSocket socket = new FakeWebSocket();
+        int frame;
+
+        Replay() {
+            OkHttpClient http = new OkHttpClient() {
+                @Override
+                public WebSocket newWebSocket(Request request, WebSocketListener webSocketListener) {
+                    listener = webSocketListener;
+                    return socket;
+                }
+            };
+            BlueprintStrategy checker = new BlueprintStrategy(null, null) {
+                @Override
+                public GeminiAction decide(GameState state, String myId, long hole) {
+                    GeminiAction action = new GeminiAction();
+                    action.actionType = "check";
+                    action.reasoning = "Replay checks";
+                    return action;
+                }
+            };
+            // No AI, speculation or ICM: the blueprint decides alone
+            PokerWebSocketClient.Settings settings = new PokerWebSocketClient.Settings(0, 0, false, false, null);
+            client = new PokerWebSocketClient(ME, "ws://replay", http, Runnable::run, settings, null, null,
+                null, new OpponentStats(), null, checker, new DecisionMetrics(new SimpleMeterRegistry()));
+            client.connect();
+            tracker = (TurnTracker) ReflectionTestUtils.getField(client, "turnTracker");
+        }
+
+        Replay play(List<String> frames) {
+            for (String text : frames) {
+                listener.onMessage(socket, text);
+                frame++;
+            }
+            return this;
+        }
+
+        private class FakeWebSocket implements WebSocket {
+            @Override
+            public Request request() {
+                return new Request.Builder().url("http://replay/").build();
+            }
+
+            @Override
+            public long queueSize() {
+                return 0;
+            }
+
+            @Override
+            public boolean send(String text) {
+                actions.add(frame);
+                sent.add(text);
+                return true;
+            }
+
+            @Override
+            public boolean send(ByteString bytes) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean close(int code, String reason) {
+                return true;
+            }
+
+            @Override
+            public void cancel() {
+            }
+        }
+    }
+}
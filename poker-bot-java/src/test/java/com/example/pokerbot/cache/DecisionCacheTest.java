@@ -0,0 +1,135 @@
+package com.example.pokerbot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+
+class DecisionCacheTest {
+    private static final String HERO = "Hero";
+
+    @TempDir
+    Path dir;
+
+    private DecisionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DecisionCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 720L);
+        ReflectionTestUtils.setField(cache, "snapshotPath", "");
+        cache.init();
+    }
+
+    @Test
+    void keepsALegalCachedRaise() {
+        GeminiContext ctx = context(40, 20, 1000);
+        cache.put(ctx, HERO, raise(150)); // 1.5 pots
+
+        assertThat(cache.get(ctx, HERO).amount).isEqualTo(150);
+    }
+
+    @Test
+    void raisesAtLeastAMinimumRaiseOverTheBetLevel() {
+        GeminiContext ctx = context(40, 40, 1000);
+        cache.put(ctx, HERO, raise(20)); // a fifth of the pot, below any legal raise
+
+        GeminiAction hit = cache.get(ctx, HERO);
+
+        assertThat(hit.actionType).isEqualTo("raise");
+        assertThat(hit.amount).isEqualTo(80);
+    }
+
+    @Test
+    void raisesAtMostOurStack() {
+        GeminiContext ctx = context(20, 20, 300);
+        cache.put(ctx, HERO, raise(500));
+
+        assertThat(cache.get(ctx, HERO).amount).isEqualTo(310); // 10 in already plus 300 behind
+    }
+
+    @Test
+    void goesAllInWhenTheStackIsBelowAMinimumRaise() {
+        assertThat(DecisionCache.raiseTo(context(100, 100, 50), HERO, 400)).isEqualTo(60);
+    }
+
+    @Test
+    void savesTheCacheOnItsScheduleWithoutAShutdown() throws InterruptedException {
+        Path snapshot = dir.resolve("cache.json");
+        DecisionCache saving = cache(snapshot, 1);
+        GeminiContext ctx = context(40, 20, 1000);
+        saving.put(ctx, HERO, raise(150));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Files.exists(snapshot) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        // Read back as a restart after a crash would, before saving's shutdown hook ever ran
+        DecisionCache restored = cache(snapshot, 0);
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.get(ctx, HERO).amount).isEqualTo(150);
+        saving.snapshot();
+    }
+
+    private static DecisionCache cache(Path snapshot, long snapshotSeconds) {
+        DecisionCache cache = new DecisionCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 720L);
+        ReflectionTestUtils.setField(cache, "snapshotPath", snapshot.toString());
+        ReflectionTestUtils.setField(cache, "snapshotSeconds", snapshotSeconds);
+        cache.init();
+        return cache;
+    }
+
+    /** Pot 100, bet level {@code toCall}; we have 10 in and {@code chips} behind. */
+    private static GeminiContext context(int toCall, int minRaise, int chips) {
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = HERO;
+        ctx.playerHand = List.of(card("A", "S"), card("K", "S"));
+        ctx.communityCards = List.of(card("2", "H"), card("7", "D"), card("J", "C"));
+        ctx.bettingRound = "flop";
+        ctx.pot = 100;
+        ctx.amountToCall = toCall;
+        ctx.minimumRaiseAmount = minRaise;
+        ctx.activePlayers = new ArrayList<>();
+        ctx.activePlayers.add(player(HERO, chips, 10));
+        ctx.activePlayers.add(player("Villain", 1000, toCall));
+        return ctx;
+    }
+
+    private static GeminiContext.PlayerInfo player(String name, int chips, int bet) {
+        GeminiContext.PlayerInfo p = new GeminiContext.PlayerInfo();
+        p.name = name;
+        p.chips = chips;
+        p.currentBet = bet;
+        return p;
+    }
+
+    private static Card card(String rank, String suit) {
+        Card card = new Card();
+        card.rank = rank;
+        card.suit = suit;
+        return card;
+    }
+
+    private static GeminiAction raise(int amount) {
+        GeminiAction action = new GeminiAction();
+        action.actionType = "raise";
+        action.amount = amount;
+        action.reasoning = "test";
+        return action;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.pokerbot.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GameState;
+
+/**
+ * codec/session.jsonl is a whole recorded session (one frame per line, as received by a player
+ * named "Hero"): states, hands, info and one error. The decoder has to read every frame the way
+ * data binding does.
+ */
+class MessageDecoderTest {
+    // Frames a broken or unusual sender could produce, sent between the recorded ones
+    private static final String[] JUNK = {
+        "",
+        "   ",
+        "{\"type\":\"state\",\"payload\":{\"pot\":",
+        "[1,2]",
+        "{\"type\":\"info\",\"payload\":\"padded\"}  \n",
+        "\"str\"",
+        "{\"payload\":\"late\",\"type\":\"error\"}",
+        "{\"type\":\"state\",\"payload\":{\"pot\":5}}",
+    };
+
+    private final ObjectMapper objectMapper =
+        new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void decodesEveryRecordedFrameLikeDataBinding() throws IOException {
+        MessageDecoder decoder = new MessageDecoder(objectMapper);
+        List<String> frames = frames();
+        assertThat(frames).hasSize(276);
+
+        for (int i = 0; i < frames.size(); i++) {
+            assertDecodesLikeDataBinding(decoder, frames.get(i), "frame " + i);
+        }
+    }
+
+    @Test
+    void decodesEveryRecordedFrameBetweenJunk() throws IOException {
+        MessageDecoder decoder = new MessageDecoder(objectMapper);
+        List<String> frames = frames();
+
+        for (int i = 0; i < frames.size(); i++) {
+            String junk = JUNK[i % JUNK.length];
+            // Junk may be rejected, but must not spoil the frame after it
+            catchThrowable(() -> decoder.decode(junk));
+            assertDecodesLikeDataBinding(decoder, frames.get(i), "frame " + i + " after \"" + junk + "\"");
+        }
+    }
+
+    @Test
+    void keepsUnchangedStringsAcrossStates() throws IOException {
+        MessageDecoder decoder = new MessageDecoder(objectMapper);
+        String frame = turnFrame();
+
+        assertThat(decoder.decode(frame)).isEqualTo(MessageDecoder.Type.STATE);
+        GameState state = decoder.getState();
+        String message = state.message;
+        String currentPlayerId = state.currentPlayerId;
+        String firstId = state.players.get(0).id;
+        decoder.decode(new String(frame.toCharArray()));
+
+        assertThat(state.message).isNotNull().isSameAs(message);
+        assertThat(state.currentPlayerId).isNotNull().isSameAs(currentPlayerId);
+        assertThat(state.players.get(0).id).isSameAs(firstId);
+    }
+
+    @Test
+    void clearsStringsMissingFromTheNextState() throws IOException {
+        MessageDecoder decoder = new MessageDecoder(objectMapper);
+        decoder.decode(turnFrame());
+
+        decoder.decode("{\"type\":\"state\",\"payload\":{\"pot\":5}}");
+
+        GameState state = decoder.getState();
+        assertThat(state.pot).isEqualTo(5);
+        assertThat(state.message).isNull();
+        assertThat(state.currentPlayerId).isNull();
+        assertThat(state.gamePhase).isNull();
+        assertThat(state.currentBettingRound).isNull();
+        assertThat(state.players).isEmpty();
+    }
+
+    private void assertDecodesLikeDataBinding(MessageDecoder decoder, String frame, String description) throws IOException {
+        JsonNode root = objectMapper.readTree(frame);
+        JsonNode payload = root.get("payload");
+        MessageDecoder.Type type = decoder.decode(frame);
+        switch (root.get("type").asText()) {
+            case "state" -> {
+                assertThat(type).as(description).isEqualTo(MessageDecoder.Type.STATE);
+                GameState expected = objectMapper.treeToValue(payload, GameState.class);
+                assertThat((JsonNode) objectMapper.valueToTree(decoder.getState()))
+                    .as(description).isEqualTo(objectMapper.valueToTree(expected));
+            }
+            case "player_hand" -> {
+                assertThat(type).as(description).isEqualTo(MessageDecoder.Type.PLAYER_HAND);
+                Card[] expected = objectMapper.treeToValue(payload, Card[].class);
+                assertThat((JsonNode) objectMapper.valueToTree(Arrays.asList(decoder.getHand())))
+                    .as(description).isEqualTo(objectMapper.valueToTree(Arrays.asList(expected)));
+            }
+            case "info", "error" -> {
+                assertThat(type).as(description)
+                    .isEqualTo("info".equals(root.get("type").asText()) ? MessageDecoder.Type.INFO : MessageDecoder.Type.ERROR);
+                assertThat(decoder.getText()).as(description).isEqualTo(payload.asText());
+            }
+            default -> throw new AssertionError("Unexpected frame type in " + description);
+        }
+    }
+
+    /** The first state with a current player and a message. */
+    private static String turnFrame() throws IOException {
+        return frames().stream()
+            .filter(f -> f.contains("\"currentPlayerId\":\"") && f.contains("\"message\":\""))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static List<String> frames() throws IOException {
+        try (InputStream in = MessageDecoderTest.class.getClassLoader().getResourceAsStream("codec/session.jsonl")) {
+            assertThat(in).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.pokerbot.eval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ExactEquity#enumerate} against a brute-force walk over every runout and every pair of
+ * opponent hands, and against a long Monte Carlo run where brute force is too slow.
+ */
+class ExactEquityTest {
+    private static final double EXACT = 1e-12;
+
+    @Test
+    void matchesBruteForceHeadsUpOnTheRiver() {
+        assertMatchesBruteForce("AS KD", "QH JH 7C 4D 2S", 1);
+        // The board plays: most opponent hands split
+        assertMatchesBruteForce("2C 3D", "AS KS QS JS TS", 1);
+    }
+
+    @Test
+    void matchesBruteForceHeadsUpOnTheTurn() {
+        assertMatchesBruteForce("9H 8H", "7H 6C KH 2D", 1);
+        assertMatchesBruteForce("QC QD", "QS 5H 5D 9C", 1);
+    }
+
+    @Test
+    void matchesBruteForceThreeWayOnTheRiver() {
+        assertMatchesBruteForce("AS KD", "QH JH 7C 4D 2S", 2);
+        assertMatchesBruteForce("7C 2D", "AS AD KC KH QS", 2);
+    }
+
+    @Test
+    void matchesBruteForceThreeWayOnTheTurn() {
+        assertMatchesBruteForce("JC TC", "9C 8D 2H 2S", 2);
+        assertMatchesBruteForce("AH AD", "KS 8S 3S 3C", 2);
+    }
+
+    @Test
+    void matchesMonteCarloOnTheFlop() {
+        MonteCarloEquity monteCarlo = new MonteCarloEquity(ForkJoinPool.commonPool(), new SplittableRandom(3));
+        for (int opponents = 1; opponents <= 2; opponents++) {
+            int[] hole = cards("AH QH");
+            int[] board = cards("JH 7H 2C");
+
+            EquityResult exact = ExactEquity.enumerate(hole, board, opponents);
+            EquityResult sampled = monteCarlo.estimate(hole, board, opponents, 2_000_000, 0);
+
+            assertThat(exact.exact).isTrue();
+            assertThat(exact.equity).as("equity, %d opponents", opponents).isCloseTo(sampled.equity, within(0.003));
+            assertThat(exact.win).as("win, %d opponents", opponents).isCloseTo(sampled.win, within(0.003));
+            assertThat(exact.tie).as("tie, %d opponents", opponents).isCloseTo(sampled.tie, within(0.003));
+        }
+    }
+
+    private static void assertMatchesBruteForce(String hole, String board, int opponents) {
+        EquityResult expected = bruteForce(cards(hole), cards(board), opponents);
+        EquityResult actual = ExactEquity.enumerate(cards(hole), cards(board), opponents);
+
+        String spot = hole + " on " + board + " against " + opponents;
+        assertThat(actual.win).as("win, %s", spot).isCloseTo(expected.win, within(EXACT));
+        assertThat(actual.tie).as("tie, %s", spot).isCloseTo(expected.tie, within(EXACT));
+        assertThat(actual.equity).as("equity, %s", spot).isCloseTo(expected.equity, within(EXACT));
+    }
+
+    /** Every runout, then every unordered set of one or two disjoint opponent hands. */
+    private static EquityResult bruteForce(int[] hole, int[] board, int opponents) {
+        long dead = Cards.mask(hole) | Cards.mask(board);
+        int[] live = new int[Cards.DECK_SIZE - Long.bitCount(dead)];
+        int n = 0;
+        for (int card = 0; card < Cards.DECK_SIZE; card++) {
+            if ((dead & Cards.bit(card)) == 0) live[n++] = card;
+        }
+        long boardMask = Cards.mask(board);
+        Tally tally = new Tally();
+        if (board.length == 5) {
+            showdown(Cards.mask(hole), boardMask, live, opponents, tally);
+        } else {
+            for (int i = 0; i < live.length; i++) {
+                long turn = boardMask | Cards.bit(live[i]);
+                if (board.length == 4) {
+                    showdown(Cards.mask(hole), turn, live, opponents, tally);
+                    continue;
+                }
+                for (int j = i + 1; j < live.length; j++) {
+                    showdown(Cards.mask(hole), turn | Cards.bit(live[j]), live, opponents, tally);
+                }
+            }
+        }
+        return new EquityResult(tally.wins / tally.total, tally.ties / tally.total, tally.share / tally.total,
+            (long) tally.total, true);
+    }
+
+    private static void showdown(long hole, long board, int[] live, int opponents, Tally tally) {
+        int hero = HandEvaluator.evaluate(hole | board);
+        int size = 0;
+        long[] hands = new long[live.length * live.length / 2];
+        int[] values = new int[hands.length];
+        for (int i = 0; i < live.length; i++) {
+            if ((board & Cards.bit(live[i])) != 0) continue;
+            for (int j = i + 1; j < live.length; j++) {
+                if ((board & Cards.bit(live[j])) != 0) continue;
+                hands[size] = Cards.bit(live[i]) | Cards.bit(live[j]);
+                values[size] = HandEvaluator.evaluate(board | hands[size]);
+                size++;
+            }
+        }
+        for (int a = 0; a < size; a++) {
+            if (opponents == 1) {
+                tally.add(hero, values[a]);
+                continue;
+            }
+            for (int b = a + 1; b < size; b++) {
+                if ((hands[a] & hands[b]) != 0) continue;
+                tally.add(hero, values[a], values[b]);
+            }
+        }
+    }
+
+    private static final class Tally {
+        double total;
+        double wins;
+        double ties;
+        double share;
+
+        void add(int hero, int... opponents) {
+            total++;
+            int tied = 0;
+            for (int value : opponents) {
+                if (value > hero) return;
+                if (value == hero) tied++;
+            }
+            if (tied == 0) wins++;
+            else ties++;
+            share += 1.0 / (tied + 1);
+        }
+    }
+
+    private static int[] cards(String text) {
+        String[] parts = text.split(" ");
+        int[] cards = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            cards[i] = Cards.encode(parts[i]);
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.pokerbot.eval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Categories and ordering at the boundaries where the server's HandEvaluator.ts decides
+ * differently from a naive count of ranks and suits.
+ */
+class HandEvaluatorTest {
+
+    @Test
+    void wheelIsAFiveHighStraight() {
+        int wheel = evaluate("AS 2D 3C 4H 5S 9D KC");
+
+        assertThat(HandEvaluator.category(wheel)).isEqualTo(HandCategory.STRAIGHT);
+        assertThat(wheel).isLessThan(evaluate("2D 3C 4H 5S 6S 9D KC"));
+        assertThat(wheel).isGreaterThan(evaluate("AS AD 3C 3H 5S 5D KC"));
+    }
+
+    @Test
+    void wheelInOneSuitIsTheLowestStraightFlush() {
+        int steelWheel = evaluate("AH 2H 3H 4H 5H KD KC");
+
+        assertThat(HandEvaluator.category(steelWheel)).isEqualTo(HandCategory.STRAIGHT_FLUSH);
+        assertThat(steelWheel).isLessThan(evaluate("2H 3H 4H 5H 6H KD KC"));
+    }
+
+    @Test
+    void royalFlushIsItsOwnCategoryAboveStraightFlushes() {
+        int royal = evaluate("TS JS QS KS AS 2D 3C");
+        int kingHigh = evaluate("9S TS JS QS KS 2D 3C");
+
+        assertThat(HandEvaluator.category(royal)).isEqualTo(HandCategory.ROYAL_FLUSH);
+        assertThat(HandEvaluator.category(kingHigh)).isEqualTo(HandCategory.STRAIGHT_FLUSH);
+        assertThat(royal).isGreaterThan(kingHigh);
+        // Broadway in mixed suits next to a flush is only a flush
+        assertThat(HandEvaluator.category(evaluate("TS JS QS KS AD 2S 3C"))).isEqualTo(HandCategory.FLUSH);
+    }
+
+    @Test
+    void twoTripsMakeAFullHouseWithTheHigherAsTrips() {
+        int value = evaluate("8S 8D 8C 5H 5S 5D KC");
+
+        assertThat(HandEvaluator.category(value)).isEqualTo(HandCategory.FULL_HOUSE);
+        assertThat(value).isEqualTo(evaluate("8S 8D 8C 5H 5S 2D KC"));
+        assertThat(value).isGreaterThan(evaluate("5S 5D 5C 8H 8S 2D KC"));
+        // Trips over the higher of two pairs
+        assertThat(evaluate("8S 8D 8C 5H 5S KD KC")).isGreaterThan(value);
+    }
+
+    @Test
+    void threePairsPlayTheTopTwoWithTheBestKicker() {
+        int value = evaluate("9S 9D 6C 6H 4S 4D 2C");
+
+        assertThat(HandEvaluator.category(value)).isEqualTo(HandCategory.TWO_PAIR);
+        // The third pair can be the kicker
+        assertThat(value).isEqualTo(evaluate("9S 9D 6C 6H 4S 3D 2C"));
+        assertThat(value).isGreaterThan(evaluate("9S 9D 6C 6H 3S 2D 2C"));
+        assertThat(value).isLessThan(evaluate("9S 9D 6C 6H 4S 4D 5C"));
+    }
+
+    @Test
+    void flushBeatsStraightAndFullHouseBeatsFlush() {
+        int straight = evaluate("5C 6D 7H 8S 9S 2S KS");
+        int flush = evaluate("5C 6S 7H 8S 9S 2S KS");
+        int fullHouse = evaluate("9C 9S 9H 8S 8D 2S KS");
+
+        assertThat(HandEvaluator.category(straight)).isEqualTo(HandCategory.STRAIGHT);
+        assertThat(HandEvaluator.category(flush)).isEqualTo(HandCategory.FLUSH);
+        assertThat(HandEvaluator.category(fullHouse)).isEqualTo(HandCategory.FULL_HOUSE);
+        assertThat(straight).isLessThan(flush);
+        assertThat(flush).isLessThan(fullHouse);
+        assertThat(HandEvaluator.category(evaluate("9C 9S 9H 9D 8D 2S KS"))).isEqualTo(HandCategory.FOUR_OF_A_KIND);
+    }
+
+    @Test
+    void kickersDecideWithinACategory() {
+        // High card: the fifth card counts, the sixth and seventh do not
+        assertThat(evaluate("AS QD 9C 7H 5S 3D 2C")).isGreaterThan(evaluate("AS QD 9C 7H 4S 3D 2C"));
+        assertThat(evaluate("AS QD 9C 7H 5S 4D 2C")).isEqualTo(evaluate("AS QD 9C 7H 5S 3D 2C"));
+        // Pair: three kickers
+        assertThat(evaluate("KS KD AC 9H 6S 3D 2C")).isGreaterThan(evaluate("KS KD AC 9H 5S 3D 2C"));
+        assertThat(evaluate("KS KD AC 9H 6S 4D 2C")).isEqualTo(evaluate("KS KD AC 9H 6S 3D 2C"));
+        // Trips: two kickers
+        assertThat(evaluate("7S 7D 7C KH 9S 3D 2C")).isGreaterThan(evaluate("7S 7D 7C KH 8S 3D 2C"));
+        assertThat(evaluate("7S 7D 7C KH 9S 4D 2C")).isEqualTo(evaluate("7S 7D 7C KH 9S 3D 2C"));
+        // Quads: one kicker, even when it is paired
+        assertThat(evaluate("4S 4D 4C 4H QS QD 2C")).isEqualTo(evaluate("4S 4D 4C 4H QS 3D 2C"));
+        assertThat(evaluate("4S 4D 4C 4H QS 3D 2C")).isLessThan(evaluate("4S 4D 4C 4H KS 3D 2C"));
+        // Flush: all five flush cards, not the off-suit ones
+        assertThat(evaluate("AH JH 9H 6H 4H 3H KD")).isGreaterThan(evaluate("AH JH 9H 6H 3H 2H KD"));
+        // Straight: only the top card counts
+        assertThat(evaluate("5C 6D 7H 8S 9S TD AC")).isEqualTo(evaluate("6D 7H 8S 9S TD 2C 3C"));
+    }
+
+    @Test
+    void sevenCardsRankAsTheBestFiveOfThem() {
+        Random random = new Random(17);
+        for (int n = 0; n < 20_000; n++) {
+            int[] cards = new int[7];
+            long used = 0;
+            for (int i = 0; i < 7; i++) {
+                int card;
+                do {
+                    card = random.nextInt(Cards.DECK_SIZE);
+                } while ((used & 1L << card) != 0);
+                used |= 1L << card;
+                cards[i] = card;
+            }
+            int best = Integer.MIN_VALUE;
+            for (int skipA = 0; skipA < 7; skipA++) {
+                for (int skipB = skipA + 1; skipB < 7; skipB++) {
+                    best = Math.max(best, HandEvaluator.evaluate(used & ~(1L << cards[skipA]) & ~(1L << cards[skipB])));
+                }
+            }
+            assertThat(HandEvaluator.evaluate(used)).as("%s", Long.toHexString(used)).isEqualTo(best);
+        }
+    }
+
+    private static int evaluate(String cards) {
+        long mask = 0;
+        for (String card : cards.split(" ")) {
+            mask |= Cards.bit(Cards.encode(card));
+        }
+        return HandEvaluator.evaluate(mask);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.pokerbot.eval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** The bundled {@link PreflopTable}, its header checks and the {@link StartingHand} index it is laid out by. */
+class PreflopTableTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexesEveryPairOfCardsIntoItsClass() {
+        BitSet seen = new BitSet(StartingHand.CLASSES);
+        for (int a = 0; a < Cards.DECK_SIZE; a++) {
+            for (int b = a + 1; b < Cards.DECK_SIZE; b++) {
+                int index = StartingHand.index(a, b);
+                assertThat(StartingHand.index(b, a)).isEqualTo(index);
+                String name = StartingHand.name(index);
+                int high = Math.max(Cards.rank(a), Cards.rank(b));
+                int low = Math.min(Cards.rank(a), Cards.rank(b));
+                String ranks = "" + Cards.rankChar(high) + Cards.rankChar(low);
+                if (high == low) assertThat(name).isEqualTo(ranks);
+                else if (Cards.suit(a) == Cards.suit(b)) assertThat(name).isEqualTo(ranks + "s");
+                else assertThat(name).isEqualTo(ranks + "o");
+                seen.set(index);
+            }
+        }
+        assertThat(seen.cardinality()).isEqualTo(StartingHand.CLASSES);
+
+        for (int index = 0; index < StartingHand.CLASSES; index++) {
+            int[] hand = StartingHand.representative(index);
+            assertThat(hand[0]).isNotEqualTo(hand[1]);
+            assertThat(StartingHand.index(hand[0], hand[1])).as(StartingHand.name(index)).isEqualTo(index);
+        }
+    }
+
+    @Test
+    void rejectsAForeignOrTruncatedHeader() throws IOException {
+        byte[] bundled = bundled();
+        assertThat(bundled.length).isGreaterThanOrEqualTo(PreflopTable.HEADER_BYTES);
+
+        assertRejected(patch(bundled, 0, 0x12345678), "Not a preflop equity table");
+        assertRejected(patchShort(bundled, 4, (short) (PreflopTable.VERSION + 1)), "Not a preflop equity table");
+        assertRejected(patchShort(bundled, 6, (short) (StartingHand.CLASSES - 1)), "Not a preflop equity table");
+        byte[] truncated = new byte[bundled.length - 1];
+        System.arraycopy(bundled, 0, truncated, 0, truncated.length);
+        assertRejected(truncated, "Truncated preflop equity table");
+        // A header claiming more opponents than the entries hold
+        assertRejected(patchShort(bundled, 8, (short) (new PreflopTable(ByteBuffer.wrap(bundled)).getMaxOpponents() + 1)),
+            "Truncated preflop equity table");
+    }
+
+    @Test
+    void mapsTheTableOutOfAJar() throws IOException {
+        Path jar = dir.resolve("tables.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry(PreflopTable.RESOURCE));
+            out.write(bundled());
+            out.closeEntry();
+        }
+
+        PreflopTable fromFile = PreflopTable.mapResource();
+        PreflopTable fromJar;
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, null)) {
+            assertThat(loader.getResource(PreflopTable.RESOURCE).getProtocol()).isEqualTo("jar");
+            fromJar = PreflopTable.mapResource(loader);
+        }
+
+        assertThat(fromJar.getMaxOpponents()).isEqualTo(fromFile.getMaxOpponents());
+        for (int index = 0; index < StartingHand.CLASSES; index++) {
+            int[] hand = StartingHand.representative(index);
+            for (int opponents = 1; opponents <= fromFile.getMaxOpponents(); opponents++) {
+                assertThat(fromJar.lookup(hand[0], hand[1], opponents).equity)
+                    .isEqualTo(fromFile.lookup(hand[0], hand[1], opponents).equity);
+            }
+        }
+    }
+
+    @Test
+    void rejectsOpponentCountsOutsideTheTable() throws IOException {
+        PreflopTable table = PreflopTable.mapResource();
+        int[] aces = cards("AS AH");
+
+        assertThat(table.covers(0)).isFalse();
+        assertThat(table.covers(table.getMaxOpponents() + 1)).isFalse();
+        assertThatThrownBy(() -> table.lookup(aces[0], aces[1], table.getMaxOpponents() + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void agreesWithMonteCarloOnAFewHands() throws IOException {
+        PreflopTable table = PreflopTable.mapResource();
+        MonteCarloEquity monteCarlo = new MonteCarloEquity(ForkJoinPool.commonPool(), new SplittableRandom(4));
+        String[] hands = { "AS AH", "KS QS", "7C 2D", "5H 5D", "JD TC" };
+        int[] opponentCounts = { 1, 3, table.getMaxOpponents() };
+
+        for (String text : hands) {
+            int[] hole = cards(text);
+            for (int opponents : opponentCounts) {
+                EquityResult stored = table.lookup(hole[0], hole[1], opponents);
+                EquityResult sampled = monteCarlo.estimate(hole, new int[0], opponents, 200_000, 0);
+                String spot = text + " against " + opponents;
+                assertThat(stored.equity).as("equity, %s", spot).isCloseTo(sampled.equity, within(0.01));
+                assertThat(stored.win).as("win, %s", spot).isCloseTo(sampled.win, within(0.01));
+                assertThat(stored.tie).as("tie, %s", spot).isCloseTo(sampled.tie, within(0.01));
+            }
+        }
+        // Any suit combination of the class reads the same entry
+        int[] aces = cards("AS AH");
+        int[] otherAces = cards("AC AD");
+        assertThat(table.lookup(otherAces[0], otherAces[1], 1).equity).isEqualTo(table.lookup(aces[0], aces[1], 1).equity);
+    }
+
+    @Test
+    void ranksAcesFirstAndTreyDeuceOffsuitLast() throws IOException {
+        int[] ranking = PreflopTable.mapResource().ranking();
+
+        assertThat(StartingHand.name(ranking[0])).isEqualTo("AA");
+        assertThat(StartingHand.name(ranking[ranking.length - 1])).isEqualTo("32o");
+    }
+
+    private static void assertRejected(byte[] bytes, String message) {
+        assertThatThrownBy(() -> new PreflopTable(ByteBuffer.wrap(bytes)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage(message);
+    }
+
+    private static byte[] bundled() throws IOException {
+        try (InputStream in = PreflopTable.class.getClassLoader().getResourceAsStream(PreflopTable.RESOURCE)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] patch(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        return copy;
+    }
+
+    private static byte[] patchShort(byte[] bytes, int offset, short value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).putShort(offset, value);
+        return copy;
+    }
+
+    private static int[] cards(String text) {
+        String[] parts = text.split(" ");
+        int[] cards = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            cards[i] = Cards.encode(parts[i]);
+        }
+        return cards;
+    }
+}
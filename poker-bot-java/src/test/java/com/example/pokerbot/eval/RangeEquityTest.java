@@ -0,0 +1,93 @@
+package com.example.pokerbot.eval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Heads-up against a random hand, {@link RangeEquity} enumerates the same runouts and combos as
+ * {@link ExactEquity} and has to agree with it; the rank-pair shortcuts and flush handling are
+ * what is under test.
+ */
+class RangeEquityTest {
+    private static final double EXACT = 1e-9;
+
+    private final RangeEquity rangeEquity =
+        new RangeEquity(ForkJoinPool.commonPool(), new SplittableRandom(5), 2_000, 0);
+
+    @Test
+    void matchesExactEquityAgainstARandomHandOnTheRiver() {
+        assertMatchesExact("AS KD", "QH JH 7C 4D 2S");
+        // Five of a suit on the board
+        assertMatchesExact("AH 2C", "KH 9H 7H 4H 3H");
+        assertMatchesExact("2C 3D", "AS KS QS JS TS");
+    }
+
+    @Test
+    void matchesExactEquityAgainstARandomHandOnTheTurn() {
+        assertMatchesExact("9H 8H", "7H 6C KH 2D");
+        // Three of a suit: flush combos are valued one by one
+        assertMatchesExact("QC QD", "QS 5S 9S 2D");
+        assertMatchesExact("AS 5S", "KS 8S 3S 3C");
+    }
+
+    @Test
+    void matchesExactEquityAgainstARandomHandOnTheFlop() {
+        assertMatchesExact("AH QH", "JH 7H 2C");
+        assertMatchesExact("7C 7D", "7S 7H KD");
+        assertMatchesExact("5D 4D", "3C 2H AS");
+    }
+
+    @Test
+    void aSingleHandAsARangeMatchesTheHand() {
+        int[] hole = cards("AH QH");
+        int[] board = cards("JH 7H 2C 9S");
+        // Any order of the starting-hand classes will do, with a partly weighted one at the boundary
+        Range opponent = Range.top(IntStream.range(0, StartingHand.CLASSES).toArray(), 0.23);
+
+        EquityResult hand = rangeEquity.heroVsRanges(hole, board, opponent);
+        EquityResult range = rangeEquity.rangeVsRange(Range.of(hole[0], hole[1]), opponent, board);
+
+        assertThat(range.equity).isCloseTo(hand.equity, within(EXACT));
+        assertThat(range.win).isCloseTo(hand.win, within(EXACT));
+        assertThat(range.tie).isCloseTo(hand.tie, within(EXACT));
+    }
+
+    @Test
+    void aRangeBlockedByTheKnownCardsHasNoEquity() {
+        int[] hole = cards("AS AH");
+
+        assertThat(rangeEquity.heroVsRanges(hole, cards("KD 7C 2S"), Range.of(hole[0], hole[1]))).isNull();
+        assertThat(rangeEquity.heroVsRanges(hole, cards("KD 7C 2S"), Range.of(Cards.encode("KD"), Cards.encode("KC"))))
+            .isNull();
+        // Together with a range that does hold something
+        assertThat(rangeEquity.heroVsRanges(hole, cards("KD 7C 2S"), Range.uniform(), Range.of(hole[0], hole[1])))
+            .isNull();
+        assertThat(rangeEquity.heroVsRanges(hole, cards("KD 7C 2S"), Range.uniform()).equity).isBetween(0.8, 0.95);
+    }
+
+    private void assertMatchesExact(String hole, String board) {
+        EquityResult expected = ExactEquity.enumerate(cards(hole), cards(board), 1);
+        EquityResult actual = rangeEquity.heroVsRanges(cards(hole), cards(board), Range.uniform());
+
+        String spot = hole + " on " + board;
+        assertThat(actual.exact).as("exact, %s", spot).isTrue();
+        assertThat(actual.win).as("win, %s", spot).isCloseTo(expected.win, within(EXACT));
+        assertThat(actual.tie).as("tie, %s", spot).isCloseTo(expected.tie, within(EXACT));
+        assertThat(actual.equity).as("equity, %s", spot).isCloseTo(expected.equity, within(EXACT));
+    }
+
+    private static int[] cards(String text) {
+        String[] parts = text.split(" ");
+        int[] cards = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            cards[i] = Cards.encode(parts[i]);
+        }
+        return cards;
+    }
+}
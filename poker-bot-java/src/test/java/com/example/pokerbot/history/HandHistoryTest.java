@@ -0,0 +1,226 @@
+package com.example.pokerbot.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Hands written by {@link HandHistoryWriter} and read back by {@link HandHistoryReader}. */
+class HandHistoryTest {
+    private static final String[] NAMES = {"Hero", "House 1", "House 2", "Zoë", "玩家", "a-much-longer-player-name-than-usual"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackEveryFieldOfEveryHand() throws IOException {
+        List<HandRecord> hands = randomHands(500, new Random(15));
+
+        write(hands, Long.MAX_VALUE);
+
+        assertThat(HandHistoryReader.segments(dir)).hasSize(1);
+        assertThat(readAll()).hasSize(hands.size()).zipSatisfy(hands, HandHistoryTest::assertSameHand);
+    }
+
+    @Test
+    void encodesEdgeValues() throws IOException {
+        HandRecord hand = new HandRecord();
+        hand.startedAt = Long.MAX_VALUE;
+        for (int i = 0; i < HandRecord.MAX_SEATS; i++) {
+            int seat = hand.addSeat(NAMES[i % NAMES.length], i == 0 ? Integer.MAX_VALUE : 0, i == 0 ? HandRecord.HERO : 0);
+            hand.net[seat] = i % 2 == 0 ? Integer.MIN_VALUE + i : Integer.MAX_VALUE - i;
+            // Known and unknown cards, including the highest card numbers
+            if (i % 3 != 0) hand.setHoleCards(seat, 51 - i, i);
+        }
+        for (int card = 47; card < 52; card++) {
+            hand.addBoardCard(card);
+        }
+        for (int a = 0; a < 100; a++) {
+            int type = a % 6;
+            int amount = type == HandRecord.RAISE ? Integer.MAX_VALUE : a * 129;
+            hand.addAction(a % HandRecord.MAX_SEATS, type, HandHistoryFormat.hasAmount(type) ? amount : 0);
+        }
+
+        write(List.of(hand), Long.MAX_VALUE);
+
+        assertThat(readAll()).singleElement().satisfies(read -> assertSameHand(read, hand));
+    }
+
+    @Test
+    void readsASeatTakenOverByAnotherPlayer() throws IOException {
+        List<HandRecord> hands = new ArrayList<>();
+        for (String name : new String[] {"Al", "Alexandra", "Al", "Bo"}) {
+            HandRecord hand = new HandRecord();
+            hand.addSeat("Hero", 1000, HandRecord.HERO);
+            hand.addSeat(name, 1000, 0);
+            hands.add(hand);
+        }
+
+        write(hands, Long.MAX_VALUE);
+
+        assertThat(readAll()).extracting(hand -> hand.names[1]).containsExactly("Al", "Alexandra", "Al", "Bo");
+    }
+
+    @Test
+    void rollsOverToNewSegmentsOnRecordBoundaries() throws IOException {
+        List<HandRecord> hands = randomHands(300, new Random(16));
+        long segmentBytes = 2_000;
+
+        write(hands, segmentBytes);
+
+        List<Path> segments = HandHistoryReader.segments(dir);
+        assertThat(segments).hasSizeGreaterThan(5);
+        for (Path segment : segments) {
+            assertThat(Files.size(segment)).as("%s", segment).isLessThanOrEqualTo(segmentBytes);
+        }
+        assertThat(readAll()).hasSize(hands.size()).zipSatisfy(hands, HandHistoryTest::assertSameHand);
+
+        // A new writer starts after the last segment and leaves the old ones alone
+        List<HandRecord> more = randomHands(10, new Random(17));
+        write(more, segmentBytes);
+
+        List<Path> after = HandHistoryReader.segments(dir);
+        assertThat(after.subList(0, segments.size())).isEqualTo(segments);
+        assertThat(HandHistoryReader.segmentIndex(after.get(segments.size())))
+            .isEqualTo(HandHistoryReader.segmentIndex(segments.get(segments.size() - 1)) + 1);
+        List<HandRecord> all = new ArrayList<>(hands);
+        all.addAll(more);
+        assertThat(readAll()).hasSize(all.size()).zipSatisfy(all, HandHistoryTest::assertSameHand);
+    }
+
+    @Test
+    void skipsARecordCutShortByACrash() throws IOException {
+        List<HandRecord> hands = randomHands(20, new Random(18));
+        write(hands, Long.MAX_VALUE);
+        Path segment = HandHistoryReader.segments(dir).get(0);
+        long complete = Files.size(segment);
+        int lastLength = HandHistoryFormat.encode(hands.get(hands.size() - 1)).remaining();
+
+        // Every cut inside the last record, from just its length prefix to all but one byte
+        for (long size = complete - lastLength + 1; size < complete; size++) {
+            truncate(segment, size);
+            assertThat(readAll()).as("cut at %d of %d bytes", size, complete)
+                .hasSize(hands.size() - 1)
+                .zipSatisfy(hands.subList(0, hands.size() - 1), HandHistoryTest::assertSameHand);
+        }
+
+        // Writing on after the crash starts a new segment; the torn record stays skipped
+        List<HandRecord> more = randomHands(5, new Random(19));
+        write(more, Long.MAX_VALUE);
+        List<HandRecord> expected = new ArrayList<>(hands.subList(0, hands.size() - 1));
+        expected.addAll(more);
+        assertThat(readAll()).hasSize(expected.size()).zipSatisfy(expected, HandHistoryTest::assertSameHand);
+    }
+
+    private void write(List<HandRecord> hands, long segmentBytes) throws IOException {
+        try (HandHistoryWriter writer = new HandHistoryWriter(dir, segmentBytes, 64, true)) {
+            for (HandRecord hand : hands) {
+                assertThat(writer.append(hand)).isTrue();
+            }
+        }
+    }
+
+    /** Copies of every hand in {@link #dir}, since the scan reuses one record. */
+    private List<HandRecord> readAll() throws IOException {
+        List<HandRecord> read = new ArrayList<>();
+        HandHistoryReader.scan(dir, record -> read.add(copy(record)));
+        return read;
+    }
+
+    private static void truncate(Path segment, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private static List<HandRecord> randomHands(int count, Random random) {
+        List<HandRecord> hands = new ArrayList<>(count);
+        long startedAt = 1_760_000_000_000L;
+        for (int n = 0; n < count; n++) {
+            HandRecord hand = new HandRecord();
+            startedAt += random.nextInt(60_000);
+            hand.startedAt = startedAt;
+            int seats = 2 + random.nextInt(HandRecord.MAX_SEATS - 1);
+            long used = 0;
+            for (int i = 0; i < seats; i++) {
+                int flags = (i == 0 ? HandRecord.DEALER : 0) | (i == 1 ? HandRecord.SMALL_BLIND : 0)
+                    | (i == 2 % seats ? HandRecord.BIG_BLIND : 0) | (i == seats - 1 ? HandRecord.HERO : 0);
+                int seat = hand.addSeat(NAMES[random.nextInt(NAMES.length)] + (i > 5 ? " " + i : ""),
+                    random.nextInt(random.nextBoolean() ? 200 : 2_000_000), flags);
+                hand.net[seat] = random.nextInt(4001) - 2000;
+                if (random.nextInt(3) > 0) {
+                    int a = deal(random, used);
+                    used |= 1L << a;
+                    int b = deal(random, used);
+                    used |= 1L << b;
+                    hand.setHoleCards(seat, a, b);
+                }
+            }
+            int board = random.nextInt(6);
+            for (int c = 0; c < board; c++) {
+                int card = deal(random, used);
+                used |= 1L << card;
+                hand.addBoardCard(card);
+            }
+            int actions = random.nextInt(60);
+            for (int a = 0; a < actions; a++) {
+                int type = random.nextInt(6);
+                hand.addAction(random.nextInt(seats), type, HandHistoryFormat.hasAmount(type) ? random.nextInt(100_000) : 0);
+            }
+            hands.add(hand);
+        }
+        return hands;
+    }
+
+    private static int deal(Random random, long used) {
+        int card;
+        do {
+            card = random.nextInt(52);
+        } while ((used & 1L << card) != 0);
+        return card;
+    }
+
+    static HandRecord copy(HandRecord from) {
+        HandRecord to = new HandRecord();
+        to.startedAt = from.startedAt;
+        for (int i = 0; i < from.seats; i++) {
+            to.addSeat(from.names[i], from.startChips[i], from.flags[i]);
+            to.net[i] = from.net[i];
+            to.setHoleCards(i, from.holeCards[2 * i], from.holeCards[2 * i + 1]);
+        }
+        for (int c = 0; c < from.boardSize; c++) {
+            to.addBoardCard(from.board[c]);
+        }
+        for (int a = 0; a < from.actions; a++) {
+            to.addAction(from.actionSeat[a], from.actionType[a], from.actionAmount[a]);
+        }
+        return to;
+    }
+
+    private static void assertSameHand(HandRecord actual, HandRecord expected) {
+        assertThat(actual.startedAt).isEqualTo(expected.startedAt);
+        assertThat(actual.seats).isEqualTo(expected.seats);
+        int seats = expected.seats;
+        assertThat(Arrays.copyOf(actual.names, seats)).containsExactly(Arrays.copyOf(expected.names, seats));
+        assertThat(Arrays.copyOf(actual.flags, seats)).containsExactly(Arrays.copyOf(expected.flags, seats));
+        assertThat(Arrays.copyOf(actual.startChips, seats)).containsExactly(Arrays.copyOf(expected.startChips, seats));
+        assertThat(Arrays.copyOf(actual.net, seats)).containsExactly(Arrays.copyOf(expected.net, seats));
+        assertThat(Arrays.copyOf(actual.holeCards, 2 * seats)).containsExactly(Arrays.copyOf(expected.holeCards, 2 * seats));
+        assertThat(Arrays.copyOf(actual.board, actual.boardSize)).containsExactly(Arrays.copyOf(expected.board, expected.boardSize));
+        assertThat(actual.actions).isEqualTo(expected.actions);
+        int actions = expected.actions;
+        assertThat(Arrays.copyOf(actual.actionSeat, actions)).containsExactly(Arrays.copyOf(expected.actionSeat, actions));
+        assertThat(Arrays.copyOf(actual.actionType, actions)).containsExactly(Arrays.copyOf(expected.actionType, actions));
+        assertThat(Arrays.copyOf(actual.actionAmount, actions)).containsExactly(Arrays.copyOf(expected.actionAmount, actions));
+    }
+}
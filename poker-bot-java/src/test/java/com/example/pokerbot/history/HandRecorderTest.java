@@ -0,0 +1,250 @@
+package com.example.pokerbot.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.model.Card;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.sim.SimStrategies;
+import com.example.pokerbot.sim.SimStrategy;
+import com.example.pokerbot.sim.TableEngine;
+
+/**
+ * {@link HandRecorder} fed the broadcasts of a {@link TableEngine}, whose own record of each hand
+ * has the exact actions to compare the derived ones with.
+ */
+class HandRecorderTest {
+    @Test
+    void rebuildsEveryActionWhenItSeesEveryState() {
+        SplittableRandom random = new SplittableRandom(11);
+        Session session = new Session(random, "Hero", "House 1", "House 2", "House 3");
+
+        session.play(300, SimStrategies.random(random.split()));
+
+        assertThat(session.derived).hasSize(300).hasSameSizeAs(session.actual);
+        boolean showdown = false;
+        for (int h = 0; h < session.actual.size(); h++) {
+            HandRecord derived = session.derived.get(h);
+            HandRecord actual = session.actual.get(h);
+            assertSameHand(derived, actual, true);
+            // Our cards always, the others' only when shown
+            for (int seat = 0; seat < actual.seats; seat++) {
+                int card = derived.holeCards[2 * seat];
+                if (seat == derived.heroSeat()) {
+                    assertThat(card).isNotEqualTo(HandRecord.UNKNOWN_CARD);
+                } else if (card != HandRecord.UNKNOWN_CARD) {
+                    showdown = true;
+                }
+                if (card != HandRecord.UNKNOWN_CARD) {
+                    assertThat(Arrays.copyOfRange(derived.holeCards, 2 * seat, 2 * seat + 2))
+                        .containsExactly(actual.holeCards[2 * seat], actual.holeCards[2 * seat + 1]);
+                }
+            }
+        }
+        assertThat(showdown).isTrue();
+    }
+
+    @Test
+    void mergesTheActionsOfStatesItDidNotSee() {
+        Session session = new Session(new SplittableRandom(12), "Hero", "House 1", "House 2");
+        TableEngine.Seat hero = session.seat("Hero");
+        TableEngine.Seat sb = session.seat("House 1");
+        TableEngine.Seat bb = session.seat("House 2");
+        session.table.checkAndStartGame();
+
+        session.act(hero, "raise", 60);
+        // Each action's state and the prompt after it
+        session.skip(6);
+        session.act(sb, "raise", 140);
+        session.act(bb, "fold", null);
+        session.act(hero, "raise", 400);
+        session.act(sb, "call", null);
+        assertThat(session.recorder.committed(hero.getId(), hero.getChips())).isEqualTo(400);
+        assertThat(session.recorder.committed(bb.getId(), bb.getChips())).isEqualTo(20);
+        assertThat(session.recorder.committed("someone else", 1000)).isEqualTo(-1);
+
+        // The check is missed; the turn moving on to us shows it
+        session.skip(1);
+        session.act(sb, "check", null);
+        session.skip(2);
+        session.act(hero, "raise", 100);
+        session.act(sb, "fold", null);
+        // Nor is the end of the hand seen, only the next one starting
+        session.skip(1);
+        session.runPending();
+        session.runPending();
+
+        assertThat(session.derived).singleElement().satisfies(derived -> {
+            assertSameHand(derived, session.actual.get(0), false);
+            // The small blind's raise to 140 looks like part of its call
+            assertActions(derived,
+                HandRecord.POST, 1, 10,
+                HandRecord.POST, 2, 20,
+                HandRecord.RAISE, 0, 60,
+                HandRecord.FOLD, 2, 0,
+                HandRecord.RAISE, 0, 400,
+                HandRecord.CALL, 1, 390,
+                HandRecord.STREET, 0, 0,
+                HandRecord.CHECK, 1, 0,
+                HandRecord.RAISE, 0, 100,
+                HandRecord.FOLD, 1, 0);
+            assertThat(Arrays.copyOf(derived.net, 3)).containsExactly(420, -400, -20);
+        });
+        assertThat(session.recorder.committed(hero.getId(), hero.getChips())).isEqualTo(hero.getCurrentBet());
+    }
+
+    @Test
+    void ignoresTheOpeningStateSentAgainWhenSomeoneJoins() {
+        Session session = new Session(new SplittableRandom(13), "Hero", "House 1", "House 2");
+        session.table.checkAndStartGame();
+
+        // Both joins re-broadcast the "New hand started" state unchanged
+        session.table.addPlayer("Watcher", true, null);
+        session.table.addPlayer("Late", false, null);
+        session.act(session.seat("Hero"), "call", null);
+        session.act(session.seat("House 1"), "fold", null);
+        session.act(session.seat("House 2"), "raise", 60);
+        session.act(session.seat("Hero"), "fold", null);
+        session.runPending();
+
+        assertThat(session.derived).singleElement().satisfies(derived -> {
+            assertSameHand(derived, session.actual.get(0), true);
+            assertThat(derived.holeCards[2 * derived.heroSeat()]).isNotEqualTo(HandRecord.UNKNOWN_CARD);
+        });
+    }
+
+    private static void assertSameHand(HandRecord derived, HandRecord actual, boolean sameActions) {
+        String hand = actual.describe();
+        int seats = actual.seats;
+        assertThat(derived.seats).as(hand).isEqualTo(seats);
+        assertThat(Arrays.copyOf(derived.names, seats)).as(hand).containsExactly(Arrays.copyOf(actual.names, seats));
+        assertThat(derived.heroSeat()).as(hand).isEqualTo(derived.seatOf("Hero"));
+        for (int seat = 0; seat < seats; seat++) {
+            assertThat(derived.flags[seat] & ~HandRecord.HERO).as(hand).isEqualTo(actual.flags[seat]);
+        }
+        assertThat(Arrays.copyOf(derived.startChips, seats)).as(hand).containsExactly(Arrays.copyOf(actual.startChips, seats));
+        assertThat(Arrays.copyOf(derived.net, seats)).as(hand).containsExactly(Arrays.copyOf(actual.net, seats));
+        assertThat(Arrays.copyOf(derived.board, derived.boardSize)).as(hand)
+            .containsExactly(Arrays.copyOf(actual.board, actual.boardSize));
+        if (!sameActions) return;
+        assertThat(actions(derived)).as(hand).isEqualTo(actions(actual));
+    }
+
+    private static void assertActions(HandRecord hand, int... expected) {
+        assertThat(actions(hand)).as(hand.describe()).isEqualTo(Arrays.toString(expected));
+    }
+
+    /** Type, seat and amount of every action, flattened to compare with one message. */
+    private static String actions(HandRecord hand) {
+        int[] flat = new int[hand.actions * 3];
+        for (int a = 0; a < hand.actions; a++) {
+            flat[3 * a] = hand.actionType[a];
+            flat[3 * a + 1] = hand.actionSeat[a];
+            flat[3 * a + 2] = hand.actionAmount[a];
+        }
+        return Arrays.toString(flat);
+    }
+
+    /**
+     * A table with one bot session on it: every state the server would send reaches the session's
+     * recorder unless the test skips some, as the session's mailbox does when it coalesces them.
+     */
+    private static final class Session implements TableEngine.Listener {
+        final TableEngine table;
+        final List<HandRecord> derived = new ArrayList<>();
+        final HandRecorder recorder = new HandRecorder("Hero", hand -> derived.add(HandHistoryTest.copy(hand)));
+        final List<HandRecord> actual = new ArrayList<>();
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        private int skipped;
+        private boolean rejected;
+
+        Session(SplittableRandom random, String... names) {
+            table = new TableEngine(this, random.split());
+            table.setRecorder(hand -> actual.add(HandHistoryTest.copy(hand)));
+            for (String name : names) {
+                table.addPlayer(name, false, null);
+            }
+        }
+
+        TableEngine.Seat seat(String name) {
+            for (TableEngine.Seat seat : table.getPlayers()) {
+                if (seat.getName().equals(name)) return seat;
+            }
+            throw new IllegalArgumentException(name);
+        }
+
+        /** Plays {@code hands} hands as SelfPlay does, busted seats buying back in between hands. */
+        void play(int hands, SimStrategy strategy) {
+            table.checkAndStartGame();
+            while (table.getHandsCompleted() < hands) {
+                if (runPending()) continue;
+                TableEngine.Seat seat = table.getCurrentPlayer();
+                if (seat == null) fail("Table stalled: " + table.getMessage());
+                GeminiAction action = strategy.decide(table, seat);
+                rejected = false;
+                table.handlePlayerAction(seat, action.actionType, action.amount);
+                if (rejected) table.handlePlayerAction(seat, "fold", null);
+            }
+        }
+
+        void act(TableEngine.Seat seat, String action, Integer amount) {
+            table.handlePlayerAction(seat, action, amount);
+            assertThat(rejected).as("%s %s %s rejected", seat.getName(), action, amount).isFalse();
+        }
+
+        /** Leaves the next {@code states} states out, as if a later one had replaced them in the mailbox. */
+        void skip(int states) {
+            skipped = states;
+        }
+
+        boolean runPending() {
+            Runnable task = pending.pollFirst();
+            if (task == null) return false;
+            if (table.getPhase() == TableEngine.Phase.HAND_OVER) {
+                for (TableEngine.Seat seat : table.getPlayers()) {
+                    if (seat.getChips() == 0) table.addChips(seat, TableEngine.STARTING_CHIPS);
+                }
+            }
+            task.run();
+            return true;
+        }
+
+        @Override
+        public void onState() {
+            if (skipped > 0) {
+                skipped--;
+            } else {
+                recorder.onState(table.toGameState());
+            }
+        }
+
+        @Override
+        public void onHand(TableEngine.Seat seat) {
+            if (seat.getName().equals("Hero")) recorder.onHand(TableEngine.holeCards(seat).toArray(new Card[0]));
+        }
+
+        @Override
+        public void onInfo(TableEngine.Seat seat, String text) {
+            if (seat.getName().equals("Hero")) recorder.onInfo(text);
+        }
+
+        @Override
+        public void onError(TableEngine.Seat seat, String text) {
+            rejected = true;
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            pending.addLast(task);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.pokerbot.icm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link IcmActionEv} with a winner-take-all payout, where prize equity is the share of the
+ * chips and every outcome can be counted by hand, and then with a flatter payout.
+ */
+class IcmActionEvTest {
+    private static final double EXACT = 1e-9;
+
+    private final IcmActionEv winnerTakesAll = new IcmActionEv(new IcmCalculator(new double[] {100}));
+
+    @Test
+    void valuesFoldAndCallHeadsUp() {
+        // 100 in from an earlier street each; the villain bets 200 more
+        IcmActionEv.Spot spot = spot(0, 200,
+            seat(900, 0, 100, true),
+            seat(800, 200, 300, true));
+
+        // Folding leaves us the 900 behind
+        assertThat(winnerTakesAll.fold(spot)).isCloseTo(share(900, 2100), within(EXACT));
+        // Calling: 1300 when we win the pot of 600, 700 when we lose it
+        assertThat(winnerTakesAll.call(spot, 0.5)).isCloseTo(share(1000, 2100), within(EXACT));
+        assertThat(winnerTakesAll.call(spot, 0.8)).isCloseTo(share(0.8 * 1300 + 0.2 * 700, 2100), within(EXACT));
+    }
+
+    @Test
+    void weighsARaiseByTheChanceThatItIsFoldedTo() {
+        IcmActionEv.Spot spot = spot(0, 200,
+            seat(900, 0, 100, true),
+            seat(800, 200, 300, true));
+
+        // Folded to: we take the 400 in the pot and keep our raise
+        assertThat(winnerTakesAll.raise(spot, 600, 0.5, 1)).isCloseTo(share(1300, 2100), within(EXACT));
+        // Called: a pot of 1400 with 300 behind
+        assertThat(winnerTakesAll.raise(spot, 600, 0.5, 0)).isCloseTo(share(0.5 * 1700 + 0.5 * 300, 2100), within(EXACT));
+        assertThat(winnerTakesAll.raise(spot, 600, 0.5, 0.25))
+            .isCloseTo(share(0.25 * 1300 + 0.75 * 1000, 2100), within(EXACT));
+        // Not above the bet: a call
+        assertThat(winnerTakesAll.raise(spot, 200, 0.5, 1)).isEqualTo(winnerTakesAll.call(spot, 0.5));
+    }
+
+    @Test
+    void returnsTheRaiseAShortStackCannotCall() {
+        // The villain has only 100 behind their bet of 200
+        IcmActionEv.Spot spot = spot(0, 200,
+            seat(900, 0, 100, true),
+            seat(100, 200, 300, true));
+
+        // Called all-in for 400: a pot of 800, and our uncalled 300 comes back either way
+        assertThat(winnerTakesAll.raise(spot, 600, 0.5, 0))
+            .isCloseTo(share(0.5 * (300 + 800 + 300) + 0.5 * (300 + 300), 1400), within(EXACT));
+    }
+
+    @Test
+    void keepsAnAllInPlayerInWhenTheOthersFold() {
+        IcmActionEv.Spot spot = spot(0, 100,
+            seat(1000, 0, 0, true),
+            seat(1000, 100, 100, true),
+            seat(0, 100, 100, true));
+
+        // The villain folds; we show down the main pot of 300 against the all-in player
+        assertThat(winnerTakesAll.raise(spot, 400, 0.5, 1))
+            .isCloseTo(share(0.5 * (600 + 300 + 300) + 0.5 * (600 + 300), 2200), within(EXACT));
+    }
+
+    @Test
+    void valuesEachPossibleWinnerUnderAFlatterPayout() {
+        IcmActionEv.Spot spot = spot(0, 300,
+            seat(1000, 0, 0, true),
+            seat(700, 300, 300, true),
+            seat(1000, 300, 300, true),
+            seat(2000, 0, 0, false));
+        IcmActionEv icm = new IcmActionEv(new IcmCalculator(new double[] {50, 30, 20}));
+        double[] out = new double[4];
+
+        // Either opponent takes the 600, each equally likely
+        IcmCalculator calculator = icm.getCalculator();
+        calculator.equities(new int[] {1000, 1300, 1000, 2000}, 4, out);
+        double first = out[0];
+        calculator.equities(new int[] {1000, 700, 1600, 2000}, 4, out);
+        double second = out[0];
+
+        assertThat(icm.fold(spot)).isCloseTo((first + second) / 2, within(EXACT));
+
+        // Calling makes a pot of 900: ours with our equity, else either opponent's
+        calculator.equities(new int[] {1600, 700, 1000, 2000}, 4, out);
+        double win = out[0];
+        calculator.equities(new int[] {700, 1600, 1000, 2000}, 4, out);
+        double firstWins = out[0];
+        calculator.equities(new int[] {700, 700, 1900, 2000}, 4, out);
+        double secondWins = out[0];
+        assertThat(icm.call(spot, 0.4)).isCloseTo(0.4 * win + 0.3 * firstWins + 0.3 * secondWins, within(EXACT));
+    }
+
+    private static double share(double chips, double total) {
+        return chips / total * 100;
+    }
+
+    private static IcmActionEv.Spot spot(int hero, int betLevel, int[]... seats) {
+        IcmActionEv.Spot spot = new IcmActionEv.Spot();
+        spot.seats = seats.length;
+        spot.hero = hero;
+        spot.betLevel = betLevel;
+        for (int i = 0; i < seats.length; i++) {
+            spot.chips[i] = seats[i][0];
+            spot.bets[i] = seats[i][1];
+            spot.committed[i] = seats[i][2];
+            spot.contesting[i] = seats[i][3] != 0;
+        }
+        return spot;
+    }
+
+    /** Chips behind, bet this round, put in this hand, still contesting. */
+    private static int[] seat(int chips, int bet, int committed, boolean contesting) {
+        return new int[] {chips, bet, committed, contesting ? 1 : 0};
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.pokerbot.icm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.model.IcmEstimate;
+import com.example.pokerbot.model.PlayerStats;
+
+/** The spot {@link IcmAdvisor} builds from a broadcast state and the fold chance it prices a raise with. */
+class IcmAdvisorTest {
+    private static final double[] PAYOUTS = {50, 30, 20};
+
+    @Test
+    void leavesAnAllInOpponentOutOfTheFoldChance() {
+        // The short stack is all-in for 200; only the villain can still fold to our raise
+        GameState state = state();
+        PlayerStats villain = stats(0.6);
+
+        IcmEstimate neverFolds = advise(state, villain, stats(0));
+        IcmEstimate alwaysFolds = advise(state, villain, stats(1));
+        IcmEstimate unknown = advise(state, villain, null);
+
+        IcmActionEv actionEv = new IcmActionEv(new IcmCalculator(PAYOUTS));
+        double expected = actionEv.raise(spot(), 600, 1.0 / 3, 0.6) / 100;
+        assertThat(neverFolds.raise).isCloseTo(expected, within(1e-12));
+        assertThat(alwaysFolds.raise).isCloseTo(expected, within(1e-12));
+        assertThat(unknown.raise).isCloseTo(expected, within(1e-12));
+        assertThat(neverFolds.raiseTo).isEqualTo(600);
+    }
+
+    @Test
+    void pricesTheRaiseWithTheFoldRatesOfThoseWhoCanAct() {
+        GameState state = state();
+
+        IcmEstimate tight = advise(state, stats(0.1), stats(0));
+        IcmEstimate loose = advise(state, stats(0.9), stats(0));
+        IcmEstimate unknown = advise(state, null, stats(0));
+
+        IcmActionEv actionEv = new IcmActionEv(new IcmCalculator(PAYOUTS));
+        assertThat(tight.raise).isCloseTo(actionEv.raise(spot(), 600, 1.0 / 3, 0.1) / 100, within(1e-12));
+        assertThat(loose.raise).isCloseTo(actionEv.raise(spot(), 600, 1.0 / 3, 0.9) / 100, within(1e-12));
+        // Not seen often enough: the default
+        assertThat(unknown.raise).isCloseTo(actionEv.raise(spot(), 600, 1.0 / 3, 0.35) / 100, within(1e-12));
+        assertThat(tight.fold).isEqualTo(loose.fold);
+        assertThat(tight.call).isEqualTo(loose.call);
+    }
+
+    private static IcmEstimate advise(GameState state, PlayerStats villain, PlayerStats shortStack) {
+        IcmAdvisor advisor = new IcmAdvisor(new IcmCalculator(PAYOUTS));
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = "hero";
+        ctx.activePlayers = new ArrayList<>();
+        ctx.activePlayers.add(info("hero", 1000, 0, null));
+        ctx.activePlayers.add(info("villain", 1000, 0, villain));
+        ctx.activePlayers.add(info("short", 0, 200, shortStack));
+        return advisor.estimate(state, "hero", null, ctx, 600);
+    }
+
+    /** We and the villain have 1000 and nothing in, the short stack is all-in for 200, a fourth player folded. */
+    private static GameState state() {
+        GameState state = new GameState();
+        state.players = List.of(
+            player("hero", 1000, 0, "active"),
+            player("villain", 1000, 0, "active"),
+            player("short", 0, 200, "all-in"),
+            player("folded", 1500, 0, "folded"));
+        state.pot = 200;
+        state.minimumBetForCall = 200;
+        state.minimumRaiseAmount = 200;
+        return state;
+    }
+
+    /** The spot the advisor should build from {@link #state()}. */
+    private static IcmActionEv.Spot spot() {
+        IcmActionEv.Spot spot = new IcmActionEv.Spot();
+        spot.seats = 4;
+        spot.hero = 0;
+        spot.betLevel = 200;
+        int[] chips = {1000, 1000, 0, 1500};
+        int[] bets = {0, 0, 200, 0};
+        for (int i = 0; i < spot.seats; i++) {
+            spot.chips[i] = chips[i];
+            spot.bets[i] = bets[i];
+            spot.committed[i] = bets[i];
+            spot.contesting[i] = i < 3;
+        }
+        return spot;
+    }
+
+    private static GameState.Player player(String id, int chips, int bet, String status) {
+        GameState.Player p = new GameState.Player();
+        p.id = id;
+        p.name = id;
+        p.chips = chips;
+        p.currentBet = bet;
+        p.status = status;
+        return p;
+    }
+
+    private static GeminiContext.PlayerInfo info(String name, int chips, int bet, PlayerStats stats) {
+        GeminiContext.PlayerInfo p = new GeminiContext.PlayerInfo();
+        p.name = name;
+        p.chips = chips;
+        p.currentBet = bet;
+        p.stats = stats;
+        return p;
+    }
+
+    private static PlayerStats stats(double foldToBet) {
+        PlayerStats stats = new PlayerStats();
+        stats.hands = 100;
+        stats.foldToBetChances = 40;
+        stats.foldToBet = foldToBet;
+        return stats;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.pokerbot.icm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** The subset dynamic program against the textbook recursion over finishing orders. */
+class IcmCalculatorTest {
+    // Relative to the prize pool
+    private static final double EXACT = 1e-12;
+
+    @Test
+    void matchesTheRecursionOnRandomTables() {
+        Random random = new Random(21);
+        double[][] structures = {{100}, {65, 35}, {50, 30, 20}, {30, 20, 15, 12, 9, 6, 4, 2, 2}};
+        for (double[] payouts : structures) {
+            IcmCalculator icm = new IcmCalculator(payouts);
+            for (int n = 0; n < 200; n++) {
+                int seats = 2 + random.nextInt(8);
+                int[] stacks = new int[seats];
+                for (int i = 0; i < seats; i++) {
+                    stacks[i] = 1 + random.nextInt(random.nextBoolean() ? 500 : 20_000);
+                }
+                assertMatchesRecursion(icm, payouts, stacks);
+            }
+        }
+    }
+
+    @Test
+    void playersOutOfChipsShareThePlacesBelowTheRest() {
+        double[] payouts = {50, 30, 20};
+        IcmCalculator icm = new IcmCalculator(payouts);
+        double[] out = new double[4];
+
+        icm.equities(new int[] {3000, 0, 1000, 0}, 4, out);
+
+        assertThat(out[1]).isCloseTo(10, within(EXACT * 100));
+        assertThat(out[3]).isCloseTo(10, within(EXACT * 100));
+        assertThat(out[0] + out[2]).isCloseTo(80, within(EXACT * 100));
+        assertMatchesRecursion(icm, payouts, new int[] {3000, 0, 1000, 0});
+    }
+
+    @Test
+    void handlesAFullTableOfTheLargestSize() {
+        double[] payouts = {50, 30, 20};
+        IcmCalculator icm = new IcmCalculator(payouts);
+        int[] stacks = new int[IcmCalculator.MAX_PLAYERS];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = 500 + 250 * i;
+        }
+
+        assertMatchesRecursion(icm, payouts, stacks);
+        // The tables grew for this call; a smaller table afterwards still matches
+        assertMatchesRecursion(icm, payouts, new int[] {100, 200, 300});
+    }
+
+    @Test
+    void sharesByChipsBeyondTheLargestSize() {
+        IcmCalculator icm = new IcmCalculator(new double[] {50, 30, 20});
+        int seats = IcmCalculator.MAX_PLAYERS + 2;
+        int[] stacks = new int[seats];
+        Arrays.fill(stacks, 1000);
+        stacks[0] = 4000;
+        stacks[1] = 0;
+        double[] out = new double[seats];
+
+        icm.equities(stacks, seats, out);
+
+        // One player out takes nothing, the places are all paid to players with chips
+        assertThat(out[1]).isZero();
+        assertThat(out[0]).isCloseTo(100.0 * 4000 / (4000 + 1000 * (seats - 2)), within(EXACT * 100));
+        assertThat(Arrays.stream(out).sum()).isCloseTo(100, within(1e-9));
+    }
+
+    private static void assertMatchesRecursion(IcmCalculator icm, double[] payouts, int[] stacks) {
+        double[] expected = recursive(stacks, payouts);
+        double tolerance = EXACT * icm.getPrizePool();
+        double[] actual = new double[stacks.length];
+        icm.equities(stacks, stacks.length, actual);
+        for (int i = 0; i < stacks.length; i++) {
+            assertThat(actual[i]).as("seat %d of %s", i, Arrays.toString(stacks)).isCloseTo(expected[i], within(tolerance));
+        }
+        assertThat(Arrays.stream(actual).sum())
+            .isCloseTo(Arrays.stream(payouts).limit(stacks.length).sum(), within(1e-9));
+    }
+
+    /** Each finishing order, place by place, as far as places are paid. */
+    private static double[] recursive(int[] stacks, double[] payouts) {
+        double[] out = new double[stacks.length];
+        int alive = 0;
+        for (int stack : stacks) {
+            if (stack > 0) alive++;
+        }
+        place(stacks, payouts, 0, 0, 1.0, Math.min(alive, payouts.length), out);
+        double share = 0;
+        for (int place = alive; place < Math.min(stacks.length, payouts.length); place++) {
+            share += payouts[place];
+        }
+        for (int i = 0; i < stacks.length; i++) {
+            if (stacks[i] <= 0) out[i] = share / (stacks.length - alive);
+        }
+        return out;
+    }
+
+    private static void place(int[] stacks, double[] payouts, int placed, int place, double p, int places, double[] out) {
+        if (place == places) return;
+        double left = 0;
+        for (int i = 0; i < stacks.length; i++) {
+            if ((placed & 1 << i) == 0) left += stacks[i];
+        }
+        for (int i = 0; i < stacks.length; i++) {
+            if ((placed & 1 << i) != 0 || stacks[i] <= 0) continue;
+            double q = p * stacks[i] / left;
+            out[i] += q * payouts[place];
+            place(stacks, payouts, placed | 1 << i, place + 1, q, places, out);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.pokerbot.icm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class SidePotsTest {
+    private final int[] amounts = new int[8];
+    private final int[] eligible = new int[8];
+
+    @Test
+    void oneCalledPot() {
+        int pots = split(new int[] {200, 200, 200}, true, true, true);
+
+        assertThat(pots).isEqualTo(1);
+        assertThat(amounts[0]).isEqualTo(600);
+        assertThat(eligible[0]).isEqualTo(0b111);
+    }
+
+    @Test
+    void multipleAllInsOpenASidePotEach() {
+        int pots = split(new int[] {50, 120, 300, 300}, true, true, true, true);
+
+        assertThat(pots).isEqualTo(3);
+        assertThat(Arrays.copyOf(amounts, pots)).containsExactly(200, 210, 360);
+        assertThat(Arrays.copyOf(eligible, pots)).containsExactly(0b1111, 0b1110, 0b1100);
+    }
+
+    @Test
+    void anUncalledBetIsAPotOfItsOwn() {
+        // Seat 0 bets 500, seat 1 calls all-in for 200
+        int pots = split(new int[] {500, 200}, true, true);
+
+        assertThat(pots).isEqualTo(2);
+        assertThat(Arrays.copyOf(amounts, pots)).containsExactly(400, 300);
+        assertThat(Arrays.copyOf(eligible, pots)).containsExactly(0b11, 0b01);
+    }
+
+    @Test
+    void foldedChipsAboveTheHighestLevelGoToTheLastPot() {
+        // Seat 0 folded after putting in 300, more than anybody still in
+        int pots = split(new int[] {300, 100, 200}, false, true, true);
+
+        assertThat(pots).isEqualTo(2);
+        assertThat(Arrays.copyOf(amounts, pots)).containsExactly(300, 300);
+        assertThat(Arrays.copyOf(eligible, pots)).containsExactly(0b110, 0b100);
+    }
+
+    @Test
+    void foldedChipsBelowALevelStayInTheirPots() {
+        // Seat 2 folded after 80: it pays into the main pot and part of the side pot
+        int pots = split(new int[] {60, 150, 80, 150}, true, true, false, true);
+
+        assertThat(pots).isEqualTo(2);
+        assertThat(Arrays.copyOf(amounts, pots)).containsExactly(240, 200);
+        assertThat(Arrays.copyOf(eligible, pots)).containsExactly(0b1011, 0b1010);
+        assertThat(amounts[0] + amounts[1]).isEqualTo(60 + 150 + 80 + 150);
+    }
+
+    @Test
+    void noPotWithoutContestants() {
+        assertThat(split(new int[] {100, 100}, false, false)).isZero();
+    }
+
+    private int split(int[] committed, boolean... contesting) {
+        return SidePots.split(committed, contesting, committed.length, amounts, eligible);
+    }
+}
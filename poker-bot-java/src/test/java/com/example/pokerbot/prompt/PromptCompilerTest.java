@@ -0,0 +1,85 @@
+package com.example.pokerbot.prompt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.model.GeminiContext;
+import com.example.pokerbot.model.PlayerStats;
+
+class PromptCompilerTest {
+    private static final String HERO = "Hero";
+
+    @Test
+    void listsEveryPlayerWithinTheBudget() {
+        GeminiContext ctx = context(3, 1, false);
+
+        PromptCompiler.Prompt prompt = new PromptCompiler(10_000).render(ctx);
+
+        assertThat(prompt.truncated()).isFalse();
+        assertThat(players(prompt)).isEqualTo("P0:1000/0 *Hero:1000/0 P2:1000/0");
+    }
+
+    @Test
+    void keepsOurOwnEntryWhenOpponentsBeforeUsAreLeftOut() {
+        GeminiContext ctx = context(9, 8, true);
+
+        PromptCompiler.Prompt prompt = new PromptCompiler(fullSize(ctx) - 100).render(ctx);
+
+        assertThat(prompt.truncated()).isTrue();
+        String players = players(prompt);
+        assertThat(players).contains("*Hero:1000/0");
+        assertThat(players).matches(".* \\+\\d+ more");
+        assertThat(players).endsWith("+" + (8 - opponentsListed(players)) + " more");
+    }
+
+    @Test
+    void countsOnlyTheOpponentsLeftOut() {
+        GeminiContext ctx = context(4, 0, true);
+
+        PromptCompiler.Prompt prompt = new PromptCompiler(fullSize(ctx) - 60).render(ctx);
+
+        String players = players(prompt);
+        assertThat(players).startsWith("*Hero:1000/0");
+        assertThat(players).endsWith("+" + (3 - opponentsListed(players)) + " more");
+    }
+
+    /** {@code seats} players, us at {@code heroSeat}, the others with long stats when {@code stats}. */
+    private static GeminiContext context(int seats, int heroSeat, boolean stats) {
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = HERO;
+        ctx.playerHand = List.of();
+        ctx.communityCards = List.of();
+        ctx.bettingRound = "pre-flop";
+        ctx.activePlayers = new ArrayList<>();
+        for (int i = 0; i < seats; i++) {
+            GeminiContext.PlayerInfo p = new GeminiContext.PlayerInfo();
+            p.name = i == heroSeat ? HERO : "P" + i;
+            p.chips = 1000;
+            if (stats && i != heroSeat) {
+                p.stats = new PlayerStats();
+                p.stats.summary = "n120 v35 p20 af2.1 f60";
+            }
+            ctx.activePlayers.add(p);
+        }
+        return ctx;
+    }
+
+    /** Size of the prompt with every player listed. */
+    private static int fullSize(GeminiContext ctx) {
+        return new PromptCompiler(10_000).render(ctx).bytes();
+    }
+
+    private static long opponentsListed(String players) {
+        return players.chars().filter(c -> c == ':').count() - 1;
+    }
+
+    private static String players(PromptCompiler.Prompt prompt) {
+        String body = prompt.body();
+        int start = body.indexOf("players=") + "players=".length();
+        return body.substring(start, body.indexOf("\\n", start));
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.pokerbot.sim;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.eval.Cards;
+
+/**
+ * {@link TableEngine} against the rules of the server's {@code TexasHoldemGame}, and the two
+ * places where it deliberately departs from them. Heads-up the dealer posts the big blind and
+ * the small blind acts first, as on the server.
+ */
+class TableEngineTest {
+    private final Events events = new Events();
+
+    @Test
+    void rejectsActionsWithTheServersErrorTexts() {
+        TableEngine table = table("A", "B");
+        TableEngine.Seat a = seat(table, "A");
+        TableEngine.Seat b = seat(table, "B");
+        assertThat(table.getCurrentPlayer()).isSameAs(b);
+
+        table.handlePlayerAction(a, "call", null);
+        table.handlePlayerAction(b, "check", null);
+        table.handlePlayerAction(b, "raise", null);
+        table.handlePlayerAction(b, "bet", 60);
+        table.handlePlayerAction(b, "raise", 30);
+        table.handlePlayerAction(b, "raise", 2000);
+
+        assertThat(events.errors).containsExactly(
+            "A: It is not your turn.",
+            "B: You cannot check. You must call 10 or raise.",
+            "B: Raise amount required.",
+            "B: Unknown action type.",
+            "B: Minimum raise to 40.",
+            "B: You do not have enough chips for that raise. Consider going all-in.");
+        // Nothing changed
+        assertThat(table.getPot()).isEqualTo(30);
+        assertThat(table.getCurrentPlayer()).isSameAs(b);
+
+        events.errors.clear();
+        table.handlePlayerAction(b, "call", null);
+        table.handlePlayerAction(a, "call", null);
+        assertThat(events.errors).containsExactly("A: No valid amount to call. Please use \"check\" if no bet is required.");
+    }
+
+    @Test
+    void readsAnAmountUpToTheCurrentBetAsRaiseBy() {
+        TableEngine table = table("A", "B");
+        TableEngine.Seat a = seat(table, "A");
+        TableEngine.Seat b = seat(table, "B");
+        table.handlePlayerAction(b, "call", null);
+
+        // Above the 20 already in: a total of 25, below the minimum
+        table.handlePlayerAction(a, "raise", 25);
+        assertThat(events.errors).containsExactly("A: Minimum raise to 40.");
+
+        // Not above the 20 already in: raise by 20, to 40
+        table.handlePlayerAction(a, "raise", 20);
+        assertThat(a.getCurrentBet()).isEqualTo(40);
+        assertThat(a.getChips()).isEqualTo(960);
+        assertThat(table.getMinimumBetForCall()).isEqualTo(40);
+        assertThat(table.getPot()).isEqualTo(60);
+        assertThat(table.getCurrentPlayer()).isSameAs(b);
+    }
+
+    @Test
+    void raisesAtLeastTheLastRaiseOverTheBetToCall() {
+        TableEngine table = table("A", "B");
+        TableEngine.Seat a = seat(table, "A");
+        TableEngine.Seat b = seat(table, "B");
+
+        table.handlePlayerAction(b, "raise", 40);
+        // The server takes the chips the raiser put in, 30, as the last raise
+        assertThat(table.getMinimumRaiseAmount()).isEqualTo(30);
+        assertThat(table.getMessage()).isEqualTo("It's A's turn. Bet to call: 20. You can check if false. Minimum raise is 70.");
+
+        table.handlePlayerAction(a, "raise", 69);
+        assertThat(events.errors).containsExactly("A: Minimum raise to 70.");
+        table.handlePlayerAction(a, "raise", 70);
+        assertThat(a.getCurrentBet()).isEqualTo(70);
+        assertThat(table.getMinimumBetForCall()).isEqualTo(70);
+        assertThat(table.getMinimumRaiseAmount()).isEqualTo(50);
+    }
+
+    @Test
+    void acceptsAShortAllInRaiseAndRunsTheBoardOut() {
+        TableEngine table = new TableEngine(events, new SplittableRandom(1));
+        TableEngine.Seat a = table.addPlayer("A", false, null);
+        TableEngine.Seat b = table.addPlayer("B", false, null);
+        table.stackDeck(cards("AS AH 7C 2D KD 9S 5C 4H 3S"));
+        table.checkAndStartGame();
+
+        table.handlePlayerAction(b, "raise", 600);
+        // A minimum raise would be to 600 + 590; all-in for less is allowed
+        table.handlePlayerAction(a, "raise", 1000);
+        assertThat(events.errors).isEmpty();
+        assertThat(a.getStatus()).isEqualTo(TableEngine.Status.ALL_IN);
+        assertThat(a.getCurrentBet()).isEqualTo(1000);
+        assertThat(table.getPot()).isEqualTo(1600);
+        assertThat(table.getMessage()).isEqualTo("It's B's turn. Bet to call: 400. You can check if false. Minimum raise is 1980.");
+        table.handlePlayerAction(b, "call", null);
+        assertThat(b.getStatus()).isEqualTo(TableEngine.Status.ALL_IN);
+
+        // Departure: the server ends the hand here without paying; the engine runs it out
+        assertThat(table.getBoard()).hasSize(5);
+        assertThat(table.getPhase()).isEqualTo(TableEngine.Phase.SHOWDOWN);
+        assertThat(table.getMessage()).isEqualTo("A win the pot of 2000 chips with a Pair! Each gets 2000.");
+        assertThat(a.getChips()).isEqualTo(2000);
+        assertThat(b.getChips()).isZero();
+
+        events.runPending();
+        assertThat(table.getHandsCompleted()).isEqualTo(1);
+        assertThat(b.getStatus()).isEqualTo(TableEngine.Status.SITTING_OUT);
+    }
+
+    @Test
+    void dealsInAPlayerPutAllInByTheBlind() {
+        TableEngine table = new TableEngine(events, new SplittableRandom(1));
+        TableEngine.Seat a = table.addPlayer("A", false, null);
+        TableEngine.Seat b = table.addPlayer("B", false, null);
+        table.addChips(a, 15 - TableEngine.STARTING_CHIPS);
+        table.stackDeck(cards("AS AH 7C 2D KD 9S 5C 4H 3S"));
+        table.checkAndStartGame();
+
+        // Departure: the server deals only to active players, so A's blind would be lost
+        assertThat(a.isDealt()).isTrue();
+        assertThat(a.getStatus()).isEqualTo(TableEngine.Status.ALL_IN);
+        assertThat(table.getCurrentPlayer()).isSameAs(b);
+
+        table.handlePlayerAction(b, "call", null);
+        // B still has chips, so B is asked on every street
+        for (TableEngine.Phase street : new TableEngine.Phase[] {TableEngine.Phase.FLOP, TableEngine.Phase.TURN, TableEngine.Phase.RIVER}) {
+            assertThat(table.getPhase()).isEqualTo(street);
+            table.handlePlayerAction(b, "check", null);
+        }
+
+        assertThat(events.errors).isEmpty();
+        assertThat(table.getPhase()).isEqualTo(TableEngine.Phase.SHOWDOWN);
+        assertThat(a.getChips()).isEqualTo(35);
+        assertThat(b.getChips()).isEqualTo(980);
+    }
+
+    @Test
+    void givesTheOddChipOfASplitToTheLowestSeat() {
+        TableEngine table = new TableEngine(events, new SplittableRandom(1));
+        TableEngine.Seat a = table.addPlayer("A", false, null);
+        TableEngine.Seat b = table.addPlayer("B", false, null);
+        TableEngine.Seat c = table.addPlayer("C", false, null);
+        table.addChips(b, 5);
+        table.stackDeck(cards("8C 9D 2C 3D 4C 5D AS KS QS JS TS"));
+        table.checkAndStartGame();
+        assertThat(a.isDealer()).isTrue();
+
+        table.handlePlayerAction(a, "fold", null);
+        table.handlePlayerAction(b, "raise", 1005);
+        table.handlePlayerAction(c, "call", null);
+
+        // The royal flush on the board splits 2005 between B and C
+        assertThat(events.errors).isEmpty();
+        assertThat(table.getMessage())
+            .isEqualTo("B and C win the pot of 2005 chips with a Royal Flush! Each gets 1002 (dealer gets +1).");
+        assertThat(a.getChips()).isEqualTo(1000);
+        assertThat(b.getChips()).isEqualTo(1003);
+        assertThat(c.getChips()).isEqualTo(1002);
+    }
+
+    @Test
+    void conservesChipsOverASeededSelfPlayRun() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<String> names = new ArrayList<>();
+        List<SimStrategy> strategies = new ArrayList<>();
+        for (String name : new String[] {"call", "random", "call", "random", "random", "call"}) {
+            names.add("P" + (names.size() + 1) + "-" + name);
+            strategies.add(name.equals("call") ? SimStrategies.callingStation() : SimStrategies.random(random.split()));
+        }
+        SelfPlay selfPlay = new SelfPlay(names, strategies, random.split());
+        long[] handsWithChipsMade = new long[1];
+        selfPlay.getTable().setRecorder(hand -> {
+            long net = 0;
+            for (int s = 0; s < hand.seats; s++) {
+                net += hand.net[s];
+            }
+            if (net != 0) handsWithChipsMade[0]++;
+        });
+
+        selfPlay.play(20_000);
+
+        assertThat(handsWithChipsMade[0]).isZero();
+        long chips = 0;
+        long bought = 0;
+        for (int seat = 0; seat < names.size(); seat++) {
+            chips += selfPlay.getTable().getPlayers().get(seat).getChips();
+            bought += (long) TableEngine.STARTING_CHIPS * (1 + selfPlay.getRebuys(seat));
+        }
+        assertThat(selfPlay.getTable().getPot()).isZero();
+        assertThat(chips).isEqualTo(bought);
+        assertThat(selfPlay.getTable().getHandsCompleted()).isEqualTo(20_000);
+    }
+
+    private TableEngine table(String... names) {
+        TableEngine table = new TableEngine(events, new SplittableRandom(1));
+        for (String name : names) {
+            table.addPlayer(name, false, null);
+        }
+        table.checkAndStartGame();
+        return table;
+    }
+
+    private static TableEngine.Seat seat(TableEngine table, String name) {
+        for (TableEngine.Seat seat : table.getPlayers()) {
+            if (seat.getName().equals(name)) return seat;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static int[] cards(String text) {
+        String[] parts = text.split(" ");
+        int[] cards = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            cards[i] = Cards.encode(parts[i]);
+        }
+        return cards;
+    }
+
+    /** Keeps the errors sent and runs the server's delayed transitions only when asked. */
+    private static final class Events implements TableEngine.Listener {
+        final List<String> errors = new ArrayList<>();
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+
+        @Override
+        public void onError(TableEngine.Seat seat, String text) {
+            errors.add(seat.getName() + ": " + text);
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            pending.addLast(task);
+        }
+
+        /** Runs the next delayed transition. */
+        void runPending() {
+            Runnable task = pending.pollFirst();
+            if (task != null) task.run();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.pokerbot.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.EquityResult;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.eval.Range;
+import com.example.pokerbot.eval.RangeEquity;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.PlayerStats;
+
+/** Which range {@link OpponentRanges} gives each opponent in a broadcast state. */
+class OpponentRangesTest {
+    private static final int[] NO_BOARD = new int[0];
+
+    private static int[] ranking;
+
+    private final OpponentStats opponentStats = mock(OpponentStats.class);
+    private OpponentRanges ranges;
+
+    @BeforeAll
+    static void loadRanking() throws IOException {
+        ranking = PreflopTable.mapResource().ranking();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RangeEquity rangeEquity = new RangeEquity(ForkJoinPool.commonPool(), new SplittableRandom(3), 2_000, 0);
+        ranges = new OpponentRanges(opponentStats, rangeEquity, ranking);
+    }
+
+    @Test
+    void usesRandomHandsUntilSomeOpponentHasStats() {
+        GameState state = state(20, player("hero", 0, "active"), player("a", 20, "active"), bigBlind(player("b", 20, "active")));
+        assertThat(ranges.ranges(NO_BOARD, state, "hero")).isNull();
+        assertThat(ranges.equity(cards("AS AH"), NO_BOARD, state, "hero")).isNull();
+
+        when(opponentStats.get("a")).thenReturn(stats(0.25, 0.1));
+        Range[] known = ranges.ranges(NO_BOARD, state, "hero");
+        assertThat(known).hasSize(2);
+        assertThat(known[0]).isSameAs(ranges.rangeOf(stats(0.25, 0.1), false));
+        // Still random for the player without stats
+        assertThat(totalWeight(known[1])).isEqualTo(Range.COMBOS);
+    }
+
+    @Test
+    void leavesOutUsAndThePlayersNotInTheHand() {
+        when(opponentStats.get("a")).thenReturn(stats(0.25, 0.1));
+        when(opponentStats.get("folded")).thenReturn(stats(0.5, 0.2));
+        GameState.Player spectator = player("watching", 0, "active");
+        spectator.isSpectator = true;
+        GameState state = state(20, player("hero", 0, "active"), player("folded", 0, "folded"), spectator,
+            player("a", 0, "all-in"));
+
+        Range[] known = ranges.ranges(NO_BOARD, state, "hero");
+
+        assertThat(known).containsExactly(ranges.rangeOf(stats(0.25, 0.1), false));
+    }
+
+    @Test
+    void givesTheLastRaiserTheirRaisingRange() {
+        PlayerStats raiser = stats(0.4, 0.15);
+        PlayerStats caller = stats(0.3, 0.05);
+        when(opponentStats.get("raiser")).thenReturn(raiser);
+        when(opponentStats.get("caller")).thenReturn(caller);
+        when(opponentStats.get("blind")).thenReturn(caller);
+
+        // Pre-flop a bet at the level counts only above the big blind
+        GameState opened = state(60, player("hero", 0, "active"), player("raiser", 60, "active"),
+            bigBlind(player("blind", 20, "active")));
+        assertThat(ranges.ranges(NO_BOARD, opened, "hero"))
+            .containsExactly(ranges.rangeOf(raiser, true), ranges.rangeOf(caller, false));
+        GameState limped = state(20, player("hero", 20, "active"), player("raiser", 20, "active"),
+            bigBlind(player("blind", 20, "active")));
+        assertThat(ranges.ranges(NO_BOARD, limped, "hero"))
+            .containsExactly(ranges.rangeOf(raiser, false), ranges.rangeOf(caller, false));
+
+        // After the flop any bet at the level is the raiser's
+        int[] flop = cards("2C 7D JH");
+        GameState bet = state(40, player("hero", 0, "active"), player("caller", 40, "active"),
+            bigBlind(player("raiser", 0, "active")));
+        assertThat(ranges.ranges(flop, bet, "hero"))
+            .containsExactly(ranges.rangeOf(caller, true), ranges.rangeOf(raiser, false));
+    }
+
+    @Test
+    void buildsARangeOfTheStatsShareOfCombos() {
+        Range vpip25 = ranges.rangeOf(stats(0.25, 0.1), false);
+        assertThat(totalWeight(vpip25)).isCloseTo(0.25 * Range.COMBOS, within(1.0));
+        assertThat(vpip25.weight(Range.index(Cards.encode("AS"), Cards.encode("AH")))).isEqualTo(1f);
+        assertThat(vpip25.weight(Range.index(Cards.encode("3S"), Cards.encode("2H")))).isZero();
+
+        // Shared per whole percent
+        assertThat(ranges.rangeOf(stats(0.251, 0.1), false)).isSameAs(vpip25);
+        assertThat(ranges.rangeOf(stats(0.5, 0.25), true)).isSameAs(vpip25);
+
+        // Never tighter than 3%, never wider than every hand
+        assertThat(totalWeight(ranges.rangeOf(stats(0, 0), false))).isCloseTo(0.03 * Range.COMBOS, within(1.0));
+        assertThat(totalWeight(ranges.rangeOf(stats(1, 1), true))).isEqualTo(Range.COMBOS);
+    }
+
+    @Test
+    void valuesOurHandAgainstTheRanges() {
+        int[] kings = cards("KS KH");
+        when(opponentStats.get("nit")).thenReturn(stats(0.03, 0.03));
+        GameState state = state(60, player("hero", 0, "active"), player("nit", 60, "active"),
+            bigBlind(player("blind", 20, "folded")));
+
+        EquityResult vsNit = ranges.equity(kings, NO_BOARD, state, "hero");
+
+        // The top 3% is the big pairs and ace-king; kings are well below their 82% against a random hand
+        assertThat(vsNit.equity).isBetween(0.5, 0.75);
+        when(opponentStats.get("nit")).thenReturn(stats(1, 1));
+        assertThat(ranges.equity(kings, NO_BOARD, state, "hero").equity).isGreaterThan(0.8);
+    }
+
+    private static double totalWeight(Range range) {
+        double total = 0;
+        for (int c = 0; c < Range.COMBOS; c++) {
+            total += range.weight(c);
+        }
+        return total;
+    }
+
+    private static PlayerStats stats(double vpip, double pfr) {
+        PlayerStats stats = new PlayerStats();
+        stats.hands = 100;
+        stats.vpip = vpip;
+        stats.pfr = pfr;
+        return stats;
+    }
+
+    private static GameState state(int level, GameState.Player... players) {
+        GameState state = new GameState();
+        state.players = List.of(players);
+        state.communityCards = new ArrayList<>();
+        state.minimumBetForCall = level;
+        return state;
+    }
+
+    private static GameState.Player player(String id, int bet, String status) {
+        GameState.Player p = new GameState.Player();
+        p.id = id;
+        p.name = id;
+        p.chips = 1000;
+        p.currentBet = bet;
+        p.status = status;
+        return p;
+    }
+
+    private static GameState.Player bigBlind(GameState.Player p) {
+        p.isBigBlind = true;
+        return p;
+    }
+
+    private static int[] cards(String text) {
+        String[] parts = text.split(" ");
+        int[] cards = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            cards[i] = Cards.encode(parts[i]);
+        }
+        return cards;
+    }
+}
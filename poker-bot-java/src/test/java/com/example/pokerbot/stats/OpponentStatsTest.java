@@ -0,0 +1,218 @@
+package com.example.pokerbot.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.history.HandRecord;
+import com.example.pokerbot.model.PlayerStats;
+
+/** Counters of {@link OpponentStats} over hand-built hands; seat 0 is the dealer, 1 and 2 the blinds. */
+class OpponentStatsTest {
+    private static final int A = 0;
+    private static final int B = 1;
+    private static final int C = 2;
+
+    private OpponentStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new OpponentStats();
+        ReflectionTestUtils.setField(stats, "minHands", 1);
+        ReflectionTestUtils.setField(stats, "snapshotPath", "");
+        stats.init();
+    }
+
+    @Test
+    void countsVpipAndPfrOncePerHand() {
+        // A opens, B three-bets, A calls, C folds its blind
+        HandRecord first = hand(1000, 1000, 1000);
+        first.addAction(A, HandRecord.RAISE, 60);
+        first.addAction(B, HandRecord.RAISE, 180);
+        first.addAction(C, HandRecord.FOLD, 0);
+        first.addAction(A, HandRecord.RAISE, 540);
+        first.addAction(B, HandRecord.CALL, 360);
+        stats.record(first);
+        // Everyone folds to the big blind, who only posted
+        HandRecord second = hand(1000, 1000, 990);
+        second.addAction(A, HandRecord.FOLD, 0);
+        second.addAction(B, HandRecord.FOLD, 0);
+        stats.record(second);
+
+        assertThat(stats.get("A").hands).isEqualTo(2);
+        assertThat(stats.get("A").vpip).isEqualTo(0.5);
+        assertThat(stats.get("A").pfr).isEqualTo(0.5);
+        assertThat(stats.get("B").vpip).isEqualTo(0.5);
+        assertThat(stats.get("B").pfr).isEqualTo(0.5);
+        assertThat(stats.get("C").vpip).isZero();
+        assertThat(stats.get("C").pfr).isZero();
+    }
+
+    @Test
+    void countsACallPreflopAsVpipOnly() {
+        HandRecord hand = hand(1000, 1000, 1000);
+        hand.addAction(A, HandRecord.CALL, 20);
+        hand.addAction(B, HandRecord.CALL, 10);
+        hand.addAction(C, HandRecord.CHECK, 0);
+        street(hand, "2C 7D JH");
+        hand.addAction(B, HandRecord.CHECK, 0);
+        hand.addAction(C, HandRecord.CHECK, 0);
+        hand.addAction(A, HandRecord.RAISE, 40);
+        hand.addAction(B, HandRecord.FOLD, 0);
+        hand.addAction(C, HandRecord.FOLD, 0);
+        stats.record(hand);
+
+        assertThat(stats.get("A").vpip).isEqualTo(1.0);
+        assertThat(stats.get("A").pfr).isZero();
+        assertThat(stats.get("B").vpip).isEqualTo(1.0);
+        // Checking the option is not voluntary
+        assertThat(stats.get("C").vpip).isZero();
+        assertThat(stats.get("A").aggression).isEqualTo(1.0);
+    }
+
+    @Test
+    void countsABetFacedOncePerStreet() {
+        HandRecord hand = hand(1000, 1000, 1000);
+        hand.addAction(A, HandRecord.CALL, 20);
+        hand.addAction(B, HandRecord.FOLD, 0);
+        hand.addAction(C, HandRecord.CHECK, 0);
+        street(hand, "2C 7D JH");
+        // C bets, A raises, C re-raises: A faces a bet twice on the flop and calls
+        hand.addAction(C, HandRecord.RAISE, 40);
+        hand.addAction(A, HandRecord.RAISE, 120);
+        hand.addAction(C, HandRecord.RAISE, 360);
+        hand.addAction(A, HandRecord.CALL, 240);
+        street(hand, "QS");
+        // On the turn C bets, A raises and folds to the re-raise
+        hand.addAction(C, HandRecord.RAISE, 100);
+        hand.addAction(A, HandRecord.RAISE, 300);
+        hand.addAction(C, HandRecord.RAISE, 600);
+        hand.addAction(A, HandRecord.FOLD, 0);
+        stats.record(hand);
+
+        PlayerStats a = stats.get("A");
+        assertThat(a.foldToBetChances).isEqualTo(2);
+        assertThat(a.foldToBet).isEqualTo(0.5);
+        // C faced A's raises on both streets and never folded
+        assertThat(stats.get("C").foldToBetChances).isEqualTo(2);
+        assertThat(stats.get("C").foldToBet).isZero();
+        // B folded pre-flop, which is not a post-flop bet
+        assertThat(stats.get("B").foldToBetChances).isZero();
+    }
+
+    @Test
+    void countsShowdownsOfTheHandsThatSawTheFlop() {
+        // A and B see a showdown, which B wins; C folds on the flop
+        HandRecord showdown = hand(1000, 1000, 1000);
+        showdown.addAction(A, HandRecord.CALL, 20);
+        showdown.addAction(B, HandRecord.CALL, 10);
+        showdown.addAction(C, HandRecord.CHECK, 0);
+        street(showdown, "2C 7D JH");
+        showdown.addAction(B, HandRecord.RAISE, 20);
+        showdown.addAction(C, HandRecord.FOLD, 0);
+        showdown.addAction(A, HandRecord.CALL, 20);
+        street(showdown, "QS");
+        showdown.addAction(B, HandRecord.CHECK, 0);
+        showdown.addAction(A, HandRecord.CHECK, 0);
+        street(showdown, "3H");
+        showdown.addAction(B, HandRecord.CHECK, 0);
+        showdown.addAction(A, HandRecord.CHECK, 0);
+        showdown.net[A] = -40;
+        showdown.net[B] = 60;
+        showdown.net[C] = -20;
+        stats.record(showdown);
+        // A wins on the flop without a showdown
+        HandRecord noShowdown = hand(960, 1060, 980);
+        noShowdown.addAction(A, HandRecord.CALL, 20);
+        noShowdown.addAction(B, HandRecord.CALL, 10);
+        noShowdown.addAction(C, HandRecord.CHECK, 0);
+        street(noShowdown, "5C 8D KH");
+        noShowdown.addAction(B, HandRecord.CHECK, 0);
+        noShowdown.addAction(C, HandRecord.CHECK, 0);
+        noShowdown.addAction(A, HandRecord.RAISE, 40);
+        noShowdown.addAction(B, HandRecord.FOLD, 0);
+        noShowdown.addAction(C, HandRecord.FOLD, 0);
+        noShowdown.net[A] = 40;
+        noShowdown.net[B] = -20;
+        noShowdown.net[C] = -20;
+        stats.record(noShowdown);
+
+        assertThat(stats.get("A").wentToShowdown).isEqualTo(0.5);
+        assertThat(stats.get("A").wonAtShowdown).isZero();
+        assertThat(stats.get("B").wentToShowdown).isEqualTo(0.5);
+        assertThat(stats.get("B").wonAtShowdown).isEqualTo(1.0);
+        assertThat(stats.get("C").wentToShowdown).isZero();
+        assertThat(stats.get("C").wonAtShowdown).isZero();
+    }
+
+    @Test
+    void countsAHandSeenByTwoSessionsOnce() {
+        HandRecord seenByA = hand(1000, 1000, 1000);
+        seenByA.flags[A] |= HandRecord.HERO;
+        seenByA.addAction(A, HandRecord.RAISE, 60);
+        seenByA.addAction(B, HandRecord.FOLD, 0);
+        seenByA.addAction(C, HandRecord.FOLD, 0);
+        HandRecord seenByB = hand(1000, 1000, 1000);
+        seenByB.flags[B] |= HandRecord.HERO;
+        seenByB.addAction(A, HandRecord.RAISE, 60);
+        seenByB.addAction(B, HandRecord.FOLD, 0);
+        seenByB.addAction(C, HandRecord.FOLD, 0);
+
+        stats.record(seenByA);
+        stats.record(seenByB);
+
+        assertThat(stats.get("A").hands).isEqualTo(1);
+        assertThat(stats.get("A").pfr).isEqualTo(1.0);
+        assertThat(stats.get("B").hands).isEqualTo(1);
+
+        // The next hand at the table starts from other stacks, so it counts
+        HandRecord next = hand(1030, 990, 980);
+        next.addAction(A, HandRecord.FOLD, 0);
+        next.addAction(B, HandRecord.FOLD, 0);
+        stats.record(next);
+
+        assertThat(stats.get("A").hands).isEqualTo(2);
+        assertThat(stats.get("A").pfr).isEqualTo(0.5);
+    }
+
+    @Test
+    void publishesOnlyPlayersWithTheMinimumHands() {
+        ReflectionTestUtils.setField(stats, "minHands", 2);
+        HandRecord hand = hand(1000, 1000, 1000);
+        hand.addAction(A, HandRecord.FOLD, 0);
+        hand.addAction(B, HandRecord.FOLD, 0);
+        stats.record(hand);
+
+        assertThat(stats.get("A")).isNull();
+        assertThat(stats.size()).isEqualTo(3);
+
+        HandRecord next = hand(1000, 990, 1010);
+        next.addAction(A, HandRecord.FOLD, 0);
+        next.addAction(B, HandRecord.FOLD, 0);
+        stats.record(next);
+
+        assertThat(stats.get("A").hands).isEqualTo(2);
+        assertThat(stats.get("A").summary).isEqualTo("n2 v0 p0 af0.0 f0");
+    }
+
+    /** Players A (dealer), B and C (blinds) with these starting stacks, blinds posted. */
+    private static HandRecord hand(int a, int b, int c) {
+        HandRecord hand = new HandRecord();
+        hand.addSeat("A", a, HandRecord.DEALER);
+        hand.addSeat("B", b, HandRecord.SMALL_BLIND);
+        hand.addSeat("C", c, HandRecord.BIG_BLIND);
+        hand.addAction(B, HandRecord.POST, 10);
+        hand.addAction(C, HandRecord.POST, 20);
+        return hand;
+    }
+
+    private static void street(HandRecord hand, String cards) {
+        hand.addAction(0, HandRecord.STREET, 0);
+        for (String card : cards.split(" ")) {
+            hand.addBoardCard(Cards.encode(card));
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.pokerbot.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.pokerbot.blueprint.BlueprintAbstraction;
+import com.example.pokerbot.blueprint.BlueprintTable;
+import com.example.pokerbot.eval.Cards;
+import com.example.pokerbot.eval.PreflopTable;
+import com.example.pokerbot.model.GameState;
+import com.example.pokerbot.model.GeminiAction;
+
+/**
+ * {@link BlueprintStrategy} and the {@link BlueprintAbstraction} it looks spots up by, on
+ * synthetic tables written the way {@link com.example.pokerbot.blueprint.BlueprintTrainer} lays them out.
+ */
+class BlueprintStrategyTest {
+    private static final int MAGIC = 0x504B4250; // "PKBP"
+    private static final int HEADER_BYTES = 16;
+    private static final int TABLE_BYTES = HEADER_BYTES + BlueprintAbstraction.INFO_SETS * BlueprintAbstraction.ACTIONS * 2;
+
+    private static final long ACES = Cards.mask(Cards.encode("AS"), Cards.encode("AH"));
+    private static final long TREY_DEUCE = Cards.mask(Cards.encode("3S"), Cards.encode("2H"));
+    private static final String FLOP = "2C 7D JH";
+
+    private static BlueprintAbstraction abstraction;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void loadAbstraction() throws IOException {
+        abstraction = new BlueprintAbstraction(PreflopTable.mapResource());
+    }
+
+    @Test
+    void packsEveryInformationSetIntoItsOwnIndex() {
+        BitSet seen = new BitSet(BlueprintAbstraction.INFO_SETS);
+        int previous = -1;
+        for (int street = 0; street < BlueprintAbstraction.STREETS; street++) {
+            for (int hand = 0; hand < BlueprintAbstraction.HAND_BUCKETS; hand++) {
+                for (int sequence = 0; sequence < BlueprintAbstraction.SEQUENCES; sequence++) {
+                    for (int depth = 0; depth < BlueprintAbstraction.DEPTHS; depth++) {
+                        int infoSet = BlueprintAbstraction.infoSet(street, hand, sequence, depth);
+                        // The table is laid out in this order, so the indexes run without gaps
+                        assertThat(infoSet).isEqualTo(previous + 1);
+                        seen.set(infoSet);
+                        previous = infoSet;
+                    }
+                }
+            }
+        }
+        assertThat(seen.cardinality()).isEqualTo(BlueprintAbstraction.INFO_SETS);
+        assertThat(BlueprintAbstraction.street(0)).isZero();
+        assertThat(BlueprintAbstraction.street(3)).isEqualTo(1);
+        assertThat(BlueprintAbstraction.street(5)).isEqualTo(3);
+    }
+
+    @Test
+    void bucketsTheBettingSequenceAndStackDepth() {
+        // Pre-flop, the big blind is the baseline
+        assertThat(BlueprintAbstraction.sequence(20, 20, 20, true)).isEqualTo(1); // the big blind's option
+        assertThat(BlueprintAbstraction.sequence(20, 20, 0, false)).isEqualTo(2); // facing the blind
+        assertThat(BlueprintAbstraction.sequence(60, 20, 0, false)).isEqualTo(6); // facing an open
+        assertThat(BlueprintAbstraction.sequence(60, 20, 60, false)).isEqualTo(8); // our open, called
+        assertThat(BlueprintAbstraction.sequence(180, 20, 60, true)).isEqualTo(11); // a raise over ours
+        // After the flop nothing is owed until someone bets
+        assertThat(BlueprintAbstraction.sequence(0, 0, 0, false)).isZero();
+        assertThat(BlueprintAbstraction.sequence(50, 0, 0, true)).isEqualTo(7);
+
+        assertThat(BlueprintAbstraction.depth(99, 100)).isZero();
+        assertThat(BlueprintAbstraction.depth(100, 100)).isEqualTo(1);
+        assertThat(BlueprintAbstraction.depth(300, 100)).isEqualTo(2);
+        assertThat(BlueprintAbstraction.depth(799, 100)).isEqualTo(2);
+        assertThat(BlueprintAbstraction.depth(800, 100)).isEqualTo(3);
+        assertThat(BlueprintAbstraction.depth(2500, 100)).isEqualTo(4);
+        assertThat(BlueprintAbstraction.depth(10, 0)).isEqualTo(4);
+    }
+
+    @Test
+    void seesABroadcastStateAsTheSpotItWasTrainedOn() {
+        assertThat(abstraction.handBucket(ACES, 0)).isEqualTo(BlueprintAbstraction.HAND_BUCKETS - 1);
+        assertThat(abstraction.handBucket(TREY_DEUCE, 0)).isZero();
+
+        // Dealer first to act pre-flop at a table of three, facing the blind; stacks of 1000 over a pot of 50
+        GameState preflop = state("", 30, 20, 20,
+            player("hero", 1000, 0, true, false), player("sb", 990, 10, false, false), player("bb", 980, 20, false, true));
+        assertThat(abstraction.infoSet(preflop, "hero", ACES))
+            .isEqualTo(BlueprintAbstraction.infoSet(0, BlueprintAbstraction.HAND_BUCKETS - 1, 2, 3));
+        // The big blind closes the pre-flop action, with nothing to call: 980 behind over 30
+        assertThat(abstraction.infoSet(preflop, "bb", TREY_DEUCE))
+            .isEqualTo(BlueprintAbstraction.infoSet(0, 0, 1, 4));
+
+        // After the flop the dealer acts last; the short stack sets the depth: 200 behind over a pot of 100
+        GameState flop = state(FLOP, 100, 0, 20,
+            player("hero", 1000, 0, true, false), player("sb", 200, 0, false, false), player("bb", 5000, 0, false, true));
+        long board = Cards.mask(Cards.encode("2C"), Cards.encode("7D"), Cards.encode("JH"));
+        int bucket = abstraction.handBucket(ACES, board);
+        assertThat(bucket).isEqualTo(BlueprintAbstraction.HAND_BUCKETS - 1);
+        assertThat(abstraction.infoSet(flop, "hero", ACES)).isEqualTo(BlueprintAbstraction.infoSet(1, bucket, 1, 1));
+
+        assertThat(abstraction.infoSet(flop, "stranger", ACES)).isEqualTo(-1);
+    }
+
+    @Test
+    void readsTheCellOfTheSpot() throws IOException {
+        GameState preflop = state("", 30, 20, 20,
+            player("hero", 1000, 0, true, false), player("sb", 990, 10, false, false), player("bb", 980, 20, false, true));
+        int spot = abstraction.infoSet(preflop, "hero", ACES);
+        // Every cell calls except the spot's, which folds
+        ByteBuffer buffer = header();
+        for (int infoSet = 0; infoSet < BlueprintAbstraction.INFO_SETS; infoSet++) {
+            putFrequencies(buffer, infoSet, infoSet == spot ? new double[] {1, 0, 0, 0, 0} : new double[] {0, 1, 0, 0, 0});
+        }
+        BlueprintStrategy strategy = new BlueprintStrategy(abstraction, BlueprintTable.map(write(buffer)));
+
+        assertThat(strategy.decide(preflop, "hero", ACES, 0.5).actionType).isEqualTo("fold");
+        assertThat(strategy.decide(preflop, "hero", TREY_DEUCE, 0.5).actionType).isEqualTo("call");
+        assertThat(strategy.decide(preflop, "stranger", ACES, 0.5)).isNull();
+    }
+
+    @Test
+    void rejectsAForeignOrTruncatedTable() throws IOException {
+        ByteBuffer foreign = header();
+        foreign.putInt(0, 0x12345678);
+        assertRejected(foreign, "Not a blueprint table");
+
+        ByteBuffer newer = header();
+        newer.putShort(4, (short) 2);
+        assertRejected(newer, "Not a blueprint table");
+
+        ByteBuffer otherAbstraction = header();
+        otherAbstraction.putShort(8, (short) (BlueprintAbstraction.HAND_BUCKETS * 2));
+        assertRejected(otherAbstraction, "Blueprint table was built for another abstraction");
+
+        ByteBuffer truncated = ByteBuffer.allocate(TABLE_BYTES - 2);
+        truncated.put(header().array(), 0, TABLE_BYTES - 2);
+        assertRejected(truncated, "Truncated blueprint table");
+
+        // The bundled table passes the same checks
+        BlueprintTable.mapResource();
+    }
+
+    @Test
+    void neverFoldsWhenThereIsNothingToCall() throws IOException {
+        BlueprintStrategy folding = strategy(1, 0, 0, 0, 0);
+        BlueprintStrategy mixed = strategy(0.5, 0.5, 0, 0, 0);
+        GameState checkedTo = flop(100, 0, 20, 1000, 0);
+
+        for (double roll = 0; roll < 1; roll += 0.125) {
+            assertThat(folding.decide(checkedTo, "hero", ACES, roll).actionType).isEqualTo("check");
+            assertThat(mixed.decide(checkedTo, "hero", ACES, roll).actionType).isEqualTo("check");
+        }
+        // Facing a bet the fold is kept
+        GameState facingBet = flop(150, 50, 50, 1000, 0);
+        assertThat(folding.decide(facingBet, "hero", ACES, 0.5).actionType).isEqualTo("fold");
+        assertThat(mixed.decide(facingBet, "hero", ACES, 0.25).actionType).isEqualTo("fold");
+        assertThat(mixed.decide(facingBet, "hero", ACES, 0.75).actionType).isEqualTo("call");
+    }
+
+    @Test
+    void neverRaisesWithoutChipsBeyondTheCall() throws IOException {
+        BlueprintStrategy raising = strategy(0, 0, 0.3, 0.3, 0.4);
+        BlueprintStrategy foldOrRaise = strategy(0.2, 0, 0, 0, 0.8);
+
+        for (int chips : new int[] {40, 50}) {
+            GameState shortStacked = flop(150, 50, 50, chips, 0);
+            for (double roll = 0; roll < 1; roll += 0.125) {
+                // Only raises were trained: calling is the fallback
+                assertThat(raising.decide(shortStacked, "hero", ACES, roll).actionType).isEqualTo("call");
+                assertThat(foldOrRaise.decide(shortStacked, "hero", ACES, roll).actionType).isEqualTo("fold");
+            }
+        }
+        assertThat(raising.decide(flop(150, 50, 50, 51, 0), "hero", ACES, 0.5).actionType).isEqualTo("raise");
+    }
+
+    @Test
+    void sizesRaisesOnThePotAfterCalling() throws IOException {
+        BlueprintStrategy half = strategy(0, 0, 1, 0, 0);
+        BlueprintStrategy pot = strategy(0, 0, 0, 1, 0);
+        BlueprintStrategy allIn = strategy(0, 0, 0, 0, 1);
+
+        // Checked to us: the pot is 100
+        assertRaise(half.decide(flop(100, 0, 20, 1000, 0), "hero", ACES, 0.5), 50);
+        assertRaise(pot.decide(flop(100, 0, 20, 1000, 0), "hero", ACES, 0.5), 100);
+        // Facing 50 into 100: the pot after calling is 200, raised over the bet of 50
+        assertRaise(half.decide(flop(150, 50, 50, 1000, 0), "hero", ACES, 0.5), 150);
+        assertRaise(pot.decide(flop(150, 50, 50, 1000, 0), "hero", ACES, 0.5), 250);
+        // With 20 of ours in already the call is 30, the pot after it 180
+        assertRaise(half.decide(flop(150, 50, 30, 1000, 20), "hero", ACES, 0.5), 140);
+        // All-in is everything we have, including what is in front of us
+        assertRaise(allIn.decide(flop(150, 50, 50, 1000, 20), "hero", ACES, 0.5), 1020);
+    }
+
+    @Test
+    void keepsRaisesBetweenTheMinimumRaiseAndAllIn() throws IOException {
+        BlueprintStrategy half = strategy(0, 0, 1, 0, 0);
+        BlueprintStrategy pot = strategy(0, 0, 0, 1, 0);
+
+        // Half the pot, 50, is below the minimum raise of 80
+        assertRaise(half.decide(flop(100, 0, 80, 1000, 0), "hero", ACES, 0.5), 80);
+        assertRaise(half.decide(flop(150, 50, 120, 1000, 0), "hero", ACES, 0.5), 170);
+        // The pot, 400, is more than our 120
+        assertRaise(pot.decide(flop(400, 0, 20, 120, 0), "hero", ACES, 0.5), 120);
+        // Half the pot after calling takes the bet to 140, more than our 90: all-in for less
+        assertRaise(half.decide(flop(150, 50, 50, 70, 20), "hero", ACES, 0.5), 90);
+
+        for (int pots = 10; pots <= 2000; pots *= 3) {
+            for (int chips : new int[] {60, 200, 1000, 5000}) {
+                GameState state = flop(pots + 40, 40, 40, chips, 0);
+                for (BlueprintStrategy strategy : new BlueprintStrategy[] {half, pot}) {
+                    GeminiAction action = strategy.decide(state, "hero", ACES, 0.5);
+                    int allInTotal = chips;
+                    assertThat(action.amount).isLessThanOrEqualTo(allInTotal);
+                    if (allInTotal >= 40 + 40) assertThat(action.amount).isGreaterThanOrEqualTo(40 + 40);
+                }
+            }
+        }
+    }
+
+    private void assertRejected(ByteBuffer buffer, String message) throws IOException {
+        Path file = write(buffer);
+        assertThatThrownBy(() -> BlueprintTable.map(file))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage(message);
+    }
+
+    private static void assertRaise(GeminiAction action, int total) {
+        assertThat(action.actionType).isEqualTo("raise");
+        assertThat(action.amount).isEqualTo(total);
+    }
+
+    /** A table that plays every spot with the same frequencies, one per action. */
+    private BlueprintStrategy strategy(double... frequencies) throws IOException {
+        ByteBuffer buffer = header();
+        for (int infoSet = 0; infoSet < BlueprintAbstraction.INFO_SETS; infoSet++) {
+            putFrequencies(buffer, infoSet, frequencies);
+        }
+        return new BlueprintStrategy(abstraction, BlueprintTable.map(write(buffer)));
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer buffer = ByteBuffer.allocate(TABLE_BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) 1);
+        buffer.putShort((short) BlueprintAbstraction.STREETS);
+        buffer.putShort((short) BlueprintAbstraction.HAND_BUCKETS);
+        buffer.putShort((short) BlueprintAbstraction.SEQUENCES);
+        buffer.putShort((short) BlueprintAbstraction.DEPTHS);
+        buffer.putShort((short) BlueprintAbstraction.ACTIONS);
+        return buffer;
+    }
+
+    private static void putFrequencies(ByteBuffer buffer, int infoSet, double[] frequencies) {
+        int offset = HEADER_BYTES + infoSet * BlueprintAbstraction.ACTIONS * 2;
+        for (int a = 0; a < BlueprintAbstraction.ACTIONS; a++) {
+            buffer.putShort(offset + 2 * a, (short) Math.round(frequencies[a] * 65535));
+        }
+    }
+
+    private Path write(ByteBuffer buffer) throws IOException {
+        Path file = Files.createTempFile(dir, "blueprint", ".bin");
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    /**
+     * Heads-up on the flop, the villain last to have bet {@code level}; we have {@code myBet} in
+     * and {@code chips} behind.
+     */
+    private static GameState flop(int pot, int level, int minimumRaise, int chips, int myBet) {
+        return state(FLOP, pot, level, minimumRaise,
+            player("hero", chips, myBet, true, false), player("villain", 5000, level, false, true));
+    }
+
+    private static GameState state(String board, int pot, int level, int minimumRaise, GameState.Player... players) {
+        GameState state = new GameState();
+        state.players = List.of(players);
+        state.communityCards = new ArrayList<>();
+        for (String card : board.isEmpty() ? new String[0] : board.split(" ")) {
+            state.communityCards.add(Cards.toCard(Cards.encode(card)));
+        }
+        state.pot = pot;
+        state.minimumBetForCall = level;
+        state.minimumRaiseAmount = minimumRaise;
+        return state;
+    }
+
+    private static GameState.Player player(String id, int chips, int bet, boolean dealer, boolean bigBlind) {
+        GameState.Player p = new GameState.Player();
+        p.id = id;
+        p.name = id;
+        p.chips = chips;
+        p.currentBet = bet;
+        p.status = "active";
+        p.isDealer = dealer;
+        p.isBigBlind = bigBlind;
+        return p;
+    }
+}
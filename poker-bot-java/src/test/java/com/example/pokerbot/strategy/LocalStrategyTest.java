@@ -0,0 +1,111 @@
+package com.example.pokerbot.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pokerbot.eval.EquityResult;
+import com.example.pokerbot.model.GeminiAction;
+import com.example.pokerbot.model.GeminiContext;
+
+/** The equity and pot-odds cut-offs of {@link LocalStrategy} and how much it raises. */
+class LocalStrategyTest {
+    private static final String HERO = "Hero";
+
+    private final LocalStrategy strategy = new LocalStrategy();
+
+    @Test
+    void raisesHeadsUpFromEightyPercentAndChecksBelow() {
+        // Nothing to call into a pot of 200
+        assertThat(decide(spot(0.8, 200, 0, 0, 1000, 1))).satisfies(action -> {
+            assertThat(action.actionType).isEqualTo("raise");
+            assertThat(action.amount).isEqualTo(100);
+        });
+        assertThat(decide(spot(0.79, 200, 0, 0, 1000, 1)).actionType).isEqualTo("check");
+        assertThat(decide(spot(0.0, 200, 0, 0, 1000, 1)).actionType).isEqualTo("check");
+    }
+
+    @Test
+    void lowersTheRaiseCutOffWithMoreOpponents() {
+        // 1.6 fair shares: 40% against three opponents
+        assertThat(decide(spot(0.4, 200, 0, 0, 1000, 3)).actionType).isEqualTo("raise");
+        assertThat(decide(spot(0.39, 200, 0, 0, 1000, 3)).actionType).isEqualTo("check");
+    }
+
+    @Test
+    void callsWithAtLeastThePotOddsAndFoldsBelow() {
+        // 50 to call into 150: a quarter of the pot after calling
+        assertThat(decide(spot(0.25, 150, 50, 0, 1000, 1)).actionType).isEqualTo("call");
+        assertThat(decide(spot(0.24, 150, 50, 0, 1000, 1)).actionType).isEqualTo("fold");
+        // Already 20 in: 30 to call into 150
+        assertThat(decide(spot(0.17, 150, 50, 20, 1000, 1)).actionType).isEqualTo("call");
+        assertThat(decide(spot(0.16, 150, 50, 20, 1000, 1)).actionType).isEqualTo("fold");
+    }
+
+    @Test
+    void assumesAFairShareWithoutEquity() {
+        GeminiContext ctx = spot(0, 100, 50, 0, 1000, 1);
+        ctx.equity = null;
+
+        // Half the pot against 50 / 150 to call
+        assertThat(decide(ctx).actionType).isEqualTo("call");
+    }
+
+    @Test
+    void raisesHalfThePotAboveTheBetAndAtLeastAMinimumRaise() {
+        // 40 to call into 300: raise by 150, to 190
+        assertThat(decide(spot(0.9, 300, 40, 0, 1000, 1)).amount).isEqualTo(190);
+        // Half of 60 is below the minimum raise of 40
+        GeminiContext small = spot(0.9, 60, 40, 0, 1000, 1);
+        small.minimumRaiseAmount = 40;
+        assertThat(decide(small).amount).isEqualTo(80);
+    }
+
+    @Test
+    void raisesAtMostAllIn() {
+        // Half the pot would be a raise to 540; 20 in and 300 behind
+        assertThat(decide(spot(0.9, 1000, 40, 20, 300, 1)).amount).isEqualTo(320);
+        assertThat(LocalStrategy.raiseTo(spot(0.9, 1000, 40, 20, 300, 1), HERO)).isEqualTo(320);
+        // Without us among the players nothing caps it
+        assertThat(LocalStrategy.raiseTo(spot(0.9, 1000, 40, 20, 300, 1), "Someone else")).isEqualTo(540);
+    }
+
+    @Test
+    void callsInsteadOfRaisingWhenTheCallTakesEveryChip() {
+        GeminiAction action = decide(spot(0.95, 300, 200, 0, 200, 1));
+
+        assertThat(action.actionType).isEqualTo("call");
+        assertThat(action.amount).isNull();
+    }
+
+    private GeminiAction decide(GeminiContext ctx) {
+        return strategy.decide(ctx, HERO);
+    }
+
+    /** Us with {@code bet} in and {@code chips} behind, facing a bet level of {@code level}. */
+    private static GeminiContext spot(double equity, int pot, int level, int bet, int chips, int opponents) {
+        GeminiContext ctx = new GeminiContext();
+        ctx.playerName = HERO;
+        ctx.equity = new EquityResult(equity, 0, equity, 1000, true);
+        ctx.pot = pot;
+        ctx.amountToCall = level;
+        ctx.minimumRaiseAmount = 20;
+        ctx.communityCards = new ArrayList<>();
+        ctx.activePlayers = new ArrayList<>();
+        ctx.activePlayers.add(player(HERO, chips, bet));
+        for (int i = 1; i <= opponents; i++) {
+            ctx.activePlayers.add(player("Villain " + i, 1000, level));
+        }
+        return ctx;
+    }
+
+    private static GeminiContext.PlayerInfo player(String name, int chips, int bet) {
+        GeminiContext.PlayerInfo p = new GeminiContext.PlayerInfo();
+        p.name = name;
+        p.chips = chips;
+        p.currentBet = bet;
+        return p;
+    }
+}